@@ -45,9 +45,12 @@ import twitter4j.api.StatusMethodsAsync;
 import twitter4j.api.TimelineMethodsAsync;
 import twitter4j.api.UserMethodsAsync;
 import twitter4j.conf.Configuration;
+import twitter4j.http.Authorization;
+import twitter4j.http.HttpClient;
 
 import java.io.File;
 import java.util.Date;
+import java.util.concurrent.RejectedExecutionException;
 import static twitter4j.TwitterMethod.*;
 
 /**
@@ -83,6 +86,21 @@ public class AsyncTwitter extends Twitter
         super(id, password);
     }
 
+    /**
+     * Creates an AsyncTwitter instance with the supplied configuration.<br>
+     * Instances whose configuration has the same async settings as the default configuration share its dispatcher, others get their own.
+     *
+     * @param conf configuration
+     * @since Twitter4J 2.1.0
+     */
+    public AsyncTwitter(Configuration conf) {
+        super(conf);
+    }
+
+    /*package*/ AsyncTwitter(Configuration conf, Authorization auth, HttpClient http, String screenName) {
+        super(conf, auth, http, screenName);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -1249,20 +1267,27 @@ public class AsyncTwitter extends Twitter
     }
 
     private static transient Dispatcher dispatcher;
+    private transient Dispatcher ownDispatcher;
     private boolean shutdown = false;
 
     /**
-     * Shuts down internal dispather thread.
+     * Shuts down internal dispather thread.<br>
+     * Calls already queued are still executed, calls made afterwards are rejected with TwitterListener.onException().
      *
      * @since Twitter4J 2.0.2
      */
     public void shutdown(){
         synchronized (AsyncTwitter.class) {
-            if (shutdown = true) {
+            if (shutdown) {
                 throw new IllegalStateException("Already shut down");
             }
-            getDispatcher().shutdown();
-            dispatcher = null;
+            if (null != ownDispatcher) {
+                ownDispatcher.shutdown();
+                ownDispatcher = null;
+            } else if (isSharingDispatcher() && null != dispatcher) {
+                dispatcher.shutdown();
+                dispatcher = null;
+            }
             shutdown = true;
         }
     }
@@ -1270,13 +1295,92 @@ public class AsyncTwitter extends Twitter
         if(true == shutdown){
             throw new IllegalStateException("Already shut down");
         }
-        if (null == dispatcher) {
-            dispatcher = new Dispatcher("Twitter4J Async Dispatcher", Configuration.getInstance().getAsyncNumThreads());
+        if (isSharingDispatcher()) {
+            return getSharedDispatcher();
+        }
+        synchronized (AsyncTwitter.class) {
+            if (null == ownDispatcher) {
+                ownDispatcher = Dispatcher.newInstance("Twitter4J Async Dispatcher", conf);
+            }
+            return ownDispatcher;
+        }
+    }
+
+    private boolean isSharingDispatcher() {
+        Configuration shared = Configuration.getInstance();
+        if (conf == shared) {
+            return true;
+        }
+        return conf.getAsyncNumThreads() == shared.getAsyncNumThreads()
+                && conf.isAsyncThreadPerTask() == shared.isAsyncThreadPerTask()
+                && conf.getAsyncThreadStackSize() == shared.getAsyncThreadStackSize()
+                && conf.getAsyncQueueCapacity() == shared.getAsyncQueueCapacity()
+                && conf.getAsyncRejectionPolicy().equals(shared.getAsyncRejectionPolicy());
+    }
+
+    /**
+     * Sets the number of calls a listener gets dispatched in a row before the next listener with calls of the same priority gets its turn.
+     *
+     * @param listener listener
+     * @param weight   weight, 1 or more. Defaults to 1
+     * @since Twitter4J 2.1.0
+     */
+    public static void setListenerWeight(TwitterListener listener, int weight) {
+        getSharedDispatcher().setWeight(listener, weight);
+    }
+
+    /**
+     * Limits the number of dispatcher threads running calls of the given priority at the same time.
+     *
+     * @param priority       priority
+     * @param maxConcurrency maximum number of threads, 0 for no limit
+     * @see twitter4j.TaskPriority#of(TwitterMethod)
+     * @since Twitter4J 2.1.0
+     */
+    public static void setMaxConcurrency(TaskPriority priority, int maxConcurrency) {
+        getSharedDispatcher().setMaxConcurrency(priority, maxConcurrency);
+    }
+
+    /**
+     * @param priority priority
+     * @return histogram of the time calls of the given priority waited for a dispatcher thread
+     * @since Twitter4J 2.1.0
+     */
+    public static LatencyHistogram getQueueWaitTime(TaskPriority priority) {
+        return getSharedDispatcher().getQueueWaitTime(priority);
+    }
+
+    /**
+     * @return number of calls waiting for a dispatcher thread
+     * @since Twitter4J 2.1.0
+     */
+    public static int getQueueSize() {
+        return getSharedDispatcher().getQueueSize();
+    }
+
+    /**
+     * @return number of calls rejected because the queue was full, or discarded to make room for more important ones
+     * @see twitter4j.conf.Configuration#getAsyncQueueCapacity()
+     * @see twitter4j.conf.Configuration#getAsyncRejectionPolicy()
+     * @since Twitter4J 2.1.0
+     */
+    public static long getRejectedCount() {
+        return getSharedDispatcher().getRejectedCount();
+    }
+
+    /**
+     * @return the dispatcher shared by AsyncTwitter and FutureTwitter instances
+     */
+    /*package*/ static Dispatcher getSharedDispatcher() {
+        synchronized (AsyncTwitter.class) {
+            if (null == dispatcher) {
+                dispatcher = Dispatcher.newInstance("Twitter4J Async Dispatcher", Configuration.getInstance());
+            }
+            return dispatcher;
         }
-        return dispatcher;
     }
 
-    abstract class AsyncTask implements Runnable {
+    abstract class AsyncTask implements Dispatcher.PrioritizedTask, Dispatcher.RejectableTask {
         TwitterListener listener;
         Object[] args;
         TwitterMethod method;
@@ -1286,6 +1390,20 @@ public class AsyncTwitter extends Twitter
             this.args = args;
         }
 
+        public TaskPriority getPriority() {
+            return TaskPriority.of(method);
+        }
+
+        public Object getTenant() {
+            return listener;
+        }
+
+        public void rejected(RejectedExecutionException ree) {
+            if (null != listener) {
+                listener.onException(new TwitterException(ree.getMessage(), ree), method);
+            }
+        }
+
         abstract void invoke(TwitterListener listener,Object[] args) throws TwitterException;
 
         public void run() {
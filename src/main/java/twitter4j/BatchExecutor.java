@@ -0,0 +1,400 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j;
+
+import twitter4j.api.BlockMethods;
+import twitter4j.api.FriendshipMethods;
+import twitter4j.api.ListMembersMethods;
+import twitter4j.api.StatusMethods;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Runs a batch of write operations, such as following or blocking thousands of users, with bounded concurrency.<br>
+ * Operations sharing the same target are run one after another in the order they were submitted, operations on different targets run in parallel.<br>
+ * Transient failures (network errors and 5xx responses) are retried with exponential backoff.
+ * When the rate limit is exceeded, or the remaining hits drop to the reserved count, all workers pause until it resets.<br>
+ * Requests are issued over HttpURLConnection, which keeps alive and reuses connections to the API server across the workers.
+ * <pre>
+ * BatchExecutor executor = new BatchExecutor(4);
+ * List&lt;BatchExecutor.Operation&gt; operations = new ArrayList&lt;BatchExecutor.Operation&gt;();
+ * for (int userId : userIds) {
+ *     operations.add(BatchExecutor.addUserListMember(twitter, listId, userId));
+ * }
+ * BatchExecutor.Report report = executor.execute(operations);
+ * </pre>
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.1.0
+ */
+public class BatchExecutor {
+    private final int maxRetries;
+    private final long initialBackoff;
+    private final RateLimitGate rateLimitGate;
+    private final Dispatcher dispatcher;
+    private static final Random RAND = new Random();
+
+    /**
+     * Creates an executor retrying transient failures up to 3 times starting with 1 second backoff, and keeping 10 hits reserved.
+     *
+     * @param concurrency number of operations run in parallel
+     */
+    public BatchExecutor(int concurrency) {
+        this(concurrency, 3, 1000, 10);
+    }
+
+    /**
+     * @param concurrency    number of operations run in parallel
+     * @param maxRetries     maximum number of retries per operation
+     * @param initialBackoff wait before the first retry in milliseconds, doubled on each retry
+     * @param reservedHits   number of API hits left untouched for the rest of the application
+     */
+    public BatchExecutor(int concurrency, int maxRetries, long initialBackoff, int reservedHits) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("concurrency should be positive integer. passed:" + concurrency);
+        }
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("maxRetries should not be negative. passed:" + maxRetries);
+        }
+        this.maxRetries = maxRetries;
+        this.initialBackoff = initialBackoff;
+        this.rateLimitGate = new RateLimitGate(reservedHits, 60);
+        this.dispatcher = new Dispatcher("Twitter4J Batch Executor", concurrency);
+    }
+
+    /**
+     * A single write operation.
+     */
+    public static abstract class Operation {
+        private final String target;
+
+        /**
+         * @param target key of the resource the operation modifies. operations with the same target are never run concurrently
+         */
+        protected Operation(String target) {
+            this.target = target;
+        }
+
+        public String getTarget() {
+            return target;
+        }
+
+        /**
+         * Performs the operation.
+         *
+         * @return the response
+         * @throws TwitterException when Twitter service or network is unavailable
+         */
+        public abstract TwitterResponse execute() throws TwitterException;
+
+        @Override
+        public String toString() {
+            return "Operation{target='" + target + "'}";
+        }
+    }
+
+    /**
+     * Outcome of a single operation.
+     */
+    public static final class Result {
+        private final Operation operation;
+        private final TwitterResponse response;
+        private final TwitterException exception;
+        private final int attempts;
+
+        Result(Operation operation, TwitterResponse response, TwitterException exception, int attempts) {
+            this.operation = operation;
+            this.response = response;
+            this.exception = exception;
+            this.attempts = attempts;
+        }
+
+        public Operation getOperation() {
+            return operation;
+        }
+
+        /**
+         * @return the response, or null if the operation failed
+         */
+        public TwitterResponse getResponse() {
+            return response;
+        }
+
+        /**
+         * @return the last exception, or null if the operation succeeded
+         */
+        public TwitterException getException() {
+            return exception;
+        }
+
+        /**
+         * @return number of times the operation has been tried
+         */
+        public int getAttempts() {
+            return attempts;
+        }
+
+        public boolean isSuccess() {
+            return null == exception;
+        }
+
+        @Override
+        public String toString() {
+            return "Result{" +
+                    "operation=" + operation +
+                    ", success=" + isSuccess() +
+                    ", attempts=" + attempts +
+                    ", exception=" + exception +
+                    '}';
+        }
+    }
+
+    /**
+     * Results of a batch, in the order the operations were submitted.
+     */
+    public static final class Report {
+        private final List<Result> results;
+
+        Report(List<Result> results) {
+            this.results = Collections.unmodifiableList(results);
+        }
+
+        public List<Result> getResults() {
+            return results;
+        }
+
+        public List<Result> getFailures() {
+            List<Result> failures = new ArrayList<Result>();
+            for (Result result : results) {
+                if (!result.isSuccess()) {
+                    failures.add(result);
+                }
+            }
+            return failures;
+        }
+
+        public int getSuccessCount() {
+            return results.size() - getFailures().size();
+        }
+
+        public int getFailureCount() {
+            return getFailures().size();
+        }
+
+        @Override
+        public String toString() {
+            return "Report{" +
+                    "operations=" + results.size() +
+                    ", failures=" + getFailureCount() +
+                    '}';
+        }
+    }
+
+    /**
+     * Runs the operations and waits for all of them to complete.
+     *
+     * @param operations operations to be run
+     * @return results in the order of the operations
+     * @throws InterruptedException when interrupted while waiting. operations already started keep running
+     */
+    public Report execute(List<? extends Operation> operations) throws InterruptedException {
+        final Result[] results = new Result[operations.size()];
+        // indexes of the operations, grouped by target in the submitted order
+        Map<String, List<Integer>> groups = new LinkedHashMap<String, List<Integer>>();
+        for (int i = 0; i < operations.size(); i++) {
+            String target = operations.get(i).getTarget();
+            List<Integer> group = groups.get(target);
+            if (null == group) {
+                group = new ArrayList<Integer>(1);
+                groups.put(target, group);
+            }
+            group.add(i);
+        }
+        final CountDownLatch latch = new CountDownLatch(groups.size());
+        final List<? extends Operation> ops = operations;
+        for (final List<Integer> group : groups.values()) {
+            dispatcher.invokeLater(new Runnable() {
+                public void run() {
+                    try {
+                        for (int index : group) {
+                            if (Thread.currentThread().isInterrupted()) {
+                                // interrupted, e.g. on shutdown: the rest of the group fails without being run
+                                results[index] = new Result(ops.get(index), null
+                                        , new TwitterException("Interrupted before the operation was run"), 0);
+                            } else {
+                                results[index] = runOperation(ops.get(index));
+                            }
+                        }
+                    } finally {
+                        latch.countDown();
+                    }
+                }
+            });
+        }
+        latch.await();
+        List<Result> list = new ArrayList<Result>(results.length);
+        for (Result result : results) {
+            list.add(result);
+        }
+        return new Report(list);
+    }
+
+    /**
+     * Stops the worker threads.
+     */
+    public void shutdown() {
+        dispatcher.shutdown();
+    }
+
+    private Result runOperation(Operation operation) {
+        TwitterException last = null;
+        int attempts = 0;
+        int retries = 0;
+        while (true) {
+            try {
+                rateLimitGate.await();
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                return new Result(operation, null, new TwitterException(ie.getMessage(), ie), attempts);
+            }
+            attempts++;
+            try {
+                TwitterResponse response = operation.execute();
+                if (null != response) {
+                    rateLimitGate.onResponse(response);
+                }
+                return new Result(operation, response, null, attempts);
+            } catch (TwitterException te) {
+                last = te;
+                if (rateLimitGate.onRateLimited(te)) {
+                    // waiting for the rate limit doesn't count as a retry, but gives up at some point
+                    if (attempts > maxRetries * 2 + 1) {
+                        break;
+                    }
+                    continue;
+                }
+                if (!isTransient(te) || retries == maxRetries) {
+                    break;
+                }
+                try {
+                    Thread.sleep(backoff(retries++));
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            } catch (RuntimeException re) {
+                last = new TwitterException(re.getMessage(), re);
+                break;
+            }
+        }
+        return new Result(operation, null, last, attempts);
+    }
+
+    /**
+     * @return true if the failure is likely to go away when retried
+     */
+    private static boolean isTransient(TwitterException te) {
+        int statusCode = te.getStatusCode();
+        // status code is not available for network errors
+        return statusCode <= 0 || statusCode >= 500;
+    }
+
+    private long backoff(int retry) {
+        long backoff = initialBackoff << Math.min(retry, 16);
+        // jitter so that the workers don't retry in lockstep
+        return backoff + (long) (RAND.nextDouble() * backoff / 2);
+    }
+
+    /*
+     * factory methods for common operations
+     */
+
+    public static Operation createFriendship(final FriendshipMethods twitter, final int userId) {
+        return new Operation("user:" + userId) {
+            public TwitterResponse execute() throws TwitterException {
+                return twitter.createFriendship(userId);
+            }
+        };
+    }
+
+    public static Operation destroyFriendship(final FriendshipMethods twitter, final int userId) {
+        return new Operation("user:" + userId) {
+            public TwitterResponse execute() throws TwitterException {
+                return twitter.destroyFriendship(userId);
+            }
+        };
+    }
+
+    public static Operation createBlock(final BlockMethods twitter, final int userId) {
+        return new Operation("user:" + userId) {
+            public TwitterResponse execute() throws TwitterException {
+                return twitter.createBlock(userId);
+            }
+        };
+    }
+
+    public static Operation destroyBlock(final BlockMethods twitter, final int userId) {
+        return new Operation("user:" + userId) {
+            public TwitterResponse execute() throws TwitterException {
+                return twitter.destroyBlock(userId);
+            }
+        };
+    }
+
+    public static Operation destroyStatus(final StatusMethods twitter, final long statusId) {
+        return new Operation("status:" + statusId) {
+            public TwitterResponse execute() throws TwitterException {
+                return twitter.destroyStatus(statusId);
+            }
+        };
+    }
+
+    /**
+     * Changes to the membership of the same user in the same list are run in order.
+     */
+    public static Operation addUserListMember(final ListMembersMethods twitter, final int listId, final int userId) {
+        return new Operation("list:" + listId + ":" + userId) {
+            public TwitterResponse execute() throws TwitterException {
+                return twitter.addUserListMember(listId, userId);
+            }
+        };
+    }
+
+    public static Operation deleteUserListMember(final ListMembersMethods twitter, final int listId, final int userId) {
+        return new Operation("list:" + listId + ":" + userId) {
+            public TwitterResponse execute() throws TwitterException {
+                return twitter.deleteUserListMember(listId, userId);
+            }
+        };
+    }
+}
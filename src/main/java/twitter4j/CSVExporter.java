@@ -0,0 +1,269 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URL;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes statuses, users and ids as CSV or TSV rows while the pages are being fetched.<br>
+ * Unlike twitter4j.org.json.CDL, which renders a whole JSONArray into a String, each page is written out as soon as it is passed in, so the memory used doesn't depend on the size of the export.<br>
+ * Fields containing the delimiter, double quotes or line breaks are quoted as RFC 4180 specifies. Dates are written in ISO 8601, in UTC.
+ * The header row is written before the first row. An exporter writes a single kind of record and is not thread safe.
+ * <pre>
+ * CSVExporter exporter = new CSVExporter(new FileOutputStream("followers.csv.gz"), CSVExporter.COMMA, true);
+ * long cursor = -1;
+ * IDs ids;
+ * do {
+ *     ids = twitter.getFollowersIDs("twitter4j", cursor);
+ *     exporter.writeIDs(ids);
+ *     cursor = ids.getNextCursor();
+ * } while (ids.hasNext());
+ * exporter.close();
+ * </pre>
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.1.0
+ */
+public class CSVExporter {
+    public static final char COMMA = ',';
+    public static final char TAB = '\t';
+
+    private static final String[] STATUS_COLUMNS = {"id", "created_at", "user_id", "screen_name", "text", "source"
+            , "truncated", "in_reply_to_status_id", "in_reply_to_user_id", "in_reply_to_screen_name", "favorited"
+            , "latitude", "longitude", "retweeted_status_id"};
+    private static final String[] USER_COLUMNS = {"id", "screen_name", "name", "location", "description", "url"
+            , "protected", "followers_count", "friends_count", "statuses_count", "favourites_count", "created_at"
+            , "utc_offset", "time_zone", "verified", "geo_enabled"};
+    private static final String[] ID_COLUMNS = {"id"};
+
+    private final Writer out;
+    private final char delimiter;
+    private final SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'", Locale.ENGLISH);
+    private String[] columns = null;
+    private int column = 0;
+    private long rowCount = 0;
+
+    /**
+     * @param out       destination
+     * @param delimiter COMMA for CSV, TAB for TSV
+     */
+    public CSVExporter(Writer out, char delimiter) {
+        if ('"' == delimiter || '\r' == delimiter || '\n' == delimiter) {
+            throw new IllegalArgumentException("delimiter cannot be a double quote or a line break.");
+        }
+        this.out = out instanceof BufferedWriter ? out : new BufferedWriter(out);
+        this.delimiter = delimiter;
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+    }
+
+    /**
+     * Writes UTF-8 encoded rows to the stream.
+     *
+     * @param os        destination
+     * @param delimiter COMMA for CSV, TAB for TSV
+     * @param gzip      true to gzip the output
+     * @throws IOException when the gzip header could not be written
+     */
+    public CSVExporter(OutputStream os, char delimiter, boolean gzip) throws IOException {
+        this(new OutputStreamWriter(gzip ? new GZIPOutputStream(os) : os, "UTF-8"), delimiter);
+    }
+
+    /**
+     * @param statuses a page of statuses
+     * @throws IOException when the rows could not be written
+     */
+    public void writeStatuses(List<Status> statuses) throws IOException {
+        start(STATUS_COLUMNS);
+        for (Status status : statuses) {
+            User user = status.getUser();
+            GeoLocation location = status.getGeoLocation();
+            Status retweeted = status.getRetweetedStatus();
+            field(status.getId());
+            field(status.getCreatedAt());
+            field(null == user ? null : String.valueOf(user.getId()));
+            field(null == user ? null : user.getScreenName());
+            field(status.getText());
+            field(status.getSource());
+            field(status.isTruncated());
+            field(status.getInReplyToStatusId());
+            field(status.getInReplyToUserId());
+            field(status.getInReplyToScreenName());
+            field(status.isFavorited());
+            field(null == location ? null : String.valueOf(location.getLatitude()));
+            field(null == location ? null : String.valueOf(location.getLongitude()));
+            field(null == retweeted ? null : String.valueOf(retweeted.getId()));
+            endRow();
+        }
+    }
+
+    /**
+     * @param users a page of users
+     * @throws IOException when the rows could not be written
+     */
+    public void writeUsers(List<User> users) throws IOException {
+        start(USER_COLUMNS);
+        for (User user : users) {
+            URL url = user.getURL();
+            field(user.getId());
+            field(user.getScreenName());
+            field(user.getName());
+            field(user.getLocation());
+            field(user.getDescription());
+            field(null == url ? null : url.toString());
+            field(user.isProtected());
+            field(user.getFollowersCount());
+            field(user.getFriendsCount());
+            field(user.getStatusesCount());
+            field(user.getFavouritesCount());
+            field(user.getCreatedAt());
+            field(user.getUtcOffset());
+            field(user.getTimeZone());
+            field(user.isVerified());
+            field(user.isGeoEnabled());
+            endRow();
+        }
+    }
+
+    /**
+     * @param ids a page of ids
+     * @throws IOException when the rows could not be written
+     */
+    public void writeIDs(IDs ids) throws IOException {
+        writeIDs(ids.getIDs());
+    }
+
+    /**
+     * @param ids ids
+     * @throws IOException when the rows could not be written
+     */
+    public void writeIDs(int[] ids) throws IOException {
+        start(ID_COLUMNS);
+        for (int id : ids) {
+            field(id);
+            endRow();
+        }
+    }
+
+    /**
+     * @return number of rows written, excluding the header
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Flushes the rows written so far to the underlying stream.
+     *
+     * @throws IOException when the rows could not be written
+     */
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Closes the exporter and the underlying stream, finishing the gzip stream if any.
+     *
+     * @throws IOException when the rows could not be written
+     */
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void start(String[] columns) throws IOException {
+        if (null == this.columns) {
+            this.columns = columns;
+            for (String name : columns) {
+                field(name);
+            }
+            out.write("\r\n");
+            column = 0;
+        } else if (this.columns != columns) {
+            throw new IllegalStateException("An exporter writes a single kind of record.");
+        }
+    }
+
+    private void field(long value) throws IOException {
+        field(String.valueOf(value));
+    }
+
+    private void field(boolean value) throws IOException {
+        field(String.valueOf(value));
+    }
+
+    private void field(Date value) throws IOException {
+        field(null == value ? null : format.format(value));
+    }
+
+    private void field(String value) throws IOException {
+        if (column++ > 0) {
+            out.write(delimiter);
+        }
+        if (null == value) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == delimiter || c == '"' || c == '\r' || c == '\n') {
+                quote = true;
+                break;
+            }
+        }
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        int start = 0;
+        int index;
+        while (-1 != (index = value.indexOf('"', start))) {
+            // doubles the quote
+            out.write(value, start, index - start + 1);
+            out.write('"');
+            start = index + 1;
+        }
+        out.write(value, start, value.length() - start);
+        out.write('"');
+    }
+
+    private void endRow() throws IOException {
+        out.write("\r\n");
+        column = 0;
+        rowCount++;
+    }
+}
@@ -0,0 +1,121 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j;
+
+/**
+ * Approximate counts of strings in fixed memory.<br>
+ * An estimate is never lower than the true count, and exceeds it by at most 2n/width with probability 1 - (1/2)^depth, n being the total count.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.1.0
+ */
+/*package*/ class CountMinSketch {
+    private final int depth;
+    private final int mask;
+    private final double[][] counts;
+    private double total = 0;
+
+    /**
+     * @param depth number of hash functions
+     * @param width counters per hash function, rounded up to a power of two
+     */
+    CountMinSketch(int depth, int width) {
+        if (depth <= 0 || width <= 0) {
+            throw new IllegalArgumentException("invalid dimensions: " + depth + "x" + width);
+        }
+        int size = Integer.highestOneBit(width);
+        if (size < width) {
+            size <<= 1;
+        }
+        this.depth = depth;
+        this.mask = size - 1;
+        this.counts = new double[depth][size];
+    }
+
+    void add(String item, double count) {
+        int h1 = item.hashCode();
+        int h2 = mix(h1);
+        for (int i = 0; i < depth; i++) {
+            counts[i][(h1 + i * h2) & mask] += count;
+        }
+        total += count;
+    }
+
+    double estimate(String item) {
+        int h1 = item.hashCode();
+        int h2 = mix(h1);
+        double min = Double.MAX_VALUE;
+        for (int i = 0; i < depth; i++) {
+            min = Math.min(min, counts[i][(h1 + i * h2) & mask]);
+        }
+        return min;
+    }
+
+    /**
+     * Adds the counts of a sketch of the same dimensions, multiplied by weight.
+     */
+    void merge(CountMinSketch that, double weight) {
+        for (int i = 0; i < depth; i++) {
+            double[] row = counts[i];
+            double[] thatRow = that.counts[i];
+            for (int j = 0; j < row.length; j++) {
+                row[j] += thatRow[j] * weight;
+            }
+        }
+        total += that.total * weight;
+    }
+
+    /**
+     * Multiplies all counts by factor.
+     */
+    void scale(double factor) {
+        for (double[] row : counts) {
+            for (int j = 0; j < row.length; j++) {
+                row[j] *= factor;
+            }
+        }
+        total *= factor;
+    }
+
+    void clear() {
+        scale(0);
+    }
+
+    double getTotal() {
+        return total;
+    }
+
+    private static int mix(int h) {
+        // murmur3 finalizer, made odd so that the probes of the rows differ
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h | 1;
+    }
+}
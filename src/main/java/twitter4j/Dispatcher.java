@@ -26,104 +26,588 @@ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 */
 package twitter4j;
 
+import twitter4j.conf.Configuration;
+
+import java.util.HashMap;
 import java.util.LinkedList;
-import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
+ * Runs tasks on a pool of threads.<br>
+ * Queued tasks are taken by priority, and within a priority in weighted round-robin across tenants (the TwitterListener of AsyncTwitter calls), so that a backlog of bulk crawls doesn't delay interactive calls and one tenant doesn't starve the others.<br>
+ * The queue can be bounded, in which case the rejection policy decides what happens to tasks submitted while it is full.
  *
  * @author Yusuke Yamamoto - yusuke at mac.com
  */
-/*package*/ class Dispatcher {
+/*package*/ class Dispatcher implements Executor {
+    /**
+     * Blocks the submitting thread until the queue has room.
+     */
+    static final int BLOCK = 0;
+    /**
+     * Rejects the submitted task.
+     */
+    static final int REJECT = 1;
+    /**
+     * Discards the oldest queued BULK task to make room, rejects the submitted task if there is none.
+     */
+    static final int SHED_OLDEST_BULK = 2;
+
+    private final String name;
     private ExecuteThread[] threads;
-    private List<Runnable> q = new LinkedList<Runnable> ();
+    private final Lane[] lanes;
+    private final Map<Object, Integer> weights = new WeakHashMap<Object, Integer>();
+    private static final Object NO_TENANT = new Object();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Condition terminated = lock.newCondition();
+    private final int capacity;
+    private final int rejectionPolicy;
+    private int size = 0;
+    private int maxSize = 0;
+    private long rejectedCount = 0;
+    private int liveThreads;
+    // shuts the dispatcher down on JVM exit, removed by shutdown() so that the JVM doesn't keep the dispatcher reachable
+    /*package*/ final Thread shutdownHook;
+
+    /**
+     * Implemented by tasks carrying their priority and the tenant they run on behalf of.
+     */
+    /*package*/ interface PrioritizedTask extends Runnable {
+        TaskPriority getPriority();
+
+        /**
+         * @return the tenant, or null
+         */
+        Object getTenant();
+    }
+
+    /**
+     * Implemented by tasks which want to be notified rather than silently dropped when rejected.
+     */
+    /*package*/ interface RejectableTask extends Runnable {
+        void rejected(RejectedExecutionException ree);
+    }
+
     public Dispatcher(String name){
         this(name,1);
     }
     public Dispatcher(String name, int threadcount) {
+        this(name, threadcount, 0);
+    }
+
+    /**
+     * @param name        prefix of the thread names
+     * @param threadcount number of threads
+     * @param stackSize   stack size of the threads in bytes, 0 for the JVM default
+     */
+    public Dispatcher(String name, int threadcount, long stackSize) {
+        this(name, threadcount, stackSize, 0, BLOCK);
+    }
+
+    /**
+     * @param name            prefix of the thread names
+     * @param threadcount     number of threads
+     * @param stackSize       stack size of the threads in bytes, 0 for the JVM default
+     * @param capacity        maximum number of queued tasks, 0 for no limit
+     * @param rejectionPolicy BLOCK, REJECT or SHED_OLDEST_BULK
+     */
+    public Dispatcher(String name, int threadcount, long stackSize, int capacity, int rejectionPolicy) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity cannot be negative: " + capacity);
+        }
+        if (rejectionPolicy < BLOCK || rejectionPolicy > SHED_OLDEST_BULK) {
+            throw new IllegalArgumentException("unknown rejection policy: " + rejectionPolicy);
+        }
+        this.name = name;
+        this.capacity = capacity;
+        this.rejectionPolicy = rejectionPolicy;
+        TaskPriority[] priorities = TaskPriority.values();
+        lanes = new Lane[priorities.length];
+        for (TaskPriority priority : priorities) {
+            lanes[priority.level()] = new Lane(priority);
+        }
         threads = new ExecuteThread[threadcount];
+        liveThreads = threadcount;
         for (int i = 0; i < threads.length; i++) {
-            threads[i] = new ExecuteThread(name,this, i);
+            threads[i] = new ExecuteThread(name,this, i, stackSize);
             threads[i].setDaemon(true);
             threads[i].start();
         }
-        Runtime.getRuntime().addShutdownHook(new Thread() {
+        shutdownHook = new Thread() {
             public void run() {
                 if (active) {
                     shutdown();
                 }
             }
-        });
+        };
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Creates the dispatcher selected by the configuration, either a pool of asyncNumThreads threads or a thread per task.
+     *
+     * @param name prefix of the thread names
+     * @param conf configuration
+     * @return dispatcher
+     */
+    /*package*/ static Dispatcher newInstance(String name, Configuration conf) {
+        if (conf.isAsyncThreadPerTask()) {
+            return new ThreadPerTaskDispatcher(name, conf.getAsyncThreadStackSize());
+        }
+        return new Dispatcher(name, conf.getAsyncNumThreads(), conf.getAsyncThreadStackSize()
+                , conf.getAsyncQueueCapacity(), toRejectionPolicy(conf.getAsyncRejectionPolicy()));
     }
 
-    public synchronized void invokeLater(Runnable task) {
-        synchronized (q) {
-            q.add(task);
+    /**
+     * @param name "block", "reject" or "shedOldestBulk"
+     * @return the rejection policy
+     */
+    /*package*/ static int toRejectionPolicy(String name) {
+        if ("block".equalsIgnoreCase(name)) {
+            return BLOCK;
+        } else if ("reject".equalsIgnoreCase(name)) {
+            return REJECT;
+        } else if ("shedOldestBulk".equalsIgnoreCase(name)) {
+            return SHED_OLDEST_BULK;
         }
-        synchronized (ticket) {
-            ticket.notify();
+        throw new IllegalArgumentException("unknown rejection policy: " + name);
+    }
+
+    public void execute(Runnable task) {
+        invokeLater(task);
+    }
+
+    /**
+     * Queues the task with the priority and tenant of a PrioritizedTask, NORMAL priority and no tenant otherwise.
+     *
+     * @param task task
+     */
+    public void invokeLater(Runnable task) {
+        if (task instanceof PrioritizedTask) {
+            PrioritizedTask prioritized = (PrioritizedTask) task;
+            invokeLater(task, prioritized.getPriority(), prioritized.getTenant());
+        } else {
+            invokeLater(task, TaskPriority.NORMAL, null);
         }
     }
-    Object ticket = new Object();
+
+    /**
+     * Queues the task. If the dispatcher is shut down, or the queue is full and the policy doesn't make room, the task is rejected:
+     * a RejectableTask is notified, a Future is cancelled, and any other task makes this method throw RejectedExecutionException.
+     *
+     * @param task     task
+     * @param priority priority
+     * @param tenant   tenant the task runs on behalf of, or null
+     * @throws RejectedExecutionException when a task which is neither a RejectableTask nor a Future is rejected
+     */
+    public void invokeLater(Runnable task, TaskPriority priority, Object tenant) {
+        if (null == tenant) {
+            tenant = NO_TENANT;
+        }
+        QueuedTask shed = null;
+        String rejection = null;
+        lock.lock();
+        try {
+            // tasks submitted from this dispatcher's own threads are let in over capacity, blocking them could deadlock
+            while (active && capacity > 0 && size >= capacity && BLOCK == rejectionPolicy && !isDispatcherThread()) {
+                notFull.awaitUninterruptibly();
+            }
+            if (!active) {
+                rejection = "Already shutdown";
+            } else if (capacity > 0 && size >= capacity && !(BLOCK == rejectionPolicy && isDispatcherThread())) {
+                if (SHED_OLDEST_BULK == rejectionPolicy && TaskPriority.BULK != priority) {
+                    shed = lanes[TaskPriority.BULK.level()].removeOldest();
+                }
+                if (null == shed) {
+                    rejection = "Queue is full (" + capacity + " tasks)";
+                } else {
+                    size--;
+                }
+            }
+            if (null == rejection) {
+                Integer weight = weights.get(tenant);
+                lanes[priority.level()].add(new QueuedTask(task, tenant), null == weight ? 1 : weight);
+                size++;
+                if (size > maxSize) {
+                    maxSize = size;
+                }
+                notEmpty.signal();
+            } else {
+                rejectedCount++;
+            }
+            if (null != shed) {
+                rejectedCount++;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (null != shed) {
+            Metrics.getCollector().taskRejected(name, TaskPriority.BULK);
+            rejected(shed.task, "Discarded to make room for a task of higher priority", false);
+        }
+        if (null != rejection) {
+            Metrics.getCollector().taskRejected(name, priority);
+            rejected(task, rejection, true);
+        }
+    }
+
+    private boolean isDispatcherThread() {
+        Thread current = Thread.currentThread();
+        return current instanceof ExecuteThread && this == ((ExecuteThread) current).q;
+    }
+
+    /**
+     * Notifies a task that it won't run.
+     *
+     * @param task   task
+     * @param reason reason
+     * @param throwIfUnhandled whether to throw RejectedExecutionException if the task can't be notified
+     */
+    protected static void rejected(Runnable task, String reason, boolean throwIfUnhandled) {
+        RejectedExecutionException ree = new RejectedExecutionException(reason);
+        if (task instanceof RejectableTask) {
+            ((RejectableTask) task).rejected(ree);
+        } else if (task instanceof Future) {
+            ((Future) task).cancel(false);
+        } else if (throwIfUnhandled) {
+            throw ree;
+        }
+    }
+
+    /**
+     * @return the next task to run, or null once the dispatcher is shut down and the queue is drained
+     */
     public Runnable poll(){
-        while(active){
-            synchronized(q){
-                if (q.size() > 0) {
-                    Runnable task = q.remove(0);
+        lock.lock();
+        try {
+            while (true) {
+                for (Lane lane : lanes) {
+                    QueuedTask task = lane.poll();
                     if (null != task) {
+                        size--;
+                        notFull.signal();
                         return task;
                     }
                 }
+                if (!active && 0 == size) {
+                    return null;
+                }
+                notEmpty.awaitUninterruptibly();
             }
-            synchronized (ticket) {
-                try {
-                    ticket.wait();
-                } catch (InterruptedException ex) {
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sets the number of tasks a tenant takes in a row before the next tenant of the same priority gets its turn. Defaults to 1.
+     *
+     * @param tenant tenant
+     * @param weight weight, 1 or more
+     */
+    public void setWeight(Object tenant, int weight) {
+        if (weight < 1) {
+            throw new IllegalArgumentException("weight must be 1 or more: " + weight);
+        }
+        lock.lock();
+        try {
+            weights.put(tenant, weight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Limits the number of threads running tasks of the given priority at the same time.
+     *
+     * @param priority       priority
+     * @param maxConcurrency maximum number of threads, 0 for no limit
+     */
+    public void setMaxConcurrency(TaskPriority priority, int maxConcurrency) {
+        if (maxConcurrency < 0) {
+            throw new IllegalArgumentException("maxConcurrency cannot be negative: " + maxConcurrency);
+        }
+        lock.lock();
+        try {
+            lanes[priority.level()].maxConcurrency = maxConcurrency;
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param priority priority
+     * @return histogram of the time tasks of the given priority spent in the queue
+     */
+    public LatencyHistogram getQueueWaitTime(TaskPriority priority) {
+        return lanes[priority.level()].waitTime;
+    }
+
+    /**
+     * @return number of queued tasks
+     */
+    public int getQueueSize() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param priority priority
+     * @return number of queued tasks of the given priority
+     */
+    public int getQueueSize(TaskPriority priority) {
+        lock.lock();
+        try {
+            return lanes[priority.level()].size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the largest number of tasks queued at the same time
+     */
+    public int getMaxQueueSize() {
+        lock.lock();
+        try {
+            return maxSize;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return number of tasks rejected or discarded
+     */
+    public long getRejectedCount() {
+        lock.lock();
+        try {
+            return rejectedCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private volatile boolean active = true;
+
+    /**
+     * Stops accepting tasks. Queued tasks are still run, after which the threads exit.
+     *
+     * @throws IllegalStateException if already shut down
+     */
+    public void shutdown() {
+        lock.lock();
+        try {
+            if (active) {
+                active = false;
+                // wake up idle threads so that they can exit, and blocked callers so that they get rejected
+                notEmpty.signalAll();
+                notFull.signalAll();
+            } else {
+                throw new IllegalStateException("Already shutdown");
+            }
+        } finally {
+            lock.unlock();
+        }
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException shuttingDown) {
+            // the JVM is already shutting down, possibly running this very hook
+        }
+    }
+
+    /**
+     * Waits for the threads to drain the queue and exit after shutdown().
+     *
+     * @param timeout the maximum time to wait
+     * @param unit    the time unit of the timeout argument
+     * @return true if all threads exited, false if the timeout elapsed first
+     * @throws InterruptedException when interrupted while waiting
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            while (liveThreads > 0) {
+                if (nanos <= 0) {
+                    return false;
                 }
+                nanos = terminated.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*package*/ void threadExited() {
+        lock.lock();
+        try {
+            if (--liveThreads == 0) {
+                terminated.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void finished(Lane lane) {
+        lock.lock();
+        try {
+            lane.running--;
+            if (lane.maxConcurrency > 0 && lane.size > 0) {
+                // a task held back by the limit can run now
+                notEmpty.signal();
             }
+        } finally {
+            lock.unlock();
         }
-        return null;
     }
 
-    private boolean active = true;
+    private final class QueuedTask implements Runnable {
+        private final Runnable task;
+        private final Object tenant;
+        private final long enqueuedAt = System.currentTimeMillis();
+        private Lane lane;
+        private long waitMillis;
 
-    public synchronized void shutdown() {
-        if (active) {
-            active = false;
-            for (ExecuteThread thread : threads) {
-                thread.shutdown();
+        QueuedTask(Runnable task, Object tenant) {
+            this.task = task;
+            this.tenant = tenant;
+        }
+
+        public void run() {
+            try {
+                Metrics.getCollector().taskDequeued(name, lane.priority, waitMillis);
+                task.run();
+            } finally {
+                finished(lane);
             }
-            synchronized (ticket) {
-                ticket.notify();
+        }
+    }
+
+    private static final class TenantQueue {
+        private final Object tenant;
+        private final LinkedList<QueuedTask> tasks = new LinkedList<QueuedTask>();
+        private int weight = 1;
+        private int credit = 0;
+
+        TenantQueue(Object tenant) {
+            this.tenant = tenant;
+        }
+    }
+
+    /**
+     * Tasks of one priority. Guarded by the dispatcher's lock.
+     */
+    private static final class Lane {
+        private final TaskPriority priority;
+        private final LatencyHistogram waitTime = new LatencyHistogram();
+        // tenants having queued tasks, in round-robin order
+        private final LinkedList<TenantQueue> rotation = new LinkedList<TenantQueue>();
+        private final Map<Object, TenantQueue> tenants = new HashMap<Object, TenantQueue>();
+        private int size = 0;
+        private int running = 0;
+        private int maxConcurrency = 0;
+
+        Lane(TaskPriority priority) {
+            this.priority = priority;
+        }
+
+        void add(QueuedTask task, int weight) {
+            TenantQueue queue = tenants.get(task.tenant);
+            if (null == queue) {
+                queue = new TenantQueue(task.tenant);
+                tenants.put(task.tenant, queue);
+                rotation.add(queue);
             }
-        } else {
-            throw new IllegalStateException("Already shutdown");
+            queue.weight = weight;
+            queue.tasks.add(task);
+            task.lane = this;
+            size++;
+        }
+
+        QueuedTask poll() {
+            if (0 == size || (maxConcurrency > 0 && running >= maxConcurrency)) {
+                return null;
+            }
+            TenantQueue queue = rotation.getFirst();
+            if (0 == queue.credit) {
+                queue.credit = queue.weight;
+            }
+            QueuedTask task = queue.tasks.removeFirst();
+            queue.credit--;
+            size--;
+            running++;
+            if (queue.tasks.isEmpty()) {
+                rotation.removeFirst();
+                tenants.remove(queue.tenant);
+            } else if (0 == queue.credit) {
+                rotation.addLast(rotation.removeFirst());
+            }
+            task.waitMillis = System.currentTimeMillis() - task.enqueuedAt;
+            waitTime.record(task.waitMillis);
+            return task;
+        }
+
+        /**
+         * @return the task queued the longest, removed from the lane, or null if the lane is empty
+         */
+        QueuedTask removeOldest() {
+            TenantQueue oldest = null;
+            for (TenantQueue queue : rotation) {
+                if (null == oldest || queue.tasks.getFirst().enqueuedAt < oldest.tasks.getFirst().enqueuedAt) {
+                    oldest = queue;
+                }
+            }
+            if (null == oldest) {
+                return null;
+            }
+            QueuedTask task = oldest.tasks.removeFirst();
+            size--;
+            if (oldest.tasks.isEmpty()) {
+                rotation.remove(oldest);
+                tenants.remove(oldest.tenant);
+            }
+            return task;
         }
     }
 }
 
 class ExecuteThread extends Thread {
     Dispatcher q;
-    ExecuteThread(String name, Dispatcher q, int index) {
-        super(name + "[" + index + "]");
+    ExecuteThread(String name, Dispatcher q, int index, long stackSize) {
+        super(null, null, name + "[" + index + "]", stackSize);
         this.q = q;
     }
 
-    public void shutdown() {
-        alive = false;
-    }
-
-    private boolean alive = true;
     public void run() {
-        while (alive) {
-            Runnable task = q.poll();
-            if (null != task) {
+        try {
+            Runnable task;
+            while (null != (task = q.poll())) {
                 try {
                     task.run();
                 } catch (Exception ex) {
                     ex.printStackTrace();
                 }
             }
+        } finally {
+            q.threadExited();
         }
     }
 }
-
@@ -0,0 +1,224 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Runs Twitter API calls on the AsyncTwitter dispatcher and returns their results as {@link TwitterFuture}s.<br>
+ * Any method of the underlying Twitter instance can be submitted with {@link #submit(Callable)}, the most common ones have shortcuts.
+ * <pre>
+ * FutureTwitter futures = new FutureTwitter(twitter);
+ * TwitterFuture&lt;List&lt;User&gt;&gt; users = futures.showUsers(ids);
+ * QueryResult result = futures.search(new Query("twitter4j")).join(10, TimeUnit.SECONDS);
+ * </pre>
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @see twitter4j.AsyncTwitter
+ * @since Twitter4J 2.1.0
+ */
+public class FutureTwitter implements java.io.Serializable {
+    private final Twitter twitter;
+    private static final long serialVersionUID = -2008667933225051907L;
+
+    public FutureTwitter(Twitter twitter) {
+        if (null == twitter) {
+            throw new NullPointerException("twitter is null");
+        }
+        this.twitter = twitter;
+    }
+
+    /**
+     * @return the Twitter instance calls are made with
+     */
+    public Twitter getTwitter() {
+        return twitter;
+    }
+
+    /**
+     * Schedules the given call on the dispatcher.
+     *
+     * @param call the call
+     * @return the pending result
+     */
+    public <V> TwitterFuture<V> submit(Callable<V> call) {
+        return submit(TaskPriority.NORMAL, call);
+    }
+
+    /**
+     * Schedules the given call on the dispatcher with the given priority.
+     *
+     * @param priority priority
+     * @param call     the call
+     * @return the pending result
+     */
+    public <V> TwitterFuture<V> submit(TaskPriority priority, Callable<V> call) {
+        TwitterFuture<V> future = new TwitterFuture<V>(call);
+        AsyncTwitter.getSharedDispatcher().invokeLater(future, priority, null);
+        return future;
+    }
+
+    /**
+     * @see twitter4j.Twitter#search(Query)
+     */
+    public TwitterFuture<QueryResult> search(final Query query) {
+        return submit(new Callable<QueryResult>() {
+            public QueryResult call() throws TwitterException {
+                return twitter.search(query);
+            }
+        });
+    }
+
+    /**
+     * @see twitter4j.Twitter#getHomeTimeline(Paging)
+     */
+    public TwitterFuture<ResponseList<Status>> getHomeTimeline(final Paging paging) {
+        return submit(new Callable<ResponseList<Status>>() {
+            public ResponseList<Status> call() throws TwitterException {
+                return twitter.getHomeTimeline(paging);
+            }
+        });
+    }
+
+    /**
+     * @see twitter4j.Twitter#getUserTimeline(int, Paging)
+     */
+    public TwitterFuture<ResponseList<Status>> getUserTimeline(final int userId, final Paging paging) {
+        return submit(new Callable<ResponseList<Status>>() {
+            public ResponseList<Status> call() throws TwitterException {
+                return twitter.getUserTimeline(userId, paging);
+            }
+        });
+    }
+
+    /**
+     * @see twitter4j.Twitter#getMentions(Paging)
+     */
+    public TwitterFuture<ResponseList<Status>> getMentions(final Paging paging) {
+        return submit(new Callable<ResponseList<Status>>() {
+            public ResponseList<Status> call() throws TwitterException {
+                return twitter.getMentions(paging);
+            }
+        });
+    }
+
+    /**
+     * @see twitter4j.Twitter#showStatus(long)
+     */
+    public TwitterFuture<Status> showStatus(final long id) {
+        return submit(new Callable<Status>() {
+            public Status call() throws TwitterException {
+                return twitter.showStatus(id);
+            }
+        });
+    }
+
+    /**
+     * @see twitter4j.Twitter#updateStatus(String)
+     */
+    public TwitterFuture<Status> updateStatus(final String status) {
+        return submit(TaskPriority.INTERACTIVE, new Callable<Status>() {
+            public Status call() throws TwitterException {
+                return twitter.updateStatus(status);
+            }
+        });
+    }
+
+    /**
+     * @see twitter4j.Twitter#showUser(int)
+     */
+    public TwitterFuture<User> showUser(final int userId) {
+        return submit(new Callable<User>() {
+            public User call() throws TwitterException {
+                return twitter.showUser(userId);
+            }
+        });
+    }
+
+    /**
+     * @see twitter4j.Twitter#showUser(String)
+     */
+    public TwitterFuture<User> showUser(final String screenName) {
+        return submit(new Callable<User>() {
+            public User call() throws TwitterException {
+                return twitter.showUser(screenName);
+            }
+        });
+    }
+
+    /**
+     * @see twitter4j.Twitter#getFriendsIDs(int, long)
+     */
+    public TwitterFuture<IDs> getFriendsIDs(final int userId, final long cursor) {
+        return submit(TaskPriority.BULK, new Callable<IDs>() {
+            public IDs call() throws TwitterException {
+                return twitter.getFriendsIDs(userId, cursor);
+            }
+        });
+    }
+
+    /**
+     * @see twitter4j.Twitter#getFollowersIDs(int, long)
+     */
+    public TwitterFuture<IDs> getFollowersIDs(final int userId, final long cursor) {
+        return submit(TaskPriority.BULK, new Callable<IDs>() {
+            public IDs call() throws TwitterException {
+                return twitter.getFollowersIDs(userId, cursor);
+            }
+        });
+    }
+
+    /**
+     * Fetches the given users in parallel.
+     *
+     * @param userIds ids of the users
+     * @return users in the order of userIds, failing if any of them fails
+     */
+    public TwitterFuture<List<User>> showUsers(int... userIds) {
+        List<TwitterFuture<User>> futures = new ArrayList<TwitterFuture<User>>(userIds.length);
+        for (int userId : userIds) {
+            futures.add(showUser(userId));
+        }
+        return TwitterFuture.all(futures);
+    }
+
+    /**
+     * Fetches the given statuses in parallel.
+     *
+     * @param ids ids of the statuses
+     * @return statuses in the order of ids, failing if any of them fails
+     */
+    public TwitterFuture<List<Status>> showStatuses(long... ids) {
+        List<TwitterFuture<Status>> futures = new ArrayList<TwitterFuture<Status>>(ids.length);
+        for (long id : ids) {
+            futures.add(showStatus(id));
+        }
+        return TwitterFuture.all(futures);
+    }
+}
@@ -0,0 +1,183 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j;
+
+import twitter4j.conf.Configuration;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Holds the MetricsCollector instrumented code reports to.<br>
+ * Defaults to a no-op collector, or to an instance of the class named by the twitter4j.metrics.collector property
+ * of the configuration the first HttpClient is created with.
+ * Instrumented code checks isEnabled() before doing anything costlier than reading the clock, so that the default costs next to nothing.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.1.0
+ */
+public final class Metrics {
+    private static final MetricsCollector NO_OP = new MetricsAdapter();
+    private static volatile MetricsCollector collector = NO_OP;
+    // true once a collector has been set, or looked up from a configuration
+    private static volatile boolean configured = false;
+
+    // literal path segments of the API, anything else is an id or a screen name
+    private static final Set<String> pathWords = new HashSet<String>();
+
+    static {
+        String[] words = {"access_token", "account", "authenticate", "authorize", "available", "blocking", "blocks"
+                , "create", "current", "daily", "destroy", "direct_messages", "exists", "favorites", "filter", "firehose"
+                , "follow", "followers", "friends", "friends_timeline", "friendships", "help", "home_timeline", "ids"
+                , "leave", "links", "lists", "members", "memberships", "mentions", "new", "notifications", "oauth"
+                , "public_timeline", "rate_limit_status", "report_spam", "request_token", "retweet", "retweeted_by_me"
+                , "retweeted_to_me", "retweets", "retweets_of_me", "sample", "saved_searches", "search", "sent", "show"
+                , "statuses", "subscribers", "subscriptions", "test", "trends", "update", "update_delivery_device"
+                , "update_profile", "update_profile_background_image", "update_profile_colors", "update_profile_image"
+                , "user_timeline", "users", "verify_credentials", "weekly"};
+        for (String word : words) {
+            pathWords.add(word);
+        }
+    }
+
+    private Metrics() {
+        throw new AssertionError();
+    }
+
+    private static void reportCollectorFailure(String className, Throwable cause) {
+        System.err.println("Failed to instantiate the metrics collector " + className + ", metrics are disabled: " + cause);
+    }
+
+    /**
+     * Installs the collector named by the twitter4j.metrics.collector property of the configuration, unless a collector has been installed already.<br>
+     * HttpClient calls this method, so that configurations built with ConfigurationBuilder don't cause the default configuration to be loaded.
+     *
+     * @param conf configuration
+     */
+    public static void configure(Configuration conf) {
+        if (configured) {
+            return;
+        }
+        synchronized (Metrics.class) {
+            if (configured) {
+                return;
+            }
+            configured = true;
+            String className = conf.getMetricsCollector();
+            if (null != className) {
+                // a misconfigured collector must not take HttpClient down with it; report it and keep the no-op collector
+                try {
+                    collector = (MetricsCollector) Class.forName(className).newInstance();
+                } catch (Exception e) {
+                    reportCollectorFailure(className, e);
+                } catch (LinkageError le) {
+                    reportCollectorFailure(className, le);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the current collector
+     */
+    public static MetricsCollector getCollector() {
+        return collector;
+    }
+
+    /**
+     * @param collector the collector to report to, or null to stop reporting
+     */
+    public static void setCollector(MetricsCollector collector) {
+        configured = true;
+        Metrics.collector = null == collector ? NO_OP : collector;
+    }
+
+    /**
+     * @return false if the no-op collector is in use
+     */
+    public static boolean isEnabled() {
+        return NO_OP != collector;
+    }
+
+    /**
+     * Normalizes a URL into an endpoint name of bounded cardinality: the query and scheme are stripped,
+     * numeric path segments are replaced with ":id" and screen names with ":name". A leading numeric segment is kept as the API version.
+     *
+     * @param url URL
+     * @return endpoint
+     */
+    public static String toEndpoint(String url) {
+        int end = url.indexOf('?');
+        if (-1 == end) {
+            end = url.length();
+        }
+        int start = url.indexOf("://");
+        start = -1 == start ? 0 : start + 3;
+        int pathStart = url.indexOf('/', start);
+        if (-1 == pathStart || pathStart > end) {
+            return url.substring(start, end);
+        }
+        StringBuilder endpoint = new StringBuilder(end - start);
+        endpoint.append(url, start, pathStart);
+        int segmentStart = pathStart + 1;
+        boolean first = true;
+        while (segmentStart <= end) {
+            int segmentEnd = url.indexOf('/', segmentStart);
+            if (-1 == segmentEnd || segmentEnd > end) {
+                segmentEnd = end;
+            }
+            endpoint.append('/');
+            String segment = url.substring(segmentStart, segmentEnd);
+            int dot = segment.lastIndexOf('.');
+            String name = -1 == dot ? segment : segment.substring(0, dot);
+            if (name.length() == 0 || pathWords.contains(name) || (first && isNumeric(name))) {
+                endpoint.append(segment);
+            } else {
+                endpoint.append(isNumeric(name) ? ":id" : ":name");
+                if (-1 != dot) {
+                    endpoint.append(segment, dot, segment.length());
+                }
+            }
+            first = false;
+            segmentStart = segmentEnd + 1;
+        }
+        return endpoint.toString();
+    }
+
+    private static boolean isNumeric(String str) {
+        if (str.length() == 0) {
+            return false;
+        }
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j;
+
+/**
+ * Receives measurements from HttpClient, the dispatcher and streams, to be forwarded to a metrics registry.<br>
+ * Methods are invoked synchronously on the thread doing the work and must return quickly. Extend {@link MetricsAdapter} to implement only the events of interest.<br>
+ * Endpoints are URLs stripped of their query, with user and status ids replaced by placeholders, e.g. "api.twitter.com/1/statuses/show/:id.json".
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @see twitter4j.Metrics#setCollector(MetricsCollector)
+ * @since Twitter4J 2.1.0
+ */
+public interface MetricsCollector {
+    /**
+     * Invoked once per attempt, when the response status has been received or the attempt has failed.
+     *
+     * @param method       HTTP method
+     * @param endpoint     normalized endpoint
+     * @param statusCode   HTTP status code, -1 if the attempt failed without a response
+     * @param latencyNanos time from opening the connection to receiving the status
+     * @param bytesSent    size of the request body
+     */
+    void httpRequest(String method, String endpoint, int statusCode, long latencyNanos, long bytesSent);
+
+    /**
+     * Invoked before a failed attempt is retried.
+     *
+     * @param method     HTTP method
+     * @param endpoint   normalized endpoint
+     * @param attempt    number of the attempt about to be made, 2 for the first retry
+     * @param statusCode HTTP status code of the failed attempt, -1 if it failed without a response
+     */
+    void httpRetry(String method, String endpoint, int attempt, int statusCode);
+
+    /**
+     * Invoked when the connection to the server is established.<br>
+     * A connection reused from the keep-alive cache connects in well under a millisecond, a new one takes a round trip or more.
+     *
+     * @param endpoint     normalized endpoint
+     * @param connectNanos time to establish the connection
+     */
+    void httpConnected(String endpoint, long connectNanos);
+
+    /**
+     * Invoked when a response body has been read and closed.
+     *
+     * @param endpoint      normalized endpoint
+     * @param bytesReceived number of bytes received, before decompression
+     */
+    void httpResponseRead(String endpoint, long bytesReceived);
+
+    /**
+     * @param format     "json" or "xml"
+     * @param parseNanos time to parse the response body
+     */
+    void responseParsed(String format, long parseNanos);
+
+    /**
+     * Invoked when a dispatcher thread picks up a task.
+     *
+     * @param dispatcher name of the dispatcher
+     * @param priority   priority of the task
+     * @param waitMillis time the task spent in the queue
+     */
+    void taskDequeued(String dispatcher, TaskPriority priority, long waitMillis);
+
+    /**
+     * Invoked when a dispatcher rejects a task, or discards a queued one.
+     *
+     * @param dispatcher name of the dispatcher
+     * @param priority   priority of the task
+     */
+    void taskRejected(String dispatcher, TaskPriority priority);
+
+    /**
+     * @param type "status", "delete", "limit" or "unknown"
+     */
+    void streamMessageReceived(String type);
+
+    /**
+     * Invoked each time a stream is established, including reconnections.
+     */
+    void streamConnected();
+
+    /**
+     * @param cause the exception which closed the stream
+     */
+    void streamDisconnected(TwitterException cause);
+}
@@ -1,5 +1,6 @@
 package twitter4j;
 
+import twitter4j.conf.Configuration;
 import twitter4j.http.*;
 
 import java.io.IOException;
@@ -30,6 +31,25 @@ class OAuthTwitterSupport extends TwitterSupport implements HttpResponseListener
         init();
     }
 
+    OAuthTwitterSupport(Configuration conf) {
+        super(conf);
+        init();
+    }
+
+    OAuthTwitterSupport(Configuration conf, Authorization auth) {
+        super(conf);
+        this.auth = auth;
+        init();
+    }
+
+    /**
+     * Creates an instance sharing the supplied HttpClient.<br>
+     * RateLimitStatusListeners are not notified since responses of the shared client may belong to other instances.
+     */
+    OAuthTwitterSupport(Configuration conf, Authorization auth, HttpClient http) {
+        super(conf, auth, http);
+    }
+
     private void init(){
         if(auth instanceof NullAuthorization){
             // try to populate OAuthAuthorization if available in the configuration
@@ -37,7 +57,7 @@ class OAuthTwitterSupport extends TwitterSupport implements HttpResponseListener
             String consumerSecret = conf.getOAuthConsumerSecret();
             // try to find oauth tokens in the configuration
             if (null != consumerKey && null != consumerSecret) {
-                OAuthAuthorization oauth = new OAuthAuthorization(consumerKey, consumerSecret);
+                OAuthAuthorization oauth = new OAuthAuthorization(conf, consumerKey, consumerSecret);
                 String accessToken = conf.getOAuthAccessToken();
                 String accessTokenSecret = conf.getOAuthAccessTokenSecret();
                 if (null != accessToken && null != accessTokenSecret) {
@@ -97,6 +117,7 @@ class OAuthTwitterSupport extends TwitterSupport implements HttpResponseListener
     public synchronized AccessToken getOAuthAccessToken(RequestToken requestToken) throws TwitterException {
         OAuthAuthorization oauth = getOAuth();
         AccessToken oauthAccessToken = oauth.getAccessToken(requestToken);
+        userCache.clear();
         screenName = oauthAccessToken.getScreenName();
         return oauthAccessToken;
     }
@@ -113,7 +134,9 @@ class OAuthTwitterSupport extends TwitterSupport implements HttpResponseListener
      * @since Twitter 2.0.0
      */
     public synchronized AccessToken getOAuthAccessToken(RequestToken requestToken, String oauthVerifier) throws TwitterException {
-        return getOAuth().getAccessToken(requestToken, oauthVerifier);
+        AccessToken oauthAccessToken = getOAuth().getAccessToken(requestToken, oauthVerifier);
+        userCache.clear();
+        return oauthAccessToken;
     }
 
     /**
@@ -128,7 +151,9 @@ class OAuthTwitterSupport extends TwitterSupport implements HttpResponseListener
      * @since Twitter 2.0.1
      */
     public synchronized AccessToken getOAuthAccessToken(String token, String tokenSecret) throws TwitterException {
-        return getOAuth().getAccessToken(new RequestToken(token,tokenSecret));
+        AccessToken oauthAccessToken = getOAuth().getAccessToken(new RequestToken(token,tokenSecret));
+        userCache.clear();
+        return oauthAccessToken;
     }
 
     /**
@@ -157,6 +182,7 @@ class OAuthTwitterSupport extends TwitterSupport implements HttpResponseListener
      */
     public void setOAuthAccessToken(AccessToken accessToken) {
         getOAuth().setAccessToken(accessToken);
+        userCache.clear();
     }
 
     /**
@@ -178,7 +204,8 @@ class OAuthTwitterSupport extends TwitterSupport implements HttpResponseListener
      * @since Twitter 2.0.0
      */
     public synchronized void setOAuthConsumer(String consumerKey, String consumerSecret){
-        auth = new OAuthAuthorization(consumerKey, consumerSecret);
+        auth = new OAuthAuthorization(conf, consumerKey, consumerSecret);
+        userCache.clear();
     }
 
     /**
@@ -191,6 +218,15 @@ class OAuthTwitterSupport extends TwitterSupport implements HttpResponseListener
     	rateLimitStatusListeners.add(listener);
     }
 
+    /**
+     * Registers an UploadProgressListener notified of the progress of image uploads such as updateProfileImage()
+     * @param listener the listener to be added
+     * @since Twitter4J 2.1.0
+     */
+    public void addUploadProgressListener(UploadProgressListener listener){
+        http.addUploadProgressListener(listener);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -43,6 +43,7 @@ public class Query {
     private int rpp = -1;
     private int page = -1;
     private long sinceId = -1;
+    private long maxId = -1;
     private String geocode = null;
     public Query(){
     }
@@ -50,6 +51,16 @@ public class Query {
         this.query = query;
     }
 
+    /*package*/ Query(Query query) {
+        this.query = query.query;
+        this.lang = query.lang;
+        this.rpp = query.rpp;
+        this.page = query.page;
+        this.sinceId = query.sinceId;
+        this.maxId = query.maxId;
+        this.geocode = query.geocode;
+    }
+
     public String getQuery() {
         return query;
     }
@@ -169,6 +180,31 @@ public class Query {
         return this;
     }
 
+    public long getMaxId() {
+        return maxId;
+    }
+
+    /**
+     * returns tweets with status ids less than or equal to the given id.<br>
+     * Pinning maxId keeps the pages of a query stable while new tweets arrive.
+     * @param maxId returns tweets with status ids less than or equal to the given id
+     * @since Twitter4J 2.1.0
+     */
+    public void setMaxId(long maxId) {
+        this.maxId = maxId;
+    }
+
+    /**
+     * returns tweets with status ids less than or equal to the given id.
+     * @param maxId returns tweets with status ids less than or equal to the given id
+     * @return the instance
+     * @since Twitter4J 2.1.0
+     */
+    public Query maxId(long maxId) {
+        setMaxId(maxId);
+        return this;
+    }
+
     public String getGeocode() {
         return geocode;
     }
@@ -207,6 +243,7 @@ public class Query {
         appendParameter("rpp",rpp , params);
         appendParameter("page", page, params);
         appendParameter("since_id",sinceId , params);
+        appendParameter("max_id", maxId, params);
         appendParameter("geocode", geocode, params);
         PostParameter[] paramArray = new PostParameter[params.size()];
         return params.toArray(paramArray);
@@ -234,6 +271,7 @@ public class Query {
         if (page != query1.page) return false;
         if (rpp != query1.rpp) return false;
         if (sinceId != query1.sinceId) return false;
+        if (maxId != query1.maxId) return false;
         if (geocode != null ? !geocode.equals(query1.geocode) : query1.geocode != null)
             return false;
         if (lang != null ? !lang.equals(query1.lang) : query1.lang != null)
@@ -251,6 +289,7 @@ public class Query {
         result = 31 * result + rpp;
         result = 31 * result + page;
         result = 31 * result + (int) (sinceId ^ (sinceId >>> 32));
+        result = 31 * result + (int) (maxId ^ (maxId >>> 32));
         result = 31 * result + (geocode != null ? geocode.hashCode() : 0);
         return result;
     }
@@ -263,6 +302,7 @@ public class Query {
                 ", rpp=" + rpp +
                 ", page=" + page +
                 ", sinceId=" + sinceId +
+                ", maxId=" + maxId +
                 ", geocode='" + geocode + '\'' +
                 '}';
     }
@@ -0,0 +1,108 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j;
+
+import twitter4j.http.HttpClient;
+
+/**
+ * Holds back worker threads while the rate limit is exhausted.<br>
+ * Workers call {@link #await()} before each API call and report each response or rate limit error,
+ * so that all of them pause together until the rate limit resets.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.1.0
+ */
+/*package*/ final class RateLimitGate {
+    private final int reservedHits;
+    private final int defaultRetryIntervalSecs;
+    private long pausedUntil = 0;
+
+    /**
+     * @param reservedHits             number of API hits left untouched for the rest of the application
+     * @param defaultRetryIntervalSecs pause when the response carries no hint on when to retry
+     */
+    RateLimitGate(int reservedHits, int defaultRetryIntervalSecs) {
+        this.reservedHits = reservedHits;
+        this.defaultRetryIntervalSecs = defaultRetryIntervalSecs;
+    }
+
+    /**
+     * Pauses until the rate limit resets if the remaining hits dropped to the reserved count.
+     *
+     * @param response response of an API call
+     */
+    void onResponse(TwitterResponse response) {
+        RateLimitStatus status = response.getRateLimitStatus();
+        if (null != status && status.getRemainingHits() <= reservedHits) {
+            pauseUntil(status.getResetTime().getTime());
+        }
+    }
+
+    /**
+     * Pauses if the exception tells that the rate limit has been exceeded.
+     *
+     * @param te exception thrown by an API call
+     * @return true if the rate limit has been exceeded and the call is worth retrying after the pause
+     */
+    boolean onRateLimited(TwitterException te) {
+        int secs;
+        if (HttpClient.SERVICE_UNAVAILABLE == te.getStatusCode() && te.getRetryAfter() > 0) {
+            secs = te.getRetryAfter();
+        } else if (HttpClient.EXCEEDED_RATE_LIMIT_QUOTA == te.getStatusCode()
+                || HttpClient.SERVICE_UNAVAILABLE == te.getStatusCode()
+                // REST API answers 400 once the hourly limit is exceeded
+                || (400 == te.getStatusCode() && null != te.getMessage() && te.getMessage().contains("Rate limit exceeded"))) {
+            secs = defaultRetryIntervalSecs;
+        } else {
+            return false;
+        }
+        pauseUntil(System.currentTimeMillis() + Math.max(secs, 1) * 1000l);
+        return true;
+    }
+
+    synchronized void pauseUntil(long time) {
+        if (time > pausedUntil) {
+            pausedUntil = time;
+        }
+    }
+
+    /**
+     * Blocks while paused.
+     *
+     * @throws InterruptedException when interrupted while waiting
+     */
+    synchronized void await() throws InterruptedException {
+        long wait;
+        while ((wait = pausedUntil - System.currentTimeMillis()) > 0) {
+            wait(wait);
+        }
+    }
+
+    synchronized long getPausedUntil() {
+        return pausedUntil;
+    }
+}
@@ -41,6 +41,10 @@ public class ResponseList<T extends TwitterResponse> extends ArrayList<T>
     private transient RateLimitStatus rateLimitStatus = null;
     private static final long serialVersionUID = 5646617841989265312L;
 
+    /*package*/ ResponseList(int size) {
+        super(size);
+    }
+
     ResponseList(int size, Response res) {
         super(size);
         this.rateLimitStatus = RateLimitStatusJSONImpl.createFromResponseHeader(res);
@@ -0,0 +1,196 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j;
+
+import twitter4j.api.SearchMethods;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Walks the pages of a search query, then keeps polling it for new tweets.<br>
+ * The first call to next() fetches the first page, and if it is full, the following pages up to maxPages in parallel on the AsyncTwitter dispatcher,
+ * with max_id pinned to the first page so that pages don't shift while tweets arrive.
+ * Pages not picked up by a dispatcher thread yet are fetched by the calling thread, thus next() can be called from a TwitterListener callback.
+ * Later calls only ask for tweets newer than the newest one seen, the same way the refresh_url of a search result does, and only walk further pages when the first one is full.<br>
+ * Tweets already returned are never returned again.
+ * <pre>
+ * SearchCursor cursor = new SearchCursor(twitter, new Query("twitter4j").rpp(100));
+ * while (true) {
+ *     for (Tweet tweet : cursor.next()) {
+ *         ...
+ *     }
+ *     Thread.sleep(60000);
+ * }
+ * </pre>
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.1.0
+ */
+public class SearchCursor {
+    private final SearchMethods search;
+    private final Query query;
+    private final int maxPages;
+    private long sinceId;
+    private final AtomicInteger apiCallCount = new AtomicInteger();
+    private int duplicateCount = 0;
+    /**
+     * the Search API serves up to 15 pages of a query
+     */
+    public static final int MAX_PAGES = 15;
+    private static final int DEFAULT_RPP = 15;
+
+    /**
+     * @param search the Twitter instance to search with
+     * @param query  the query. The cursor works on a copy, further changes to the query have no effect
+     */
+    public SearchCursor(SearchMethods search, Query query) {
+        this(search, query, MAX_PAGES);
+    }
+
+    /**
+     * @param search   the Twitter instance to search with
+     * @param query    the query. The cursor works on a copy, further changes to the query have no effect
+     * @param maxPages maximum number of pages to walk per call to next(), between 1 and MAX_PAGES
+     */
+    public SearchCursor(SearchMethods search, Query query, int maxPages) {
+        if (maxPages < 1 || maxPages > MAX_PAGES) {
+            throw new IllegalArgumentException("maxPages must be between 1 and " + MAX_PAGES + ": " + maxPages);
+        }
+        this.search = search;
+        this.query = new Query(query);
+        this.query.setPage(-1);
+        this.maxPages = maxPages;
+        this.sinceId = query.getSinceId();
+    }
+
+    /**
+     * Returns the tweets which haven't been returned yet, newest first.
+     *
+     * @return new tweets, possibly empty
+     * @throws TwitterException when Twitter service or network is unavailable. The next call fetches the same tweets again
+     */
+    public synchronized List<Tweet> next() throws TwitterException {
+        Query base = new Query(query);
+        base.setSinceId(sinceId);
+        QueryResult first = search(base);
+        List<QueryResult> pages = new ArrayList<QueryResult>();
+        pages.add(first);
+        int rpp = 0 < query.getRpp() ? query.getRpp() : DEFAULT_RPP;
+        if (first.getTweets().size() >= rpp && maxPages > 1) {
+            List<TwitterFuture<QueryResult>> futures = new ArrayList<TwitterFuture<QueryResult>>(maxPages - 1);
+            long maxId = first.getMaxId();
+            for (int page = 2; page <= maxPages; page++) {
+                final Query pageQuery = new Query(base).page(page);
+                if (0 < maxId) {
+                    pageQuery.setMaxId(maxId);
+                }
+                TwitterFuture<QueryResult> future = new TwitterFuture<QueryResult>(new Callable<QueryResult>() {
+                    public QueryResult call() throws TwitterException {
+                        return search(pageQuery);
+                    }
+                });
+                // the cursor is the tenant, so that thousands of cursors share the dispatcher fairly
+                AsyncTwitter.getSharedDispatcher().invokeLater(future, TaskPriority.NORMAL, this);
+                futures.add(future);
+            }
+            try {
+                for (TwitterFuture<QueryResult> future : futures) {
+                    // fetches the page here if no dispatcher thread has picked it up yet. this keeps next() from waiting on
+                    // queued tasks forever when it is called from a dispatcher thread, or when all dispatcher threads are busy
+                    future.run();
+                    QueryResult result = future.join();
+                    pages.add(result);
+                    if (result.getTweets().size() < rpp) {
+                        // last page reached
+                        break;
+                    }
+                }
+            } finally {
+                for (TwitterFuture<QueryResult> future : futures) {
+                    future.cancel(true);
+                }
+            }
+        }
+
+        long newSinceId = sinceId;
+        List<Tweet> tweets = new ArrayList<Tweet>();
+        Set<Long> ids = new HashSet<Long>();
+        for (QueryResult page : pages) {
+            newSinceId = Math.max(newSinceId, page.getMaxId());
+            for (Tweet tweet : page.getTweets()) {
+                // the search index may return tweets older than since_id, and pages may overlap
+                if (tweet.getId() <= sinceId || !ids.add(tweet.getId())) {
+                    duplicateCount++;
+                } else {
+                    tweets.add(tweet);
+                    newSinceId = Math.max(newSinceId, tweet.getId());
+                }
+            }
+        }
+        sinceId = newSinceId;
+        return tweets;
+    }
+
+    /**
+     * Runs a single search request. Called concurrently while walking pages.
+     *
+     * @param query query for one page
+     * @return the page
+     * @throws TwitterException when Twitter service or network is unavailable
+     */
+    protected QueryResult search(Query query) throws TwitterException {
+        // called on dispatcher threads while next() holds the lock
+        apiCallCount.incrementAndGet();
+        return search.search(query);
+    }
+
+    /**
+     * @return id of the newest tweet returned so far, the since_id of the next poll
+     */
+    public synchronized long getSinceId() {
+        return sinceId;
+    }
+
+    /**
+     * @return number of search requests made
+     */
+    public int getApiCallCount() {
+        return apiCallCount.get();
+    }
+
+    /**
+     * @return number of tweets received but not returned because they had already been
+     */
+    public synchronized int getDuplicateCount() {
+        return duplicateCount;
+    }
+}
@@ -0,0 +1,414 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j;
+
+import twitter4j.api.SearchMethods;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Polls many search queries within a global request budget.<br>
+ * Each query is polled at an interval adapted to how fast it gets new tweets: a query is polled about when half a page of new tweets is expected,
+ * and the interval of a query which got nothing doubles, up to maxInterval. When the queries together want more requests than the budget allows, all intervals are stretched evenly.<br>
+ * The polls run on the shared AsyncTwitter dispatcher as BULK tasks, so they don't delay interactive calls.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.1.0
+ */
+public class SearchScheduler {
+    private final SearchMethods search;
+    private final Dispatcher dispatcher;
+    private final long minInterval;
+    private final long maxInterval;
+    private final double budget;
+    private final long spacing;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Map<Query, QueryState> states = new HashMap<Query, QueryState>();
+    private final PriorityQueue<QueryState> schedule = new PriorityQueue<QueryState>();
+    // requests per millisecond the queries want
+    private double demand = 0;
+    private long nextSlot = 0;
+    private boolean active = true;
+    private final Thread scheduler;
+
+    private static final double ALPHA = 0.3;
+    private static final int DEFAULT_RPP = 15;
+
+    /**
+     * @param search          the Twitter instance to search with
+     * @param requestsPerHour maximum number of search requests per hour across all queries
+     */
+    public SearchScheduler(SearchMethods search, int requestsPerHour) {
+        this(search, requestsPerHour, 10 * 1000, 15 * 60 * 1000);
+    }
+
+    /**
+     * @param search          the Twitter instance to search with
+     * @param requestsPerHour maximum number of search requests per hour across all queries
+     * @param minInterval     shortest interval between polls of a query in milliseconds
+     * @param maxInterval     longest interval between polls of a query in milliseconds
+     */
+    public SearchScheduler(SearchMethods search, int requestsPerHour, long minInterval, long maxInterval) {
+        this(search, AsyncTwitter.getSharedDispatcher(), requestsPerHour, minInterval, maxInterval);
+    }
+
+    /*package*/ SearchScheduler(SearchMethods search, Dispatcher dispatcher, int requestsPerHour, long minInterval, long maxInterval) {
+        if (requestsPerHour <= 0) {
+            throw new IllegalArgumentException("requestsPerHour must be positive: " + requestsPerHour);
+        }
+        if (minInterval <= 0 || maxInterval < minInterval) {
+            throw new IllegalArgumentException("invalid intervals: " + minInterval + ", " + maxInterval);
+        }
+        this.search = search;
+        this.dispatcher = dispatcher;
+        this.minInterval = minInterval;
+        this.maxInterval = maxInterval;
+        this.budget = requestsPerHour / (60 * 60 * 1000d);
+        this.spacing = 60 * 60 * 1000 / requestsPerHour;
+        scheduler = new Thread(new Runnable() {
+            public void run() {
+                schedule();
+            }
+        }, "Twitter4J Search Scheduler");
+        scheduler.setDaemon(true);
+        scheduler.start();
+    }
+
+    /**
+     * Starts polling a query. The first poll happens as soon as the budget allows.
+     *
+     * @param query    the query. The scheduler works on a copy, further changes to the query have no effect
+     * @param listener listener receiving the tweets
+     * @throws IllegalArgumentException when the query is already polled
+     * @throws IllegalStateException    when the scheduler is shut down
+     */
+    public void add(Query query, SearchListener listener) {
+        Query copy = new Query(query);
+        lock.lock();
+        try {
+            if (!active) {
+                throw new IllegalStateException("Already shutdown");
+            }
+            if (states.containsKey(copy)) {
+                throw new IllegalArgumentException("already scheduled: " + query);
+            }
+            QueryState state = new QueryState(copy, listener);
+            states.put(copy, state);
+            demand += 1d / state.interval;
+            schedule.add(state);
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops polling a query. A poll in progress still delivers its tweets.
+     *
+     * @param query the query
+     * @return false if the query wasn't polled
+     */
+    public boolean remove(Query query) {
+        lock.lock();
+        try {
+            QueryState state = states.remove(query);
+            if (null == state) {
+                return false;
+            }
+            state.removed = true;
+            demand -= 1d / state.interval;
+            schedule.remove(state);
+            changed.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops polling all queries.
+     */
+    public void shutdown() {
+        lock.lock();
+        try {
+            active = false;
+            for (QueryState state : states.values()) {
+                state.removed = true;
+            }
+            states.clear();
+            schedule.clear();
+            demand = 0;
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void schedule() {
+        while (true) {
+            QueryState due;
+            lock.lock();
+            try {
+                while (true) {
+                    if (!active) {
+                        return;
+                    }
+                    QueryState head = schedule.peek();
+                    long now = System.currentTimeMillis();
+                    if (null == head) {
+                        changed.awaitUninterruptibly();
+                    } else if (Math.max(head.nextPoll, nextSlot) > now) {
+                        try {
+                            changed.await(Math.max(head.nextPoll, nextSlot) - now, TimeUnit.MILLISECONDS);
+                        } catch (InterruptedException ignore) {
+                        }
+                    } else {
+                        due = schedule.poll();
+                        nextSlot = Math.max(now, nextSlot) + spacing;
+                        break;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            // dispatched outside the lock, invokeLater may block on a full queue
+            dispatcher.invokeLater(due, TaskPriority.BULK, this);
+        }
+    }
+
+    /*package*/ void polled(QueryState state, int newTweets, long now) {
+        lock.lock();
+        try {
+            if (0 < state.lastPoll && now > state.lastPoll) {
+                double rate = newTweets / (double) (now - state.lastPoll);
+                state.velocity = state.velocity < 0 ? rate : ALPHA * rate + (1 - ALPHA) * state.velocity;
+            }
+            state.lastPoll = now;
+            long interval;
+            if (0 == newTweets) {
+                interval = state.interval * 2;
+            } else if (0 < state.velocity) {
+                // poll when half a page of new tweets is expected, so that no tweet falls off the page
+                int rpp = 0 < state.query.getRpp() ? state.query.getRpp() : DEFAULT_RPP;
+                interval = (long) (rpp / 2d / state.velocity);
+            } else {
+                interval = state.interval;
+            }
+            interval = Math.max(minInterval, Math.min(maxInterval, interval));
+            if (!state.removed) {
+                demand += 1d / interval - 1d / state.interval;
+            }
+            state.interval = interval;
+            reschedule(state, now);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void reschedule(QueryState state, long now) {
+        if (state.removed) {
+            return;
+        }
+        // stretch evenly when the queries want more than the budget
+        state.nextPoll = now + (long) (state.interval * Math.max(1d, demand / budget));
+        schedule.add(state);
+        changed.signal();
+    }
+
+    private QueryState getState(Query query) {
+        lock.lock();
+        try {
+            QueryState state = states.get(query);
+            if (null == state) {
+                throw new IllegalArgumentException("not scheduled: " + query);
+            }
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param query the query
+     * @return current interval between polls in milliseconds, before stretching to the budget
+     * @throws IllegalArgumentException when the query is not polled
+     */
+    public long getInterval(Query query) {
+        QueryState state = getState(query);
+        lock.lock();
+        try {
+            return state.interval;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param query the query
+     * @return smoothed number of new tweets per minute, -1 until measured
+     * @throws IllegalArgumentException when the query is not polled
+     */
+    public double getVelocity(Query query) {
+        QueryState state = getState(query);
+        lock.lock();
+        try {
+            return state.velocity < 0 ? -1 : state.velocity * 60 * 1000;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param query the query
+     * @return smoothed time Twitter took to run the query in seconds, as reported by QueryResult.getCompletedIn(), -1 until measured
+     * @throws IllegalArgumentException when the query is not polled
+     */
+    public double getCompletedIn(Query query) {
+        QueryState state = getState(query);
+        lock.lock();
+        try {
+            return state.completedIn;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param query the query
+     * @return delay between the creation of a tweet and its delivery to the listener
+     * @throws IllegalArgumentException when the query is not polled
+     */
+    public LatencyHistogram getFreshness(Query query) {
+        return getState(query).freshness;
+    }
+
+    /**
+     * @param query the query
+     * @return number of polls
+     * @throws IllegalArgumentException when the query is not polled
+     */
+    public int getPollCount(Query query) {
+        return getState(query).cursor.getApiCallCount();
+    }
+
+    /*package*/ final class QueryState implements Dispatcher.RejectableTask, Comparable<QueryState> {
+        final Query query;
+        private final SearchListener listener;
+        // one page per poll, so that each poll costs a single request of the hourly budget
+        final SearchCursor cursor;
+        final LatencyHistogram freshness = new LatencyHistogram();
+        long interval = minInterval;
+        long nextPoll = 0;
+        long lastPoll = 0;
+        double velocity = -1;
+        double completedIn = -1;
+        boolean removed = false;
+
+        QueryState(Query query, SearchListener listener) {
+            this.query = query;
+            this.listener = listener;
+            this.cursor = new SearchCursor(search, query, 1) {
+                protected QueryResult search(Query query) throws TwitterException {
+                    QueryResult result = super.search(query);
+                    lock.lock();
+                    try {
+                        completedIn = completedIn < 0 ? result.getCompletedIn()
+                                : ALPHA * result.getCompletedIn() + (1 - ALPHA) * completedIn;
+                    } finally {
+                        lock.unlock();
+                    }
+                    return result;
+                }
+            };
+        }
+
+        public void run() {
+            lock.lock();
+            try {
+                // removed while waiting in the dispatcher queue
+                if (removed) {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+            List<Tweet> tweets;
+            try {
+                tweets = cursor.next();
+            } catch (TwitterException te) {
+                failed(te);
+                return;
+            } catch (RuntimeException re) {
+                // e.g. an unexpected response, the query must stay scheduled all the same
+                failed(new TwitterException(re));
+                return;
+            }
+            long now = System.currentTimeMillis();
+            for (Tweet tweet : tweets) {
+                if (null != tweet.getCreatedAt()) {
+                    freshness.record(now - tweet.getCreatedAt().getTime());
+                }
+            }
+            polled(this, tweets.size(), now);
+            if (0 < tweets.size()) {
+                listener.onTweets(query, tweets);
+            }
+        }
+
+        private void failed(TwitterException te) {
+            lock.lock();
+            try {
+                reschedule(this, System.currentTimeMillis());
+            } finally {
+                lock.unlock();
+            }
+            listener.onException(query, te);
+        }
+
+        public void rejected(RejectedExecutionException ree) {
+            lock.lock();
+            try {
+                reschedule(this, System.currentTimeMillis());
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        public int compareTo(QueryState that) {
+            return nextPoll < that.nextPoll ? -1 : (nextPoll == that.nextPoll ? 0 : 1);
+        }
+    }
+}
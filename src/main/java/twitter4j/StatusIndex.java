@@ -0,0 +1,363 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over the text of statuses and tweets, answering keyword, hashtag, mention, URL and user queries without calling the API.<br>
+ * Statuses are stored in segments covering segmentMillis of creation time each, and the oldest segment is evicted when there are more than maxSegments.
+ * Statuses can be added concurrently, from stream listeners for example, while queries run.<br>
+ * Text is split into lower-cased terms:
+ * <ul>
+ * <li>words, made of letters and digits</li>
+ * <li>hashtags such as #twitter4j, also indexed as the word twitter4j</li>
+ * <li>mentions such as @twitter4j</li>
+ * <li>URLs starting with http:// or https://</li>
+ * <li>from:screen_name for the author</li>
+ * </ul>
+ * A query is a space separated list of terms, and matches the statuses containing all of them.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.1.0
+ */
+public class StatusIndex {
+    private final long segmentMillis;
+    private final int maxSegments;
+    // segments by start time, guarded by itself
+    private final TreeMap<Long, Segment> segments = new TreeMap<Long, Segment>();
+
+    /**
+     * Creates an index keeping a day of statuses in hourly segments.
+     */
+    public StatusIndex() {
+        this(60 * 60 * 1000, 24);
+    }
+
+    /**
+     * @param segmentMillis time span of a segment in milliseconds
+     * @param maxSegments   number of segments to keep
+     */
+    public StatusIndex(long segmentMillis, int maxSegments) {
+        if (segmentMillis <= 0 || maxSegments <= 0) {
+            throw new IllegalArgumentException("invalid segments: " + segmentMillis + ", " + maxSegments);
+        }
+        this.segmentMillis = segmentMillis;
+        this.maxSegments = maxSegments;
+    }
+
+    /**
+     * Indexes a status.
+     *
+     * @param status status
+     * @return false if the status was already indexed, or is older than the segments kept
+     */
+    public boolean add(Status status) {
+        return add(status.getId(), status.getText(), null == status.getUser() ? null : status.getUser().getScreenName()
+                , status.getCreatedAt());
+    }
+
+    /**
+     * Indexes a tweet returned by search.
+     *
+     * @param tweet tweet
+     * @return false if the tweet was already indexed, or is older than the segments kept
+     */
+    public boolean add(Tweet tweet) {
+        return add(tweet.getId(), tweet.getText(), tweet.getFromUser(), tweet.getCreatedAt());
+    }
+
+    private boolean add(long id, String text, String screenName, Date createdAt) {
+        long time = null == createdAt ? System.currentTimeMillis() : createdAt.getTime();
+        Segment segment = getSegment(time - time % segmentMillis);
+        if (null == segment) {
+            return false;
+        }
+        List<String> terms = tokenize(text);
+        if (null != screenName) {
+            terms.add("from:" + screenName.toLowerCase());
+        }
+        return segment.add(id, terms);
+    }
+
+    private Segment getSegment(long start) {
+        synchronized (segments) {
+            Segment segment = segments.get(start);
+            if (null == segment) {
+                if (segments.size() >= maxSegments && start < segments.firstKey()) {
+                    return null;
+                }
+                segment = new Segment();
+                segments.put(start, segment);
+                while (segments.size() > maxSegments) {
+                    segments.remove(segments.firstKey());
+                }
+            }
+            return segment;
+        }
+    }
+
+    /**
+     * @param query space separated terms
+     * @param limit maximum number of ids to return
+     * @return ids of the statuses containing all terms, newest segment first
+     */
+    public long[] search(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.size() == 0 || limit <= 0) {
+            return new long[0];
+        }
+        Segment[] oldestFirst;
+        synchronized (segments) {
+            oldestFirst = segments.values().toArray(new Segment[segments.size()]);
+        }
+        long[] ids = new long[limit];
+        int count = 0;
+        for (int i = oldestFirst.length - 1; i >= 0 && count < limit; i--) {
+            count = oldestFirst[i].search(terms, ids, count);
+        }
+        long[] result = new long[count];
+        System.arraycopy(ids, 0, result, 0, count);
+        return result;
+    }
+
+    /**
+     * @return number of indexed statuses in the segments kept
+     */
+    public int size() {
+        int size = 0;
+        synchronized (segments) {
+            for (Segment segment : segments.values()) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return number of segments kept
+     */
+    public int getSegmentCount() {
+        synchronized (segments) {
+            return segments.size();
+        }
+    }
+
+    /**
+     * Splits text into index terms.
+     *
+     * @param text text
+     * @return lower-cased terms, in order of appearance
+     */
+    /*package*/ static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<String>();
+        if (null == text) {
+            return terms;
+        }
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if ((c == 'h' || c == 'H') && (text.regionMatches(true, i, "http://", 0, 7) || text.regionMatches(true, i, "https://", 0, 8))) {
+                int end = i;
+                while (end < length && !Character.isWhitespace(text.charAt(end))) {
+                    end++;
+                }
+                // trailing punctuation is rather part of the sentence than of the URL
+                while (end > i && ".,;:!?)'\"".indexOf(text.charAt(end - 1)) >= 0) {
+                    end--;
+                }
+                terms.add(text.substring(i, end).toLowerCase());
+                i = end;
+            } else if (c == '#' || c == '@' || c == '\uFF03' || c == '\uFF20') {
+                int end = i + 1;
+                while (end < length && isWordChar(text.charAt(end))) {
+                    end++;
+                }
+                if (end > i + 1) {
+                    String word = text.substring(i + 1, end).toLowerCase();
+                    if (c == '#' || c == '\uFF03') {
+                        terms.add("#" + word);
+                        terms.add(word);
+                    } else {
+                        terms.add("@" + word);
+                    }
+                }
+                i = end;
+            } else if (text.regionMatches(true, i, "from:", 0, 5) && (i == 0 || Character.isWhitespace(text.charAt(i - 1)))) {
+                int end = i + 5;
+                while (end < length && isWordChar(text.charAt(end))) {
+                    end++;
+                }
+                if (end > i + 5) {
+                    terms.add(text.substring(i, end).toLowerCase());
+                }
+                i = end;
+            } else if (isWordChar(c)) {
+                int end = i + 1;
+                while (end < length && isWordChar(text.charAt(end))) {
+                    end++;
+                }
+                terms.add(text.substring(i, end).toLowerCase());
+                i = end;
+            } else {
+                i++;
+            }
+        }
+        return terms;
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    /**
+     * Statuses of a time span. Documents are numbered in order of addition, so posting lists are sorted.
+     */
+    private static final class Segment {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private long[] ids = new long[64];
+        private int size = 0;
+        private final Map<String, IntList> postings = new HashMap<String, IntList>();
+        private final Set<Long> indexed = new HashSet<Long>();
+
+        boolean add(long id, List<String> terms) {
+            lock.writeLock().lock();
+            try {
+                if (!indexed.add(id)) {
+                    return false;
+                }
+                if (size == ids.length) {
+                    long[] grown = new long[size * 2];
+                    System.arraycopy(ids, 0, grown, 0, size);
+                    ids = grown;
+                }
+                int doc = size++;
+                ids[doc] = id;
+                for (String term : terms) {
+                    IntList posting = postings.get(term);
+                    if (null == posting) {
+                        posting = new IntList();
+                        postings.put(term, posting);
+                    }
+                    // a term repeated in a status is posted once
+                    if (posting.size == 0 || posting.get(posting.size - 1) != doc) {
+                        posting.add(doc);
+                    }
+                }
+                return true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Appends the ids of the matching documents, newest first, to result from offset until it is full.
+         *
+         * @return new offset
+         */
+        int search(List<String> terms, long[] result, int offset) {
+            lock.readLock().lock();
+            try {
+                IntList[] lists = new IntList[terms.size()];
+                for (int i = 0; i < lists.length; i++) {
+                    lists[i] = postings.get(terms.get(i));
+                    if (null == lists[i]) {
+                        return offset;
+                    }
+                }
+                // walk the shortest list backwards, checking the others
+                IntList shortest = lists[0];
+                for (IntList list : lists) {
+                    if (list.size < shortest.size) {
+                        shortest = list;
+                    }
+                }
+                int[] cursors = new int[lists.length];
+                for (int i = 0; i < lists.length; i++) {
+                    cursors[i] = lists[i].size - 1;
+                }
+                for (int i = shortest.size - 1; i >= 0 && offset < result.length; i--) {
+                    int doc = shortest.get(i);
+                    boolean all = true;
+                    for (int j = 0; j < lists.length && all; j++) {
+                        IntList list = lists[j];
+                        while (cursors[j] >= 0 && list.get(cursors[j]) > doc) {
+                            cursors[j]--;
+                        }
+                        all = cursors[j] >= 0 && list.get(cursors[j]) == doc;
+                    }
+                    if (all) {
+                        result[offset++] = ids[doc];
+                    }
+                }
+                return offset;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return size;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Growable list of primitive ints.
+     */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size = 0;
+
+        void add(int value) {
+            if (size == values.length) {
+                int[] grown = new int[size * 2];
+                System.arraycopy(values, 0, grown, 0, size);
+                values = grown;
+            }
+            values[size++] = value;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+    }
+}
@@ -0,0 +1,916 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An embedded, append-only local store for statuses.<br>
+ * Statuses are buffered in memory and written as immutable segment files sorted by status id.
+ * Each segment carries a sparse in-memory index (every {@value #INDEX_INTERVAL}th record) holding the first id
+ * and the created_at range of each block, and is read through a memory-mapped buffer.<br>
+ * Statuses are stored only once per id. Deletion notices are honored: a deleted status will not be returned,
+ * will not be stored again even if it arrives after the notice, and is dropped from disk by {@link #compact()}.<br>
+ * The store can be used as a StatusListener for the Streaming API, or as a sink for the ResponseList returned by timeline methods:
+ * <pre>
+ * StatusStore store = new StatusStore(new File("statuses"));
+ * store.store(twitter.getHomeTimeline());
+ * twitterStream.setStatusListener(store);
+ * </pre>
+ * Statuses buffered in memory are written to disk when the buffer exceeds the flush threshold, or when {@link #flush()} or {@link #close()} is called.<br>
+ * This class is thread safe.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.1.0
+ */
+public class StatusStore implements StatusListener {
+    /*package*/ static final int INDEX_INTERVAL = 64;
+    private static final int MAGIC = 0x54344A53; // "T4JS"
+    private static final int VERSION = 1;
+    private static final int FILE_HEADER_SIZE = 8;
+    // payload length(int), id(long), created_at(long), type(byte)
+    private static final int RECORD_HEADER_SIZE = 4 + 8 + 8 + 1;
+    private static final byte TYPE_STATUS = 0;
+    private static final byte TYPE_TOMBSTONE = 1;
+    private static final String SEGMENT_PREFIX = "statuses-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final File directory;
+    private final int flushThreshold;
+    private final long maxSegmentSize;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<Long, Record> memtable = new TreeMap<Long, Record>();
+    private final Set<Long> tombstones = new HashSet<Long>();
+    private List<Segment> segments = new ArrayList<Segment>();
+    private int nextGeneration = 0;
+    private boolean closed = false;
+
+    /**
+     * Opens the store located in the specified directory, creating the directory if necessary.
+     *
+     * @param directory the directory segment files are stored in
+     * @throws TwitterException when the directory cannot be created or the segment files cannot be read
+     */
+    public StatusStore(File directory) throws TwitterException {
+        this(directory, 1000, 256 * 1024 * 1024);
+    }
+
+    /**
+     * Opens the store located in the specified directory, creating the directory if necessary.
+     *
+     * @param directory      the directory segment files are stored in
+     * @param flushThreshold number of statuses buffered in memory before they get written to a new segment
+     * @param maxSegmentSize maximum size of a segment file in bytes written by compaction
+     * @throws TwitterException when the directory cannot be created or the segment files cannot be read
+     */
+    public StatusStore(File directory, int flushThreshold, long maxSegmentSize) throws TwitterException {
+        if (flushThreshold < 1) {
+            throw new IllegalArgumentException("flushThreshold should be positive integer. passed:" + flushThreshold);
+        }
+        if (maxSegmentSize > Integer.MAX_VALUE || maxSegmentSize < FILE_HEADER_SIZE) {
+            throw new IllegalArgumentException("maxSegmentSize out of range. passed:" + maxSegmentSize);
+        }
+        this.directory = directory;
+        this.flushThreshold = flushThreshold;
+        this.maxSegmentSize = maxSegmentSize;
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new TwitterException(new IOException("Cannot create directory:" + directory));
+        }
+        if (!directory.isDirectory()) {
+            throw new TwitterException(new IOException(directory + " is not a directory."));
+        }
+        open();
+    }
+
+    private void open() throws TwitterException {
+        File[] files = directory.listFiles();
+        List<Integer> generations = new ArrayList<Integer>();
+        for (File file : files) {
+            String name = file.getName();
+            if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(TEMP_SUFFIX)) {
+                // left over by an interrupted flush or compaction
+                file.delete();
+            } else if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                try {
+                    generations.add(Integer.parseInt(name.substring(SEGMENT_PREFIX.length()
+                            , name.length() - SEGMENT_SUFFIX.length())));
+                } catch (NumberFormatException ignore) {
+                }
+            }
+        }
+        Collections.sort(generations);
+        try {
+            for (Integer generation : generations) {
+                Segment segment = new Segment(generation, segmentFile(generation, SEGMENT_SUFFIX));
+                segments.add(segment);
+                segment.collectTombstones(tombstones);
+                nextGeneration = generation + 1;
+            }
+        } catch (IOException ioe) {
+            throw new TwitterException("Failed to open status store:" + directory, ioe);
+        }
+    }
+
+    /**
+     * Stores the specified status unless a status with the same id is already stored, or the status has been deleted.
+     *
+     * @param status status to be stored
+     * @return true if the status was newly stored
+     * @throws TwitterException when the status cannot be written to the disk
+     */
+    public boolean store(Status status) throws TwitterException {
+        lock.writeLock().lock();
+        try {
+            boolean stored = put(status);
+            if (memtable.size() >= flushThreshold) {
+                flushMemtable();
+            }
+            return stored;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Stores the specified statuses, typically a ResponseList returned by timeline methods.
+     *
+     * @param statuses statuses to be stored
+     * @return number of statuses newly stored
+     * @throws TwitterException when the statuses cannot be written to the disk
+     */
+    public int store(List<Status> statuses) throws TwitterException {
+        lock.writeLock().lock();
+        try {
+            int count = 0;
+            for (Status status : statuses) {
+                if (put(status)) {
+                    count++;
+                }
+            }
+            if (memtable.size() >= flushThreshold) {
+                flushMemtable();
+            }
+            return count;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean put(Status status) throws TwitterException {
+        ensureOpen();
+        long id = status.getId();
+        if (tombstones.contains(id) || null != find(id)) {
+            return false;
+        }
+        Date createdAt = status.getCreatedAt();
+        memtable.put(id, new Record(id, null != createdAt ? createdAt.getTime() : -1
+                , TYPE_STATUS, serialize(status), status));
+        return true;
+    }
+
+    /**
+     * Marks the specified status deleted.
+     *
+     * @param statusId the id of the status to be deleted
+     * @throws TwitterException when the tombstone cannot be written to the disk
+     */
+    public void delete(long statusId) throws TwitterException {
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            if (tombstones.add(statusId)) {
+                memtable.put(statusId, new Record(statusId, -1, TYPE_TOMBSTONE, new byte[0], null));
+                if (memtable.size() >= flushThreshold) {
+                    flushMemtable();
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the status with the specified id.
+     *
+     * @param statusId status id
+     * @return the status, or null if not stored
+     * @throws TwitterException when the segment file cannot be read
+     */
+    public Status getStatus(long statusId) throws TwitterException {
+        lock.readLock().lock();
+        try {
+            ensureOpen();
+            if (tombstones.contains(statusId)) {
+                return null;
+            }
+            Record record = find(statusId);
+            return null != record ? record.getStatus() : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Tests if the status with the specified id is stored.
+     *
+     * @param statusId status id
+     * @return true if stored
+     */
+    public boolean contains(long statusId) {
+        lock.readLock().lock();
+        try {
+            ensureOpen();
+            return !tombstones.contains(statusId) && null != find(statusId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns stored statuses with an id greater than sinceId and less than or equal to maxId, newest first.<br>
+     * The semantics of the parameters are the same as those of Paging.
+     *
+     * @param sinceId lower bound (exclusive), or -1 for no lower bound
+     * @param maxId   upper bound (inclusive), or -1 for no upper bound
+     * @return statuses
+     * @throws TwitterException when the segment file cannot be read
+     * @see Paging
+     */
+    public List<Status> getStatuses(long sinceId, long maxId) throws TwitterException {
+        long from = -1 == sinceId ? Long.MIN_VALUE : sinceId + 1;
+        long to = -1 == maxId ? Long.MAX_VALUE : maxId;
+        return query(from, to, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Returns stored statuses created at or after since and before until, newest first.
+     *
+     * @param since lower bound (inclusive), or null for no lower bound
+     * @param until upper bound (exclusive), or null for no upper bound
+     * @return statuses
+     * @throws TwitterException when the segment file cannot be read
+     */
+    public List<Status> getStatuses(Date since, Date until) throws TwitterException {
+        return query(Long.MIN_VALUE, Long.MAX_VALUE
+                , null == since ? Long.MIN_VALUE : since.getTime()
+                , null == until ? Long.MAX_VALUE : until.getTime() - 1);
+    }
+
+    private List<Status> query(long fromId, long toId, long fromTime, long toTime) throws TwitterException {
+        lock.readLock().lock();
+        try {
+            ensureOpen();
+            // keyed by id to eliminate duplicates across segments
+            TreeMap<Long, Record> result = new TreeMap<Long, Record>(Collections.reverseOrder());
+            for (Segment segment : segments) {
+                segment.query(fromId, toId, fromTime, toTime, result);
+            }
+            for (Record record : memtable.tailMap(fromId).values()) {
+                if (record.id > toId) {
+                    break;
+                }
+                if (TYPE_STATUS == record.type
+                        && fromTime <= record.createdAt && record.createdAt <= toTime) {
+                    result.put(record.id, record);
+                }
+            }
+            List<Status> statuses = new ArrayList<Status>(result.size());
+            for (Record record : result.values()) {
+                if (!tombstones.contains(record.id)) {
+                    statuses.add(record.getStatus());
+                }
+            }
+            return statuses;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of statuses stored, including ones not yet flushed.<br>
+     * Statuses stored more than once in segments not yet compacted are counted once per segment.
+     *
+     * @return number of statuses stored
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            int size = 0;
+            for (Segment segment : segments) {
+                size += segment.statusCount;
+            }
+            for (Record record : memtable.values()) {
+                if (TYPE_STATUS == record.type) {
+                    size++;
+                }
+            }
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of segment files.
+     *
+     * @return number of segment files
+     */
+    public int getSegmentCount() {
+        lock.readLock().lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes statuses buffered in memory to a new segment file.
+     *
+     * @throws TwitterException when the segment file cannot be written
+     */
+    public void flush() throws TwitterException {
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            flushMemtable();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void flushMemtable() throws TwitterException {
+        if (0 == memtable.size()) {
+            return;
+        }
+        SegmentWriter writer = new SegmentWriter();
+        try {
+            for (Record record : memtable.values()) {
+                writer.write(record);
+            }
+            segments.addAll(writer.finish());
+        } catch (IOException ioe) {
+            writer.abort();
+            throw new TwitterException("Failed to write segment:" + directory, ioe);
+        }
+        memtable.clear();
+    }
+
+    /**
+     * Merges all segment files into a minimum number of segments, dropping duplicates and deleted statuses.
+     *
+     * @throws TwitterException when the segment files cannot be read or written
+     */
+    public void compact() throws TwitterException {
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            flushMemtable();
+            if (segments.size() < 2 && !hasDeletedStatuses()) {
+                return;
+            }
+            List<Segment> merged = segments;
+            SegmentWriter writer = new SegmentWriter();
+            try {
+                List<Segment.Cursor> cursors = new ArrayList<Segment.Cursor>(merged.size());
+                for (Segment segment : merged) {
+                    Segment.Cursor cursor = segment.cursor(FILE_HEADER_SIZE);
+                    if (cursor.next()) {
+                        cursors.add(cursor);
+                    }
+                }
+                long lastId = 0;
+                boolean first = true;
+                while (cursors.size() > 0) {
+                    // k-way merge of segments sorted by id
+                    Segment.Cursor min = cursors.get(0);
+                    for (Segment.Cursor cursor : cursors) {
+                        if (cursor.id < min.id) {
+                            min = cursor;
+                        }
+                    }
+                    if (first || min.id != lastId) {
+                        if (tombstones.contains(min.id)) {
+                            // keep the deletion even if the status record comes first
+                            writer.write(new Record(min.id, -1, TYPE_TOMBSTONE, new byte[0], null));
+                        } else {
+                            writer.write(min.toRecord());
+                        }
+                        lastId = min.id;
+                        first = false;
+                    }
+                    if (!min.next()) {
+                        cursors.remove(min);
+                    }
+                }
+                segments = new ArrayList<Segment>(writer.finish());
+            } catch (IOException ioe) {
+                writer.abort();
+                throw new TwitterException("Failed to compact segments:" + directory, ioe);
+            }
+            for (Segment segment : merged) {
+                segment.delete();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean hasDeletedStatuses() {
+        for (Segment segment : segments) {
+            if (segment.containsAny(tombstones)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Flushes buffered statuses and releases the segment files.
+     *
+     * @throws TwitterException when the segment file cannot be written
+     */
+    public void close() throws TwitterException {
+        lock.writeLock().lock();
+        try {
+            if (!closed) {
+                flushMemtable();
+                for (Segment segment : segments) {
+                    segment.close();
+                }
+                closed = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("StatusStore already closed.");
+        }
+    }
+
+    private Record find(long id) {
+        Record record = memtable.get(id);
+        if (null != record) {
+            return record;
+        }
+        // newer segments are more likely to contain recent statuses
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            record = segments.get(i).find(id);
+            if (null != record) {
+                return record;
+            }
+        }
+        return null;
+    }
+
+    private File segmentFile(int generation, String suffix) {
+        String num = String.valueOf(generation);
+        StringBuffer buf = new StringBuffer(SEGMENT_PREFIX);
+        for (int i = num.length(); i < 8; i++) {
+            buf.append('0');
+        }
+        return new File(directory, buf.append(num).append(suffix).toString());
+    }
+
+    private static byte[] serialize(Status status) throws TwitterException {
+        try {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream(1024);
+            ObjectOutputStream oos = new ObjectOutputStream(baos);
+            oos.writeObject(status);
+            oos.close();
+            return baos.toByteArray();
+        } catch (IOException ioe) {
+            throw new TwitterException("Failed to serialize status:" + status.getId(), ioe);
+        }
+    }
+
+    private static Status deserialize(byte[] payload) {
+        try {
+            return (Status) new ObjectInputStream(new ByteArrayInputStream(payload)).readObject();
+        } catch (IOException ioe) {
+            throw new IllegalStateException("Corrupted status record:" + ioe.getMessage());
+        } catch (ClassNotFoundException cnfe) {
+            throw new IllegalStateException("Corrupted status record:" + cnfe.getMessage());
+        }
+    }
+
+    /* StatusListener */
+
+    /**
+     * Stores the status received from the stream.
+     * {@inheritDoc}
+     */
+    public void onStatus(Status status) {
+        try {
+            store(status);
+        } catch (TwitterException te) {
+            onException(te);
+        }
+    }
+
+    /**
+     * Marks the status deleted.
+     * {@inheritDoc}
+     */
+    public void onDeletionNotice(StatusDeletionNotice statusDeletionNotice) {
+        try {
+            delete(statusDeletionNotice.getStatusId());
+        } catch (TwitterException te) {
+            onException(te);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void onTrackLimitationNotice(int numberOfLimitedStatuses) {
+    }
+
+    /**
+     * Called when the store fails to write statuses received from the stream.<br>
+     * The default implementation prints the stack trace; override to handle errors.
+     * {@inheritDoc}
+     */
+    public void onException(Exception ex) {
+        ex.printStackTrace();
+    }
+
+    @Override
+    public String toString() {
+        return "StatusStore{" +
+                "directory=" + directory +
+                ", segments=" + segments.size() +
+                ", buffered=" + memtable.size() +
+                ", tombstones=" + tombstones.size() +
+                '}';
+    }
+
+    /**
+     * A single record either in memory or in a segment file.
+     */
+    private static final class Record {
+        final long id;
+        final long createdAt;
+        final byte type;
+        final byte[] payload;
+        Status status;
+
+        Record(long id, long createdAt, byte type, byte[] payload, Status status) {
+            this.id = id;
+            this.createdAt = createdAt;
+            this.type = type;
+            this.payload = payload;
+            this.status = status;
+        }
+
+        Status getStatus() {
+            if (null == status) {
+                status = deserialize(payload);
+            }
+            return status;
+        }
+
+        int size() {
+            return RECORD_HEADER_SIZE + payload.length;
+        }
+    }
+
+    /**
+     * Writes records in id order into one or more new segment files, rolling over at maxSegmentSize.
+     */
+    private final class SegmentWriter {
+        private final List<File> written = new ArrayList<File>();
+        private final List<Integer> generations = new ArrayList<Integer>();
+        private FileChannel channel = null;
+        private File current;
+        private long position;
+        private final ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+
+        void write(Record record) throws IOException {
+            if (null == channel || position + record.size() > maxSegmentSize && position > FILE_HEADER_SIZE) {
+                roll();
+            }
+            header.clear();
+            header.putInt(record.payload.length).putLong(record.id)
+                    .putLong(record.createdAt).put(record.type);
+            header.flip();
+            ByteBuffer[] buffers = new ByteBuffer[]{header, ByteBuffer.wrap(record.payload)};
+            long remaining = record.size();
+            while (remaining > 0) {
+                remaining -= channel.write(buffers);
+            }
+            position += record.size();
+        }
+
+        private void roll() throws IOException {
+            closeCurrent();
+            int generation = nextGeneration++;
+            current = segmentFile(generation, TEMP_SUFFIX);
+            generations.add(generation);
+            channel = new FileOutputStream(current).getChannel();
+            ByteBuffer fileHeader = ByteBuffer.allocate(FILE_HEADER_SIZE);
+            fileHeader.putInt(MAGIC).putInt(VERSION).flip();
+            while (fileHeader.hasRemaining()) {
+                channel.write(fileHeader);
+            }
+            position = FILE_HEADER_SIZE;
+        }
+
+        private void closeCurrent() throws IOException {
+            if (null != channel) {
+                channel.force(true);
+                channel.close();
+                channel = null;
+                written.add(current);
+            }
+        }
+
+        List<Segment> finish() throws IOException {
+            closeCurrent();
+            List<Segment> result = new ArrayList<Segment>(written.size());
+            for (int i = 0; i < written.size(); i++) {
+                int generation = generations.get(i);
+                File segmentFile = segmentFile(generation, SEGMENT_SUFFIX);
+                if (!written.get(i).renameTo(segmentFile)) {
+                    throw new IOException("Failed to rename " + written.get(i) + " to " + segmentFile);
+                }
+                result.add(new Segment(generation, segmentFile));
+            }
+            return result;
+        }
+
+        void abort() {
+            try {
+                if (null != channel) {
+                    channel.close();
+                }
+            } catch (IOException ignore) {
+            }
+            if (null != current) {
+                current.delete();
+            }
+            for (File file : written) {
+                file.delete();
+            }
+        }
+    }
+
+    /**
+     * An immutable segment file sorted by status id, read through a memory-mapped buffer.
+     */
+    private static final class Segment {
+        final int generation;
+        final File file;
+        private RandomAccessFile raf;
+        private final MappedByteBuffer buffer;
+        int statusCount = 0;
+        private int recordCount = 0;
+        private long minId = Long.MAX_VALUE;
+        private long maxId = Long.MIN_VALUE;
+        // sparse index: one entry per INDEX_INTERVAL records
+        private long[] blockFirstIds = new long[16];
+        private int[] blockOffsets = new int[16];
+        private long[] blockMinTimes = new long[16];
+        private long[] blockMaxTimes = new long[16];
+        private int blockCount = 0;
+
+        Segment(int generation, File file) throws IOException {
+            this.generation = generation;
+            this.file = file;
+            raf = new RandomAccessFile(file, "r");
+            FileChannel channel = raf.getChannel();
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.limit() < FILE_HEADER_SIZE || MAGIC != buffer.getInt(0)) {
+                raf.close();
+                throw new IOException("Not a status segment file:" + file);
+            }
+            if (VERSION != buffer.getInt(4)) {
+                raf.close();
+                throw new IOException("Unsupported segment version:" + buffer.getInt(4));
+            }
+            buildIndex();
+        }
+
+        private void buildIndex() {
+            Cursor cursor = cursor(FILE_HEADER_SIZE);
+            while (cursor.next()) {
+                if (0 == recordCount % INDEX_INTERVAL) {
+                    if (blockCount == blockFirstIds.length) {
+                        growIndex();
+                    }
+                    blockFirstIds[blockCount] = cursor.id;
+                    blockOffsets[blockCount] = cursor.offset;
+                    blockMinTimes[blockCount] = Long.MAX_VALUE;
+                    blockMaxTimes[blockCount] = Long.MIN_VALUE;
+                    blockCount++;
+                }
+                int block = blockCount - 1;
+                if (TYPE_STATUS == cursor.type) {
+                    statusCount++;
+                    blockMinTimes[block] = Math.min(blockMinTimes[block], cursor.createdAt);
+                    blockMaxTimes[block] = Math.max(blockMaxTimes[block], cursor.createdAt);
+                }
+                minId = Math.min(minId, cursor.id);
+                maxId = Math.max(maxId, cursor.id);
+                recordCount++;
+            }
+        }
+
+        private void growIndex() {
+            int newLength = blockFirstIds.length * 2;
+            blockFirstIds = grow(blockFirstIds, newLength);
+            blockMinTimes = grow(blockMinTimes, newLength);
+            blockMaxTimes = grow(blockMaxTimes, newLength);
+            int[] offsets = new int[newLength];
+            System.arraycopy(blockOffsets, 0, offsets, 0, blockCount);
+            blockOffsets = offsets;
+        }
+
+        private static long[] grow(long[] array, int newLength) {
+            long[] newArray = new long[newLength];
+            System.arraycopy(array, 0, newArray, 0, array.length);
+            return newArray;
+        }
+
+        /**
+         * @return index of the last block whose first id is less than or equal to the specified id, or 0
+         */
+        private int blockOf(long id) {
+            int index = Arrays.binarySearch(blockFirstIds, 0, blockCount, id);
+            if (index < 0) {
+                index = -index - 2;
+            }
+            return Math.max(index, 0);
+        }
+
+        Record find(long id) {
+            if (0 == recordCount || id < minId || maxId < id) {
+                return null;
+            }
+            int block = blockOf(id);
+            Cursor cursor = cursor(blockOffsets[block]);
+            for (int i = 0; i < INDEX_INTERVAL && cursor.next(); i++) {
+                if (cursor.id == id) {
+                    return cursor.toRecord();
+                } else if (cursor.id > id) {
+                    break;
+                }
+            }
+            return null;
+        }
+
+        void query(long fromId, long toId, long fromTime, long toTime, Map<Long, Record> result) {
+            if (0 == recordCount || toId < minId || maxId < fromId) {
+                return;
+            }
+            for (int block = blockOf(fromId); block < blockCount; block++) {
+                if (blockFirstIds[block] > toId) {
+                    break;
+                }
+                if (blockMaxTimes[block] < fromTime || toTime < blockMinTimes[block]) {
+                    // no status in this block was created within the time range
+                    continue;
+                }
+                Cursor cursor = cursor(blockOffsets[block]);
+                for (int i = 0; i < INDEX_INTERVAL && cursor.next(); i++) {
+                    if (cursor.id > toId) {
+                        break;
+                    }
+                    if (TYPE_STATUS == cursor.type && fromId <= cursor.id
+                            && fromTime <= cursor.createdAt && cursor.createdAt <= toTime
+                            && !result.containsKey(cursor.id)) {
+                        result.put(cursor.id, cursor.toRecord());
+                    }
+                }
+            }
+        }
+
+        void collectTombstones(Set<Long> tombstones) {
+            Cursor cursor = cursor(FILE_HEADER_SIZE);
+            while (cursor.next()) {
+                if (TYPE_TOMBSTONE == cursor.type) {
+                    tombstones.add(cursor.id);
+                }
+            }
+        }
+
+        boolean containsAny(Set<Long> ids) {
+            for (Iterator<Long> it = ids.iterator(); it.hasNext();) {
+                Record record = find(it.next());
+                if (null != record && TYPE_STATUS == record.type) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        Cursor cursor(int offset) {
+            return new Cursor(offset);
+        }
+
+        void close() {
+            try {
+                raf.close();
+            } catch (IOException ignore) {
+            }
+        }
+
+        void delete() {
+            close();
+            file.delete();
+        }
+
+        /**
+         * Sequentially reads record headers, using absolute reads so that cursors can be used concurrently.
+         */
+        final class Cursor {
+            private int next;
+            int offset;
+            long id;
+            long createdAt;
+            byte type;
+            int payloadLength;
+
+            Cursor(int offset) {
+                this.next = offset;
+            }
+
+            boolean next() {
+                if (next + RECORD_HEADER_SIZE > buffer.limit()) {
+                    return false;
+                }
+                int length = buffer.getInt(next);
+                if (length < 0 || next + RECORD_HEADER_SIZE + length > buffer.limit()) {
+                    // truncated record
+                    return false;
+                }
+                offset = next;
+                payloadLength = length;
+                id = buffer.getLong(offset + 4);
+                createdAt = buffer.getLong(offset + 12);
+                type = buffer.get(offset + 20);
+                next = offset + RECORD_HEADER_SIZE + payloadLength;
+                return true;
+            }
+
+            Record toRecord() {
+                byte[] payload = new byte[payloadLength];
+                ByteBuffer slice = buffer.duplicate();
+                slice.position(offset + RECORD_HEADER_SIZE);
+                slice.get(payload);
+                return new Record(id, createdAt, type, payload, null);
+            }
+        }
+    }
+}
@@ -26,7 +26,6 @@ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 */
 package twitter4j;
 
-import twitter4j.conf.Configuration;
 import twitter4j.http.Response;
 import twitter4j.org.json.JSONException;
 import twitter4j.org.json.JSONObject;
@@ -41,12 +40,11 @@ import java.io.InputStreamReader;
  * @since Twitter4J 2.0.4
  */
 public class StatusStream {
-    private static final boolean DEBUG = Configuration.getInstance().isDebug();
-
     private boolean streamAlive = true;
     private BufferedReader br;
     private InputStream is;
     private Response response;
+    private boolean debug = false;
 
     /*package*/
 
@@ -56,9 +54,10 @@ public class StatusStream {
     }
     /*package*/
 
-    StatusStream(Response response) throws IOException {
+    StatusStream(Response response, boolean debug) throws IOException {
         this(response.asStream());
         this.response = response;
+        this.debug = debug;
     }
 
     public void next(StatusListener listener) throws TwitterException {
@@ -73,11 +72,16 @@ public class StatusStream {
                 try {
                     JSONObject json = new JSONObject(line);
                     if (!json.isNull("text")) {
+                        Metrics.getCollector().streamMessageReceived("status");
                         listener.onStatus(new StatusJSONImpl(json));
                     } else if (!json.isNull("delete")) {
+                        Metrics.getCollector().streamMessageReceived("delete");
                         listener.onDeletionNotice(new StatusDeletionNotice(json));
                     } else if (!json.isNull("limit")) {
+                        Metrics.getCollector().streamMessageReceived("limit");
                         listener.onTrackLimitationNotice(ParseUtil.getInt("track", json.getJSONObject("limit")));
+                    } else {
+                        Metrics.getCollector().streamMessageReceived("unknown");
                     }
                 } catch (JSONException ex) {
                     listener.onException(ex);
@@ -103,13 +107,13 @@ public class StatusStream {
     }
 
     private void log(String message) {
-        if (DEBUG) {
+        if (debug) {
             System.out.println("[" + new java.util.Date() + "]" + message);
         }
     }
 
     private void log(String message, String message2) {
-        if (DEBUG) {
+        if (debug) {
             log(message + message2);
         }
     }
@@ -0,0 +1,148 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j;
+
+import java.io.ObjectStreamException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static twitter4j.TwitterMethod.*;
+
+/**
+ * Priority class of an asynchronous call. The dispatcher always runs queued interactive calls before normal ones, and normal ones before bulk ones.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.1.0
+ */
+public final class TaskPriority implements java.io.Serializable {
+    private final String name;
+    private final int level;
+    private static final Map<String, TaskPriority> instances = new HashMap<String, TaskPriority>(3);
+
+    /**
+     * Calls made on behalf of a waiting user, such as posting a status or sending a direct message.
+     */
+    public static final TaskPriority INTERACTIVE = new TaskPriority("INTERACTIVE", 0);
+    public static final TaskPriority NORMAL = new TaskPriority("NORMAL", 1);
+    /**
+     * Crawls over followers, friends, list members and the like.
+     */
+    public static final TaskPriority BULK = new TaskPriority("BULK", 2);
+
+    private static final TaskPriority[] values = {INTERACTIVE, NORMAL, BULK};
+
+    private static final Set<TwitterMethod> interactiveMethods = new HashSet<TwitterMethod>();
+    private static final Set<TwitterMethod> bulkMethods = new HashSet<TwitterMethod>();
+
+    static {
+        TwitterMethod[] interactive = {UPDATE_STATUS, DESTROY_STATUS, RETWEET_STATUS, SEND_DIRECT_MESSAGE
+                , DESTROY_DIRECT_MESSAGES, CREATE_FRIENDSHIP, DESTROY_FRIENDSHIP, CREATE_FAVORITE, DESTROY_FAVORITE
+                , CREATE_BLOCK, DESTROY_BLOCK, ENABLE_NOTIFICATION, DISABLE_NOTIFICATION, UPDATE_PROFILE
+                , UPDATE_PROFILE_COLORS, UPDATE_PROFILE_IMAGE, UPDATE_PROFILE_BACKGROUND_IMAGE, UPDATE_DELIVERY_DEVICE};
+        for (TwitterMethod method : interactive) {
+            interactiveMethods.add(method);
+        }
+        TwitterMethod[] bulk = {FRIENDS_STATUSES, FOLLOWERS_STATUSES, FRIENDS_IDS, FOLLOWERS_IDS, LIST_MEMBERS
+                , LIST_SUBSCRIBERS, USER_LIST_MEMBERSHIPS, USER_LIST_SUBSCRIPTIONS, BLOCKING_USERS, BLOCKING_USERS_IDS};
+        for (TwitterMethod method : bulk) {
+            bulkMethods.add(method);
+        }
+    }
+
+    private static final long serialVersionUID = 2416342707423125226L;
+
+    private TaskPriority(String name, int level) {
+        this.name = name;
+        this.level = level;
+        instances.put(name, this);
+    }
+
+    public final String name() {
+        return name;
+    }
+
+    /**
+     * @return 0 for the highest priority
+     */
+    /*package*/ int level() {
+        return level;
+    }
+
+    /**
+     * @return all priorities, highest first
+     */
+    public static TaskPriority[] values() {
+        return values.clone();
+    }
+
+    /**
+     * @param method method
+     * @return the priority the dispatcher gives to the method
+     */
+    public static TaskPriority of(TwitterMethod method) {
+        if (interactiveMethods.contains(method)) {
+            return INTERACTIVE;
+        } else if (bulkMethods.contains(method)) {
+            return BULK;
+        }
+        return NORMAL;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TaskPriority)) return false;
+
+        TaskPriority that = (TaskPriority) o;
+
+        if (!name.equals(that.name)) return false;
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return name.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "TaskPriority{" +
+                "name='" + name + '\'' +
+                '}';
+    }
+
+    private static TaskPriority getInstance(String name) {
+        return instances.get(name);
+    }
+
+    private Object readResolve() throws ObjectStreamException {
+        return getInstance(name);
+    }
+}
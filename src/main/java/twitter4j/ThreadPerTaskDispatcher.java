@@ -0,0 +1,80 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A dispatcher which runs each task on a new daemon thread instead of queueing it for a fixed pool.<br>
+ * Suited to many concurrent blocking calls or long-lived streams, combined with a small stack size to keep the footprint per thread low.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.1.0
+ */
+/*package*/ class ThreadPerTaskDispatcher extends Dispatcher {
+    private final String name;
+    private final long stackSize;
+    private final AtomicLong count = new AtomicLong(0);
+    private volatile boolean active = true;
+
+    /**
+     * @param name      prefix of the thread names
+     * @param stackSize stack size of the threads in bytes, 0 for the JVM default
+     */
+    ThreadPerTaskDispatcher(String name, long stackSize) {
+        super(name, 0, stackSize);
+        this.name = name;
+        this.stackSize = stackSize;
+    }
+
+    /**
+     * Starts the task right away, priority and tenant are irrelevant as nothing is queued.
+     */
+    public void invokeLater(final Runnable task, TaskPriority priority, Object tenant) {
+        if (!active) {
+            Metrics.getCollector().taskRejected(name, priority);
+            rejected(task, "Already shutdown", true);
+            return;
+        }
+        Thread thread = new Thread(null, new Runnable() {
+            public void run() {
+                try {
+                    task.run();
+                } catch (Exception ex) {
+                    ex.printStackTrace();
+                }
+            }
+        }, name + "[" + count.getAndIncrement() + "]", stackSize);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void shutdown() {
+        super.shutdown();
+        active = false;
+    }
+}
@@ -0,0 +1,525 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j;
+
+import twitter4j.api.ListMethods;
+import twitter4j.api.TimelineMethods;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Incrementally synchronizes timelines using since_id / max_id.<br>
+ * For each timeline the synchronizer remembers the newest status id seen (the high-water mark).
+ * A sync fetches statuses newer than the high-water mark, walking backwards with max_id until the last known status shows up.
+ * A short page doesn't end the walk, since timelines may return fewer statuses than requested.<br>
+ * Each request asks for since_id = high-water mark - 1 so that the page includes the last known status;
+ * the walk stops as soon as that status shows up, saving the extra request that would otherwise be needed to find out that there is nothing left.<br>
+ * When the number of pages per sync is exhausted before reaching the known statuses, the remaining range is remembered as a gap and is filled on subsequent syncs.
+ * Gaps are kept apart, newest first, so that statuses between them, already returned, are never fetched again.<br>
+ * Cursors are kept in a {@link CursorStore}, so that one synchronizer can serve any number of accounts:
+ * <pre>
+ * TimelineSynchronizer synchronizer = new TimelineSynchronizer(new TimelineSynchronizer.FileCursorStore(new File("cursors.properties")));
+ * List&lt;Status&gt; newStatuses = synchronizer.sync(TimelineSynchronizer.homeTimeline("alice", twitter));
+ * </pre>
+ * Instances of this class are thread safe as long as the same timeline is not synchronized concurrently.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.1.0
+ */
+public class TimelineSynchronizer {
+    private final CursorStore cursorStore;
+    private final int pageSize;
+    private final int maxPagesPerSync;
+    private final AtomicLong apiCallCount = new AtomicLong(0);
+
+    /**
+     * Creates a synchronizer with 200 statuses per page and up to 4 pages per sync.
+     *
+     * @param cursorStore store for the cursors
+     */
+    public TimelineSynchronizer(CursorStore cursorStore) {
+        this(cursorStore, 200, 4);
+    }
+
+    /**
+     * @param cursorStore     store for the cursors
+     * @param pageSize        number of statuses requested per page
+     * @param maxPagesPerSync maximum number of requests issued per timeline in a single sync
+     */
+    public TimelineSynchronizer(CursorStore cursorStore, int pageSize, int maxPagesPerSync) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("pageSize should be positive integer. passed:" + pageSize);
+        }
+        if (maxPagesPerSync < 1) {
+            throw new IllegalArgumentException("maxPagesPerSync should be positive integer. passed:" + maxPagesPerSync);
+        }
+        this.cursorStore = cursorStore;
+        this.pageSize = pageSize;
+        this.maxPagesPerSync = maxPagesPerSync;
+    }
+
+    /**
+     * Fetches statuses posted to the timeline since the last sync.<br>
+     * The first sync of a timeline fetches the latest page only.
+     *
+     * @param timeline timeline to be synchronized
+     * @return statuses not seen in previous syncs, newest first
+     * @throws TwitterException when Twitter service or network is unavailable. The cursor is left untouched.
+     */
+    public List<Status> sync(Timeline timeline) throws TwitterException {
+        Cursor cursor = cursorStore.getCursor(timeline.getKey());
+        // keyed by id, newest first
+        TreeMap<Long, Status> fetched = new TreeMap<Long, Status>(Collections.reverseOrder());
+        Cursor newCursor;
+        if (null == cursor || -1 == cursor.getSinceId()) {
+            fetchPage(timeline, -1, -1, fetched);
+            newCursor = new Cursor(newestId(fetched, -1), -1, -1);
+        } else {
+            int[] budget = new int[]{maxPagesPerSync};
+            List<Long> gaps = new ArrayList<Long>();
+            long newGapMaxId = walk(timeline, cursor.getSinceId(), -1, budget, fetched);
+            if (-1 != newGapMaxId) {
+                gaps.add(cursor.getSinceId());
+                gaps.add(newGapMaxId);
+            }
+            // the remaining pages fill the older gaps, newest first
+            for (int i = 0; i < cursor.getGapCount(); i++) {
+                long gapMaxId = cursor.getGapMaxId(i);
+                if (budget[0] > 0) {
+                    gapMaxId = walk(timeline, cursor.getGapSinceId(i), gapMaxId, budget, fetched);
+                }
+                if (-1 != gapMaxId) {
+                    gaps.add(cursor.getGapSinceId(i));
+                    gaps.add(gapMaxId);
+                }
+            }
+            long[] gapArray = new long[gaps.size()];
+            for (int i = 0; i < gapArray.length; i++) {
+                gapArray[i] = gaps.get(i);
+            }
+            newCursor = new Cursor(newestId(fetched, cursor.getSinceId()), gapArray);
+        }
+        cursorStore.setCursor(timeline.getKey(), newCursor);
+        return new ArrayList<Status>(fetched.values());
+    }
+
+    /**
+     * Walks backwards from maxId until the known status sinceId shows up.
+     *
+     * @return max_id to resume from, or -1 if the walk has been completed
+     */
+    private long walk(Timeline timeline, long sinceId, long maxId, int[] budget
+            , Map<Long, Status> fetched) throws TwitterException {
+        while (budget[0] > 0) {
+            budget[0]--;
+            ResponseList<Status> page = fetchPage(timeline, sinceId > 1 ? sinceId - 1 : -1, maxId, null);
+            boolean overlapped = false;
+            long oldest = Long.MAX_VALUE;
+            for (Status status : page) {
+                if (status.getId() <= sinceId) {
+                    overlapped = true;
+                } else {
+                    fetched.put(status.getId(), status);
+                }
+                oldest = Math.min(oldest, status.getId());
+            }
+            if (overlapped || 0 == page.size()) {
+                return -1;
+            }
+            maxId = oldest - 1;
+        }
+        return maxId;
+    }
+
+    private ResponseList<Status> fetchPage(Timeline timeline, long sinceId, long maxId
+            , Map<Long, Status> fetched) throws TwitterException {
+        Paging paging = new Paging().count(pageSize);
+        if (-1 != sinceId) {
+            paging.setSinceId(sinceId);
+        }
+        if (-1 != maxId) {
+            paging.setMaxId(maxId);
+        }
+        apiCallCount.incrementAndGet();
+        ResponseList<Status> page = timeline.getStatuses(paging);
+        if (null != fetched) {
+            for (Status status : page) {
+                fetched.put(status.getId(), status);
+            }
+        }
+        return page;
+    }
+
+    private static long newestId(TreeMap<Long, Status> fetched, long defaultValue) {
+        return 0 == fetched.size() ? defaultValue : Math.max(fetched.firstKey(), defaultValue);
+    }
+
+    /**
+     * Returns the number of API requests issued by this synchronizer.
+     *
+     * @return the number of API requests
+     */
+    public long getApiCallCount() {
+        return apiCallCount.get();
+    }
+
+    public CursorStore getCursorStore() {
+        return cursorStore;
+    }
+
+    /* Timelines */
+
+    /**
+     * A timeline to be synchronized, identified by a key unique in the CursorStore.
+     */
+    public static abstract class Timeline {
+        private final String key;
+
+        protected Timeline(String key) {
+            this.key = key;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * Fetches a page of the timeline.
+         *
+         * @param paging controls pagination
+         * @return statuses, newest first
+         * @throws TwitterException when Twitter service or network is unavailable
+         */
+        protected abstract ResponseList<Status> getStatuses(Paging paging) throws TwitterException;
+
+        @Override
+        public String toString() {
+            return "Timeline{" +
+                    "key='" + key + '\'' +
+                    '}';
+        }
+    }
+
+    /**
+     * @param owner   identifies the authenticating account in the CursorStore
+     * @param twitter authenticated instance of the account
+     * @return the home timeline of the account
+     */
+    public static Timeline homeTimeline(String owner, final TimelineMethods twitter) {
+        return new Timeline(owner + "/home") {
+            protected ResponseList<Status> getStatuses(Paging paging) throws TwitterException {
+                return twitter.getHomeTimeline(paging);
+            }
+        };
+    }
+
+    /**
+     * @param owner   identifies the authenticating account in the CursorStore
+     * @param twitter authenticated instance of the account
+     * @return the mentions of the account
+     */
+    public static Timeline mentions(String owner, final TimelineMethods twitter) {
+        return new Timeline(owner + "/mentions") {
+            protected ResponseList<Status> getStatuses(Paging paging) throws TwitterException {
+                return twitter.getMentions(paging);
+            }
+        };
+    }
+
+    /**
+     * @param owner   identifies the authenticating account in the CursorStore
+     * @param twitter authenticated instance of the account
+     * @param userId  the user whose timeline is synchronized
+     * @return the user timeline
+     */
+    public static Timeline userTimeline(String owner, final TimelineMethods twitter, final int userId) {
+        return new Timeline(owner + "/user/" + userId) {
+            protected ResponseList<Status> getStatuses(Paging paging) throws TwitterException {
+                return twitter.getUserTimeline(userId, paging);
+            }
+        };
+    }
+
+    /**
+     * @param owner      identifies the authenticating account in the CursorStore
+     * @param twitter    authenticated instance of the account
+     * @param screenName the user whose timeline is synchronized
+     * @return the user timeline
+     */
+    public static Timeline userTimeline(String owner, final TimelineMethods twitter, final String screenName) {
+        return new Timeline(owner + "/user/" + screenName) {
+            protected ResponseList<Status> getStatuses(Paging paging) throws TwitterException {
+                return twitter.getUserTimeline(screenName, paging);
+            }
+        };
+    }
+
+    /**
+     * @param owner               identifies the authenticating account in the CursorStore
+     * @param twitter             authenticated instance of the account
+     * @param listOwnerScreenName the screen name of the list owner
+     * @param listId              the id of the list
+     * @return the list timeline
+     */
+    public static Timeline userListStatuses(String owner, final ListMethods twitter
+            , final String listOwnerScreenName, final int listId) {
+        return new Timeline(owner + "/list/" + listOwnerScreenName + "/" + listId) {
+            protected ResponseList<Status> getStatuses(Paging paging) throws TwitterException {
+                return twitter.getUserListStatuses(listOwnerScreenName, listId, paging);
+            }
+        };
+    }
+
+    /* Cursors */
+
+    /**
+     * The synchronization state of a timeline: the high-water mark and the gaps yet to be filled, newest first.
+     */
+    public static final class Cursor implements java.io.Serializable {
+        private final long sinceId;
+        // pairs of gap since id and gap max id
+        private final long[] gaps;
+        private static final long serialVersionUID = -4385620271693937227L;
+
+        /**
+         * @param sinceId    the newest status id seen, or -1
+         * @param gapSinceId the newest status id known below the gap, or -1
+         * @param gapMaxId   the upper bound (inclusive) of the gap, or -1 if there is no gap
+         */
+        public Cursor(long sinceId, long gapSinceId, long gapMaxId) {
+            this(sinceId, -1 == gapMaxId ? new long[0] : new long[]{gapSinceId, gapMaxId});
+        }
+
+        /**
+         * @param sinceId the newest status id seen, or -1
+         * @param gaps    pairs of gap since id and gap max id, newest gap first
+         */
+        public Cursor(long sinceId, long[] gaps) {
+            if (0 != gaps.length % 2) {
+                throw new IllegalArgumentException("gaps should be pairs of since id and max id. passed:" + gaps.length);
+            }
+            this.sinceId = sinceId;
+            this.gaps = gaps.clone();
+        }
+
+        /**
+         * @return the newest status id seen, or -1 if not yet known
+         */
+        public long getSinceId() {
+            return sinceId;
+        }
+
+        public boolean hasGap() {
+            return 0 < gaps.length;
+        }
+
+        /**
+         * @return the number of gaps
+         */
+        public int getGapCount() {
+            return gaps.length / 2;
+        }
+
+        /**
+         * @param index index of the gap, 0 for the newest
+         * @return the newest status id known below the gap
+         */
+        public long getGapSinceId(int index) {
+            return gaps[index * 2];
+        }
+
+        /**
+         * @param index index of the gap, 0 for the newest
+         * @return the upper bound (inclusive) of the gap
+         */
+        public long getGapMaxId(int index) {
+            return gaps[index * 2 + 1];
+        }
+
+        /**
+         * @return the newest status id known below the newest gap, or -1 if there is no gap
+         */
+        public long getGapSinceId() {
+            return hasGap() ? getGapSinceId(0) : -1;
+        }
+
+        /**
+         * @return the upper bound (inclusive) of the newest gap, or -1 if there is no gap
+         */
+        public long getGapMaxId() {
+            return hasGap() ? getGapMaxId(0) : -1;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Cursor)) return false;
+
+            Cursor cursor = (Cursor) o;
+
+            if (!Arrays.equals(gaps, cursor.gaps)) return false;
+            if (sinceId != cursor.sinceId) return false;
+
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = (int) (sinceId ^ (sinceId >>> 32));
+            result = 31 * result + Arrays.hashCode(gaps);
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            if (!hasGap()) {
+                return sinceId + ",-1,-1";
+            }
+            StringBuilder buf = new StringBuilder().append(sinceId);
+            for (long id : gaps) {
+                buf.append(',').append(id);
+            }
+            return buf.toString();
+        }
+    }
+
+    /**
+     * Persists cursors per timeline key.
+     */
+    public interface CursorStore {
+        /**
+         * @param key timeline key
+         * @return the cursor, or null if the timeline has never been synchronized
+         */
+        Cursor getCursor(String key);
+
+        void setCursor(String key, Cursor cursor);
+    }
+
+    /**
+     * A CursorStore keeping cursors in memory and persisting them to a properties file on {@link #save()}.
+     */
+    public static class FileCursorStore implements CursorStore {
+        private final File file;
+        private final Map<String, Cursor> cursors = new ConcurrentHashMap<String, Cursor>();
+
+        /**
+         * @param file the properties file. Cursors are loaded from the file if it exists.
+         * @throws TwitterException when the file cannot be read
+         */
+        public FileCursorStore(File file) throws TwitterException {
+            this.file = file;
+            if (file.exists()) {
+                Properties props = new Properties();
+                FileInputStream fis = null;
+                try {
+                    fis = new FileInputStream(file);
+                    props.load(fis);
+                } catch (IOException ioe) {
+                    throw new TwitterException("Failed to load cursors from " + file, ioe);
+                } finally {
+                    try {
+                        if (null != fis) {
+                            fis.close();
+                        }
+                    } catch (IOException ignore) {
+                    }
+                }
+                for (Object key : props.keySet()) {
+                    String[] values = props.getProperty((String) key).split(",");
+                    if (3 <= values.length && 1 == values.length % 2) {
+                        try {
+                            if (3 == values.length) {
+                                cursors.put((String) key, new Cursor(Long.parseLong(values[0])
+                                        , Long.parseLong(values[1]), Long.parseLong(values[2])));
+                            } else {
+                                long[] gaps = new long[values.length - 1];
+                                for (int i = 0; i < gaps.length; i++) {
+                                    gaps[i] = Long.parseLong(values[i + 1]);
+                                }
+                                cursors.put((String) key, new Cursor(Long.parseLong(values[0]), gaps));
+                            }
+                        } catch (NumberFormatException ignore) {
+                        }
+                    }
+                }
+            }
+        }
+
+        public Cursor getCursor(String key) {
+            return cursors.get(key);
+        }
+
+        public void setCursor(String key, Cursor cursor) {
+            cursors.put(key, cursor);
+        }
+
+        /**
+         * Writes all cursors to the file.
+         *
+         * @throws TwitterException when the file cannot be written
+         */
+        public synchronized void save() throws TwitterException {
+            Properties props = new Properties();
+            for (Map.Entry<String, Cursor> entry : cursors.entrySet()) {
+                props.setProperty(entry.getKey(), entry.getValue().toString());
+            }
+            File temp = new File(file.getPath() + ".tmp");
+            FileOutputStream fos = null;
+            try {
+                fos = new FileOutputStream(temp);
+                props.store(fos, "TimelineSynchronizer");
+                fos.close();
+                fos = null;
+                if (file.exists() && !file.delete() || !temp.renameTo(file)) {
+                    throw new IOException("Failed to rename " + temp + " to " + file);
+                }
+            } catch (IOException ioe) {
+                throw new TwitterException("Failed to save cursors to " + file, ioe);
+            } finally {
+                try {
+                    if (null != fos) {
+                        fos.close();
+                    }
+                } catch (IOException ignore) {
+                }
+            }
+        }
+    }
+}
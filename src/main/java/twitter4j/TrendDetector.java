@@ -0,0 +1,323 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j;
+
+import twitter4j.conf.Configuration;
+import twitter4j.http.HttpClient;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Detects trending hashtags and terms in the statuses of a stream.<br>
+ * Terms are counted in a count-min sketch per bucket of bucketMillis, and the last windowBuckets buckets make the sliding window.
+ * Buckets leaving the window are folded into an exponentially decaying baseline of the count per bucket,
+ * and a term is bursting when its window count is at least burstRatio times what the baseline predicts for the window.
+ * The topK most frequent terms of the window are tracked as candidates.<br>
+ * Memory depends on the sketch dimensions and topK only, not on the rate of the stream.
+ * <pre>
+ * TrendDetector detector = new TrendDetector();
+ * twitterStream.setStatusListener(detector);
+ * twitterStream.sample();
+ * ...
+ * Trends trends = detector.getTrends();
+ * </pre>
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.1.0
+ */
+public class TrendDetector implements StatusListener {
+    private final long bucketMillis;
+    private final int topK;
+    private final double burstRatio;
+    private final int minCount;
+
+    // ring of the buckets of the window, the current one at index current
+    private final CountMinSketch[] window;
+    private int current = 0;
+    private long bucketStart = -1;
+    private final CountMinSketch baseline;
+    // total weight of the buckets folded into the baseline, 1 - BASELINE_DECAY^n after n buckets
+    private double baselineWeight = 0;
+    private final Map<String, Candidate> candidates = new HashMap<String, Candidate>();
+    private double minCandidateCount = 0;
+
+    private static final double BASELINE_DECAY = 0.95;
+    private static final int MIN_TERM_LENGTH = 3;
+
+    /**
+     * Creates a detector with a window of 5 one-minute buckets, tracking 50 candidates.
+     */
+    public TrendDetector() {
+        this(60 * 1000, 5, 50, 3.0, 10);
+    }
+
+    /**
+     * @param bucketMillis  time span of a bucket in milliseconds
+     * @param windowBuckets number of buckets in the sliding window
+     * @param topK          number of most frequent terms tracked
+     * @param burstRatio    ratio of the window count to the baseline above which a term is bursting
+     * @param minCount      minimum count in the window for a term to be bursting
+     */
+    public TrendDetector(long bucketMillis, int windowBuckets, int topK, double burstRatio, int minCount) {
+        this(bucketMillis, windowBuckets, topK, burstRatio, minCount, 4, 4096);
+    }
+
+    /*package*/ TrendDetector(long bucketMillis, int windowBuckets, int topK, double burstRatio, int minCount, int depth, int width) {
+        if (bucketMillis <= 0 || windowBuckets <= 0 || topK <= 0) {
+            throw new IllegalArgumentException("invalid window: " + bucketMillis + ", " + windowBuckets + ", " + topK);
+        }
+        this.bucketMillis = bucketMillis;
+        this.topK = topK;
+        this.burstRatio = burstRatio;
+        this.minCount = minCount;
+        window = new CountMinSketch[windowBuckets];
+        for (int i = 0; i < windowBuckets; i++) {
+            window[i] = new CountMinSketch(depth, width);
+        }
+        baseline = new CountMinSketch(depth, width);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void onStatus(Status status) {
+        add(status.getText(), System.currentTimeMillis());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void onDeletionNotice(StatusDeletionNotice statusDeletionNotice) {
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void onTrackLimitationNotice(int numberOfLimitedStatuses) {
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void onException(Exception ex) {
+    }
+
+    /**
+     * Counts the hashtags and terms of a text, each once.
+     *
+     * @param text text
+     * @param now  current time in milliseconds
+     */
+    /*package*/ synchronized void add(String text, long now) {
+        advance(now);
+        Set<String> terms = new HashSet<String>();
+        for (String term : StatusIndex.tokenize(text)) {
+            char first = term.charAt(0);
+            if (first == '#' ? term.length() > 1 : (term.length() >= MIN_TERM_LENGTH && first != '@' && !term.startsWith("http"))) {
+                terms.add(term);
+            }
+        }
+        CountMinSketch bucket = window[current];
+        for (String term : terms) {
+            bucket.add(term, 1);
+            offer(term, estimateWindow(term));
+        }
+    }
+
+    private void offer(String term, double count) {
+        Candidate candidate = candidates.get(term);
+        if (null != candidate) {
+            candidate.count = count;
+        } else if (candidates.size() < topK) {
+            candidates.put(term, new Candidate(term, count));
+            minCandidateCount = candidates.size() < topK ? 0 : findMinCount();
+        } else if (count > minCandidateCount) {
+            // replace the least frequent candidate
+            Candidate min = null;
+            for (Candidate c : candidates.values()) {
+                if (null == min || c.count < min.count) {
+                    min = c;
+                }
+            }
+            candidates.remove(min.term);
+            candidates.put(term, new Candidate(term, count));
+            minCandidateCount = findMinCount();
+        }
+    }
+
+    private double findMinCount() {
+        double min = Double.MAX_VALUE;
+        for (Candidate c : candidates.values()) {
+            min = Math.min(min, c.count);
+        }
+        return min;
+    }
+
+    private double estimateWindow(String term) {
+        double count = 0;
+        for (CountMinSketch bucket : window) {
+            count += bucket.estimate(term);
+        }
+        return count;
+    }
+
+    /**
+     * Rotates the buckets up to now.
+     */
+    private void advance(long now) {
+        long start = now - now % bucketMillis;
+        if (bucketStart < 0) {
+            bucketStart = start;
+            return;
+        }
+        // after a long pause, more rotations than buckets would only fold empty buckets
+        int rotations = (int) Math.min((start - bucketStart) / bucketMillis, window.length + 100);
+        for (int i = 0; i < rotations; i++) {
+            current = (current + 1) % window.length;
+            CountMinSketch leaving = window[current];
+            baseline.scale(BASELINE_DECAY);
+            baseline.merge(leaving, 1 - BASELINE_DECAY);
+            baselineWeight = baselineWeight * BASELINE_DECAY + (1 - BASELINE_DECAY);
+            leaving.clear();
+        }
+        if (start > bucketStart) {
+            bucketStart = start;
+            if (0 < rotations) {
+                // window counts dropped with the leaving buckets
+                for (Iterator<Candidate> it = candidates.values().iterator(); it.hasNext();) {
+                    Candidate candidate = it.next();
+                    candidate.count = estimateWindow(candidate.term);
+                    if (0 == candidate.count) {
+                        it.remove();
+                    }
+                }
+                minCandidateCount = candidates.size() < topK ? 0 : findMinCount();
+            }
+        }
+    }
+
+    /**
+     * @return expected count of the term in a window, from the baseline
+     */
+    /*package*/ double expectedWindowCount(String term) {
+        if (0 == baselineWeight) {
+            return 0;
+        }
+        // the decaying baseline is biased towards zero until it has seen enough buckets. the correction converges to 1
+        double perBucket = baseline.estimate(term) / baselineWeight;
+        return perBucket * window.length;
+    }
+
+    /**
+     * @return terms whose count in the window bursts over their baseline, the strongest burst first
+     */
+    public Trends getTrends() {
+        return getTrends(System.currentTimeMillis());
+    }
+
+    /*package*/ synchronized Trends getTrends(long now) {
+        advance(now);
+        List<Candidate> bursting = new ArrayList<Candidate>();
+        for (Candidate candidate : candidates.values()) {
+            if (candidate.count >= minCount) {
+                // +1 smoothing, so that new terms burst rather than divide by zero
+                candidate.score = candidate.count / (expectedWindowCount(candidate.term) + 1);
+                if (candidate.score >= burstRatio) {
+                    bursting.add(candidate);
+                }
+            }
+        }
+        Collections.sort(bursting, new Comparator<Candidate>() {
+            public int compare(Candidate c1, Candidate c2) {
+                return Double.compare(c2.score, c1.score);
+            }
+        });
+        return toTrends(bursting, now);
+    }
+
+    /**
+     * @return the most frequent terms of the window, the most frequent first
+     */
+    public Trends getTopTerms() {
+        return getTopTerms(System.currentTimeMillis());
+    }
+
+    /*package*/ synchronized Trends getTopTerms(long now) {
+        advance(now);
+        List<Candidate> top = new ArrayList<Candidate>(candidates.values());
+        Collections.sort(top, new Comparator<Candidate>() {
+            public int compare(Candidate c1, Candidate c2) {
+                return Double.compare(c2.count, c1.count);
+            }
+        });
+        return toTrends(top, now);
+    }
+
+    private Trends toTrends(List<Candidate> candidates, long now) {
+        String searchURL = Configuration.getInstance().getSearchBaseURL() + "search?q=";
+        Trend[] trends = new Trend[candidates.size()];
+        for (int i = 0; i < trends.length; i++) {
+            String term = candidates.get(i).term;
+            trends[i] = new TrendJSONImpl(term, searchURL + HttpClient.encode(term), term);
+        }
+        Date asOf = new Date(now);
+        return new TrendsJSONImpl(asOf, asOf, trends);
+    }
+
+    /**
+     * @param term hashtag, starting with #, or term
+     * @return estimated count of the term in the window
+     */
+    public double getCount(String term) {
+        return getCount(term, System.currentTimeMillis());
+    }
+
+    /*package*/ synchronized double getCount(String term, long now) {
+        advance(now);
+        return estimateWindow(term.toLowerCase());
+    }
+
+    private static final class Candidate {
+        final String term;
+        double count;
+        double score;
+
+        Candidate(String term, double count) {
+            this.term = term;
+            this.count = count;
+        }
+    }
+}
@@ -42,6 +42,12 @@ import static twitter4j.ParseUtil.*;
     private String query = null;
     private static final long serialVersionUID = 1925956704460743946L;
 
+    /*package*/ TrendJSONImpl(String name, String url, String query) {
+        this.name = name;
+        this.url = url;
+        this.query = query;
+    }
+
     /*package*/ TrendJSONImpl(JSONObject json) throws JSONException {
         this.name = getRawString("name", json);
         this.url = getRawString("url", json);
@@ -0,0 +1,339 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j;
+
+import twitter4j.api.SearchMethods;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches the trends returned by a Twitter instance, and passes search requests through.<br>
+ * Daily and weekly trends of a past window never change, and are kept for good, optionally on disk so that they survive restarts.
+ * Current trends, and daily and weekly trends of a window still in progress, are kept for ttl milliseconds.<br>
+ * Concurrent requests for trends not cached yet wait for a single request to Twitter.
+ * <pre>
+ * SearchMethods trends = new TrendsCache(twitter, 5 * 60 * 1000, new File("trends"));
+ * Trends current = trends.getCurrentTrends();
+ * </pre>
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.1.0
+ */
+public class TrendsCache implements SearchMethods {
+    private final SearchMethods twitter;
+    private final long ttl;
+    private final File directory;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+    private final AtomicLong hitCount = new AtomicLong(0);
+    private final AtomicLong missCount = new AtomicLong(0);
+
+    private static final long DAY = 24 * 60 * 60 * 1000;
+
+    /**
+     * Creates a cache keeping current trends for 5 minutes, in memory only.
+     *
+     * @param twitter the Twitter instance to fetch trends with
+     */
+    public TrendsCache(SearchMethods twitter) {
+        this(twitter, 5 * 60 * 1000, null);
+    }
+
+    /**
+     * @param twitter   the Twitter instance to fetch trends with
+     * @param ttl       time to live of current trends in milliseconds
+     * @param directory directory storing the trends of past windows, or null to keep them in memory only
+     */
+    public TrendsCache(SearchMethods twitter, long ttl, File directory) {
+        if (ttl < 1) {
+            throw new IllegalArgumentException("ttl should be positive. passed:" + ttl);
+        }
+        if (null != directory && !directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalArgumentException("cannot create directory: " + directory);
+        }
+        this.twitter = twitter;
+        this.ttl = ttl;
+        this.directory = directory;
+    }
+
+    /**
+     * Not cached.
+     */
+    public QueryResult search(Query query) throws TwitterException {
+        return twitter.search(query);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Trends getTrends() throws TwitterException {
+        return (Trends) get("trends", false, new Callable<Object>() {
+            public Object call() throws TwitterException {
+                return twitter.getTrends();
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Trends getCurrentTrends() throws TwitterException {
+        return getCurrentTrends(false);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Trends getCurrentTrends(final boolean excludeHashTags) throws TwitterException {
+        return (Trends) get("current-" + excludeHashTags, false, new Callable<Object>() {
+            public Object call() throws TwitterException {
+                return twitter.getCurrentTrends(excludeHashTags);
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public List<Trends> getDailyTrends() throws TwitterException {
+        return getList("daily", false, new Callable<Object>() {
+            public Object call() throws TwitterException {
+                return twitter.getDailyTrends();
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public List<Trends> getDailyTrends(final Date date, final boolean excludeHashTags) throws TwitterException {
+        return getList("daily-" + toDateStr(date) + "-" + excludeHashTags, isPast(date, 1), new Callable<Object>() {
+            public Object call() throws TwitterException {
+                return twitter.getDailyTrends(date, excludeHashTags);
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public List<Trends> getWeeklyTrends() throws TwitterException {
+        return getList("weekly", false, new Callable<Object>() {
+            public Object call() throws TwitterException {
+                return twitter.getWeeklyTrends();
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public List<Trends> getWeeklyTrends(final Date date, final boolean excludeHashTags) throws TwitterException {
+        return getList("weekly-" + toDateStr(date) + "-" + excludeHashTags, isPast(date, 7), new Callable<Object>() {
+            public Object call() throws TwitterException {
+                return twitter.getWeeklyTrends(date, excludeHashTags);
+            }
+        });
+    }
+
+    /**
+     * @param date start of the window, null for today
+     * @param days length of the window in days
+     * @return whether the window ended, with a day of margin for the time zone of Twitter
+     */
+    private static boolean isPast(Date date, int days) {
+        if (null == date) {
+            return false;
+        }
+        Calendar cal = Calendar.getInstance();
+        cal.setTime(date);
+        cal.set(Calendar.HOUR_OF_DAY, 0);
+        cal.set(Calendar.MINUTE, 0);
+        cal.set(Calendar.SECOND, 0);
+        cal.set(Calendar.MILLISECOND, 0);
+        return cal.getTimeInMillis() + (days + 1) * DAY < System.currentTimeMillis();
+    }
+
+    private static String toDateStr(Date date) {
+        if (null == date) {
+            date = new Date();
+        }
+        // same format as the date parameter of the request
+        return new SimpleDateFormat("yyyy-MM-dd").format(date);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Trends> getList(String key, boolean permanent, Callable<Object> loader) throws TwitterException {
+        return Collections.unmodifiableList((List<Trends>) get(key, permanent, loader));
+    }
+
+    private Object get(final String key, final boolean permanent, final Callable<Object> loader) throws TwitterException {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(key);
+        if (null != entry && entry.expiresAt < now) {
+            entries.remove(key, entry);
+            entry = null;
+        }
+        if (null == entry) {
+            Entry created = new Entry(new FutureTask<Object>(new Callable<Object>() {
+                public Object call() throws Exception {
+                    Object value = permanent ? read(key) : null;
+                    if (null == value) {
+                        value = loader.call();
+                        if (permanent) {
+                            write(key, value);
+                        }
+                    }
+                    return value;
+                }
+            }), permanent ? Long.MAX_VALUE : now + ttl);
+            entry = entries.putIfAbsent(key, created);
+            if (null == entry) {
+                missCount.incrementAndGet();
+                entry = created;
+                entry.value.run();
+            } else {
+                hitCount.incrementAndGet();
+            }
+        } else {
+            hitCount.incrementAndGet();
+        }
+        try {
+            return entry.value.get();
+        } catch (ExecutionException ee) {
+            // failures are not cached
+            entries.remove(key, entry);
+            Throwable cause = ee.getCause();
+            if (cause instanceof TwitterException) {
+                throw (TwitterException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new TwitterException((Exception) cause);
+        } catch (InterruptedException ie) {
+            throw new TwitterException(ie);
+        }
+    }
+
+    private Object read(String key) {
+        if (null == directory) {
+            return null;
+        }
+        File file = new File(directory, key + ".ser");
+        if (!file.exists()) {
+            return null;
+        }
+        ObjectInputStream ois = null;
+        try {
+            ois = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)));
+            return ois.readObject();
+        } catch (Exception corrupted) {
+            // fetched again and overwritten
+            return null;
+        } finally {
+            close(ois);
+        }
+    }
+
+    private void write(String key, Object value) {
+        if (null == directory) {
+            return;
+        }
+        File file = new File(directory, key + ".ser");
+        File temp = new File(directory, key + ".ser.tmp");
+        ObjectOutputStream oos = null;
+        try {
+            oos = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+            // the list returned by Twitter may not be serializable
+            oos.writeObject(value instanceof List ? new ArrayList<Object>((List<?>) value) : value);
+            oos.close();
+            oos = null;
+            if (!temp.renameTo(file)) {
+                file.delete();
+                temp.renameTo(file);
+            }
+        } catch (IOException ignore) {
+            // stays cached in memory
+        } finally {
+            close(oos);
+            temp.delete();
+        }
+    }
+
+    private static void close(java.io.Closeable closeable) {
+        if (null != closeable) {
+            try {
+                closeable.close();
+            } catch (IOException ignore) {
+            }
+        }
+    }
+
+    /**
+     * Empties the memory cache. Trends stored on disk are kept.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    private static final class Entry {
+        final FutureTask<Object> value;
+        final long expiresAt;
+
+        Entry(FutureTask<Object> value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -58,8 +58,7 @@ import static twitter4j.ParseUtil.*;
 
     /*package*/
 
-    TrendsJSONImpl(Date asOf, Date trendAt, Trend[] trends)
-            throws TwitterException {
+    TrendsJSONImpl(Date asOf, Date trendAt, Trend[] trends) {
         this.asOf = asOf;
         this.trendAt = trendAt;
         this.trends = trends;
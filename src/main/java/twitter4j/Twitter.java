@@ -44,6 +44,7 @@ import twitter4j.api.SpamReportingMethods;
 import twitter4j.api.StatusMethods;
 import twitter4j.api.TimelineMethods;
 import twitter4j.api.UserMethods;
+import twitter4j.conf.Configuration;
 import twitter4j.http.*;
 
 import java.io.File;
@@ -104,6 +105,25 @@ public class Twitter extends OAuthTwitterSupport
         super(auth);
     }
 
+    /**
+     * Creates a Twitter instance with the supplied configuration, authenticated with the user ID/password or the OAuth credentials it provides, if any.
+     *
+     * @param conf configuration
+     * @since Twitter4J 2.1.0
+     */
+    public Twitter(Configuration conf) {
+        super(conf);
+    }
+
+    /*package*/ Twitter(Configuration conf, Authorization auth) {
+        super(conf, auth);
+    }
+
+    /*package*/ Twitter(Configuration conf, Authorization auth, HttpClient http, String screenName) {
+        super(conf, auth, http);
+        this.screenName = screenName;
+    }
+
 
     /**
      * Returns authenticating user's screen name.<br>
@@ -190,7 +210,11 @@ public class Twitter extends OAuthTwitterSupport
         if (null != params && params.length > 0) {
             url += "?" + HttpClient.encodeParameters(params);
         }
-        return http.request(requestFactory.createGetRequest(url, authenticate));
+        HttpRequest req = requestFactory.createGetRequest(url, authenticate);
+        if (conf.isHttpCoalesceGets()) {
+            return http.requestCoalesced(req);
+        }
+        return http.request(req);
     }
 
     /**
@@ -218,6 +242,18 @@ public class Twitter extends OAuthTwitterSupport
         }
     }
 
+    /**
+     * Puts the users embedded in a parsed response into the user cache of this instance.
+     *
+     * @param parsed the parsed response
+     * @return parsed
+     */
+    private <T> T cacheUsers(T parsed) {
+        if (userCache.isEnabled()) {
+            userCache.putEmbedded(parsed);
+        }
+        return parsed;
+    }
 
     /**
      * {@inheritDoc}
@@ -305,8 +341,8 @@ public class Twitter extends OAuthTwitterSupport
      */
     public ResponseList<Status> getPublicTimeline() throws
             TwitterException {
-        return StatusJSONImpl.createStatusList(get(conf.getRestBaseURL() +
-                "statuses/public_timeline.json", auth));
+        return cacheUsers(StatusJSONImpl.createStatusList(get(conf.getRestBaseURL() +
+                "statuses/public_timeline.json", auth)));
     }
 
     /**
@@ -315,7 +351,7 @@ public class Twitter extends OAuthTwitterSupport
     public ResponseList<Status> getHomeTimeline() throws
             TwitterException {
         ensureAuthenticationEnabled();
-        return StatusJSONImpl.createStatusList(get(conf.getRestBaseURL() + "statuses/home_timeline.json", auth));
+        return cacheUsers(StatusJSONImpl.createStatusList(get(conf.getRestBaseURL() + "statuses/home_timeline.json", auth)));
     }
 
     /**
@@ -324,7 +360,7 @@ public class Twitter extends OAuthTwitterSupport
     public ResponseList<Status> getHomeTimeline(Paging paging) throws
             TwitterException {
         ensureAuthenticationEnabled();
-        return StatusJSONImpl.createStatusList(get(conf.getRestBaseURL() + "statuses/home_timeline.json", null, paging.asPostParameterList(), auth));
+        return cacheUsers(StatusJSONImpl.createStatusList(get(conf.getRestBaseURL() + "statuses/home_timeline.json", null, paging.asPostParameterList(), auth)));
     }
 
     /**
@@ -333,7 +369,7 @@ public class Twitter extends OAuthTwitterSupport
     public ResponseList<Status> getFriendsTimeline() throws
             TwitterException {
         ensureAuthenticationEnabled();
-        return StatusJSONImpl.createStatusList(get(conf.getRestBaseURL() + "statuses/friends_timeline.json", auth));
+        return cacheUsers(StatusJSONImpl.createStatusList(get(conf.getRestBaseURL() + "statuses/friends_timeline.json", auth)));
     }
 
     /**
@@ -342,7 +378,7 @@ public class Twitter extends OAuthTwitterSupport
     public ResponseList<Status> getFriendsTimeline(Paging paging) throws
             TwitterException {
         ensureAuthenticationEnabled();
-        return StatusJSONImpl.createStatusList(get(conf.getRestBaseURL() + "statuses/friends_timeline.json", null, paging.asPostParameterList(), auth));
+        return cacheUsers(StatusJSONImpl.createStatusList(get(conf.getRestBaseURL() + "statuses/friends_timeline.json", null, paging.asPostParameterList(), auth)));
     }
 
 
@@ -351,10 +387,10 @@ public class Twitter extends OAuthTwitterSupport
      */
     public ResponseList<Status> getUserTimeline(String screenName, Paging paging)
             throws TwitterException {
-        return StatusJSONImpl.createStatusList(get(conf.getRestBaseURL()
+        return cacheUsers(StatusJSONImpl.createStatusList(get(conf.getRestBaseURL()
                 + "statuses/user_timeline.json",
                 new PostParameter[]{new PostParameter("screen_name", screenName)}
-                , paging.asPostParameterList(), auth));
+                , paging.asPostParameterList(), auth)));
     }
 
     /**
@@ -362,10 +398,10 @@ public class Twitter extends OAuthTwitterSupport
      */
     public ResponseList<Status> getUserTimeline(int userId, Paging paging)
             throws TwitterException {
-        return StatusJSONImpl.createStatusList(get(conf.getRestBaseURL()
+        return cacheUsers(StatusJSONImpl.createStatusList(get(conf.getRestBaseURL()
                 + "statuses/user_timeline.json",
                 new PostParameter[]{new PostParameter("user_id", userId)}
-                , paging.asPostParameterList(), auth));
+                , paging.asPostParameterList(), auth)));
     }
 
     /**
@@ -396,8 +432,8 @@ public class Twitter extends OAuthTwitterSupport
     public ResponseList<Status> getUserTimeline(Paging paging) throws
             TwitterException {
         ensureAuthenticationEnabled();
-        return StatusJSONImpl.createStatusList(get(conf.getRestBaseURL() + "statuses/user_timeline.json"
-                , null, paging.asPostParameterList(), auth));
+        return cacheUsers(StatusJSONImpl.createStatusList(get(conf.getRestBaseURL() + "statuses/user_timeline.json"
+                , null, paging.asPostParameterList(), auth)));
     }
 
     /**
@@ -405,8 +441,8 @@ public class Twitter extends OAuthTwitterSupport
      */
     public ResponseList<Status> getMentions() throws TwitterException {
         ensureAuthenticationEnabled();
-        return StatusJSONImpl.createStatusList(get(conf.getRestBaseURL() + "statuses/mentions.json",
-                null, auth));
+        return cacheUsers(StatusJSONImpl.createStatusList(get(conf.getRestBaseURL() + "statuses/mentions.json",
+                null, auth)));
     }
 
     /**
@@ -414,8 +450,8 @@ public class Twitter extends OAuthTwitterSupport
      */
     public ResponseList<Status> getMentions(Paging paging) throws TwitterException {
         ensureAuthenticationEnabled();
-        return StatusJSONImpl.createStatusList(get(conf.getRestBaseURL() + "statuses/mentions.json",
-                null, paging.asPostParameterList(), auth));
+        return cacheUsers(StatusJSONImpl.createStatusList(get(conf.getRestBaseURL() + "statuses/mentions.json",
+                null, paging.asPostParameterList(), auth)));
     }
 
     /**
@@ -423,8 +459,8 @@ public class Twitter extends OAuthTwitterSupport
      */
     public ResponseList<Status> getRetweetedByMe() throws TwitterException {
         ensureAuthenticationEnabled();
-        return StatusJSONImpl.createStatusList(get(conf.getRestBaseURL() + "statuses/retweeted_by_me.json",
-                null, auth));
+        return cacheUsers(StatusJSONImpl.createStatusList(get(conf.getRestBaseURL() + "statuses/retweeted_by_me.json",
+                null, auth)));
     }
 
     /**
@@ -432,8 +468,8 @@ public class Twitter extends OAuthTwitterSupport
      */
     public ResponseList<Status> getRetweetedByMe(Paging paging) throws TwitterException {
         ensureAuthenticationEnabled();
-        return StatusJSONImpl.createStatusList(get(conf.getRestBaseURL() + "statuses/retweeted_by_me.json",
-                null, paging.asPostParameterList(), auth));
+        return cacheUsers(StatusJSONImpl.createStatusList(get(conf.getRestBaseURL() + "statuses/retweeted_by_me.json",
+                null, paging.asPostParameterList(), auth)));
     }
 
     /**
@@ -441,8 +477,8 @@ public class Twitter extends OAuthTwitterSupport
      */
     public ResponseList<Status> getRetweetedToMe() throws TwitterException {
         ensureAuthenticationEnabled();
-        return StatusJSONImpl.createStatusList(get(conf.getRestBaseURL() + "statuses/retweeted_to_me.json",
-                null, auth));
+        return cacheUsers(StatusJSONImpl.createStatusList(get(conf.getRestBaseURL() + "statuses/retweeted_to_me.json",
+                null, auth)));
     }
 
     /**
@@ -450,8 +486,8 @@ public class Twitter extends OAuthTwitterSupport
      */
     public ResponseList<Status> getRetweetedToMe(Paging paging) throws TwitterException {
         ensureAuthenticationEnabled();
-        return StatusJSONImpl.createStatusList(get(conf.getRestBaseURL() + "statuses/retweeted_to_me.json",
-                null, paging.asPostParameterList(), auth));
+        return cacheUsers(StatusJSONImpl.createStatusList(get(conf.getRestBaseURL() + "statuses/retweeted_to_me.json",
+                null, paging.asPostParameterList(), auth)));
     }
 
     /**
@@ -459,8 +495,8 @@ public class Twitter extends OAuthTwitterSupport
      */
     public ResponseList<Status> getRetweetsOfMe() throws TwitterException {
         ensureAuthenticationEnabled();
-        return StatusJSONImpl.createStatusList(get(conf.getRestBaseURL() + "statuses/retweets_of_me.json",
-                null, auth));
+        return cacheUsers(StatusJSONImpl.createStatusList(get(conf.getRestBaseURL() + "statuses/retweets_of_me.json",
+                null, auth)));
     }
 
     /**
@@ -468,15 +504,15 @@ public class Twitter extends OAuthTwitterSupport
      */
     public ResponseList<Status> getRetweetsOfMe(Paging paging) throws TwitterException {
         ensureAuthenticationEnabled();
-        return StatusJSONImpl.createStatusList(get(conf.getRestBaseURL() + "statuses/retweets_of_me.json",
-                null, paging.asPostParameterList(), auth));
+        return cacheUsers(StatusJSONImpl.createStatusList(get(conf.getRestBaseURL() + "statuses/retweets_of_me.json",
+                null, paging.asPostParameterList(), auth)));
     }
 
     /**
      * {@inheritDoc}
      */
     public Status showStatus(long id) throws TwitterException {
-        return new StatusJSONImpl(get(conf.getRestBaseURL() + "statuses/show/" + id + ".json", auth));
+        return cacheUsers(new StatusJSONImpl(get(conf.getRestBaseURL() + "statuses/show/" + id + ".json", auth)));
     }
 
     /**
@@ -484,8 +520,8 @@ public class Twitter extends OAuthTwitterSupport
      */
     public Status updateStatus(String status) throws TwitterException {
         ensureAuthenticationEnabled();
-        return new StatusJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "statuses/update.json",
-                new PostParameter[]{new PostParameter("status", status), new PostParameter("source", conf.getSource())}, auth)));
+        return cacheUsers(new StatusJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "statuses/update.json",
+                new PostParameter[]{new PostParameter("status", status), new PostParameter("source", conf.getSource())}, auth))));
     }
 
     /**
@@ -493,11 +529,11 @@ public class Twitter extends OAuthTwitterSupport
      */
     public Status updateStatus(String status, GeoLocation location) throws TwitterException {
         ensureAuthenticationEnabled();
-        return new StatusJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "statuses/update.json",
+        return cacheUsers(new StatusJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "statuses/update.json",
                 new PostParameter[]{new PostParameter("status", status),
                         new PostParameter("lat", location.getLatitude()),
                         new PostParameter("long", location.getLongitude()),
-                        new PostParameter("source", conf.getSource())}, auth)));
+                        new PostParameter("source", conf.getSource())}, auth))));
     }
 
     /**
@@ -505,8 +541,8 @@ public class Twitter extends OAuthTwitterSupport
      */
     public Status updateStatus(String status, long inReplyToStatusId) throws TwitterException {
         ensureAuthenticationEnabled();
-        return new StatusJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "statuses/update.json",
-                new PostParameter[]{new PostParameter("status", status), new PostParameter("in_reply_to_status_id", String.valueOf(inReplyToStatusId)), new PostParameter("source", conf.getSource())}, auth)));
+        return cacheUsers(new StatusJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "statuses/update.json",
+                new PostParameter[]{new PostParameter("status", status), new PostParameter("in_reply_to_status_id", String.valueOf(inReplyToStatusId)), new PostParameter("source", conf.getSource())}, auth))));
     }
 
     /**
@@ -515,13 +551,13 @@ public class Twitter extends OAuthTwitterSupport
     public Status updateStatus(String status, long inReplyToStatusId
             , GeoLocation location) throws TwitterException {
         ensureAuthenticationEnabled();
-        return new StatusJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "statuses/update.json",
+        return cacheUsers(new StatusJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "statuses/update.json",
                 new PostParameter[]{new PostParameter("status", status),
                         new PostParameter("lat", location.getLatitude()),
                         new PostParameter("long", location.getLongitude()),
                         new PostParameter("in_reply_to_status_id",
                                 String.valueOf(inReplyToStatusId)),
-                        new PostParameter("source", conf.getSource())}, auth)));
+                        new PostParameter("source", conf.getSource())}, auth))));
     }
 
     /**
@@ -529,8 +565,8 @@ public class Twitter extends OAuthTwitterSupport
      */
     public Status destroyStatus(long statusId) throws TwitterException {
         ensureAuthenticationEnabled();
-        return new StatusJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "statuses/destroy/" + statusId + ".json",
-                new PostParameter[0], auth)));
+        return cacheUsers(new StatusJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "statuses/destroy/" + statusId + ".json",
+                new PostParameter[0], auth))));
     }
 
     /**
@@ -538,8 +574,8 @@ public class Twitter extends OAuthTwitterSupport
      */
     public Status retweetStatus(long statusId) throws TwitterException {
         ensureAuthenticationEnabled();
-        return new StatusJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "statuses/retweet/" + statusId + ".json",
-                new PostParameter[]{new PostParameter("source", conf.getSource())}, auth)));
+        return cacheUsers(new StatusJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "statuses/retweet/" + statusId + ".json",
+                new PostParameter[]{new PostParameter("source", conf.getSource())}, auth))));
     }
 
     /**
@@ -547,24 +583,32 @@ public class Twitter extends OAuthTwitterSupport
      */
     public ResponseList<Status> getRetweets(long statusId) throws TwitterException {
         ensureAuthenticationEnabled();
-        return StatusJSONImpl.createStatusList(get(conf.getRestBaseURL()
-                + "statuses/retweets/" + statusId + ".json", auth));
+        return cacheUsers(StatusJSONImpl.createStatusList(get(conf.getRestBaseURL()
+                + "statuses/retweets/" + statusId + ".json", auth)));
     }
 
     /**
      * {@inheritDoc}
      */
     public User showUser(String screenName) throws TwitterException {
-        return new UserJSONImpl(get(conf.getRestBaseURL() + "users/show.json?screen_name="
-                + screenName, auth));
+        User user = userCache.get(screenName);
+        if (null != user) {
+            return user;
+        }
+        return cacheUsers(new UserJSONImpl(get(conf.getRestBaseURL() + "users/show.json?screen_name="
+                + screenName, auth)));
     }
 
     /**
      * {@inheritDoc}
      */
     public User showUser(int userId) throws TwitterException {
-        return new UserJSONImpl(get(conf.getRestBaseURL() + "users/show.json?user_id="
-                + userId, auth));
+        User user = userCache.get(userId);
+        if (null != user) {
+            return user;
+        }
+        return cacheUsers(new UserJSONImpl(get(conf.getRestBaseURL() + "users/show.json?user_id="
+                + userId, auth)));
     }
 
     /* User Methods */
@@ -580,9 +624,9 @@ public class Twitter extends OAuthTwitterSupport
      * {@inheritDoc}
      */
     public PagableResponseList<User> getFriendsStatuses(long cursor) throws TwitterException {
-        return UserJSONImpl.createPagableUserList(get(conf.getRestBaseURL()
+        return cacheUsers(UserJSONImpl.createPagableUserList(get(conf.getRestBaseURL()
                 + "statuses/friends.json?cursor=" + cursor, null,
-                auth));
+                auth)));
     }
 
     /**
@@ -603,18 +647,18 @@ public class Twitter extends OAuthTwitterSupport
      * {@inheritDoc}
      */
     public PagableResponseList<User> getFriendsStatuses(String screenName, long cursor) throws TwitterException {
-        return UserJSONImpl.createPagableUserList(get(conf.getRestBaseURL()
+        return cacheUsers(UserJSONImpl.createPagableUserList(get(conf.getRestBaseURL()
                 + "statuses/friends.json?screen_name=" + screenName + "&cursor=" + cursor
-                , null, auth));
+                , null, auth)));
     }
 
     /**
      * {@inheritDoc}
      */
     public PagableResponseList<User> getFriendsStatuses(int userId, long cursor) throws TwitterException {
-        return UserJSONImpl.createPagableUserList(get(conf.getRestBaseURL()
+        return cacheUsers(UserJSONImpl.createPagableUserList(get(conf.getRestBaseURL()
                 + "statuses/friends.json?user_id=" + userId + "&cursor=" + cursor
-                , null, auth));
+                , null, auth)));
     }
 
     /**
@@ -628,8 +672,8 @@ public class Twitter extends OAuthTwitterSupport
      * {@inheritDoc}
      */
     public PagableResponseList<User> getFollowersStatuses(long cursor) throws TwitterException {
-        return UserJSONImpl.createPagableUserList(get(conf.getRestBaseURL()
-                + "statuses/followers.json?cursor=" + cursor, null, auth));
+        return cacheUsers(UserJSONImpl.createPagableUserList(get(conf.getRestBaseURL()
+                + "statuses/followers.json?cursor=" + cursor, null, auth)));
     }
 
     /**
@@ -650,16 +694,16 @@ public class Twitter extends OAuthTwitterSupport
      * {@inheritDoc}
      */
     public PagableResponseList<User> getFollowersStatuses(String screenName, long cursor) throws TwitterException {
-        return UserJSONImpl.createPagableUserList(get(conf.getRestBaseURL() + "statuses/followers.json?screen_name=" + screenName +
-                "&cursor=" + cursor, null, auth));
+        return cacheUsers(UserJSONImpl.createPagableUserList(get(conf.getRestBaseURL() + "statuses/followers.json?screen_name=" + screenName +
+                "&cursor=" + cursor, null, auth)));
     }
 
     /**
      * {@inheritDoc}
      */
     public PagableResponseList<User> getFollowersStatuses(int userId, long cursor) throws TwitterException {
-        return UserJSONImpl.createPagableUserList(get(conf.getRestBaseURL() + "statuses/followers.json?user_id=" + userId +
-                "&cursor=" + cursor, null, auth));
+        return cacheUsers(UserJSONImpl.createPagableUserList(get(conf.getRestBaseURL() + "statuses/followers.json?user_id=" + userId +
+                "&cursor=" + cursor, null, auth)));
     }
 
     /*List Methods*/
@@ -675,10 +719,10 @@ public class Twitter extends OAuthTwitterSupport
         if (description != null) {
             postParams.add(new PostParameter("description", description));
         }
-        return new UserListJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + getScreenName() +
+        return cacheUsers(new UserListJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + getScreenName() +
                 "/lists.json",
                 postParams.toArray(new PostParameter[postParams.size()]),
-                auth)));
+                auth))));
     }
 
     /**
@@ -694,8 +738,8 @@ public class Twitter extends OAuthTwitterSupport
         if (newDescription != null) {
             postParams.add(new PostParameter("description", newDescription));
         }
-        return new UserListJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + getScreenName() + "/lists/"
-                + listId + ".json", postParams.toArray(new PostParameter[postParams.size()]), auth)));
+        return cacheUsers(new UserListJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + getScreenName() + "/lists/"
+                + listId + ".json", postParams.toArray(new PostParameter[postParams.size()]), auth))));
     }
 
     /**
@@ -703,8 +747,8 @@ public class Twitter extends OAuthTwitterSupport
      */
     public PagableResponseList<UserList> getUserLists(String listOwnerScreenName, long cursor) throws TwitterException {
         ensureAuthenticationEnabled();
-        return UserListJSONImpl.createUserListList(get(conf.getRestBaseURL() +
-                listOwnerScreenName + "/lists.json?cursor=" + cursor, auth));
+        return cacheUsers(UserListJSONImpl.createUserListList(get(conf.getRestBaseURL() +
+                listOwnerScreenName + "/lists.json?cursor=" + cursor, auth)));
     }
 
     /**
@@ -712,8 +756,8 @@ public class Twitter extends OAuthTwitterSupport
      */
     public UserList showUserList(String listOwnerScreenName, int id) throws TwitterException {
         ensureAuthenticationEnabled();
-        return new UserListJSONImpl(get(conf.getRestBaseURL() + listOwnerScreenName + "/lists/"
-                + id + ".json", auth));
+        return cacheUsers(new UserListJSONImpl(get(conf.getRestBaseURL() + listOwnerScreenName + "/lists/"
+                + id + ".json", auth)));
     }
 
     /**
@@ -721,17 +765,17 @@ public class Twitter extends OAuthTwitterSupport
      */
     public UserList destroyUserList(int listId) throws TwitterException {
         ensureAuthenticationEnabled();
-        return new UserListJSONImpl(http.request(requestFactory.createDeleteRequest(conf.getRestBaseURL() + getScreenName() +
-                "/lists/" + listId + ".json", auth)));
+        return cacheUsers(new UserListJSONImpl(http.request(requestFactory.createDeleteRequest(conf.getRestBaseURL() + getScreenName() +
+                "/lists/" + listId + ".json", auth))));
     }
 
     /**
      * {@inheritDoc}
      */
     public ResponseList<Status> getUserListStatuses(String listOwnerScreenName, int id, Paging paging) throws TwitterException {
-        return StatusJSONImpl.createStatusList(get(conf.getRestBaseURL() + listOwnerScreenName +
+        return cacheUsers(StatusJSONImpl.createStatusList(get(conf.getRestBaseURL() + listOwnerScreenName +
                 "/lists/" + id + "/statuses.json", new PostParameter[0],
-                paging.asPostParameterList(Paging.SMCP, Paging.PER_PAGE), auth));
+                paging.asPostParameterList(Paging.SMCP, Paging.PER_PAGE), auth)));
     }
 
     /**
@@ -739,8 +783,8 @@ public class Twitter extends OAuthTwitterSupport
      */
     public PagableResponseList<UserList> getUserListMemberships(String listOwnerScreenName, long cursor) throws TwitterException {
         ensureAuthenticationEnabled();
-        return UserListJSONImpl.createUserListList(get(conf.getRestBaseURL() +
-                listOwnerScreenName + "/lists/memberships.json?cursor=" + cursor, auth));
+        return cacheUsers(UserListJSONImpl.createUserListList(get(conf.getRestBaseURL() +
+                listOwnerScreenName + "/lists/memberships.json?cursor=" + cursor, auth)));
     }
 
     /**
@@ -748,8 +792,8 @@ public class Twitter extends OAuthTwitterSupport
      */
     public PagableResponseList<UserList> getUserListSubscriptions(String listOwnerScreenName, long cursor) throws TwitterException {
         ensureAuthenticationEnabled();
-        return UserListJSONImpl.createUserListList(get(conf.getRestBaseURL() +
-                listOwnerScreenName + "/lists/subscriptions.json?cursor=" + cursor, auth));
+        return cacheUsers(UserListJSONImpl.createUserListList(get(conf.getRestBaseURL() +
+                listOwnerScreenName + "/lists/subscriptions.json?cursor=" + cursor, auth)));
     }
 
     /*List Members Methods*/
@@ -760,8 +804,8 @@ public class Twitter extends OAuthTwitterSupport
     public PagableResponseList<User> getUserListMembers(String listOwnerScreenName, int listId
             , long cursor) throws TwitterException {
         ensureAuthenticationEnabled();
-        return UserJSONImpl.createPagableUserList(get(conf.getRestBaseURL() +
-                listOwnerScreenName + "/" + listId + "/members.json?cursor=" + cursor, auth));
+        return cacheUsers(UserJSONImpl.createPagableUserList(get(conf.getRestBaseURL() +
+                listOwnerScreenName + "/" + listId + "/members.json?cursor=" + cursor, auth)));
     }
 
     /**
@@ -769,8 +813,8 @@ public class Twitter extends OAuthTwitterSupport
      */
     public UserList addUserListMember(int listId, int userId) throws TwitterException {
         ensureAuthenticationEnabled();
-        return new UserListJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + getScreenName() +
-                "/" + listId + "/members.json?id=" + userId, auth)));
+        return cacheUsers(new UserListJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + getScreenName() +
+                "/" + listId + "/members.json?id=" + userId, auth))));
     }
 
     /**
@@ -778,8 +822,8 @@ public class Twitter extends OAuthTwitterSupport
      */
     public UserList deleteUserListMember(int listId, int userId) throws TwitterException {
         ensureAuthenticationEnabled();
-        return new UserListJSONImpl(http.request(requestFactory.createDeleteRequest(conf.getRestBaseURL() + getScreenName() +
-                "/" + listId + "/members.json?id=" + userId, auth)));
+        return cacheUsers(new UserListJSONImpl(http.request(requestFactory.createDeleteRequest(conf.getRestBaseURL() + getScreenName() +
+                "/" + listId + "/members.json?id=" + userId, auth))));
     }
 
     /**
@@ -787,8 +831,8 @@ public class Twitter extends OAuthTwitterSupport
      */
     public User checkUserListMembership(String listOwnerScreenName, int listId, int userId) throws TwitterException {
         ensureAuthenticationEnabled();
-        return new UserJSONImpl(get(conf.getRestBaseURL() + listOwnerScreenName + "/" + listId
-                + "/members/" + userId + ".json", auth));
+        return cacheUsers(new UserJSONImpl(get(conf.getRestBaseURL() + listOwnerScreenName + "/" + listId
+                + "/members/" + userId + ".json", auth)));
     }
 
     /*List Subscribers Methods*/
@@ -799,8 +843,8 @@ public class Twitter extends OAuthTwitterSupport
     public PagableResponseList<User> getUserListSubscribers(String listOwnerScreenName
             , int listId, long cursor) throws TwitterException {
         ensureAuthenticationEnabled();
-        return UserJSONImpl.createPagableUserList(get(conf.getRestBaseURL() +
-                listOwnerScreenName + "/" + listId + "/subscribers.json?cursor=" + cursor, auth));
+        return cacheUsers(UserJSONImpl.createPagableUserList(get(conf.getRestBaseURL() +
+                listOwnerScreenName + "/" + listId + "/subscribers.json?cursor=" + cursor, auth)));
     }
 
     /**
@@ -808,8 +852,8 @@ public class Twitter extends OAuthTwitterSupport
      */
     public UserList subscribeUserList(String listOwnerScreenName, int listId) throws TwitterException {
         ensureAuthenticationEnabled();
-        return new UserListJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + listOwnerScreenName +
-                "/" + listId + "/subscribers.json", auth)));
+        return cacheUsers(new UserListJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + listOwnerScreenName +
+                "/" + listId + "/subscribers.json", auth))));
     }
 
     /**
@@ -817,8 +861,8 @@ public class Twitter extends OAuthTwitterSupport
      */
     public UserList unsubscribeUserList(String listOwnerScreenName, int listId) throws TwitterException {
         ensureAuthenticationEnabled();
-        return new UserListJSONImpl(http.request(requestFactory.createDeleteRequest(conf.getRestBaseURL() + listOwnerScreenName +
-                "/" + listId + "/subscribers.json?id=" + verifyCredentials().getId(), auth)));
+        return cacheUsers(new UserListJSONImpl(http.request(requestFactory.createDeleteRequest(conf.getRestBaseURL() + listOwnerScreenName +
+                "/" + listId + "/subscribers.json?id=" + verifyCredentials().getId(), auth))));
     }
 
     /**
@@ -826,8 +870,8 @@ public class Twitter extends OAuthTwitterSupport
      */
     public User checkUserListSubscription(String listOwnerScreenName, int listId, int userId) throws TwitterException {
         ensureAuthenticationEnabled();
-        return new UserJSONImpl(get(conf.getRestBaseURL() + listOwnerScreenName + "/" + listId
-                + "/subscribers/" + userId + ".json", auth));
+        return cacheUsers(new UserJSONImpl(get(conf.getRestBaseURL() + listOwnerScreenName + "/" + listId
+                + "/subscribers/" + userId + ".json", auth)));
     }
 
     /*Direct Message Methods */
@@ -837,7 +881,7 @@ public class Twitter extends OAuthTwitterSupport
      */
     public ResponseList<DirectMessage> getDirectMessages() throws TwitterException {
         ensureAuthenticationEnabled();
-        return DirectMessageJSONImpl.createDirectMessageList(get(conf.getRestBaseURL() + "direct_messages.json", auth));
+        return cacheUsers(DirectMessageJSONImpl.createDirectMessageList(get(conf.getRestBaseURL() + "direct_messages.json", auth)));
     }
 
     /**
@@ -845,8 +889,8 @@ public class Twitter extends OAuthTwitterSupport
      */
     public ResponseList<DirectMessage> getDirectMessages(Paging paging) throws TwitterException {
         ensureAuthenticationEnabled();
-        return DirectMessageJSONImpl.createDirectMessageList(get(conf.getRestBaseURL()
-                + "direct_messages.json", null, paging.asPostParameterList(), auth));
+        return cacheUsers(DirectMessageJSONImpl.createDirectMessageList(get(conf.getRestBaseURL()
+                + "direct_messages.json", null, paging.asPostParameterList(), auth)));
     }
 
     /**
@@ -855,8 +899,8 @@ public class Twitter extends OAuthTwitterSupport
     public ResponseList<DirectMessage> getSentDirectMessages() throws
             TwitterException {
         ensureAuthenticationEnabled();
-        return DirectMessageJSONImpl.createDirectMessageList(get(conf.getRestBaseURL() +
-                "direct_messages/sent.json", new PostParameter[0], auth));
+        return cacheUsers(DirectMessageJSONImpl.createDirectMessageList(get(conf.getRestBaseURL() +
+                "direct_messages/sent.json", new PostParameter[0], auth)));
     }
 
     /**
@@ -865,9 +909,9 @@ public class Twitter extends OAuthTwitterSupport
     public ResponseList<DirectMessage> getSentDirectMessages(Paging paging) throws
             TwitterException {
         ensureAuthenticationEnabled();
-        return DirectMessageJSONImpl.createDirectMessageList(get(conf.getRestBaseURL() +
+        return cacheUsers(DirectMessageJSONImpl.createDirectMessageList(get(conf.getRestBaseURL() +
                 "direct_messages/sent.json", new PostParameter[0],
-                paging.asPostParameterList(), auth));
+                paging.asPostParameterList(), auth)));
     }
 
     /**
@@ -875,9 +919,9 @@ public class Twitter extends OAuthTwitterSupport
      */
     public DirectMessage sendDirectMessage(String screenName, String text) throws TwitterException {
         ensureAuthenticationEnabled();
-        return new DirectMessageJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "direct_messages/new.json",
+        return cacheUsers(new DirectMessageJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "direct_messages/new.json",
                 new PostParameter[]{new PostParameter("screen_name", screenName),
-                        new PostParameter("text", text)}, auth)));
+                        new PostParameter("text", text)}, auth))));
     }
 
     /**
@@ -886,9 +930,9 @@ public class Twitter extends OAuthTwitterSupport
     public DirectMessage sendDirectMessage(int userId, String text)
             throws TwitterException {
         ensureAuthenticationEnabled();
-        return new DirectMessageJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "direct_messages/new.json",
+        return cacheUsers(new DirectMessageJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "direct_messages/new.json",
                 new PostParameter[]{new PostParameter("user_id", userId),
-                        new PostParameter("text", text)}, auth)));
+                        new PostParameter("text", text)}, auth))));
     }
 
     /**
@@ -897,8 +941,8 @@ public class Twitter extends OAuthTwitterSupport
     public DirectMessage destroyDirectMessage(int id) throws
             TwitterException {
         ensureAuthenticationEnabled();
-        return new DirectMessageJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() +
-                "direct_messages/destroy/" + id + ".json", new PostParameter[0], auth)));
+        return cacheUsers(new DirectMessageJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() +
+                "direct_messages/destroy/" + id + ".json", new PostParameter[0], auth))));
     }
 
     /**
@@ -906,7 +950,7 @@ public class Twitter extends OAuthTwitterSupport
      */
     public User createFriendship(String screenName) throws TwitterException {
         ensureAuthenticationEnabled();
-        return new UserJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "friendships/create.json?screen_name=" + screenName, new PostParameter[0], auth)));
+        return cacheUsers(new UserJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "friendships/create.json?screen_name=" + screenName, new PostParameter[0], auth))));
     }
 
     /**
@@ -914,7 +958,7 @@ public class Twitter extends OAuthTwitterSupport
      */
     public User createFriendship(int userId) throws TwitterException {
         ensureAuthenticationEnabled();
-        return new UserJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "friendships/create.json?user_id=" + userId, new PostParameter[0], auth)));
+        return cacheUsers(new UserJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "friendships/create.json?user_id=" + userId, new PostParameter[0], auth))));
     }
 
     /**
@@ -922,8 +966,8 @@ public class Twitter extends OAuthTwitterSupport
      */
     public User createFriendship(String screenName, boolean follow) throws TwitterException {
         ensureAuthenticationEnabled();
-        return new UserJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "friendships/create.json?screen_name=" + screenName
-                + "&follow=" + follow, auth)));
+        return cacheUsers(new UserJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "friendships/create.json?screen_name=" + screenName
+                + "&follow=" + follow, auth))));
     }
 
     /**
@@ -931,8 +975,8 @@ public class Twitter extends OAuthTwitterSupport
      */
     public User createFriendship(int userId, boolean follow) throws TwitterException {
         ensureAuthenticationEnabled();
-        return new UserJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "friendships/create.json?user_id=" + userId
-                + "&follow=" + follow, auth)));
+        return cacheUsers(new UserJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "friendships/create.json?user_id=" + userId
+                + "&follow=" + follow, auth))));
     }
 
     /**
@@ -940,8 +984,8 @@ public class Twitter extends OAuthTwitterSupport
      */
     public User destroyFriendship(String screenName) throws TwitterException {
         ensureAuthenticationEnabled();
-        return new UserJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "friendships/destroy.json?screen_name="
-                + screenName, auth)));
+        return cacheUsers(new UserJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "friendships/destroy.json?screen_name="
+                + screenName, auth))));
     }
 
     /**
@@ -949,8 +993,8 @@ public class Twitter extends OAuthTwitterSupport
      */
     public User destroyFriendship(int userId) throws TwitterException {
         ensureAuthenticationEnabled();
-        return new UserJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "friendships/destroy.json?user_id="
-                + userId, auth)));
+        return cacheUsers(new UserJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "friendships/destroy.json?user_id="
+                + userId, auth))));
     }
 
     /**
@@ -1070,8 +1114,8 @@ public class Twitter extends OAuthTwitterSupport
      * {@inheritDoc}
      */
     public User verifyCredentials() throws TwitterException {
-        return new UserJSONImpl(get(conf.getRestBaseURL() + "account/verify_credentials.json"
-                , auth));
+        return cacheUsers(new UserJSONImpl(get(conf.getRestBaseURL() + "account/verify_credentials.json"
+                , auth)));
     }
 
     /**
@@ -1086,8 +1130,8 @@ public class Twitter extends OAuthTwitterSupport
         addParameterToList(profile, "url", url);
         addParameterToList(profile, "location", location);
         addParameterToList(profile, "description", description);
-        return new UserJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "account/update_profile.json"
-                , profile.toArray(new PostParameter[profile.size()]), auth)));
+        return cacheUsers(new UserJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "account/update_profile.json"
+                , profile.toArray(new PostParameter[profile.size()]), auth))));
     }
 
     /**
@@ -1102,7 +1146,7 @@ public class Twitter extends OAuthTwitterSupport
      */
     public User updateDeliveryDevice(Device device) throws TwitterException {
         ensureAuthenticationEnabled();
-        return new UserJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "account/update_delivery_device.json", new PostParameter[]{new PostParameter("device", device.getName())}, auth)));
+        return cacheUsers(new UserJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "account/update_delivery_device.json", new PostParameter[]{new PostParameter("device", device.getName())}, auth))));
     }
 
 
@@ -1128,9 +1172,9 @@ public class Twitter extends OAuthTwitterSupport
                 , profileSidebarFillColor);
         addParameterToList(colors, "profile_sidebar_border_color"
                 , profileSidebarBorderColor);
-        return new UserJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() +
+        return cacheUsers(new UserJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() +
                 "account/update_profile_colors.json",
-                colors.toArray(new PostParameter[colors.size()]), auth)));
+                colors.toArray(new PostParameter[colors.size()]), auth))));
     }
 
     private void addParameterToList(List<PostParameter> colors,
@@ -1146,9 +1190,9 @@ public class Twitter extends OAuthTwitterSupport
     public User updateProfileImage(File image) throws TwitterException {
         checkFileValidity(image);
         ensureAuthenticationEnabled();
-        return new UserJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL()
+        return cacheUsers(new UserJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL()
                 + "account/update_profile_image.json",
-                new PostParameter[]{new PostParameter("image", image)}, auth)));
+                new PostParameter[]{new PostParameter("image", image)}, auth))));
     }
 
     /**
@@ -1158,10 +1202,10 @@ public class Twitter extends OAuthTwitterSupport
             throws TwitterException {
         ensureAuthenticationEnabled();
         checkFileValidity(image);
-        return new UserJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL()
+        return cacheUsers(new UserJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL()
                 + "account/update_profile_background_image.json",
                 new PostParameter[]{new PostParameter("image", image),
-                        new PostParameter("tile", tile)}, auth)));
+                        new PostParameter("tile", tile)}, auth))));
     }
 
     /**
@@ -1187,7 +1231,7 @@ public class Twitter extends OAuthTwitterSupport
      */
     public ResponseList<Status> getFavorites() throws TwitterException {
         ensureAuthenticationEnabled();
-        return StatusJSONImpl.createStatusList(get(conf.getRestBaseURL() + "favorites.json", new PostParameter[0], auth));
+        return cacheUsers(StatusJSONImpl.createStatusList(get(conf.getRestBaseURL() + "favorites.json", new PostParameter[0], auth)));
     }
 
     /**
@@ -1195,7 +1239,7 @@ public class Twitter extends OAuthTwitterSupport
      */
     public ResponseList<Status> getFavorites(int page) throws TwitterException {
         ensureAuthenticationEnabled();
-        return StatusJSONImpl.createStatusList(get(conf.getRestBaseURL() + "favorites.json", "page", String.valueOf(page), auth));
+        return cacheUsers(StatusJSONImpl.createStatusList(get(conf.getRestBaseURL() + "favorites.json", "page", String.valueOf(page), auth)));
     }
 
     /**
@@ -1203,7 +1247,7 @@ public class Twitter extends OAuthTwitterSupport
      */
     public ResponseList<Status> getFavorites(String id) throws TwitterException {
         ensureAuthenticationEnabled();
-        return StatusJSONImpl.createStatusList(get(conf.getRestBaseURL() + "favorites/" + id + ".json", new PostParameter[0], auth));
+        return cacheUsers(StatusJSONImpl.createStatusList(get(conf.getRestBaseURL() + "favorites/" + id + ".json", new PostParameter[0], auth)));
     }
 
     /**
@@ -1211,7 +1255,7 @@ public class Twitter extends OAuthTwitterSupport
      */
     public ResponseList<Status> getFavorites(String id, int page) throws TwitterException {
         ensureAuthenticationEnabled();
-        return StatusJSONImpl.createStatusList(get(conf.getRestBaseURL() + "favorites/" + id + ".json", "page", String.valueOf(page), auth));
+        return cacheUsers(StatusJSONImpl.createStatusList(get(conf.getRestBaseURL() + "favorites/" + id + ".json", "page", String.valueOf(page), auth)));
     }
 
     /**
@@ -1219,7 +1263,7 @@ public class Twitter extends OAuthTwitterSupport
      */
     public Status createFavorite(long id) throws TwitterException {
         ensureAuthenticationEnabled();
-        return new StatusJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "favorites/create/" + id + ".json", auth)));
+        return cacheUsers(new StatusJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "favorites/create/" + id + ".json", auth))));
     }
 
     /**
@@ -1227,7 +1271,7 @@ public class Twitter extends OAuthTwitterSupport
      */
     public Status destroyFavorite(long id) throws TwitterException {
         ensureAuthenticationEnabled();
-        return new StatusJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "favorites/destroy/" + id + ".json", auth)));
+        return cacheUsers(new StatusJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "favorites/destroy/" + id + ".json", auth))));
     }
 
     /**
@@ -1235,7 +1279,7 @@ public class Twitter extends OAuthTwitterSupport
      */
     public User enableNotification(String screenName) throws TwitterException {
         ensureAuthenticationEnabled();
-        return new UserJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "notifications/follow.json?screen_name=" + screenName, auth)));
+        return cacheUsers(new UserJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "notifications/follow.json?screen_name=" + screenName, auth))));
     }
 
     /**
@@ -1243,7 +1287,7 @@ public class Twitter extends OAuthTwitterSupport
      */
     public User enableNotification(int userId) throws TwitterException {
         ensureAuthenticationEnabled();
-        return new UserJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "notifications/follow.json?userId=" + userId, auth)));
+        return cacheUsers(new UserJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "notifications/follow.json?userId=" + userId, auth))));
     }
 
     /**
@@ -1251,7 +1295,7 @@ public class Twitter extends OAuthTwitterSupport
      */
     public User disableNotification(String screenName) throws TwitterException {
         ensureAuthenticationEnabled();
-        return new UserJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "notifications/leave.json?screen_name=" + screenName, auth)));
+        return cacheUsers(new UserJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "notifications/leave.json?screen_name=" + screenName, auth))));
     }
 
     /**
@@ -1259,7 +1303,7 @@ public class Twitter extends OAuthTwitterSupport
      */
     public User disableNotification(int userId) throws TwitterException {
         ensureAuthenticationEnabled();
-        return new UserJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "notifications/leave.json?user_id=" + userId, auth)));
+        return cacheUsers(new UserJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "notifications/leave.json?user_id=" + userId, auth))));
     }
 
     /* Block Methods */
@@ -1269,7 +1313,7 @@ public class Twitter extends OAuthTwitterSupport
      */
     public User createBlock(String screenName) throws TwitterException {
         ensureAuthenticationEnabled();
-        return new UserJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "blocks/create.json?screen_name=" + screenName, auth)));
+        return cacheUsers(new UserJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "blocks/create.json?screen_name=" + screenName, auth))));
     }
 
     /**
@@ -1277,7 +1321,7 @@ public class Twitter extends OAuthTwitterSupport
      */
     public User createBlock(int userId) throws TwitterException {
         ensureAuthenticationEnabled();
-        return new UserJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "blocks/create.json?user_id=" + userId, auth)));
+        return cacheUsers(new UserJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "blocks/create.json?user_id=" + userId, auth))));
     }
 
     /**
@@ -1285,7 +1329,7 @@ public class Twitter extends OAuthTwitterSupport
      */
     public User destroyBlock(String screen_name) throws TwitterException {
         ensureAuthenticationEnabled();
-        return new UserJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "blocks/destroy.json?screen_name=" + screen_name, auth)));
+        return cacheUsers(new UserJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "blocks/destroy.json?screen_name=" + screen_name, auth))));
     }
 
     /**
@@ -1293,7 +1337,7 @@ public class Twitter extends OAuthTwitterSupport
      */
     public User destroyBlock(int userId) throws TwitterException {
         ensureAuthenticationEnabled();
-        return new UserJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "blocks/destroy.json?user_id=" + userId, auth)));
+        return cacheUsers(new UserJSONImpl(http.request(requestFactory.createPostRequest(conf.getRestBaseURL() + "blocks/destroy.json?user_id=" + userId, auth))));
     }
 
     /**
@@ -1335,8 +1379,8 @@ public class Twitter extends OAuthTwitterSupport
     public ResponseList<User> getBlockingUsers() throws
             TwitterException {
         ensureAuthenticationEnabled();
-        return UserJSONImpl.createUserList(get(conf.getRestBaseURL() +
-                "blocks/blocking.json", auth));
+        return cacheUsers(UserJSONImpl.createUserList(get(conf.getRestBaseURL() +
+                "blocks/blocking.json", auth)));
     }
 
     /**
@@ -1345,8 +1389,8 @@ public class Twitter extends OAuthTwitterSupport
     public ResponseList<User> getBlockingUsers(int page) throws
             TwitterException {
         ensureAuthenticationEnabled();
-        return UserJSONImpl.createUserList(get(conf.getRestBaseURL() +
-                "blocks/blocking.json?page=" + page, auth));
+        return cacheUsers(UserJSONImpl.createUserList(get(conf.getRestBaseURL() +
+                "blocks/blocking.json?page=" + page, auth)));
     }
 
     /**
@@ -0,0 +1,292 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j;
+
+import twitter4j.conf.Configuration;
+import twitter4j.http.AccessToken;
+import twitter4j.http.Authorization;
+import twitter4j.http.HttpClient;
+import twitter4j.http.HttpResponseEvent;
+import twitter4j.http.HttpResponseListener;
+import twitter4j.http.OAuthSigner;
+import twitter4j.http.PostParameter;
+import twitter4j.http.Response;
+
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Issues API calls on behalf of any number of users authorized to one OAuth consumer.<br>
+ * Instances returned by {@link #getInstance(AccessToken)} share a single HttpClient and carry nothing but a lightweight authorization
+ * which signs each request with the token, thus they are cheap to create and may be discarded after each use:
+ * <pre>
+ * TwitterClientPool pool = new TwitterClientPool(consumerKey, consumerSecret);
+ * pool.getInstance(accessTokenOfAlice).updateStatus("hello");
+ * </pre>
+ * Asynchronous instances share the dispatcher of AsyncTwitter.<br>
+ * The rate limit status reported in the response headers is kept per token, and RateLimitStatusListeners added to the pool
+ * receive events whose source is the AccessToken.<br>
+ * Instances of this class are thread safe.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.1.0
+ */
+public class TwitterClientPool implements HttpResponseListener, java.io.Serializable {
+    private Configuration conf;
+    private final String consumerKey;
+    private final String consumerSecret;
+    private transient HttpClient http;
+    private final ConcurrentHashMap<String, RateLimitStatus> rateLimitStatuses = new ConcurrentHashMap<String, RateLimitStatus>();
+    private final List<RateLimitStatusListener> rateLimitStatusListeners = new ArrayList<RateLimitStatusListener>(0);
+    private static final long serialVersionUID = 1941521474290911587L;
+
+    /**
+     * Creates a pool with the consumer key and secret in the default configuration.
+     */
+    public TwitterClientPool() {
+        this(Configuration.getInstance());
+    }
+
+    /**
+     * Creates a pool with the consumer key and secret in the supplied configuration.
+     *
+     * @param conf configuration
+     */
+    public TwitterClientPool(Configuration conf) {
+        this(conf, conf.getOAuthConsumerKey(), conf.getOAuthConsumerSecret());
+    }
+
+    /**
+     * @param consumerKey    consumer key
+     * @param consumerSecret consumer secret
+     */
+    public TwitterClientPool(String consumerKey, String consumerSecret) {
+        this(Configuration.getInstance(), consumerKey, consumerSecret);
+    }
+
+    /**
+     * @param conf           configuration of the HttpClient and of the instances returned by the pool
+     * @param consumerKey    consumer key
+     * @param consumerSecret consumer secret
+     */
+    public TwitterClientPool(Configuration conf, String consumerKey, String consumerSecret) {
+        if (null == conf) {
+            throw new NullPointerException("conf");
+        }
+        if (null == consumerKey || null == consumerSecret) {
+            throw new IllegalStateException("Consumer key and Consumer secret not supplied.");
+        }
+        this.conf = conf;
+        this.consumerKey = consumerKey;
+        this.consumerSecret = consumerSecret;
+        init();
+    }
+
+    private void init() {
+        http = new HttpClient(conf);
+        http.addHttpResponseListener(this);
+    }
+
+    private void readObject(java.io.ObjectInputStream stream)
+            throws java.io.IOException, ClassNotFoundException {
+        stream.defaultReadObject();
+        if (null == conf) {
+            // written by an earlier version
+            conf = Configuration.getInstance();
+        }
+        init();
+    }
+
+    /**
+     * Returns a Twitter instance acting on behalf of the owner of the token.
+     *
+     * @param accessToken access token
+     * @return Twitter instance sharing the HttpClient of this pool
+     */
+    public Twitter getInstance(AccessToken accessToken) {
+        return new Twitter(conf, new TokenAuthorization(accessToken), http, accessToken.getScreenName());
+    }
+
+    /**
+     * Returns an AsyncTwitter instance acting on behalf of the owner of the token.
+     *
+     * @param accessToken access token
+     * @return AsyncTwitter instance sharing the HttpClient of this pool
+     */
+    public AsyncTwitter getAsyncInstance(AccessToken accessToken) {
+        return new AsyncTwitter(conf, new TokenAuthorization(accessToken), http, accessToken.getScreenName());
+    }
+
+    /**
+     * Returns the latest rate limit status of the token, as reported in the response headers.
+     *
+     * @param accessToken access token
+     * @return rate limit status, or null if no response has been received for the token
+     */
+    public RateLimitStatus getRateLimitStatus(AccessToken accessToken) {
+        return rateLimitStatuses.get(accessToken.getToken());
+    }
+
+    /**
+     * Returns true if the token has run out of API hits until the rate limit resets.
+     *
+     * @param accessToken access token
+     * @return true if the token is rate limited
+     */
+    public boolean isRateLimited(AccessToken accessToken) {
+        RateLimitStatus status = getRateLimitStatus(accessToken);
+        return null != status && status.getRemainingHits() <= 0
+                && status.getResetTime().getTime() > System.currentTimeMillis();
+    }
+
+    /**
+     * Forgets the rate limit status of the token, for example when the user revoked the access.
+     *
+     * @param accessToken access token
+     */
+    public void remove(AccessToken accessToken) {
+        rateLimitStatuses.remove(accessToken.getToken());
+    }
+
+    /**
+     * Registers a RateLimitStatusListener notified of the rate limit status of all tokens.
+     * The source of the events is the AccessToken.
+     *
+     * @param listener listener
+     */
+    public void addRateLimitStatusListener(RateLimitStatusListener listener) {
+        synchronized (rateLimitStatusListeners) {
+            rateLimitStatusListeners.add(listener);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void httpResponseReceived(HttpResponseEvent event) {
+        Authorization authorization = event.getRequest().getAuthorization();
+        if (!(authorization instanceof TokenAuthorization)) {
+            return;
+        }
+        AccessToken token = ((TokenAuthorization) authorization).accessToken;
+        Response res = event.getResponse();
+        RateLimitStatus rateLimitStatus = RateLimitStatusJSONImpl.createFromResponseHeader(res);
+        if (null != rateLimitStatus) {
+            rateLimitStatuses.put(token.getToken(), rateLimitStatus);
+        }
+        RateLimitStatusListener[] listeners;
+        synchronized (rateLimitStatusListeners) {
+            if (0 == rateLimitStatusListeners.size()) {
+                return;
+            }
+            listeners = rateLimitStatusListeners.toArray(new RateLimitStatusListener[rateLimitStatusListeners.size()]);
+        }
+        RateLimitStatusEvent statusEvent = new RateLimitStatusEvent(token, rateLimitStatus, true);
+        if (null != rateLimitStatus) {
+            for (RateLimitStatusListener listener : listeners) {
+                listener.rateLimitStatusUpdated(statusEvent);
+            }
+        }
+        if (res.getStatusCode() == HttpClient.EXCEEDED_RATE_LIMIT_QUOTA
+                || res.getStatusCode() == HttpClient.SERVICE_UNAVAILABLE) {
+            for (RateLimitStatusListener listener : listeners) {
+                listener.onRateLimitReached(statusEvent);
+            }
+        }
+    }
+
+    private static final Random RAND = new Random();
+
+    /**
+     * Signs requests with the consumer of the pool and a single access token.
+     * The signer is built lazily on the first request so that creating an instance costs next to nothing.
+     */
+    private final class TokenAuthorization implements Authorization {
+        private final AccessToken accessToken;
+        private transient OAuthSigner signer = null;
+        private static final long serialVersionUID = -4906236016106442468L;
+
+        TokenAuthorization(AccessToken accessToken) {
+            this.accessToken = accessToken;
+        }
+
+        private OAuthSigner getSigner() {
+            if (null == signer) {
+                signer = new OAuthSigner(consumerKey, consumerSecret, accessToken.getToken(), accessToken.getTokenSecret());
+            }
+            return signer;
+        }
+
+        public void setAuthorizationHeader(String method, String url, PostParameter[] params, HttpURLConnection con) {
+            long timestamp = System.currentTimeMillis() / 1000;
+            long nonce = timestamp + RAND.nextInt();
+            con.addRequestProperty("Authorization", getSigner().generateAuthorizationHeader(method, url, params
+                    , String.valueOf(nonce), String.valueOf(timestamp)));
+        }
+
+        public boolean isAuthenticationEnabled() {
+            return true;
+        }
+
+        private TwitterClientPool getPool() {
+            return TwitterClientPool.this;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof TokenAuthorization)) return false;
+
+            TokenAuthorization that = (TokenAuthorization) o;
+            return getPool() == that.getPool() && accessToken.equals(that.accessToken);
+        }
+
+        @Override
+        public int hashCode() {
+            return accessToken.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return "TokenAuthorization{" +
+                    "consumerKey='" + consumerKey + '\'' +
+                    ", accessToken=" + accessToken +
+                    '}';
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "TwitterClientPool{" +
+                "consumerKey='" + consumerKey + '\'' +
+                ", tokens=" + rateLimitStatuses.size() +
+                '}';
+    }
+}
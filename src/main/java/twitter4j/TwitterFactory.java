@@ -36,11 +36,9 @@ import twitter4j.http.BasicAuthorization;
  * @since Twitter4J 2.1.0
  */
 public class TwitterFactory {
-    private static final Twitter DEFAULT_INSTANCE;
-    private transient static final Configuration conf = Configuration.getInstance();
-
-    static {
-        DEFAULT_INSTANCE = new Twitter();
+    // initialized on the first call to getInstance(), not by the other factory methods
+    private static final class DefaultInstance {
+        static final Twitter INSTANCE = new Twitter();
     }
 
     private TwitterFactory() {
@@ -53,13 +51,34 @@ public class TwitterFactory {
      * @return default singleton instance
      */
     public static Twitter getInstance() {
-        return DEFAULT_INSTANCE;
+        return DefaultInstance.INSTANCE;
     }
 
     public static Twitter getInstance(Authorization auth) {
         return new Twitter(auth);
     }
 
+    /**
+     * Returns a new instance with the supplied configuration, authenticated with the user ID/password or the OAuth credentials it provides, if any.
+     *
+     * @param conf configuration
+     * @return Twitter instance
+     * @since Twitter4J 2.1.0
+     */
+    public static Twitter getInstance(Configuration conf) {
+        return new Twitter(conf);
+    }
+
+    /**
+     * @param conf configuration
+     * @param auth authorization
+     * @return Twitter instance
+     * @since Twitter4J 2.1.0
+     */
+    public static Twitter getInstance(Configuration conf, Authorization auth) {
+        return new Twitter(conf, auth);
+    }
+
     /**
      * @param screenName screen name
      * @param password password
@@ -80,6 +99,7 @@ public class TwitterFactory {
     }
 
     public static Twitter getOAuthAuthenticatedInstance(AccessToken accessToken) {
+        Configuration conf = Configuration.getInstance();
         String consumerKey = conf.getOAuthConsumerKey();
         String consumerSecret = conf.getOAuthConsumerSecret();
         if (null == consumerKey && null == consumerSecret) {
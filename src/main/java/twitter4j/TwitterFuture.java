@@ -0,0 +1,249 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j;
+
+import twitter4j.http.AbortScope;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The pending result of an API call submitted to {@link FutureTwitter}.<br>
+ * Cancelling a running call disconnects its HTTP connection instead of interrupting the dispatcher thread,
+ * unless the connection is shared with identical coalesced GET requests, in which case only this future gives up on it.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.1.0
+ */
+public class TwitterFuture<V> extends FutureTask<V> {
+    private final AbortScope scope = new AbortScope();
+    private List<Callback<? super V>> callbacks = new ArrayList<Callback<? super V>>(2);
+
+    /**
+     * Receives the outcome of a TwitterFuture.
+     */
+    public interface Callback<V> {
+        /**
+         * @param result the value returned by the call
+         */
+        void onSuccess(V result);
+
+        /**
+         * @param te the exception thrown by the call, or describing its cancellation
+         */
+        void onFailure(TwitterException te);
+    }
+
+    /*package*/ TwitterFuture(Callable<V> callable) {
+        super(callable);
+    }
+
+    /**
+     * Creates a future which is completed by complete() / fail() rather than by running a call.
+     */
+    private TwitterFuture() {
+        super(new Callable<V>() {
+            public V call() throws Exception {
+                throw new IllegalStateException("not runnable");
+            }
+        });
+    }
+
+    public void run() {
+        scope.enter();
+        try {
+            super.run();
+        } finally {
+            scope.exit();
+        }
+    }
+
+    /**
+     * Cancels the call. If it is running, its HTTP connection is disconnected so that the dispatcher thread is released right away.
+     * A connection shared by coalesced GET requests is disconnected only once all of them have been cancelled.
+     *
+     * @param mayInterruptIfRunning ignored, the running call is aborted rather than interrupted
+     * @return false if the call has already completed
+     */
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean cancelled = super.cancel(false);
+        if (cancelled) {
+            scope.abort();
+        }
+        return cancelled;
+    }
+
+    /**
+     * Waits for the call to complete.
+     *
+     * @return the value returned by the call
+     * @throws TwitterException when the call failed, was cancelled or the current thread was interrupted
+     */
+    public V join() throws TwitterException {
+        try {
+            return get();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new TwitterException(ie);
+        } catch (ExecutionException ee) {
+            throw toTwitterException(ee.getCause());
+        } catch (CancellationException ce) {
+            throw new TwitterException("Cancelled.", ce);
+        }
+    }
+
+    /**
+     * Waits at most the given time for the call to complete, and cancels it if it doesn't.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit    the time unit of the timeout argument
+     * @return the value returned by the call
+     * @throws TwitterException when the call failed, timed out, was cancelled or the current thread was interrupted
+     */
+    public V join(long timeout, TimeUnit unit) throws TwitterException {
+        try {
+            return get(timeout, unit);
+        } catch (TimeoutException te) {
+            cancel(true);
+            throw new TwitterException("Timed out.", te);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new TwitterException(ie);
+        } catch (ExecutionException ee) {
+            throw toTwitterException(ee.getCause());
+        } catch (CancellationException ce) {
+            throw new TwitterException("Cancelled.", ce);
+        }
+    }
+
+    /**
+     * Registers a callback invoked once the call completes. If it has already completed, the callback is invoked in the calling thread.
+     *
+     * @param callback the callback
+     * @return this future
+     */
+    public TwitterFuture<V> addCallback(Callback<? super V> callback) {
+        synchronized (this) {
+            // join() may return before done() has taken the list; a callback queued then would run later in the worker thread
+            if (null != callbacks && !isDone()) {
+                callbacks.add(callback);
+                return this;
+            }
+        }
+        deliver(callback);
+        return this;
+    }
+
+    protected void done() {
+        List<Callback<? super V>> toNotify;
+        synchronized (this) {
+            toNotify = callbacks;
+            callbacks = null;
+        }
+        for (Callback<? super V> callback : toNotify) {
+            deliver(callback);
+        }
+    }
+
+    private void deliver(Callback<? super V> callback) {
+        V result;
+        try {
+            result = join();
+        } catch (TwitterException te) {
+            callback.onFailure(te);
+            return;
+        }
+        callback.onSuccess(result);
+    }
+
+    /**
+     * Returns a future which completes with the results of all given futures, in the same order, once all of them have succeeded.<br>
+     * It fails as soon as one of them fails, and cancelling it cancels the remaining ones.
+     *
+     * @param futures futures to wait for
+     * @return the combined future
+     */
+    public static <V> TwitterFuture<List<V>> all(Collection<? extends TwitterFuture<? extends V>> futures) {
+        final List<TwitterFuture<? extends V>> sources = new ArrayList<TwitterFuture<? extends V>>(futures);
+        final TwitterFuture<List<V>> combined = new TwitterFuture<List<V>>() {
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                boolean cancelled = super.cancel(mayInterruptIfRunning);
+                if (cancelled) {
+                    for (TwitterFuture<? extends V> source : sources) {
+                        source.cancel(mayInterruptIfRunning);
+                    }
+                }
+                return cancelled;
+            }
+        };
+        final List<V> results = new ArrayList<V>(sources.size());
+        for (int i = 0; i < sources.size(); i++) {
+            results.add(null);
+        }
+        final AtomicInteger remaining = new AtomicInteger(sources.size());
+        if (sources.size() == 0) {
+            combined.set(new ArrayList<V>(0));
+        }
+        for (int i = 0; i < sources.size(); i++) {
+            final int index = i;
+            sources.get(i).addCallback(new Callback<V>() {
+                public void onSuccess(V result) {
+                    results.set(index, result);
+                    if (remaining.decrementAndGet() == 0) {
+                        combined.set(new ArrayList<V>(results));
+                    }
+                }
+
+                public void onFailure(TwitterException te) {
+                    combined.setException(te);
+                    for (TwitterFuture<? extends V> source : sources) {
+                        source.cancel(false);
+                    }
+                }
+            });
+        }
+        return combined;
+    }
+
+    private static TwitterException toTwitterException(Throwable cause) {
+        if (cause instanceof TwitterException) {
+            return (TwitterException) cause;
+        } else if (cause instanceof Exception) {
+            return new TwitterException((Exception) cause);
+        } else {
+            return new TwitterException(String.valueOf(cause));
+        }
+    }
+}
@@ -87,7 +87,7 @@ public final class TwitterMethod implements java.io.Serializable {
     }
 
     /*Search API Methods*/
-    public static final TwitterMethod SEARCH = getInstance("SEARCH");
+    public static final TwitterMethod SEARCH = new TwitterMethod("SEARCH");
 
     public static final TwitterMethod TRENDS = new TwitterMethod("TRENDS");
     public static final TwitterMethod CURRENT_TRENDS = new TwitterMethod("CURRENT_TRENDS");
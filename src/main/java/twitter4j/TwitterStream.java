@@ -31,7 +31,10 @@ import twitter4j.http.PostParameter;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
 
 /**
  * A java reporesentation of the <a href="http://apiwiki.twitter.com/Streaming-API-Documentation">Twitter Streaming API</a>
@@ -40,9 +43,8 @@ import java.util.List;
  * @since Twitter4J 2.0.4
  */
 public class TwitterStream extends TwitterSupport {
-    private transient static final Configuration conf = Configuration.getInstance();
-
-    private static final boolean DEBUG = conf.isDebug();
+    // each stream blocks its handler for its whole lifetime, hence a thread per stream. One executor per distinct stack size
+    private static final Map<Integer, Executor> handlerExecutors = new HashMap<Integer, Executor>();
 
     private StatusListener statusListener;
     private StreamHandlingThread handler = null;
@@ -68,6 +70,28 @@ public class TwitterStream extends TwitterSupport {
         this.statusListener = listener;
         init();
     }
+
+    /**
+     * Constructs a TwitterStream instance with the supplied configuration, which provides the user ID and password.
+     *
+     * @param conf configuration
+     * @since Twitter4J 2.1.0
+     */
+    public TwitterStream(Configuration conf) {
+        super(conf);
+        init();
+    }
+
+    /**
+     * @param conf     configuration
+     * @param listener listener
+     * @since Twitter4J 2.1.0
+     */
+    public TwitterStream(Configuration conf, StatusListener listener) {
+        super(conf);
+        this.statusListener = listener;
+        init();
+    }
     private void init(){
         ensureBasicAuthenticationEnabled();
         http.setReadTimeout(conf.getHttpStreamingReadTimeout());
@@ -106,7 +130,7 @@ public class TwitterStream extends TwitterSupport {
         try {
             return new StatusStream(http.request(requestFactory.createPostRequest(conf.getStreamBaseURL() + "statuses/firehose.json"
                     , new PostParameter[]{new PostParameter("count"
-                            , String.valueOf(count))}, auth)));
+                            , String.valueOf(count))}, auth)), conf.isDebug());
         } catch (IOException e) {
             throw new TwitterException(e);
         }
@@ -142,7 +166,7 @@ public class TwitterStream extends TwitterSupport {
         ensureAuthenticationEnabled();
         try {
             return new StatusStream(http.request(requestFactory.createPostRequest(conf.getStreamBaseURL() + "statuses/retweet.json"
-                    , new PostParameter[]{}, auth)));
+                    , new PostParameter[]{}, auth)), conf.isDebug());
         } catch (IOException e) {
             throw new TwitterException(e);
         }
@@ -178,7 +202,7 @@ public class TwitterStream extends TwitterSupport {
         ensureBasicAuthenticationEnabled();
         try {
             return new StatusStream(http.request(requestFactory.createGetRequest(conf.getStreamBaseURL() + "statuses/sample.json"
-                    , auth)));
+                    , auth)), conf.isDebug());
         } catch (IOException e) {
             throw new TwitterException(e);
         }
@@ -229,7 +253,7 @@ public class TwitterStream extends TwitterSupport {
         }
         try {
             return new StatusStream(http.request(requestFactory.createPostRequest(conf.getStreamBaseURL() + "statuses/filter.json"
-                    , postparams.toArray(new PostParameter[0]), auth)));
+                    , postparams.toArray(new PostParameter[0]), auth)), conf.isDebug());
         } catch (IOException e) {
             throw new TwitterException(e);
         }
@@ -263,7 +287,18 @@ public class TwitterStream extends TwitterSupport {
             throw new IllegalStateException("StatusListener is not set.");
         }
         this.handler = handler;
-        this.handler.start();
+        getHandlerExecutor(conf.getAsyncThreadStackSize()).execute(handler);
+    }
+
+    /*package*/ static Executor getHandlerExecutor(int stackSize) {
+        synchronized (handlerExecutors) {
+            Executor executor = handlerExecutors.get(stackSize);
+            if (null == executor) {
+                executor = new ThreadPerTaskDispatcher("Twitter Stream Handling Thread", stackSize);
+                handlerExecutors.put(stackSize, executor);
+            }
+            return executor;
+        }
     }
 
     public synchronized void cleanup() {
@@ -283,20 +318,21 @@ public class TwitterStream extends TwitterSupport {
         this.statusListener = statusListener;
     }
 
-    abstract class StreamHandlingThread extends Thread {
+    abstract class StreamHandlingThread implements Runnable {
         StatusStream stream = null;
+        private volatile Thread thread = null;
         Object[] args;
         private List<Long> retryHistory;
         private static final String NAME = "Twitter Stream Handling Thread";
         private boolean closed = false;
 
         StreamHandlingThread(Object[] args) {
-            super(NAME + "[initializing]");
             this.args = args;
             retryHistory = new ArrayList<Long>(retryPerMinutes);
         }
 
         public void run() {
+            thread = Thread.currentThread();
             while (!closed) {
                 try {
                     // dispose outdated retry history
@@ -312,6 +348,7 @@ public class TwitterStream extends TwitterSupport {
                             if (retryHistory.size() < retryPerMinutes) {
                                 retryHistory.add(System.currentTimeMillis());
                                 stream = getStream();
+                                Metrics.getCollector().streamConnected();
                             }
                         }
                     }else if(!closed) {
@@ -332,6 +369,9 @@ public class TwitterStream extends TwitterSupport {
                         }
                     }
                 } catch (TwitterException te) {
+                    if (null != stream) {
+                        Metrics.getCollector().streamDisconnected(te);
+                    }
                     stream = null;
                     te.printStackTrace();
                     log(te.getMessage());
@@ -350,7 +390,10 @@ public class TwitterStream extends TwitterSupport {
         }
         private void setStatus(String message){
             String actualMessage = NAME + message;
-            setName(actualMessage);
+            Thread thread = this.thread;
+            if (null != thread) {
+                thread.setName(actualMessage);
+            }
             log(actualMessage);
         }
 
@@ -359,13 +402,13 @@ public class TwitterStream extends TwitterSupport {
     }
 
     private void log(String message) {
-        if (DEBUG) {
+        if (conf.isDebug()) {
             System.out.println("[" + new java.util.Date() + "]" + message);
         }
     }
 
     private void log(String message, String message2) {
-        if (DEBUG) {
+        if (conf.isDebug()) {
             log(message + message2);
         }
     }
@@ -35,36 +35,57 @@ import twitter4j.http.NullAuthorization;
 
 import java.io.IOException;
 import java.io.ObjectInputStream;
+import java.io.OptionalDataException;
 
 /**
  * @author Yusuke Yamamoto - yusuke at mac.com
  */
 class TwitterSupport implements java.io.Serializable {
-    protected transient static final Configuration conf = Configuration.getInstance();
+    protected transient Configuration conf;
 
-    protected transient static final HttpRequestFactory requestFactory = HttpRequestFactory.getInstance(conf);
+    protected transient HttpRequestFactory requestFactory;
 
-    protected transient HttpClient http = new HttpClient(conf);
+    protected transient HttpClient http;
+
+    protected transient UserCache userCache;
 
     protected Authorization auth;
     private static final long serialVersionUID = -3812176145960812140L;
 
     private void writeObject(java.io.ObjectOutputStream out) throws IOException {
         out.writeObject(auth);
+        out.writeObject(conf);
     }
 
     private void readObject(ObjectInputStream stream)
             throws IOException, ClassNotFoundException {
         auth = (Authorization)stream.readObject();
+        Configuration conf;
+        try {
+            conf = (Configuration) stream.readObject();
+        } catch (OptionalDataException writtenByEarlierVersion) {
+            conf = Configuration.getInstance();
+        }
+        setConfiguration(conf);
         http = new HttpClient(conf);
     }
 
 
     /*package*/ TwitterSupport(){
-        this(conf.getUser(), conf.getPassword());
+        this(Configuration.getInstance());
+    }
+
+    /*package*/ TwitterSupport(Configuration conf){
+        this(conf, conf.getUser(), conf.getPassword());
     }
 
     /*package*/ TwitterSupport(String userId, String password){
+        this(Configuration.getInstance(), userId, password);
+    }
+
+    /*package*/ TwitterSupport(Configuration conf, String userId, String password){
+        setConfiguration(conf);
+        http = new HttpClient(conf);
         if (null != userId && null != password) {
             auth = new BasicAuthorization(userId, password);
         }
@@ -73,6 +94,40 @@ class TwitterSupport implements java.io.Serializable {
         }
     }
 
+    /**
+     * Creates an instance sharing the supplied HttpClient.
+     */
+    /*package*/ TwitterSupport(Configuration conf, Authorization auth, HttpClient http){
+        setConfiguration(conf);
+        this.http = http;
+        this.auth = auth;
+    }
+
+    private void setConfiguration(Configuration conf) {
+        if (null == conf) {
+            throw new NullPointerException("conf");
+        }
+        this.conf = conf;
+        this.requestFactory = HttpRequestFactory.getInstance(conf);
+        this.userCache = UserCache.newInstance(conf);
+    }
+
+    /**
+     * @return the configuration of this instance
+     * @since Twitter4J 2.1.0
+     */
+    public Configuration getConfiguration() {
+        return conf;
+    }
+
+    /**
+     * @return the cache of users fetched by this instance
+     * @since Twitter4J 2.1.0
+     */
+    public UserCache getUserCache() {
+        return userCache;
+    }
+
     protected void ensureAuthenticationEnabled() {
         if (!auth.isAuthenticationEnabled()) {
             throw new IllegalStateException(
@@ -0,0 +1,347 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j;
+
+import twitter4j.conf.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A size and TTL bounded in-memory cache of users, keyed by both user id and lower-cased screen name.<br>
+ * Each Twitter instance owns its own cache, so that users visible only to one account are never served to another.
+ * When enabled, every User parsed from the responses of the instance (statuses, direct messages, list members, lookups, etc.) is put into its cache,
+ * and Twitter.showUser() consults the cache before issuing a request.
+ * The cache is cleared whenever the instance's credentials change.<br>
+ * The cache of a Twitter instance is disabled unless twitter4j.userCache.maxSize is set to a positive value.
+ * Entries expire after twitter4j.userCache.ttlSecs seconds (600 by default).<br>
+ * Note that a cached User keeps the RateLimitStatus of the response it was parsed from, if any, which is stale once the user is served from the cache.
+ * Users embedded in statuses do not carry their latest status.<br>
+ * The cache is divided into lock-striped LRU segments so that stream handling threads can update it with little contention.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.1.0
+ */
+public class UserCache {
+    private static final int STRIPES = 16;
+
+    /**
+     * Disabled cache shared by all instances whose configuration doesn't enable one. It keeps neither users nor statistics.
+     */
+    /*package*/ static final UserCache DISABLED = new UserCache(0, 1);
+
+    private final int maxSize;
+    private final long ttl;
+    private final Stripe[] stripes;
+    private final ConcurrentHashMap<String, Integer> screenNames;
+
+    private final AtomicLong hitCount = new AtomicLong(0);
+    private final AtomicLong missCount = new AtomicLong(0);
+    private final AtomicLong evictionCount = new AtomicLong(0);
+    private final AtomicLong expirationCount = new AtomicLong(0);
+
+    /**
+     * @param maxSize maximum number of users to be cached. 0 disables the cache.
+     * @param ttl     time to live of each entry in milliseconds
+     */
+    public UserCache(int maxSize, long ttl) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("maxSize cannot be negative. passed:" + maxSize);
+        }
+        if (ttl < 1) {
+            throw new IllegalArgumentException("ttl should be positive. passed:" + ttl);
+        }
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+        stripes = new Stripe[STRIPES];
+        int stripeSize = (maxSize + STRIPES - 1) / STRIPES;
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe(stripeSize);
+        }
+        screenNames = new ConcurrentHashMap<String, Integer>(Math.min(maxSize, 1024));
+    }
+
+    /**
+     * Creates a cache sized with twitter4j.userCache.maxSize and twitter4j.userCache.ttlSecs.<br>
+     * A non-positive maxSize or ttlSecs results in the shared disabled cache.
+     *
+     * @param conf configuration
+     * @return a new cache, or the shared disabled cache
+     */
+    /*package*/ static UserCache newInstance(Configuration conf) {
+        if (conf.getUserCacheMaxSize() <= 0 || conf.getUserCacheTTLSecs() <= 0) {
+            return DISABLED;
+        }
+        return new UserCache(conf.getUserCacheMaxSize(), conf.getUserCacheTTLSecs() * 1000L);
+    }
+
+    public boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    /**
+     * Puts the user into the cache, replacing the entry with the same id.
+     *
+     * @param user user to be cached
+     */
+    public void put(User user) {
+        if (0 == maxSize || null == user) {
+            return;
+        }
+        int id = user.getId();
+        String screenName = null != user.getScreenName() ? user.getScreenName().toLowerCase() : null;
+        Stripe stripe = stripeOf(id);
+        CacheEntry previous;
+        synchronized (stripe) {
+            previous = stripe.put(id, new CacheEntry(user, screenName, System.currentTimeMillis() + ttl));
+        }
+        if (null != previous && null != previous.screenName && !previous.screenName.equals(screenName)) {
+            // the user has changed the screen name
+            screenNames.remove(previous.screenName);
+        }
+        if (null != screenName) {
+            screenNames.put(screenName, id);
+        }
+    }
+
+    /**
+     * Puts the users embedded in a parsed response into the cache: users, the authors of statuses and retweeted statuses,
+     * the senders and recipients of direct messages and the owners of lists, as well as those of the elements of a list.
+     *
+     * @param parsed the parsed response
+     */
+    /*package*/ void putEmbedded(Object parsed) {
+        if (parsed instanceof User) {
+            put((User) parsed);
+        } else if (parsed instanceof Status) {
+            Status status = (Status) parsed;
+            put(status.getUser());
+            if (null != status.getRetweetedStatus()) {
+                putEmbedded(status.getRetweetedStatus());
+            }
+        } else if (parsed instanceof DirectMessage) {
+            put(((DirectMessage) parsed).getSender());
+            put(((DirectMessage) parsed).getRecipient());
+        } else if (parsed instanceof UserList) {
+            put(((UserList) parsed).getUser());
+        } else if (parsed instanceof List) {
+            for (Object element : (List<?>) parsed) {
+                putEmbedded(element);
+            }
+        }
+    }
+
+    /**
+     * Returns the cached user with the specified id.
+     *
+     * @param userId user id
+     * @return the user, or null if not cached or expired
+     */
+    public User get(int userId) {
+        if (0 == maxSize) {
+            return null;
+        }
+        CacheEntry entry = getEntry(userId);
+        if (null == entry) {
+            missCount.incrementAndGet();
+            return null;
+        }
+        hitCount.incrementAndGet();
+        return entry.user;
+    }
+
+    /**
+     * Returns the cached user with the specified screen name, compared case-insensitively.
+     *
+     * @param screenName screen name
+     * @return the user, or null if not cached or expired
+     */
+    public User get(String screenName) {
+        if (0 == maxSize || null == screenName) {
+            return null;
+        }
+        String key = screenName.toLowerCase();
+        Integer id = screenNames.get(key);
+        CacheEntry entry = null;
+        if (null != id) {
+            entry = getEntry(id);
+            if (null != entry && !key.equals(entry.screenName)) {
+                // stale mapping left by a rename
+                screenNames.remove(key);
+                entry = null;
+            }
+        }
+        if (null == entry) {
+            missCount.incrementAndGet();
+            return null;
+        }
+        hitCount.incrementAndGet();
+        return entry.user;
+    }
+
+    private CacheEntry getEntry(int userId) {
+        Stripe stripe = stripeOf(userId);
+        CacheEntry entry;
+        synchronized (stripe) {
+            entry = stripe.get(userId);
+            if (null != entry && entry.expiresAt < System.currentTimeMillis()) {
+                stripe.remove(userId);
+                expirationCount.incrementAndGet();
+                entry = null;
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Removes the user with the specified id from the cache.
+     *
+     * @param userId user id
+     */
+    public void remove(int userId) {
+        if (0 == maxSize) {
+            return;
+        }
+        Stripe stripe = stripeOf(userId);
+        CacheEntry entry;
+        synchronized (stripe) {
+            entry = stripe.remove(userId);
+        }
+        if (null != entry && null != entry.screenName) {
+            screenNames.remove(entry.screenName, userId);
+        }
+    }
+
+    /**
+     * Removes all users from the cache. Statistics are left untouched.
+     */
+    public void clear() {
+        if (0 == maxSize) {
+            return;
+        }
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+        screenNames.clear();
+    }
+
+    /**
+     * @return the number of users cached, including expired entries not yet removed
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * @return the number of entries removed because the cache was full
+     */
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /**
+     * @return the number of entries removed because they had expired
+     */
+    public long getExpirationCount() {
+        return expirationCount.get();
+    }
+
+    private Stripe stripeOf(int userId) {
+        // spread the bits since user ids are often sequential
+        int h = userId * 0x9E3779B9;
+        return stripes[(h >>> 28) & (STRIPES - 1)];
+    }
+
+    @Override
+    public String toString() {
+        return "UserCache{" +
+                "maxSize=" + maxSize +
+                ", ttl=" + ttl +
+                ", size=" + size() +
+                ", hitCount=" + hitCount +
+                ", missCount=" + missCount +
+                ", evictionCount=" + evictionCount +
+                ", expirationCount=" + expirationCount +
+                '}';
+    }
+
+    private static final class CacheEntry {
+        final User user;
+        final String screenName;
+        final long expiresAt;
+
+        CacheEntry(User user, String screenName, long expiresAt) {
+            this.user = user;
+            this.screenName = screenName;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * An LRU segment guarded by its own monitor.
+     */
+    private final class Stripe extends LinkedHashMap<Integer, CacheEntry> {
+        private final int capacity;
+        private static final long serialVersionUID = -2516203787937449416L;
+
+        Stripe(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, CacheEntry> eldest) {
+            if (size() > capacity) {
+                evictionCount.incrementAndGet();
+                if (null != eldest.getValue().screenName) {
+                    screenNames.remove(eldest.getValue().screenName, eldest.getKey());
+                }
+                return true;
+            }
+            return false;
+        }
+    }
+}
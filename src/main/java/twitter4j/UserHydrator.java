@@ -0,0 +1,373 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j;
+
+import twitter4j.api.UserMethods;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Turns user ids, as returned by getFriendsIDs() / getFollowersIDs(), into User objects.<br>
+ * Users are looked up in the {@link UserCache} first. Misses are split into batches which are fetched in parallel on a dedicated dispatcher,
+ * and each user is delivered to the {@link Listener} as soon as it arrives.<br>
+ * Concurrent requests for the same id are coalesced into a single API call, even across calls to {@link #hydrate(int[], Listener)}.<br>
+ * The X-RateLimit-Remaining header of each response is watched: when the remaining hits drop to the reserved count, all workers pause until the rate limit resets.<br>
+ * Twitter API has no bulk user lookup for arbitrary ids, so each miss costs one users/show call.
+ * When the whole friend or follower list is needed, {@link #hydrateFollowers(int, Listener)} and {@link #hydrateFriends(int, Listener)}
+ * fetch 100 users per call using statuses/followers and statuses/friends instead.
+ * <pre>
+ * UserHydrator hydrator = new UserHydrator(twitter);
+ * hydrator.hydrate(twitter.getFollowersIDs().getIDs(), listener);
+ * </pre>
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.1.0
+ */
+public class UserHydrator {
+    private final UserMethods userMethods;
+    private final UserCache cache;
+    private final int batchSize;
+    private final Dispatcher dispatcher;
+    private final ConcurrentHashMap<Integer, Pending> inFlight = new ConcurrentHashMap<Integer, Pending>();
+    private final AtomicLong apiCallCount = new AtomicLong(0);
+    private final AtomicLong coalescedCount = new AtomicLong(0);
+    private final RateLimitGate rateLimitGate;
+
+    private static final int MAX_RETRIES = 3;
+    private static final int DEFAULT_RETRY_INTERVAL_SECS = 60;
+
+    /**
+     * Creates a hydrator with 4 threads, 25 users per batch and 10 reserved hits.<br>
+     * The hydrator is backed by the UserCache of the given instance when it is a Twitter instance, or by no cache otherwise.
+     *
+     * @param userMethods source of the users
+     */
+    public UserHydrator(UserMethods userMethods) {
+        this(userMethods, userMethods instanceof TwitterSupport
+                ? ((TwitterSupport) userMethods).getUserCache() : UserCache.DISABLED, 4, 25, 10);
+    }
+
+    /**
+     * @param userMethods  source of the users
+     * @param cache        cache consulted before calling the API, and populated with fetched users
+     * @param numThreads   number of batches fetched in parallel
+     * @param batchSize    number of ids fetched by a single task
+     * @param reservedHits number of API hits left untouched for the rest of the application
+     */
+    public UserHydrator(UserMethods userMethods, UserCache cache, int numThreads, int batchSize, int reservedHits) {
+        if (numThreads < 1) {
+            throw new IllegalArgumentException("numThreads should be positive integer. passed:" + numThreads);
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize should be positive integer. passed:" + batchSize);
+        }
+        this.userMethods = userMethods;
+        this.cache = cache;
+        this.batchSize = batchSize;
+        this.rateLimitGate = new RateLimitGate(reservedHits, DEFAULT_RETRY_INTERVAL_SECS);
+        this.dispatcher = new Dispatcher("Twitter4J User Hydrator", numThreads);
+    }
+
+    /**
+     * Receives hydrated users.<br>
+     * Callbacks for a single hydration are never invoked concurrently, but may be invoked from different threads.
+     */
+    public interface Listener {
+        void onUser(User user);
+
+        /**
+         * @param id id of the user which couldn't be retrieved, or the id of the user whose friends / followers were requested
+         * @param te the cause
+         */
+        void onException(int id, TwitterException te);
+
+        /**
+         * Invoked once after all users have been delivered.
+         */
+        void onComplete();
+    }
+
+    /**
+     * Hydrates the given ids asynchronously.<br>
+     * Cached users are delivered from the calling thread before this method returns.
+     *
+     * @param ids      user ids
+     * @param listener receives the users
+     */
+    public void hydrate(int[] ids, Listener listener) {
+        Job job = new Job(listener, ids.length);
+        List<Pending> batch = new ArrayList<Pending>(batchSize);
+        for (int id : ids) {
+            while (true) {
+                User user = cache.get(id);
+                if (null != user) {
+                    job.deliver(user);
+                    break;
+                }
+                Pending pending = new Pending(id, job);
+                Pending existing = inFlight.putIfAbsent(id, pending);
+                if (null == existing) {
+                    batch.add(pending);
+                    if (batch.size() == batchSize) {
+                        dispatch(batch);
+                        batch = new ArrayList<Pending>(batchSize);
+                    }
+                    break;
+                }
+                if (existing.addWaiter(job)) {
+                    coalescedCount.incrementAndGet();
+                    break;
+                }
+                // the fetch has just completed. check the cache again
+            }
+        }
+        if (batch.size() > 0) {
+            dispatch(batch);
+        }
+        job.checkComplete();
+    }
+
+    /**
+     * Hydrates all followers of the specified user asynchronously, 100 users per API call.
+     *
+     * @param userId   user id
+     * @param listener receives the users
+     */
+    public void hydrateFollowers(final int userId, final Listener listener) {
+        dispatcher.invokeLater(new Runnable() {
+            public void run() {
+                walk(userId, true, listener);
+            }
+        });
+    }
+
+    /**
+     * Hydrates all friends of the specified user asynchronously, 100 users per API call.
+     *
+     * @param userId   user id
+     * @param listener receives the users
+     */
+    public void hydrateFriends(final int userId, final Listener listener) {
+        dispatcher.invokeLater(new Runnable() {
+            public void run() {
+                walk(userId, false, listener);
+            }
+        });
+    }
+
+    /**
+     * Returns the number of API calls issued so far.
+     *
+     * @return number of API calls
+     */
+    public long getApiCallCount() {
+        return apiCallCount.get();
+    }
+
+    /**
+     * Returns the number of ids that were joined to an in-flight fetch instead of being fetched again.
+     *
+     * @return number of coalesced ids
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    /**
+     * Stops the worker threads. Pending hydrations won't be completed.
+     */
+    public void shutdown() {
+        dispatcher.shutdown();
+    }
+
+    /**
+     * Retrieves a single user. Subclasses may override this method to use a different source.
+     */
+    protected User fetchUser(int id) throws TwitterException {
+        return userMethods.showUser(id);
+    }
+
+    /**
+     * Retrieves a page of followers or friends. Subclasses may override this method to use a different source.
+     */
+    protected PagableResponseList<User> fetchUsers(int userId, boolean followers, long cursor) throws TwitterException {
+        return followers ? userMethods.getFollowersStatuses(userId, cursor)
+                : userMethods.getFriendsStatuses(userId, cursor);
+    }
+
+    private void dispatch(final List<Pending> batch) {
+        dispatcher.invokeLater(new Runnable() {
+            public void run() {
+                TwitterException interrupted = null;
+                for (Pending pending : batch) {
+                    User user = null;
+                    TwitterException exception = interrupted;
+                    for (int retry = 0; null == exception; retry++) {
+                        try {
+                            rateLimitGate.await();
+                        } catch (InterruptedException ie) {
+                            // stop fetching, the rest of the batch fails so that no hydration waits for it forever
+                            Thread.currentThread().interrupt();
+                            interrupted = exception = new TwitterException(ie);
+                            break;
+                        }
+                        try {
+                            apiCallCount.incrementAndGet();
+                            user = fetchUser(pending.id);
+                            rateLimitGate.onResponse(user);
+                            break;
+                        } catch (TwitterException te) {
+                            if (retry == MAX_RETRIES || !rateLimitGate.onRateLimited(te)) {
+                                exception = te;
+                                break;
+                            }
+                        }
+                    }
+                    if (null != user) {
+                        cache.put(user);
+                    }
+                    inFlight.remove(pending.id, pending);
+                    pending.complete(user, exception);
+                }
+            }
+        });
+    }
+
+    private void walk(int userId, boolean followers, Listener listener) {
+        Job job = new Job(listener, 0);
+        long cursor = -1l;
+        int retry = 0;
+        while (0 != cursor) {
+            try {
+                rateLimitGate.await();
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                job.fail(userId, new TwitterException(ie));
+                break;
+            }
+            PagableResponseList<User> users;
+            try {
+                apiCallCount.incrementAndGet();
+                users = fetchUsers(userId, followers, cursor);
+            } catch (TwitterException te) {
+                if (retry++ < MAX_RETRIES && rateLimitGate.onRateLimited(te)) {
+                    continue;
+                }
+                job.fail(userId, te);
+                break;
+            }
+            retry = 0;
+            rateLimitGate.onResponse(users);
+            for (User user : users) {
+                cache.put(user);
+                job.deliver(user);
+            }
+            cursor = users.getNextCursor();
+        }
+        job.checkComplete();
+    }
+
+    /**
+     * An id being fetched, together with the hydrations waiting for it.
+     */
+    private static final class Pending {
+        private final int id;
+        private final List<Job> waiters = new ArrayList<Job>(1);
+        private boolean done = false;
+
+        Pending(int id, Job job) {
+            this.id = id;
+            waiters.add(job);
+        }
+
+        synchronized boolean addWaiter(Job job) {
+            if (done) {
+                return false;
+            }
+            waiters.add(job);
+            return true;
+        }
+
+        void complete(User user, TwitterException te) {
+            List<Job> jobs;
+            synchronized (this) {
+                done = true;
+                jobs = new ArrayList<Job>(waiters);
+            }
+            for (Job job : jobs) {
+                if (null != user) {
+                    job.deliver(user);
+                } else {
+                    job.fail(id, te);
+                }
+                job.checkComplete();
+            }
+        }
+    }
+
+    /**
+     * A single call to hydrate(), counting down the ids yet to be delivered.
+     */
+    private static final class Job {
+        private final Listener listener;
+        private int remaining;
+        private boolean completed = false;
+
+        Job(Listener listener, int count) {
+            this.listener = listener;
+            this.remaining = count;
+        }
+
+        synchronized void deliver(User user) {
+            remaining--;
+            try {
+                listener.onUser(user);
+            } catch (Exception ex) {
+                ex.printStackTrace();
+            }
+        }
+
+        synchronized void fail(int id, TwitterException te) {
+            remaining--;
+            try {
+                listener.onException(id, te);
+            } catch (Exception ex) {
+                ex.printStackTrace();
+            }
+        }
+
+        synchronized void checkComplete() {
+            if (!completed && remaining <= 0) {
+                completed = true;
+                listener.onComplete();
+            }
+        }
+    }
+}
@@ -38,6 +38,7 @@ public interface UserMethods
 	/**
 	 * Returns extended information of a given user, specified by screen name as per the required id parameter below.  This information includes design settings, so third party developers can theme their widgets according to a given user's preferences.
 	 * <br>This method calls http://api.twitter.com/1/users/show.json
+	 * <br>If the user is found in the enabled UserCache of the instance, it is returned without calling the API.
 	 *
 	 * @param screenName the screen name of the user for whom to request the detail
 	 * @return User
@@ -50,6 +51,7 @@ public interface UserMethods
 	/**
 	 * Returns extended information of a given user, specified by ID.  This information includes design settings, so third party developers can theme their widgets according to a given user's preferences.
 	 * <br>This method calls http://api.twitter.com/1/users/show
+	 * <br>If the user is found in the enabled UserCache of the instance, it is returned without calling the API.
 	 *
 	 * @param userId the ID of the user for whom to request the detail
 	 * @return User
@@ -35,10 +35,16 @@ import java.util.HashMap;
 import java.util.Map;
 
 /**
+ * Settings of Twitter4J.<br>
+ * The instance returned by getInstance() is loaded from twitter4j.properties and system properties, and used by default.
+ * Instances built with ConfigurationBuilder can be passed to Twitter, AsyncTwitter and TwitterStream, so that differently tuned clients run side by side.
+ *
  * @author Yusuke Yamamoto - yusuke at mac.com
+ * @see ConfigurationBuilder
  */
-public class Configuration implements HttpClientConfiguration, HttpRequestFactoryConfiguration {
+public class Configuration implements HttpClientConfiguration, HttpRequestFactoryConfiguration, java.io.Serializable {
     public static final String CONFIGURATION_IMPL = "twitter4j.configuration.impl";
+    private static final long serialVersionUID = -5283546314916826453L;
 
     private boolean debug;
     private String source;
@@ -56,6 +62,7 @@ public class Configuration implements HttpClientConfiguration, HttpRequestFactor
     private int httpStreamingReadTimeout;
     private int httpRetryCount;
     private int httpRetryIntervalMilliSecs;
+    private boolean httpCoalesceGets;
     private String oAuthConsumerKey;
     private String oAuthConsumerSecret;
     private String oAuthAccessToken;
@@ -72,6 +79,14 @@ public class Configuration implements HttpClientConfiguration, HttpRequestFactor
 
 
     private int asyncNumThreads;
+    private boolean asyncThreadPerTask;
+    private int asyncThreadStackSize;
+    private int asyncQueueCapacity;
+    private String asyncRejectionPolicy;
+    private String metricsCollector;
+
+    private int userCacheMaxSize;
+    private int userCacheTTLSecs;
 
     // hidden portion
     private String clientVersion;
@@ -81,19 +96,39 @@ public class Configuration implements HttpClientConfiguration, HttpRequestFactor
     public static final String DEFAULT_CONFIGURATION_IMPL = "twitter4j.conf.PropertyConfiguration";
 
     private boolean IS_DALVIK;
-    private static final Configuration CONFIGURATION;
 
-    static {
-        String CONFIG_IMPL = System.getProperty(CONFIGURATION_IMPL, DEFAULT_CONFIGURATION_IMPL);
+    /**
+     * Holds the default configuration, so that twitter4j.properties is probed on the first call to getInstance() rather than whenever the class is initialized.
+     */
+    private static final class DefaultConfiguration {
+        static final Configuration INSTANCE;
+
+        static {
+            String CONFIG_IMPL = System.getProperty(CONFIGURATION_IMPL, DEFAULT_CONFIGURATION_IMPL);
+            try {
+                Class configImplClass = Class.forName(CONFIG_IMPL);
+                INSTANCE = (Configuration) configImplClass.newInstance();
+            } catch (ClassNotFoundException cnfe) {
+                throw new ExceptionInInitializerError(cnfe);
+            } catch (InstantiationException ie) {
+                throw new ExceptionInInitializerError(ie);
+            } catch (IllegalAccessException iae) {
+                throw new ExceptionInInitializerError(iae);
+            }
+        }
+    }
+
+    // detected once per class loader, the failed class lookup is not cheap
+    private static final String DALVIK_DETECTED = detectDalvik();
+
+    private static String detectDalvik() {
         try {
-            Class configImplClass = Class.forName(CONFIG_IMPL);
-            CONFIGURATION = (Configuration) configImplClass.newInstance();
+            // dalvik.system.VMRuntime class should be existing on Android platform.
+            // @see http://developer.android.com/reference/dalvik/system/VMRuntime.html
+            Class.forName("dalvik.system.VMRuntime");
+            return "true";
         } catch (ClassNotFoundException cnfe) {
-            throw new ExceptionInInitializerError(cnfe);
-        } catch (InstantiationException ie) {
-            throw new ExceptionInInitializerError(ie);
-        } catch (IllegalAccessException iae) {
-            throw new ExceptionInInitializerError(iae);
+            return "false";
         }
     }
 
@@ -112,11 +147,19 @@ public class Configuration implements HttpClientConfiguration, HttpRequestFactor
         setHttpStreamingReadTimeout(60*5*1000);
         setHttpRetryCount(0);
         setHttpRetryIntervalSecs(5);
+        setHttpCoalesceGets(false);
         setOAuthConsumerKey(null);
         setOAuthConsumerSecret(null);
         setOAuthAccessToken(null);
         setOAuthAccessTokenSecret(null);
         setAsyncNumThreads(1);
+        setAsyncThreadPerTask(false);
+        setAsyncThreadStackSize(0);
+        setAsyncQueueCapacity(0);
+        setAsyncRejectionPolicy("block");
+        setMetricsCollector(null);
+        setUserCacheMaxSize(0);
+        setUserCacheTTLSecs(600);
         setClientVersion(Version.getVersion());
         setClientURL("http://yusuke.homeip.net/twitter4j/en/twitter4j-" + Version.getVersion() + ".xml");
         setUserAgent("twitter4j http://yusuke.homeip.net/twitter4j/ /" + Version.getVersion());
@@ -131,23 +174,58 @@ public class Configuration implements HttpClientConfiguration, HttpRequestFactor
         setSearchBaseURL("http://search.twitter.com/");
         setStreamBaseURL("http://stream.twitter.com/1/");
 
-        // detecting dalvik (Android platform)
-        String dalvikDetected;
-        try {
-            // dalvik.system.VMRuntime class should be existing on Android platform.
-            // @see http://developer.android.com/reference/dalvik/system/VMRuntime.html
-            Class.forName("dalvik.system.VMRuntime");
-            dalvikDetected = "true";
-        } catch (ClassNotFoundException cnfe) {
-            dalvikDetected = "false";
-        }
-        IS_DALVIK = Boolean.valueOf(System.getProperty(DALVIK, dalvikDetected));
-
-
+        IS_DALVIK = Boolean.valueOf(System.getProperty(DALVIK, DALVIK_DETECTED));
+
+
+    }
+
+    /**
+     * Creates a copy of base.
+     */
+    /*package*/ Configuration(Configuration base) {
+        debug = base.debug;
+        source = base.source;
+        userAgent = base.userAgent;
+        user = base.user;
+        password = base.password;
+        useSSL = base.useSSL;
+        httpProxyHost = base.httpProxyHost;
+        httpProxyUser = base.httpProxyUser;
+        httpProxyPassword = base.httpProxyPassword;
+        httpProxyPort = base.httpProxyPort;
+        httpConnectionTimeout = base.httpConnectionTimeout;
+        httpReadTimeout = base.httpReadTimeout;
+        httpStreamingReadTimeout = base.httpStreamingReadTimeout;
+        httpRetryCount = base.httpRetryCount;
+        httpRetryIntervalMilliSecs = base.httpRetryIntervalMilliSecs;
+        httpCoalesceGets = base.httpCoalesceGets;
+        oAuthConsumerKey = base.oAuthConsumerKey;
+        oAuthConsumerSecret = base.oAuthConsumerSecret;
+        oAuthAccessToken = base.oAuthAccessToken;
+        oAuthAccessTokenSecret = base.oAuthAccessTokenSecret;
+        oAuthRequestTokenURL = base.oAuthRequestTokenURL;
+        oAuthAuthorizationURL = base.oAuthAuthorizationURL;
+        oAuthAccessTokenURL = base.oAuthAccessTokenURL;
+        oAuthAuthenticationURL = base.oAuthAuthenticationURL;
+        restBaseURL = base.restBaseURL;
+        searchBaseURL = base.searchBaseURL;
+        streamBaseURL = base.streamBaseURL;
+        asyncNumThreads = base.asyncNumThreads;
+        asyncThreadPerTask = base.asyncThreadPerTask;
+        asyncThreadStackSize = base.asyncThreadStackSize;
+        asyncQueueCapacity = base.asyncQueueCapacity;
+        asyncRejectionPolicy = base.asyncRejectionPolicy;
+        metricsCollector = base.metricsCollector;
+        userCacheMaxSize = base.userCacheMaxSize;
+        userCacheTTLSecs = base.userCacheTTLSecs;
+        clientVersion = base.clientVersion;
+        clientURL = base.clientURL;
+        IS_DALVIK = base.IS_DALVIK;
+        initRequestHeaders();
     }
 
     public static Configuration getInstance() {
-        return CONFIGURATION;
+        return DefaultConfiguration.INSTANCE;
     }
 
     public final boolean isDalvik() {
@@ -196,6 +274,10 @@ public class Configuration implements HttpClientConfiguration, HttpRequestFactor
         this.password = password;
     }
 
+    public final boolean isUseSSL() {
+        return useSSL;
+    }
+
     protected final void setUseSSL(boolean useSSL) {
         this.useSSL = useSSL;
         setRestBaseURL(getRestBaseURL());
@@ -299,6 +381,19 @@ public class Configuration implements HttpClientConfiguration, HttpRequestFactor
         this.httpRetryIntervalMilliSecs = retryIntervalSecs * 1000;
     }
 
+    /**
+     * Returns whether identical GET requests issued concurrently share a single network call. Disabled by default.
+     *
+     * @return true if concurrent GET requests are coalesced
+     */
+    public final boolean isHttpCoalesceGets() {
+        return httpCoalesceGets;
+    }
+
+    protected final void setHttpCoalesceGets(boolean httpCoalesceGets) {
+        this.httpCoalesceGets = httpCoalesceGets;
+    }
+
     // oauth related setter/getters
 
     public final String getOAuthConsumerKey() {
@@ -341,6 +436,77 @@ public class Configuration implements HttpClientConfiguration, HttpRequestFactor
         this.asyncNumThreads = asyncNumThreads;
     }
 
+    /**
+     * @return true if AsyncTwitter runs each call on its own thread instead of a pool of asyncNumThreads threads
+     */
+    public final boolean isAsyncThreadPerTask() {
+        return asyncThreadPerTask;
+    }
+
+    protected final void setAsyncThreadPerTask(boolean asyncThreadPerTask) {
+        this.asyncThreadPerTask = asyncThreadPerTask;
+    }
+
+    /**
+     * @return stack size in bytes of dispatcher and stream handling threads, 0 for the JVM default
+     */
+    public final int getAsyncThreadStackSize() {
+        return asyncThreadStackSize;
+    }
+
+    protected final void setAsyncThreadStackSize(int asyncThreadStackSize) {
+        this.asyncThreadStackSize = asyncThreadStackSize;
+    }
+
+    /**
+     * @return maximum number of calls queued by AsyncTwitter, 0 for no limit
+     */
+    public final int getAsyncQueueCapacity() {
+        return asyncQueueCapacity;
+    }
+
+    protected final void setAsyncQueueCapacity(int asyncQueueCapacity) {
+        this.asyncQueueCapacity = asyncQueueCapacity;
+    }
+
+    /**
+     * @return what AsyncTwitter does with calls made while its queue is full: "block" the caller, "reject" the call, or "shedOldestBulk" to discard the oldest queued bulk call
+     */
+    public final String getAsyncRejectionPolicy() {
+        return asyncRejectionPolicy;
+    }
+
+    protected final void setAsyncRejectionPolicy(String asyncRejectionPolicy) {
+        this.asyncRejectionPolicy = asyncRejectionPolicy;
+    }
+
+    /**
+     * @return class name of the twitter4j.MetricsCollector implementation to report to, or null
+     */
+    public final String getMetricsCollector() {
+        return metricsCollector;
+    }
+
+    protected final void setMetricsCollector(String metricsCollector) {
+        this.metricsCollector = metricsCollector;
+    }
+
+    public final int getUserCacheMaxSize() {
+        return userCacheMaxSize;
+    }
+
+    protected final void setUserCacheMaxSize(int userCacheMaxSize) {
+        this.userCacheMaxSize = userCacheMaxSize;
+    }
+
+    public final int getUserCacheTTLSecs() {
+        return userCacheTTLSecs;
+    }
+
+    protected final void setUserCacheTTLSecs(int userCacheTTLSecs) {
+        this.userCacheTTLSecs = userCacheTTLSecs;
+    }
+
     public final String getClientVersion() {
         return clientVersion;
     }
@@ -425,11 +591,22 @@ public class Configuration implements HttpClientConfiguration, HttpRequestFactor
 
         if (IS_DALVIK != that.IS_DALVIK) return false;
         if (asyncNumThreads != that.asyncNumThreads) return false;
+        if (asyncThreadPerTask != that.asyncThreadPerTask) return false;
+        if (asyncThreadStackSize != that.asyncThreadStackSize) return false;
+        if (asyncQueueCapacity != that.asyncQueueCapacity) return false;
+        if (asyncRejectionPolicy != null ? !asyncRejectionPolicy.equals(that.asyncRejectionPolicy) : that.asyncRejectionPolicy != null)
+            return false;
+        if (metricsCollector != null ? !metricsCollector.equals(that.metricsCollector) : that.metricsCollector != null)
+            return false;
+        if (userCacheMaxSize != that.userCacheMaxSize) return false;
+        if (userCacheTTLSecs != that.userCacheTTLSecs) return false;
         if (httpConnectionTimeout != that.httpConnectionTimeout) return false;
         if (debug != that.debug) return false;
         if (httpProxyPort != that.httpProxyPort) return false;
         if (httpReadTimeout != that.httpReadTimeout) return false;
+        if (httpStreamingReadTimeout != that.httpStreamingReadTimeout) return false;
         if (httpRetryCount != that.httpRetryCount) return false;
+        if (httpCoalesceGets != that.httpCoalesceGets) return false;
         if (httpRetryIntervalMilliSecs != that.httpRetryIntervalMilliSecs) return false;
         if (useSSL != that.useSSL) return false;
         if (clientURL != null ? !clientURL.equals(that.clientURL) : that.clientURL != null)
@@ -476,6 +653,49 @@ public class Configuration implements HttpClientConfiguration, HttpRequestFactor
         return true;
     }
 
+    @Override
+    public int hashCode() {
+        int result = (debug ? 1 : 0);
+        result = 31 * result + (source != null ? source.hashCode() : 0);
+        result = 31 * result + (userAgent != null ? userAgent.hashCode() : 0);
+        result = 31 * result + (user != null ? user.hashCode() : 0);
+        result = 31 * result + (password != null ? password.hashCode() : 0);
+        result = 31 * result + (useSSL ? 1 : 0);
+        result = 31 * result + (httpProxyHost != null ? httpProxyHost.hashCode() : 0);
+        result = 31 * result + (httpProxyUser != null ? httpProxyUser.hashCode() : 0);
+        result = 31 * result + (httpProxyPassword != null ? httpProxyPassword.hashCode() : 0);
+        result = 31 * result + httpProxyPort;
+        result = 31 * result + httpConnectionTimeout;
+        result = 31 * result + httpReadTimeout;
+        result = 31 * result + httpStreamingReadTimeout;
+        result = 31 * result + httpRetryCount;
+        result = 31 * result + httpRetryIntervalMilliSecs;
+        result = 31 * result + (httpCoalesceGets ? 1 : 0);
+        result = 31 * result + (oAuthConsumerKey != null ? oAuthConsumerKey.hashCode() : 0);
+        result = 31 * result + (oAuthConsumerSecret != null ? oAuthConsumerSecret.hashCode() : 0);
+        result = 31 * result + (oAuthAccessToken != null ? oAuthAccessToken.hashCode() : 0);
+        result = 31 * result + (oAuthAccessTokenSecret != null ? oAuthAccessTokenSecret.hashCode() : 0);
+        result = 31 * result + (oAuthRequestTokenURL != null ? oAuthRequestTokenURL.hashCode() : 0);
+        result = 31 * result + (oAuthAuthorizationURL != null ? oAuthAuthorizationURL.hashCode() : 0);
+        result = 31 * result + (oAuthAccessTokenURL != null ? oAuthAccessTokenURL.hashCode() : 0);
+        result = 31 * result + (oAuthAuthenticationURL != null ? oAuthAuthenticationURL.hashCode() : 0);
+        result = 31 * result + (restBaseURL != null ? restBaseURL.hashCode() : 0);
+        result = 31 * result + (searchBaseURL != null ? searchBaseURL.hashCode() : 0);
+        result = 31 * result + (streamBaseURL != null ? streamBaseURL.hashCode() : 0);
+        result = 31 * result + asyncNumThreads;
+        result = 31 * result + (asyncThreadPerTask ? 1 : 0);
+        result = 31 * result + asyncThreadStackSize;
+        result = 31 * result + asyncQueueCapacity;
+        result = 31 * result + (asyncRejectionPolicy != null ? asyncRejectionPolicy.hashCode() : 0);
+        result = 31 * result + (metricsCollector != null ? metricsCollector.hashCode() : 0);
+        result = 31 * result + userCacheMaxSize;
+        result = 31 * result + userCacheTTLSecs;
+        result = 31 * result + (clientVersion != null ? clientVersion.hashCode() : 0);
+        result = 31 * result + (clientURL != null ? clientURL.hashCode() : 0);
+        result = 31 * result + (IS_DALVIK ? 1 : 0);
+        return result;
+    }
+
     @Override
     public String toString() {
         return "Configuration{" +
@@ -491,8 +711,10 @@ public class Configuration implements HttpClientConfiguration, HttpRequestFactor
                 ", httpProxyPort=" + httpProxyPort +
                 ", httpConnectionTimeout=" + httpConnectionTimeout +
                 ", httpReadTimeout=" + httpReadTimeout +
+                ", httpStreamingReadTimeout=" + httpStreamingReadTimeout +
                 ", httpRetryCount=" + httpRetryCount +
                 ", httpRetryIntervalMilliSecs=" + httpRetryIntervalMilliSecs +
+                ", httpCoalesceGets=" + httpCoalesceGets +
                 ", oAuthConsumerKey='" + oAuthConsumerKey + '\'' +
                 ", oAuthConsumerSecret='" + oAuthConsumerSecret + '\'' +
                 ", oAuthAccessToken='" + oAuthAccessToken + '\'' +
@@ -505,6 +727,13 @@ public class Configuration implements HttpClientConfiguration, HttpRequestFactor
                 ", searchBaseURL='" + searchBaseURL + '\'' +
                 ", streamBaseURL='" + streamBaseURL + '\'' +
                 ", asyncNumThreads=" + asyncNumThreads +
+                ", asyncThreadPerTask=" + asyncThreadPerTask +
+                ", asyncThreadStackSize=" + asyncThreadStackSize +
+                ", asyncQueueCapacity=" + asyncQueueCapacity +
+                ", asyncRejectionPolicy='" + asyncRejectionPolicy + '\'' +
+                ", metricsCollector='" + metricsCollector + '\'' +
+                ", userCacheMaxSize=" + userCacheMaxSize +
+                ", userCacheTTLSecs=" + userCacheTTLSecs +
                 ", clientVersion='" + clientVersion + '\'' +
                 ", clientURL='" + clientURL + '\'' +
                 ", IS_DALVIK=" + IS_DALVIK +
@@ -0,0 +1,287 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j.conf;
+
+/**
+ * Builds immutable Configuration instances.<br>
+ * Each setter corresponds to a property of twitter4j.properties. URLs are switched to https or http according to useSSL, whichever is set first.<br>
+ * The user cache is sized per instance, with setUserCacheMaxSize() and setUserCacheTTLSecs().
+ * The metrics collector is process wide, and keeps following the default configuration.
+ * <pre>
+ * Configuration conf = new ConfigurationBuilder(Configuration.getInstance())
+ *         .setUseSSL(false)
+ *         .setRestBaseURL("http://localhost:8080/1/")
+ *         .setHttpReadTimeout(1000)
+ *         .build();
+ * Twitter twitter = new Twitter(conf);
+ * </pre>
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.1.0
+ */
+public final class ConfigurationBuilder {
+    private Configuration conf;
+
+    /**
+     * Creates a builder starting from the default values, ignoring twitter4j.properties and system properties.
+     */
+    public ConfigurationBuilder() {
+        conf = new Configuration();
+    }
+
+    /**
+     * Creates a builder starting from the values of base.
+     *
+     * @param base configuration to copy, typically Configuration.getInstance()
+     */
+    public ConfigurationBuilder(Configuration base) {
+        conf = new Configuration(base);
+    }
+
+    public ConfigurationBuilder setDebug(boolean debug) {
+        checkNotBuilt();
+        conf.setDebug(debug);
+        return this;
+    }
+
+    public ConfigurationBuilder setSource(String source) {
+        checkNotBuilt();
+        conf.setSource(source);
+        return this;
+    }
+
+    public ConfigurationBuilder setUserAgent(String userAgent) {
+        checkNotBuilt();
+        conf.setUserAgent(userAgent);
+        return this;
+    }
+
+    public ConfigurationBuilder setUser(String user) {
+        checkNotBuilt();
+        conf.setUser(user);
+        return this;
+    }
+
+    public ConfigurationBuilder setPassword(String password) {
+        checkNotBuilt();
+        conf.setPassword(password);
+        return this;
+    }
+
+    public ConfigurationBuilder setUseSSL(boolean useSSL) {
+        checkNotBuilt();
+        conf.setUseSSL(useSSL);
+        return this;
+    }
+
+    public ConfigurationBuilder setHttpProxyHost(String httpProxyHost) {
+        checkNotBuilt();
+        conf.setHttpProxyHost(httpProxyHost);
+        return this;
+    }
+
+    public ConfigurationBuilder setHttpProxyUser(String httpProxyUser) {
+        checkNotBuilt();
+        conf.setHttpProxyUser(httpProxyUser);
+        return this;
+    }
+
+    public ConfigurationBuilder setHttpProxyPassword(String httpProxyPassword) {
+        checkNotBuilt();
+        conf.setHttpProxyPassword(httpProxyPassword);
+        return this;
+    }
+
+    public ConfigurationBuilder setHttpProxyPort(int httpProxyPort) {
+        checkNotBuilt();
+        conf.setHttpProxyPort(httpProxyPort);
+        return this;
+    }
+
+    public ConfigurationBuilder setHttpConnectionTimeout(int httpConnectionTimeout) {
+        checkNotBuilt();
+        conf.setHttpConnectionTimeout(httpConnectionTimeout);
+        return this;
+    }
+
+    public ConfigurationBuilder setHttpReadTimeout(int httpReadTimeout) {
+        checkNotBuilt();
+        conf.setHttpReadTimeout(httpReadTimeout);
+        return this;
+    }
+
+    public ConfigurationBuilder setHttpStreamingReadTimeout(int httpStreamingReadTimeout) {
+        checkNotBuilt();
+        conf.setHttpStreamingReadTimeout(httpStreamingReadTimeout);
+        return this;
+    }
+
+    public ConfigurationBuilder setHttpRetryCount(int httpRetryCount) {
+        checkNotBuilt();
+        conf.setHttpRetryCount(httpRetryCount);
+        return this;
+    }
+
+    public ConfigurationBuilder setHttpRetryIntervalSecs(int httpRetryIntervalSecs) {
+        checkNotBuilt();
+        conf.setHttpRetryIntervalSecs(httpRetryIntervalSecs);
+        return this;
+    }
+
+    public ConfigurationBuilder setHttpCoalesceGets(boolean httpCoalesceGets) {
+        checkNotBuilt();
+        conf.setHttpCoalesceGets(httpCoalesceGets);
+        return this;
+    }
+
+    public ConfigurationBuilder setOAuthConsumerKey(String oAuthConsumerKey) {
+        checkNotBuilt();
+        conf.setOAuthConsumerKey(oAuthConsumerKey);
+        return this;
+    }
+
+    public ConfigurationBuilder setOAuthConsumerSecret(String oAuthConsumerSecret) {
+        checkNotBuilt();
+        conf.setOAuthConsumerSecret(oAuthConsumerSecret);
+        return this;
+    }
+
+    public ConfigurationBuilder setOAuthAccessToken(String oAuthAccessToken) {
+        checkNotBuilt();
+        conf.setOAuthAccessToken(oAuthAccessToken);
+        return this;
+    }
+
+    public ConfigurationBuilder setOAuthAccessTokenSecret(String oAuthAccessTokenSecret) {
+        checkNotBuilt();
+        conf.setOAuthAccessTokenSecret(oAuthAccessTokenSecret);
+        return this;
+    }
+
+    public ConfigurationBuilder setOAuthRequestTokenURL(String oAuthRequestTokenURL) {
+        checkNotBuilt();
+        conf.setOAuthRequestTokenURL(oAuthRequestTokenURL);
+        return this;
+    }
+
+    public ConfigurationBuilder setOAuthAuthorizationURL(String oAuthAuthorizationURL) {
+        checkNotBuilt();
+        conf.setOAuthAuthorizationURL(oAuthAuthorizationURL);
+        return this;
+    }
+
+    public ConfigurationBuilder setOAuthAccessTokenURL(String oAuthAccessTokenURL) {
+        checkNotBuilt();
+        conf.setOAuthAccessTokenURL(oAuthAccessTokenURL);
+        return this;
+    }
+
+    public ConfigurationBuilder setOAuthAuthenticationURL(String oAuthAuthenticationURL) {
+        checkNotBuilt();
+        conf.setOAuthAuthenticationURL(oAuthAuthenticationURL);
+        return this;
+    }
+
+    public ConfigurationBuilder setRestBaseURL(String restBaseURL) {
+        checkNotBuilt();
+        conf.setRestBaseURL(restBaseURL);
+        return this;
+    }
+
+    public ConfigurationBuilder setSearchBaseURL(String searchBaseURL) {
+        checkNotBuilt();
+        conf.setSearchBaseURL(searchBaseURL);
+        return this;
+    }
+
+    public ConfigurationBuilder setStreamBaseURL(String streamBaseURL) {
+        checkNotBuilt();
+        conf.setStreamBaseURL(streamBaseURL);
+        return this;
+    }
+
+    public ConfigurationBuilder setAsyncNumThreads(int asyncNumThreads) {
+        checkNotBuilt();
+        conf.setAsyncNumThreads(asyncNumThreads);
+        return this;
+    }
+
+    public ConfigurationBuilder setAsyncThreadPerTask(boolean asyncThreadPerTask) {
+        checkNotBuilt();
+        conf.setAsyncThreadPerTask(asyncThreadPerTask);
+        return this;
+    }
+
+    public ConfigurationBuilder setAsyncThreadStackSize(int asyncThreadStackSize) {
+        checkNotBuilt();
+        conf.setAsyncThreadStackSize(asyncThreadStackSize);
+        return this;
+    }
+
+    public ConfigurationBuilder setAsyncQueueCapacity(int asyncQueueCapacity) {
+        checkNotBuilt();
+        conf.setAsyncQueueCapacity(asyncQueueCapacity);
+        return this;
+    }
+
+    public ConfigurationBuilder setAsyncRejectionPolicy(String asyncRejectionPolicy) {
+        checkNotBuilt();
+        conf.setAsyncRejectionPolicy(asyncRejectionPolicy);
+        return this;
+    }
+
+    public ConfigurationBuilder setUserCacheMaxSize(int userCacheMaxSize) {
+        checkNotBuilt();
+        conf.setUserCacheMaxSize(userCacheMaxSize);
+        return this;
+    }
+
+    public ConfigurationBuilder setUserCacheTTLSecs(int userCacheTTLSecs) {
+        checkNotBuilt();
+        conf.setUserCacheTTLSecs(userCacheTTLSecs);
+        return this;
+    }
+
+    /**
+     * @return the configuration. The builder can't be used afterwards
+     * @throws IllegalStateException when already built
+     */
+    public Configuration build() {
+        checkNotBuilt();
+        try {
+            return conf;
+        } finally {
+            conf = null;
+        }
+    }
+
+    private void checkNotBuilt() {
+        if (null == conf) {
+            throw new IllegalStateException("Cannot use this builder any longer, build() has already been called");
+        }
+    }
+}
@@ -37,6 +37,7 @@ import java.util.Properties;
  * @author Yusuke Yamamoto - yusuke at mac.com
  */
 class PropertyConfiguration extends Configuration {
+    private static final long serialVersionUID = -7262615247923693252L;
     public static final String DEBUG = "twitter4j.debug";
     public static final String SOURCE = "twitter4j.source";
     public static final String HTTP_USER_AGENT = "twitter4j.http.userAgent";
@@ -57,6 +58,7 @@ class PropertyConfiguration extends Configuration {
 
     public static final String HTTP_RETRY_COUNT = "twitter4j.http.retryCount";
     public static final String HTTP_RETRY_INTERVAL_SECS = "twitter4j.http.retryIntervalSecs";
+    public static final String HTTP_COALESCE_GETS = "twitter4j.http.coalesceGets";
 
     public static final String OAUTH_CONSUMER_KEY = "twitter4j.oauth.consumerKey";
     public static final String OAUTH_CONSUMER_SECRET = "twitter4j.oauth.consumerSecret";
@@ -75,6 +77,15 @@ class PropertyConfiguration extends Configuration {
 
 
     public static final String ASYNC_NUM_THREADS = "twitter4j.async.numThreads";
+    public static final String ASYNC_THREAD_PER_TASK = "twitter4j.async.threadPerTask";
+    public static final String ASYNC_THREAD_STACK_SIZE = "twitter4j.async.threadStackSize";
+    public static final String ASYNC_QUEUE_CAPACITY = "twitter4j.async.queueCapacity";
+    public static final String ASYNC_REJECTION_POLICY = "twitter4j.async.rejectionPolicy";
+
+    public static final String METRICS_COLLECTOR = "twitter4j.metrics.collector";
+
+    public static final String USER_CACHE_MAX_SIZE = "twitter4j.userCache.maxSize";
+    public static final String USER_CACHE_TTL_SECS = "twitter4j.userCache.ttlSecs";
 
     // hidden portion
     public static final String CLIENT_VERSION = "twitter4j.clientVersion";
@@ -149,6 +160,9 @@ class PropertyConfiguration extends Configuration {
         if (notNull(props, HTTP_RETRY_INTERVAL_SECS)) {
             setHttpRetryIntervalSecs(getIntProperty(props, HTTP_RETRY_INTERVAL_SECS));
         }
+        if (notNull(props, HTTP_COALESCE_GETS)) {
+            setHttpCoalesceGets(getBoolean(props, HTTP_COALESCE_GETS));
+        }
         if (notNull(props, OAUTH_CONSUMER_KEY)) {
             setOAuthConsumerKey(getString(props, OAUTH_CONSUMER_KEY));
         }
@@ -164,6 +178,27 @@ class PropertyConfiguration extends Configuration {
         if (notNull(props, ASYNC_NUM_THREADS)) {
             setAsyncNumThreads(getIntProperty(props, ASYNC_NUM_THREADS));
         }
+        if (notNull(props, ASYNC_THREAD_PER_TASK)) {
+            setAsyncThreadPerTask(getBoolean(props, ASYNC_THREAD_PER_TASK));
+        }
+        if (notNull(props, ASYNC_THREAD_STACK_SIZE)) {
+            setAsyncThreadStackSize(getIntProperty(props, ASYNC_THREAD_STACK_SIZE));
+        }
+        if (notNull(props, ASYNC_QUEUE_CAPACITY)) {
+            setAsyncQueueCapacity(getIntProperty(props, ASYNC_QUEUE_CAPACITY));
+        }
+        if (notNull(props, ASYNC_REJECTION_POLICY)) {
+            setAsyncRejectionPolicy(getString(props, ASYNC_REJECTION_POLICY));
+        }
+        if (notNull(props, METRICS_COLLECTOR)) {
+            setMetricsCollector(getString(props, METRICS_COLLECTOR));
+        }
+        if (notNull(props, USER_CACHE_MAX_SIZE)) {
+            setUserCacheMaxSize(getIntProperty(props, USER_CACHE_MAX_SIZE));
+        }
+        if (notNull(props, USER_CACHE_TTL_SECS)) {
+            setUserCacheTTLSecs(getIntProperty(props, USER_CACHE_TTL_SECS));
+        }
         if (notNull(props, CLIENT_VERSION)) {
             setClientVersion(getString(props, CLIENT_VERSION));
         }
@@ -214,7 +249,7 @@ class PropertyConfiguration extends Configuration {
             File file = new File(path);
             if (file.exists() && file.isFile()) {
                 fis = new FileInputStream(file);
-                props.load(new FileInputStream(file));
+                props.load(fis);
                 return true;
             }
         } catch (Exception ignore) {
@@ -231,10 +266,19 @@ class PropertyConfiguration extends Configuration {
     }
 
     private boolean loadProperties(Properties props, InputStream is) {
+        if (null == is) {
+            // not in the classpath
+            return false;
+        }
         try {
             props.load(is);
             return true;
         } catch (Exception ignore) {
+        } finally {
+            try {
+                is.close();
+            } catch (IOException ignore) {
+            }
         }
         return false;
     }
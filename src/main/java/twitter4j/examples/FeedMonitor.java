@@ -26,27 +26,38 @@ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 */
 package twitter4j.examples;
 
-import com.sun.syndication.feed.synd.SyndEntry;
-import com.sun.syndication.io.FeedException;
-import com.sun.syndication.io.SyndFeedInput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import twitter4j.Twitter;
+import twitter4j.AsyncTwitter;
+import twitter4j.Status;
+import twitter4j.TwitterAdapter;
 import twitter4j.TwitterException;
-import twitter4j.TwitterFactory;
+import twitter4j.TwitterMethod;
+import twitter4j.http.FeedEntry;
+import twitter4j.http.FeedEntryListener;
 import twitter4j.http.HttpClient;
+import twitter4j.http.HttpRequestFactory;
 import twitter4j.http.Response;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * <p>
@@ -69,43 +80,85 @@ import java.util.Properties;
  * id=YOUR_TWITTER_ID
  * password=YOUR_TWITTER_PASSWORD</pre>
  * </p>
+ * <p>
+ * The feeds are polled by a pool of threads, with a limited number of concurrent requests per host. The first polls are spread over the interval.<br>
+ * Feeds are fetched with conditional GETs (If-None-Match / If-Modified-Since), thus unchanged feeds cost a 304 response. Modified feeds are parsed as they arrive and only the new entries are retained.<br>
+ * The validators and the date of the latest entry of each feed are kept in &quot;feedmonitor.state&quot;, which is written every minute and on shutdown.
+ * The lastUpdate property of configuration files written by earlier versions is honored on the first poll.<br>
+ * New entries are queued per Twitter account and posted in chronological order through AsyncTwitter, every 30 seconds.
+ * The state of a feed advances only after the entries found by a poll have been posted, so that entries lost by a failure or a crash are fetched again.
+ * </p>
  * @author Yusuke Yamamoto - yusuke at mac.com
  */
 public class FeedMonitor {
     static Logger log = LoggerFactory.getLogger(FeedMonitor.class);
+    private static final int NOT_MODIFIED = 304;
+    private static final long SAVE_INTERVAL = 60 * 1000;
+    private static final long POST_INTERVAL = 30 * 1000;
+    private static final Random RAND = new Random();
+
     /**
      * Main entry point for this application.<br>
      * If config_file_path is not specified, feedmonitor.properties will be used.<br>
      * Usage: java twitter4j.examples.FeedMonitor [config_file_path ..] [interval(min)]
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         int interval = 10;
-        List<FeedMonitor> list = new ArrayList<FeedMonitor> ();
+        List<String> fileNames = new ArrayList<String>();
         for (String arg : args) {
             try {
                 interval = Integer.parseInt(arg);
             } catch (NumberFormatException nfe) {
-                list.add(new FeedMonitor(arg));
+                fileNames.add(arg);
             }
         }
-        if (list.size() == 0) {
-            list.add(new FeedMonitor("feedmonitor.properties"));
-        } while (true) {
-            for (FeedMonitor monitor : list) {
-                monitor.check();
-            }
-            try {
-                log.info("Sleeping " + interval + " minutes.");
-                Thread.sleep(interval * 60 * 1000);
-            } catch (InterruptedException ex) {
+        if (fileNames.size() == 0) {
+            fileNames.add("feedmonitor.properties");
+        }
+        final FeedMonitor monitor = new FeedMonitor(new File("feedmonitor.state"), 8, 2);
+        for (String fileName : fileNames) {
+            monitor.addFeed(fileName, interval * 60 * 1000L);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread() {
+            public void run() {
+                monitor.shutdown();
             }
+        });
+        monitor.start();
+    }
+
+    private final FeedStateStore store;
+    private final int maxRequestsPerHost;
+    private final ScheduledExecutorService scheduler;
+    private final HttpClient http = new HttpClient();
+    private final List<Feed> feeds = new ArrayList<Feed>();
+    private final Map<String, Poster> posters = new HashMap<String, Poster>();
+    private final ConcurrentHashMap<String, HostLimiter> hosts = new ConcurrentHashMap<String, HostLimiter>();
+
+    /**
+     * @param stateFile          file keeping the state of the feeds across runs
+     * @param threads            number of feeds polled concurrently
+     * @param maxRequestsPerHost maximum number of concurrent requests to a single host
+     * @throws IOException when the state file could not be read
+     */
+    public FeedMonitor(File stateFile, int threads, int maxRequestsPerHost) throws IOException {
+        if (maxRequestsPerHost < 1) {
+            throw new IllegalArgumentException("maxRequestsPerHost should be positive integer. passed:" + maxRequestsPerHost);
         }
+        this.store = new FeedStateStore(stateFile);
+        this.maxRequestsPerHost = maxRequestsPerHost;
+        this.scheduler = Executors.newScheduledThreadPool(threads);
     }
 
-    public FeedMonitor(String fileName) {
-        this.fileName = fileName;
+    /**
+     * Adds the feed described by a configuration file.
+     *
+     * @param fileName configuration file
+     * @param interval polling interval in milliseconds
+     */
+    public void addFeed(String fileName, long interval) {
         log.info("Loading properties from " + fileName);
-
+        Properties prop = new Properties();
         FileInputStream fis = null;
         try {
             fis = new FileInputStream(fileName);
@@ -121,91 +174,346 @@ public class FeedMonitor {
                 }
             }
         }
-        this.twitter = TwitterFactory.getBasicAuthenticatedInstance(prop.getProperty("id"),
-                                   prop.getProperty("password"));
-        this.feedurl = prop.getProperty("feedurl");
-        this.lastUpdate = new Date(Long.valueOf(prop.getProperty("lastUpdate",
-            "0")));
+        addFeed(prop.getProperty("feedurl"), prop.getProperty("id"), prop.getProperty("password")
+                , new Date(Long.valueOf(prop.getProperty("lastUpdate", "0"))), interval);
     }
 
-    private Properties prop = new Properties();
-    private String feedurl;
-    private Twitter twitter;
-    private HttpClient http = new HttpClient();
-    private Date lastUpdate;
-    private String fileName;
-
-    private void check() {
-        log.info("Checking feed from {}", feedurl);
-        Date latestEntry = lastUpdate;
-        log.info("Last update is {}", lastUpdate);
+    /**
+     * @param feedURL    feed
+     * @param id         Twitter id the new entries are posted to
+     * @param password   Twitter password
+     * @param lastUpdate entries published until this date are not posted, unless the state store knows the feed
+     * @param interval   polling interval in milliseconds
+     */
+    public synchronized void addFeed(String feedURL, String id, String password, Date lastUpdate, long interval) {
+        Poster poster = posters.get(id);
+        if (null == poster) {
+            poster = new Poster(new AsyncTwitter(id, password));
+            posters.put(id, poster);
+        }
+        if (null == store.getLastUpdate(feedURL)) {
+            store.update(feedURL, null, null, lastUpdate);
+        }
+        feeds.add(new Feed(feedURL, poster, interval));
+    }
+
+    /**
+     * Starts polling the feeds.
+     */
+    public synchronized void start() {
+        for (Feed feed : feeds) {
+            // spread the first polls so that the feeds don't come due all at once
+            scheduler.schedule(feed, (long) (RAND.nextDouble() * feed.interval), TimeUnit.MILLISECONDS);
+        }
+        for (Poster poster : posters.values()) {
+            scheduler.scheduleWithFixedDelay(poster, POST_INTERVAL, POST_INTERVAL, TimeUnit.MILLISECONDS);
+        }
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            public void run() {
+                save();
+            }
+        }, SAVE_INTERVAL, SAVE_INTERVAL, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops polling, posts the queued entries and saves the state.
+     */
+    public synchronized void shutdown() {
+        scheduler.shutdownNow();
         try {
-            Response res = http.get(feedurl);
-            List<SyndEntry> entries = new SyndFeedInput().build(res.asDocument()).
-                getEntries();
+            scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ignore) {
+        }
+        for (Poster poster : posters.values()) {
+            // the JVM may be exiting, post synchronously
+            poster.drain(false);
+        }
+        save();
+    }
+
+    private void save() {
+        try {
+            store.save();
+        } catch (IOException ioe) {
+            log.error("Failed to save the state:" + ioe.getMessage());
+        }
+    }
 
-            Collections.sort(entries, new Comparator<SyndEntry> () {
-                public int compare(SyndEntry o1, SyndEntry o2) {
-                    return o1.getPublishedDate().compareTo(o2.getPublishedDate());
+    private HostLimiter getHost(String name) {
+        HostLimiter host = hosts.get(name);
+        if (null == host) {
+            hosts.putIfAbsent(name, new HostLimiter(maxRequestsPerHost, scheduler));
+            host = hosts.get(name);
+        }
+        return host;
+    }
+
+    /**
+     * A monitored feed, rescheduling itself after each poll.<br>
+     * The state of a poll is committed to the store only after all entries found by that poll and earlier polls have been posted,
+     * so that entries are fetched again after a restart if they were lost.
+     */
+    private final class Feed implements Runnable {
+        private final String feedURL;
+        private final HostLimiter host;
+        private final Poster poster;
+        private final long interval;
+        private final Runnable pollTask = new Runnable() {
+            public void run() {
+                poll();
+            }
+        };
+        // polls not committed yet, oldest first
+        private final LinkedList<Poll> pending = new LinkedList<Poll>();
+
+        Feed(String feedURL, Poster poster, long interval) {
+            this.feedURL = feedURL;
+            String hostName;
+            try {
+                hostName = new URL(feedURL).getHost();
+            } catch (IOException ioe) {
+                hostName = feedURL;
+            }
+            this.host = getHost(hostName);
+            this.poster = poster;
+            this.interval = interval;
+        }
+
+        public void run() {
+            if (host.acquire(pollTask)) {
+                poll();
+            }
+        }
+
+        /**
+         * Checks the feed holding a permit of the host, then releases it and schedules the next poll.
+         */
+        void poll() {
+            try {
+                check();
+            } catch (RuntimeException re) {
+                log.error("Failed to check " + feedURL, re);
+            } finally {
+                host.release();
+            }
+            try {
+                scheduler.schedule(this, interval, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException shutdown) {
+            }
+        }
+
+        private void check() {
+            log.info("Checking feed from {}", feedURL);
+            final Date lastUpdate;
+            String eTag;
+            String lastModified;
+            synchronized (this) {
+                if (pending.size() > 0) {
+                    // entries found by the pending polls are already queued
+                    Poll latest = pending.getLast();
+                    lastUpdate = latest.latestEntry;
+                    eTag = latest.eTag;
+                    lastModified = latest.lastModified;
+                } else {
+                    lastUpdate = store.getLastUpdate(feedURL);
+                    eTag = store.getETag(feedURL);
+                    lastModified = store.getLastModified(feedURL);
                 }
-            });
-            for (SyndEntry entry : entries) {
-                if (lastUpdate.before(entry.getPublishedDate())) {
-                    latestEntry = latestEntry.before(entry.getPublishedDate()) ?
-                        entry.getPublishedDate() : latestEntry;
-                    String title = entry.getTitle().split("\n")[0];
-                    String link = entry.getLink();
-                    log.info("New entry \"{}\" published at {}", title,
-                             entry.getPublishedDate());
-                    String status = title + " " + link;
-                    if (status.length() > 160) {
-                        if (link.length() > 160) {
-                            int cutLength = status.length() - 159;
-                            status = title.substring(0,
-                                title.length() - cutLength) + " " + link;
-                        } else {
-                            if (title.length() > 160) {
-                                status = title.substring(0, 160);
-                            } else {
-                                status = title;
-                            }
+            }
+            Map<String, String> headers = new HashMap<String, String>(2);
+            if (null != eTag) {
+                headers.put("If-None-Match", eTag);
+            }
+            if (null != lastModified) {
+                headers.put("If-Modified-Since", lastModified);
+            }
+            final List<FeedEntry> entries = new ArrayList<FeedEntry>();
+            try {
+                Response res = http.request(new HttpRequestFactory(headers).createGetRequest(feedURL));
+                eTag = res.getResponseHeader("ETag");
+                lastModified = res.getResponseHeader("Last-Modified");
+                // the feed is parsed as it arrives, only new entries are retained
+                res.asFeedEntries(new FeedEntryListener() {
+                    public void onEntry(FeedEntry entry) {
+                        if (null != entry.getPublishedDate() && lastUpdate.before(entry.getPublishedDate())) {
+                            entries.add(entry);
                         }
                     }
-                    log.info("Updating Twitter.");
-                    twitter.updateStatus(status);
-                    log.info("Done.");
+                });
+            } catch (TwitterException te) {
+                if (NOT_MODIFIED == te.getStatusCode()) {
+                    log.info("Feed {} is not modified.", feedURL);
+                } else {
+                    log.info("Failed to fetch the feed:" + te.getMessage());
                 }
+                return;
             }
-            if (!lastUpdate.equals(latestEntry)) {
-                log.info("Updating last update.");
-                prop.setProperty("lastUpdate",
-                        String.valueOf(latestEntry.getTime()));
-                FileOutputStream fos = null;
-                try {
-                    fos = new FileOutputStream(fileName);
-                    prop.store(fos, "FeedMonitor");
-                } catch (IOException ex1) {
-                    log.error("Failed to save configuration file:" +
-                            ex1.getMessage());
-                } finally {
-                    try {
-                        if (null != fos) {
-                            fos.close();
+            Date latestEntry = lastUpdate;
+            for (FeedEntry entry : entries) {
+                log.info("New entry \"{}\" published at {}", entry.getTitle(), entry.getPublishedDate());
+                if (latestEntry.before(entry.getPublishedDate())) {
+                    latestEntry = entry.getPublishedDate();
+                }
+            }
+            if (entries.size() == 0) {
+                log.info("No new entry found.");
+            }
+            Poll poll = new Poll(eTag, lastModified, latestEntry, entries.size());
+            synchronized (this) {
+                pending.add(poll);
+            }
+            for (FeedEntry entry : entries) {
+                poster.post(new Delivery(this, poll, entry));
+            }
+            commit();
+        }
+
+        /**
+         * Invoked once for each entry, when it has been posted or given up.
+         */
+        synchronized void done(Poll poll) {
+            poll.remaining--;
+            commit();
+        }
+
+        private synchronized void commit() {
+            Poll committed = null;
+            while (pending.size() > 0 && 0 == pending.getFirst().remaining) {
+                committed = pending.removeFirst();
+            }
+            if (null != committed) {
+                store.update(feedURL, committed.eTag, committed.lastModified, committed.latestEntry);
+            }
+        }
+    }
+
+    /**
+     * The result of a poll: validators of the response, the date of the latest entry and the number of entries not posted yet.
+     */
+    private static final class Poll {
+        final String eTag;
+        final String lastModified;
+        final Date latestEntry;
+        int remaining;
+
+        Poll(String eTag, String lastModified, Date latestEntry, int remaining) {
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+            this.latestEntry = latestEntry;
+            this.remaining = remaining;
+        }
+    }
+
+    /**
+     * An entry to be posted.
+     */
+    private static final class Delivery {
+        final Feed feed;
+        final Poll poll;
+        final FeedEntry entry;
+        int attempts = 0;
+
+        Delivery(Feed feed, Poll poll, FeedEntry entry) {
+            this.feed = feed;
+            this.poll = poll;
+            this.entry = entry;
+        }
+    }
+
+    /**
+     * Queues the new entries to be posted to an account, and hands them to AsyncTwitter in chronological order.<br>
+     * Entries failed to be posted are queued again, up to MAX_ATTEMPTS times.
+     */
+    private static final class Poster implements Runnable {
+        private static final int MAX_ATTEMPTS = 3;
+        private final AsyncTwitter twitter;
+        private final List<Delivery> queue = new ArrayList<Delivery>();
+
+        Poster(AsyncTwitter twitter) {
+            this.twitter = twitter;
+        }
+
+        synchronized void post(Delivery delivery) {
+            queue.add(delivery);
+        }
+
+        public void run() {
+            drain(true);
+        }
+
+        void drain(boolean async) {
+            List<Delivery> batch;
+            synchronized (this) {
+                if (queue.size() == 0) {
+                    return;
+                }
+                batch = new ArrayList<Delivery>(queue);
+                queue.clear();
+            }
+            Collections.sort(batch, new Comparator<Delivery>() {
+                public int compare(Delivery o1, Delivery o2) {
+                    return o1.entry.getPublishedDate().compareTo(o2.entry.getPublishedDate());
+                }
+            });
+            log.info("Updating Twitter with {} entries.", batch.size());
+            for (final Delivery delivery : batch) {
+                delivery.attempts++;
+                if (async) {
+                    twitter.updateStatusAsync(toStatus(delivery.entry), new TwitterAdapter() {
+                        @Override
+                        public void updatedStatus(Status status) {
+                            posted(delivery, status);
                         }
-                    } catch (IOException ignore) {
 
+                        @Override
+                        public void onException(TwitterException te, TwitterMethod method) {
+                            failed(delivery, te);
+                        }
+                    });
+                } else {
+                    try {
+                        posted(delivery, twitter.updateStatus(toStatus(delivery.entry)));
+                    } catch (TwitterException te) {
+                        // the JVM is exiting. the entry will be fetched again on the next run
+                        log.info("Failed to update status:" + te.getMessage());
                     }
                 }
-            } else {
-                log.info("No new entry found.");
             }
+        }
+
+        private void posted(Delivery delivery, Status status) {
+            log.info("Done. {}", status.getText());
+            delivery.feed.done(delivery.poll);
+        }
 
-        } catch (TwitterException te) {
-            log.info("Failed to fetch the feed:" + te.getMessage());
-        } catch (FeedException fe) {
-            log.info("Failed to parse the feed:" + fe.getMessage());
+        private void failed(Delivery delivery, TwitterException te) {
+            if (delivery.attempts < MAX_ATTEMPTS) {
+                log.info("Failed to update status, will retry:" + te.getMessage());
+                post(delivery);
+            } else {
+                log.error("Failed to update status, giving up \"" + delivery.entry.getTitle() + "\":" + te.getMessage());
+                delivery.feed.done(delivery.poll);
+            }
         }
-//        Date latestEntry = monitor.monitor(lastUpdate);
+    }
 
+    /*package*/ static String toStatus(FeedEntry entry) {
+        String title = null == entry.getTitle() ? "" : entry.getTitle().split("\n")[0];
+        String link = entry.getLink();
+        String status = title + " " + link;
+        if (status.length() > 160) {
+            if (link.length() > 160) {
+                int cutLength = status.length() - 159;
+                status = title.substring(0,
+                        title.length() - cutLength) + " " + link;
+            } else {
+                if (title.length() > 160) {
+                    status = title.substring(0, 160);
+                } else {
+                    status = title;
+                }
+            }
+        }
+        return status;
     }
 }
@@ -0,0 +1,128 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j.examples;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Date;
+import java.util.Properties;
+
+/**
+ * Keeps the polling state of the feeds monitored by FeedMonitor in a single properties file: the validators for conditional GETs (ETag, Last-Modified) and the date of the latest entry posted.<br>
+ * Updates are kept in memory and written by save(), which replaces the file atomically.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.1.0
+ */
+/*package*/ class FeedStateStore {
+    private static final String ETAG = ".etag";
+    private static final String LAST_MODIFIED = ".lastModified";
+    private static final String LAST_UPDATE = ".lastUpdate";
+
+    private final File file;
+    private final Properties props = new Properties();
+    private boolean dirty = false;
+
+    /*package*/ FeedStateStore(File file) throws IOException {
+        this.file = file;
+        if (file.exists()) {
+            InputStream is = new FileInputStream(file);
+            try {
+                props.load(is);
+            } finally {
+                is.close();
+            }
+        }
+    }
+
+    /*package*/ synchronized String getETag(String feedURL) {
+        return props.getProperty(feedURL + ETAG);
+    }
+
+    /*package*/ synchronized String getLastModified(String feedURL) {
+        return props.getProperty(feedURL + LAST_MODIFIED);
+    }
+
+    /**
+     * @return date of the latest entry posted, or null if the feed has not been polled yet
+     */
+    /*package*/ synchronized Date getLastUpdate(String feedURL) {
+        String value = props.getProperty(feedURL + LAST_UPDATE);
+        return null == value ? null : new Date(Long.parseLong(value));
+    }
+
+    /**
+     * @param feedURL      feed
+     * @param eTag         ETag of the last response, or null
+     * @param lastModified Last-Modified of the last response, or null
+     * @param lastUpdate   date of the latest entry posted
+     */
+    /*package*/ synchronized void update(String feedURL, String eTag, String lastModified, Date lastUpdate) {
+        set(feedURL + ETAG, eTag);
+        set(feedURL + LAST_MODIFIED, lastModified);
+        set(feedURL + LAST_UPDATE, String.valueOf(lastUpdate.getTime()));
+        dirty = true;
+    }
+
+    private void set(String key, String value) {
+        if (null == value) {
+            props.remove(key);
+        } else {
+            props.setProperty(key, value);
+        }
+    }
+
+    /**
+     * Writes the state if it has been updated since the last save.
+     *
+     * @throws IOException when the file could not be written
+     */
+    /*package*/ synchronized void save() throws IOException {
+        if (!dirty) {
+            return;
+        }
+        File temp = new File(file.getPath() + ".tmp");
+        OutputStream os = new FileOutputStream(temp);
+        try {
+            props.store(os, "FeedMonitor");
+        } finally {
+            os.close();
+        }
+        if (!temp.renameTo(file)) {
+            // renameTo doesn't replace existing files on some platforms
+            file.delete();
+            if (!temp.renameTo(file)) {
+                throw new IOException("Failed to replace " + file);
+            }
+        }
+        dirty = false;
+    }
+}
@@ -0,0 +1,105 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j.examples;
+
+import java.util.LinkedList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Limits the concurrent requests FeedMonitor sends to a single host.<br>
+ * Tasks coming due while the host is busy wait in line, without holding a pool thread, and take over the permit when it is released.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.1.0
+ */
+/*package*/ class HostLimiter {
+    private final int maxRequests;
+    private final Executor executor;
+    private int active = 0;
+    private final LinkedList<Runnable> waiting = new LinkedList<Runnable>();
+
+    /**
+     * @param maxRequests maximum number of concurrent requests
+     * @param executor    runs the waiting tasks when they take over a permit
+     */
+    /*package*/ HostLimiter(int maxRequests, Executor executor) {
+        if (maxRequests < 1) {
+            throw new IllegalArgumentException("maxRequests should be positive integer. passed:" + maxRequests);
+        }
+        this.maxRequests = maxRequests;
+        this.executor = executor;
+    }
+
+    /**
+     * @param task run with the permit once the host is available, unless this method returns true
+     * @return true if the caller holds a permit and may run the task now, false if the task has been queued
+     */
+    /*package*/ synchronized boolean acquire(Runnable task) {
+        if (active < maxRequests) {
+            active++;
+            return true;
+        }
+        waiting.add(task);
+        return false;
+    }
+
+    /**
+     * Hands the permit over to the next task in line, if any.
+     */
+    /*package*/ void release() {
+        final Runnable next;
+        synchronized (this) {
+            next = waiting.poll();
+            if (null == next) {
+                active--;
+                return;
+            }
+        }
+        try {
+            executor.execute(next);
+        } catch (RejectedExecutionException shutdown) {
+            synchronized (this) {
+                active--;
+            }
+        }
+    }
+
+    /**
+     * @return number of permits held
+     */
+    /*package*/ synchronized int getActiveCount() {
+        return active;
+    }
+
+    /**
+     * @return number of tasks waiting for a permit
+     */
+    /*package*/ synchronized int getWaitingCount() {
+        return waiting.size();
+    }
+}
@@ -0,0 +1,141 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j.http;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tracks the connections opened by HttpClient on the current thread so that another thread can abort them.<br>
+ * A blocked HttpURLConnection doesn't respond to Thread.interrupt(), disconnecting it is the only way to unblock the reader.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.1.0
+ */
+public final class AbortScope {
+    private static final ThreadLocal<AbortScope> current = new ThreadLocal<AbortScope>();
+    private final List<HttpURLConnection> connections = new ArrayList<HttpURLConnection>(2);
+    private final List<Runnable> listeners = new ArrayList<Runnable>(1);
+    private boolean aborted = false;
+    private AbortScope previous = null;
+
+    /**
+     * Binds this scope to the current thread. Connections opened by HttpClient until exit() are aborted by abort().<br>
+     * Scopes may be nested, exit() binds the scope which was bound before again.
+     */
+    public void enter() {
+        previous = current.get();
+        current.set(this);
+    }
+
+    /**
+     * Unbinds this scope from the current thread.
+     */
+    public void exit() {
+        if (null != previous) {
+            current.set(previous);
+            previous = null;
+        } else {
+            current.remove();
+        }
+        synchronized (this) {
+            connections.clear();
+            listeners.clear();
+        }
+    }
+
+    /**
+     * Disconnects all connections opened within this scope. Connections opened afterwards fail immediately.
+     */
+    public void abort() {
+        HttpURLConnection[] cons;
+        Runnable[] toNotify;
+        synchronized (this) {
+            aborted = true;
+            cons = connections.toArray(new HttpURLConnection[connections.size()]);
+            connections.clear();
+            toNotify = listeners.toArray(new Runnable[listeners.size()]);
+            listeners.clear();
+        }
+        for (HttpURLConnection con : cons) {
+            con.disconnect();
+        }
+        for (Runnable listener : toNotify) {
+            listener.run();
+        }
+    }
+
+    public synchronized boolean isAborted() {
+        return aborted;
+    }
+
+    /*package*/ static void register(HttpURLConnection con) throws IOException {
+        AbortScope scope = current.get();
+        if (null != scope) {
+            synchronized (scope) {
+                if (!scope.aborted) {
+                    scope.connections.add(con);
+                    return;
+                }
+            }
+            throw new InterruptedIOException("Request aborted.");
+        }
+    }
+
+    /**
+     * @return the scope bound to the current thread, or null
+     */
+    /*package*/ static AbortScope current() {
+        return current.get();
+    }
+
+    /**
+     * Registers a listener run by abort(), for work that isn't tied to a connection of this scope.
+     *
+     * @param listener listener
+     * @return false if this scope has already been aborted, in which case the listener is not registered
+     */
+    /*package*/ synchronized boolean addAbortListener(Runnable listener) {
+        if (aborted) {
+            return false;
+        }
+        listeners.add(listener);
+        return true;
+    }
+
+    /*package*/ synchronized void removeAbortListener(Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    /*package*/ static boolean isCurrentAborted() {
+        AbortScope scope = current.get();
+        return null != scope && scope.isAborted();
+    }
+}
@@ -26,61 +26,108 @@ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 */
 package twitter4j.http;
 /**
- * A utility class encodes byte array into String using Base64 encoding scheme.
+ * A utility class encodes byte array into String using Base64 encoding scheme, and decodes it back.<br>
+ * Both directions are table driven and process three bytes / four characters at a time.
  * @see twitter4j.http.HttpClient
+ * @see <a href="http://tools.ietf.org/html/rfc4648#section-4">RFC 4648 - 4. Base 64 Encoding</a>
  * @author Yusuke Yamamoto - yusuke at mac.com
  */
 public class BASE64Encoder {
-    private static final char last2byte = (char) Integer.parseInt("00000011", 2);
-    private static final char last4byte = (char) Integer.parseInt("00001111", 2);
-    private static final char last6byte = (char) Integer.parseInt("00111111", 2);
-    private static final char lead6byte = (char) Integer.parseInt("11111100", 2);
-    private static final char lead4byte = (char) Integer.parseInt("11110000", 2);
-    private static final char lead2byte = (char) Integer.parseInt("11000000", 2);
     private static final char[] encodeTable = new char[]{'A', 'B', 'C', 'D', 'E', 'F', 'G', 'H', 'I', 'J', 'K', 'L', 'M', 'N', 'O', 'P', 'Q', 'R', 'S', 'T', 'U', 'V', 'W', 'X', 'Y', 'Z', 'a', 'b', 'c', 'd', 'e', 'f', 'g', 'h', 'i', 'j', 'k', 'l', 'm', 'n', 'o', 'p', 'q', 'r', 's', 't', 'u', 'v', 'w', 'x', 'y', 'z', '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', '+', '/'};
+    private static final char PAD = '=';
+    // -1 for characters outside of the alphabet
+    private static final byte[] decodeTable = new byte[128];
+
+    static {
+        for (int i = 0; i < decodeTable.length; i++) {
+            decodeTable[i] = -1;
+        }
+        for (int i = 0; i < encodeTable.length; i++) {
+            decodeTable[encodeTable[i]] = (byte) i;
+        }
+    }
 
     private BASE64Encoder() {
     }
 
     public static String encode(byte[] from) {
-        StringBuffer to = new StringBuffer((int) (from.length * 1.34) + 3);
-        int num = 0;
-        char currentByte = 0;
-        for (int i = 0; i < from.length; i++) {
-            num = num % 8;
-            while (num < 8) {
-                switch (num) {
-                    case 0:
-                        currentByte = (char) (from[i] & lead6byte);
-                        currentByte = (char) (currentByte >>> 2);
-                        break;
-                    case 2:
-                        currentByte = (char) (from[i] & last6byte);
-                        break;
-                    case 4:
-                        currentByte = (char) (from[i] & last4byte);
-                        currentByte = (char) (currentByte << 2);
-                        if ((i + 1) < from.length) {
-                            currentByte |= (from[i + 1] & lead2byte) >>> 6;
-                        }
-                        break;
-                    case 6:
-                        currentByte = (char) (from[i] & last2byte);
-                        currentByte = (char) (currentByte << 4);
-                        if ((i + 1) < from.length) {
-                            currentByte |= (from[i + 1] & lead4byte) >>> 4;
-                        }
-                        break;
-                }
-                to.append(encodeTable[currentByte]);
-                num += 6;
+        int length = from.length;
+        char[] to = new char[(length + 2) / 3 * 4];
+        int index = 0;
+        int i = 0;
+        for (int end = length - length % 3; i < end; i += 3) {
+            int bits = (from[i] & 0xff) << 16 | (from[i + 1] & 0xff) << 8 | (from[i + 2] & 0xff);
+            to[index++] = encodeTable[bits >>> 18];
+            to[index++] = encodeTable[(bits >>> 12) & 0x3f];
+            to[index++] = encodeTable[(bits >>> 6) & 0x3f];
+            to[index++] = encodeTable[bits & 0x3f];
+        }
+        switch (length - i) {
+            case 1: {
+                int bits = (from[i] & 0xff) << 16;
+                to[index++] = encodeTable[bits >>> 18];
+                to[index++] = encodeTable[(bits >>> 12) & 0x3f];
+                to[index++] = PAD;
+                to[index] = PAD;
+                break;
+            }
+            case 2: {
+                int bits = (from[i] & 0xff) << 16 | (from[i + 1] & 0xff) << 8;
+                to[index++] = encodeTable[bits >>> 18];
+                to[index++] = encodeTable[(bits >>> 12) & 0x3f];
+                to[index++] = encodeTable[(bits >>> 6) & 0x3f];
+                to[index] = PAD;
+                break;
             }
         }
-        if (to.length() % 4 != 0) {
-            for (int i = 4 - to.length() % 4; i > 0; i--) {
-                to.append("=");
+        return new String(to);
+    }
+
+    /**
+     * Decodes a Base64 encoded string. Padding is optional, whitespaces are not allowed.
+     *
+     * @param from Base64 encoded string
+     * @return decoded bytes
+     * @throws IllegalArgumentException if the string contains a character outside of the Base64 alphabet, or has an invalid length
+     * @since Twitter4J 2.1.0
+     */
+    public static byte[] decode(String from) {
+        int length = from.length();
+        while (length > 0 && PAD == from.charAt(length - 1)) {
+            length--;
+        }
+        if (from.length() - length > 2 || 1 == length % 4) {
+            throw new IllegalArgumentException("Invalid Base64 length: " + from.length());
+        }
+        byte[] to = new byte[length * 3 / 4];
+        int index = 0;
+        int i = 0;
+        for (int end = length - length % 4; i < end; i += 4) {
+            int bits = sextet(from, i) << 18 | sextet(from, i + 1) << 12 | sextet(from, i + 2) << 6 | sextet(from, i + 3);
+            to[index++] = (byte) (bits >>> 16);
+            to[index++] = (byte) (bits >>> 8);
+            to[index++] = (byte) bits;
+        }
+        switch (length - i) {
+            case 2:
+                to[index] = (byte) ((sextet(from, i) << 18 | sextet(from, i + 1) << 12) >>> 16);
+                break;
+            case 3: {
+                int bits = sextet(from, i) << 18 | sextet(from, i + 1) << 12 | sextet(from, i + 2) << 6;
+                to[index++] = (byte) (bits >>> 16);
+                to[index] = (byte) (bits >>> 8);
+                break;
             }
         }
-        return to.toString();
+        return to;
+    }
+
+    private static int sextet(String from, int index) {
+        char c = from.charAt(index);
+        int value = c < 128 ? decodeTable[c] : -1;
+        if (value < 0) {
+            throw new IllegalArgumentException("Invalid Base64 character '" + c + "' at " + index);
+        }
+        return value;
     }
 }
@@ -26,7 +26,6 @@ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 */
 package twitter4j.http;
 
-import twitter4j.conf.Configuration;
 
 import java.io.IOException;
 import java.net.HttpURLConnection;
@@ -37,8 +36,6 @@ import java.net.HttpURLConnection;
  * @author Yusuke Yamamoto - yusuke at mac.com
  */
 public final class BasicAuthorization implements Authorization, java.io.Serializable {
-    private transient static final boolean DEBUG = Configuration.getInstance().isDebug();
-
     private String userId;
     private String password;
     private String basic;
@@ -62,7 +59,6 @@ public final class BasicAuthorization implements Authorization, java.io.Serializ
     }
 
     public void setAuthorizationHeader(String method, String url, PostParameter[] params, HttpURLConnection con) {
-        log("Authorization: Basic ************************");
         con.addRequestProperty("Authorization", basic);
     }
 
@@ -94,16 +90,4 @@ public final class BasicAuthorization implements Authorization, java.io.Serializ
                 ", password='" + password + '\'' +
                 '}';
     }
-
-    private void log(String message) {
-        if (DEBUG) {
-            System.out.println("[" + new java.util.Date() + "]" + message);
-        }
-    }
-
-    private void log(String message, String message2) {
-        if (DEBUG) {
-            log(message + message2);
-        }
-    }
 }
@@ -0,0 +1,101 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j.http;
+
+import java.util.Date;
+
+/**
+ * An item of an RSS feed or an entry of an Atom feed, as extracted by Response.asFeedEntries().
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.1.0
+ */
+public class FeedEntry implements java.io.Serializable {
+    private final String title;
+    private final String link;
+    private final Date publishedDate;
+    private static final long serialVersionUID = 2939574123408129467L;
+
+    /*package*/ FeedEntry(String title, String link, Date publishedDate) {
+        this.title = title;
+        this.link = link;
+        this.publishedDate = publishedDate;
+    }
+
+    /**
+     * @return title, or null if the entry has none
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * @return link to the entry, or null if the entry has none
+     */
+    public String getLink() {
+        return link;
+    }
+
+    /**
+     * @return published date, or the updated date if the feed doesn't provide one. null if neither is provided or parsable
+     */
+    public Date getPublishedDate() {
+        return publishedDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        FeedEntry that = (FeedEntry) o;
+
+        if (link != null ? !link.equals(that.link) : that.link != null) return false;
+        if (publishedDate != null ? !publishedDate.equals(that.publishedDate) : that.publishedDate != null)
+            return false;
+        if (title != null ? !title.equals(that.title) : that.title != null) return false;
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = title != null ? title.hashCode() : 0;
+        result = 31 * result + (link != null ? link.hashCode() : 0);
+        result = 31 * result + (publishedDate != null ? publishedDate.hashCode() : 0);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "FeedEntry{" +
+                "title='" + title + '\'' +
+                ", link='" + link + '\'' +
+                ", publishedDate=" + publishedDate +
+                '}';
+    }
+}
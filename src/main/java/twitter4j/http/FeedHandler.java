@@ -0,0 +1,174 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j.http;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Extracts entries of RSS 0.9x/1.0/2.0 and Atom feeds from SAX events, without building a DOM.
+ * Only the elements making up the current entry are retained.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.1.0
+ */
+/*package*/ class FeedHandler extends DefaultHandler {
+    private final FeedEntryListener listener;
+    // a handler is used by a single parse, hence the formats are not shared
+    private final SimpleDateFormat rfc822 = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss z", Locale.ENGLISH);
+    private final SimpleDateFormat rfc822NoDay = new SimpleDateFormat("dd MMM yyyy HH:mm:ss z", Locale.ENGLISH);
+    private final SimpleDateFormat iso8601 = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssZ", Locale.ENGLISH);
+
+    private int depth = 0;
+    // depth of the current item / entry element, -1 when outside of an entry
+    private int entryDepth = -1;
+    // name of the element whose text is captured, null if none
+    private String field = null;
+    private final StringBuffer text = new StringBuffer();
+
+    private String title;
+    private String link;
+    private Date published;
+    private Date updated;
+
+    /*package*/ FeedHandler(FeedEntryListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes) {
+        depth++;
+        String name = toName(localName, qName);
+        if (-1 == entryDepth) {
+            if ("item".equals(name) || "entry".equals(name)) {
+                entryDepth = depth;
+                title = null;
+                link = null;
+                published = null;
+                updated = null;
+            }
+        } else if (null == field && depth == entryDepth + 1) {
+            if ("link".equals(name) && null != attributes.getValue("href")) {
+                // Atom
+                String rel = attributes.getValue("rel");
+                if (null == link && (null == rel || "alternate".equals(rel))) {
+                    link = attributes.getValue("href");
+                }
+            } else {
+                field = name;
+                text.setLength(0);
+            }
+        }
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) {
+        if (null != field) {
+            // includes the text of markup nested in the field, e.g. xhtml titles
+            text.append(ch, start, length);
+        }
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) {
+        if (null != field && depth == entryDepth + 1) {
+            String value = text.toString().trim();
+            if ("title".equals(field)) {
+                title = value;
+            } else if ("link".equals(field)) {
+                if (null == link && value.length() > 0) {
+                    link = value;
+                }
+            } else if ("pubDate".equals(field) || "published".equals(field)
+                    || "issued".equals(field) || "date".equals(field)) {
+                if (null == published) {
+                    published = parseDate(value);
+                }
+            } else if ("updated".equals(field) || "modified".equals(field)) {
+                updated = parseDate(value);
+            }
+            field = null;
+        } else if (depth == entryDepth) {
+            entryDepth = -1;
+            listener.onEntry(new FeedEntry(title, link, null != published ? published : updated));
+        }
+        depth--;
+    }
+
+    private static String toName(String localName, String qName) {
+        if (null != localName && localName.length() > 0) {
+            return localName;
+        }
+        // the parser is not namespace aware
+        int index = qName.indexOf(':');
+        return -1 == index ? qName : qName.substring(index + 1);
+    }
+
+    /**
+     * @param value RFC 822 or ISO 8601 date
+     * @return date, or null if not parsable
+     */
+    /*package*/ Date parseDate(String value) {
+        try {
+            if (value.length() > 10 && value.charAt(4) == '-' && value.charAt(10) == 'T') {
+                return iso8601.parse(normalizeISO8601(value));
+            }
+            if (value.indexOf(',') != -1) {
+                return rfc822.parse(value);
+            }
+            return rfc822NoDay.parse(value);
+        } catch (ParseException pe) {
+            return null;
+        }
+    }
+
+    // converts to the form SimpleDateFormat of Java 5 understands: no fraction, "+hhmm" zone
+    private static String normalizeISO8601(String value) {
+        int zone = value.length();
+        for (int i = 16; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == 'Z' || c == '+' || c == '-') {
+                zone = i;
+                break;
+            }
+        }
+        String time = value.substring(0, Math.min(19, zone));
+        if (time.length() == 16) {
+            // no seconds
+            time += ":00";
+        }
+        if (zone == value.length() || value.charAt(zone) == 'Z') {
+            return time + "+0000";
+        }
+        return time + value.substring(zone).replace(":", "");
+    }
+}
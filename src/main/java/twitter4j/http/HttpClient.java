@@ -26,13 +26,12 @@ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 */
 package twitter4j.http;
 
+import twitter4j.Metrics;
 import twitter4j.conf.Configuration;
 import twitter4j.TwitterException;
 
-import java.io.BufferedInputStream;
-import java.io.DataOutputStream;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.OutputStream;
 import java.net.Authenticator;
 import java.net.HttpURLConnection;
@@ -47,6 +46,9 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
 import static twitter4j.http.RequestMethod.*;
 
 /**
@@ -55,7 +57,6 @@ import static twitter4j.http.RequestMethod.*;
  * @author Yusuke Yamamoto - yusuke at mac.com
  */
 public class HttpClient implements java.io.Serializable {
-    private static final boolean DEBUG = Configuration.getInstance().isDebug();
     private static final int OK = 200;// OK: Success!
     private static final int NOT_MODIFIED = 304;// Not Modified: There was no new data to return.
     private static final int BAD_REQUEST = 400;// Bad Request: The request was invalid.  An accompanying error message will explain why. This is the status code will be returned during rate limiting.
@@ -79,8 +80,12 @@ public class HttpClient implements java.io.Serializable {
     private int readTimeout = 120000;
     private int retryCount = 0;
     private int retryIntervalSeconds = 5 * 1000;
+    private boolean debug = false;
     private static boolean isJDK14orEarlier = false;
     private List<HttpResponseListener> httpResponseListeners;
+    private List<UploadProgressListener> uploadProgressListeners;
+    private transient ConcurrentHashMap<HttpRequest, Flight> inFlight = new ConcurrentHashMap<HttpRequest, Flight>();
+    private final AtomicLong coalescedRequestCount = new AtomicLong(0);
     private static final long serialVersionUID = -8819171414069621503L;
 
     static {
@@ -95,8 +100,15 @@ public class HttpClient implements java.io.Serializable {
     }
 
     public HttpClient() {
+        Configuration conf = Configuration.getInstance();
+        debug = conf.isDebug();
+        Metrics.configure(conf);
     }
     public HttpClient(HttpClientConfiguration conf) {
+        debug = conf.isDebug();
+        if (conf instanceof Configuration) {
+            Metrics.configure((Configuration) conf);
+        }
         setProxyHost(conf.getHttpProxyHost());
         setProxyPort(conf.getHttpProxyPort());
         setProxyAuthUser(conf.getHttpProxyUser());
@@ -230,48 +242,34 @@ public class HttpClient implements java.io.Serializable {
         int retriedCount;
         int retry = retryCount + 1;
         Response res = null;
+        // normalizing the url costs more than the no-op collector, do it only when someone is listening
+        String endpoint = Metrics.isEnabled() ? Metrics.toEndpoint(req.url) : null;
         for (retriedCount = 0; retriedCount < retry; retriedCount++) {
             int responseCode = -1;
+            long started = null != endpoint ? System.nanoTime() : 0;
+            long bytesSent = 0;
+            boolean reported = false;
             try {
                 HttpURLConnection con = null;
                 OutputStream os = null;
                 try {
                     con = getConnection(req.url);
+                    AbortScope.register(con);
                     con.setDoInput(true);
                     setHeaders(req, con);
                     con.setRequestMethod(req.requestMethod.name());
                     if (req.requestMethod == POST) {
                         if (PostParameter.containsFile(req.postParams)) {
-                            String boundary = "----Twitter4J-upload" + System.currentTimeMillis();
-                            con.setRequestProperty("Content-Type", "multipart/form-data; boundary=" + boundary);
-                            boundary = "--" + boundary;
+                            MultipartEncoder multipart = new MultipartEncoder(req.postParams
+                                    , "----Twitter4J-upload" + System.currentTimeMillis());
+                            con.setRequestProperty("Content-Type", multipart.getContentType());
+                            // stream the body instead of letting HttpURLConnection buffer it to compute the length
+                            con.setFixedLengthStreamingMode((int) multipart.getContentLength());
                             con.setDoOutput(true);
+                            bytesSent = multipart.getContentLength();
+                            connect(con, endpoint);
                             os = con.getOutputStream();
-                            DataOutputStream out = new DataOutputStream(os);
-                            for (PostParameter param : req.postParams) {
-                                if (param.isFile()) {
-                                    write(out, boundary + "\r\n");
-                                    write(out, "Content-Disposition: form-data; name=\"" + param.getName() + "\"; filename=\"" + param.file.getName() + "\"\r\n");
-                                    write(out, "Content-Type: " + param.getContentType() + "\r\n\r\n");
-                                    BufferedInputStream in = new BufferedInputStream(new FileInputStream(param.file));
-                                    int buff = 0;
-                                    while ((buff = in.read()) != -1) {
-                                        out.write(buff);
-                                    }
-                                    write(out, "\r\n");
-                                    in.close();
-                                } else {
-                                    write(out, boundary + "\r\n");
-                                    write(out, "Content-Disposition: form-data; name=\"" + param.name + "\"\r\n");
-                                    write(out, "Content-Type: text/plain; charset=UTF-8\r\n\r\n");
-                                    log(param.value);
-                                    out.write(encode(param.value).getBytes("UTF-8"));
-                                    write(out, "\r\n");
-                                }
-                            }
-                            write(out, boundary + "--\r\n");
-                            write(out, "\r\n");
-
+                            multipart.writeTo(os, req, uploadProgressListeners);
                         } else {
                             con.setRequestProperty("Content-Type",
                                     "application/x-www-form-urlencoded");
@@ -281,15 +279,24 @@ public class HttpClient implements java.io.Serializable {
                             con.setRequestProperty("Content-Length",
                                     Integer.toString(bytes.length));
                             con.setDoOutput(true);
+                            bytesSent = bytes.length;
+                            connect(con, endpoint);
                             os = con.getOutputStream();
                             os.write(bytes);
                         }
                         os.flush();
                         os.close();
+                    } else {
+                        connect(con, endpoint);
                     }
-                    res = new Response(con);
+                    res = new Response(con, endpoint, debug);
                     responseCode = con.getResponseCode();
-                    if (DEBUG) {
+                    if (null != endpoint) {
+                        reported = true;
+                        Metrics.getCollector().httpRequest(req.requestMethod.name(), endpoint, responseCode
+                                , System.nanoTime() - started, bytesSent);
+                    }
+                    if (debug) {
                         log("Response: ");
                         Map<String, List<String>> responseHeaders = con.getHeaderFields();
                         for (String key : responseHeaders.keySet()) {
@@ -330,15 +337,22 @@ public class HttpClient implements java.io.Serializable {
                     }
                 }
             } catch (IOException ioe) {
+                if (null != endpoint && !reported) {
+                    Metrics.getCollector().httpRequest(req.requestMethod.name(), endpoint, responseCode
+                            , System.nanoTime() - started, bytesSent);
+                }
                 // connection timeout or read timeout
-                if (retriedCount == retryCount) {
+                if (retriedCount == retryCount || AbortScope.isCurrentAborted()) {
                     throw new TwitterException(ioe.getMessage(), ioe, responseCode);
                 }
             }
             try {
-                if (DEBUG && null != res) {
+                if (debug && null != res) {
                     res.asString();
                 }
+                if (null != endpoint) {
+                    Metrics.getCollector().httpRetry(req.requestMethod.name(), endpoint, retriedCount + 2, responseCode);
+                }
                 log("Sleeping " + retryIntervalSeconds + " seconds until the next retry.");
                 Thread.sleep(retryIntervalSeconds * 1000);
             } catch (InterruptedException ignore) {
@@ -349,9 +363,158 @@ public class HttpClient implements java.io.Serializable {
         return res;
     }
 
-    private void write(DataOutputStream out, String outStr) throws IOException {
-        out.writeBytes(outStr);
-        log(outStr);
+    /**
+     * Issues the request, sharing the response with an identical GET request already in flight.<br>
+     * Requests are identical when they are equal in method, url, parameters, headers and authorization.
+     * Waiters receive the very same Response, or the same TwitterException, as the request that actually hit the network.
+     * The body of the shared Response is read once, and parsed once by asJSONObject(), asJSONArray() or asDocument().<br>
+     * The response body is read into memory before it is handed out, thus this method is not suitable for the streaming API.
+     * Requests other than GET are passed to {@link #request(HttpRequest)} as is.
+     *
+     * @param req request
+     * @return response
+     * @throws TwitterException when Twitter service or network is unavailable
+     * @since Twitter4J 2.1.0
+     */
+    public Response requestCoalesced(HttpRequest req) throws TwitterException {
+        if (GET != req.requestMethod) {
+            return request(req);
+        }
+        AbortScope callerScope = AbortScope.current();
+        if (null != callerScope && callerScope.isAborted()) {
+            throw new TwitterException("Request aborted.");
+        }
+        Flight flight = new Flight();
+        Flight existing = inFlight.putIfAbsent(req, flight);
+        if (null != existing) {
+            existing.join();
+            coalescedRequestCount.incrementAndGet();
+            log("Joining in-flight request: ", req.url);
+            return existing.await(callerScope);
+        }
+        Runnable leave = flight.leaveOnAbort();
+        if (null != callerScope) {
+            callerScope.addAbortListener(leave);
+        }
+        Response res = null;
+        TwitterException te = null;
+        // the connection is shared with the waiters, it is aborted only when all of them have been aborted
+        flight.scope.enter();
+        try {
+            Response response = request(req);
+            // read the body now so that every waiter can read it
+            response.asString();
+            res = response;
+            return res;
+        } catch (TwitterException e) {
+            te = e;
+            throw e;
+        } finally {
+            flight.scope.exit();
+            if (null != callerScope) {
+                callerScope.removeAbortListener(leave);
+            }
+            inFlight.remove(req, flight);
+            if (null == res && null == te) {
+                te = new TwitterException("The request failed unexpectedly.");
+            }
+            flight.complete(res, te);
+        }
+    }
+
+    /**
+     * Returns the number of requests served by joining an identical in-flight request.
+     *
+     * @return number of coalesced requests
+     * @since Twitter4J 2.1.0
+     */
+    public long getCoalescedRequestCount() {
+        return coalescedRequestCount.get();
+    }
+
+    /**
+     * A GET request being processed, on which identical requests are waiting.<br>
+     * An aborted participant leaves the flight instead of aborting it, the request is aborted once all participants have left.
+     */
+    private static final class Flight {
+        private final AbortScope scope = new AbortScope();
+        private int participants = 1;
+        private Response res;
+        private TwitterException te;
+        private boolean done = false;
+
+        synchronized void complete(Response res, TwitterException te) {
+            this.res = res;
+            this.te = te;
+            done = true;
+            notifyAll();
+        }
+
+        /**
+         * @return a listener leaving this flight, and waking up the waiters so that the aborted one can return
+         */
+        Runnable leaveOnAbort() {
+            return new Runnable() {
+                private boolean left = false;
+
+                public void run() {
+                    boolean abort;
+                    synchronized (Flight.this) {
+                        if (left) {
+                            return;
+                        }
+                        left = true;
+                        abort = 0 == --participants && !done;
+                        Flight.this.notifyAll();
+                    }
+                    if (abort) {
+                        scope.abort();
+                    }
+                }
+            };
+        }
+
+        synchronized void join() {
+            participants++;
+        }
+
+        Response await(AbortScope callerScope) throws TwitterException {
+            Runnable leave = leaveOnAbort();
+            if (null != callerScope && !callerScope.addAbortListener(leave)) {
+                leave.run();
+                throw new TwitterException("Request aborted.");
+            }
+            try {
+                synchronized (this) {
+                    while (!done) {
+                        if (null != callerScope && callerScope.isAborted()) {
+                            throw new TwitterException("Request aborted.");
+                        }
+                        try {
+                            wait();
+                        } catch (InterruptedException ie) {
+                            Thread.currentThread().interrupt();
+                            throw new TwitterException(ie.getMessage(), ie);
+                        }
+                    }
+                    if (null != te) {
+                        throw te;
+                    }
+                    return res;
+                }
+            } finally {
+                if (null != callerScope) {
+                    callerScope.removeAbortListener(leave);
+                }
+                // no-op if the response has been received
+                leave.run();
+            }
+        }
+    }
+
+    private void readObject(ObjectInputStream stream) throws IOException, ClassNotFoundException {
+        stream.defaultReadObject();
+        inFlight = new ConcurrentHashMap<HttpRequest, Flight>();
     }
 
 
@@ -370,6 +533,19 @@ public class HttpClient implements java.io.Serializable {
         httpResponseListeners.add(listener);
     }
 
+    /**
+     * Registers a listener notified of the progress of multipart uploads.
+     *
+     * @param listener listener
+     * @since Twitter4J 2.1.0
+     */
+    public void addUploadProgressListener(UploadProgressListener listener) {
+        if (null == uploadProgressListeners) {
+            uploadProgressListeners = new ArrayList<UploadProgressListener>();
+        }
+        uploadProgressListeners.add(listener);
+    }
+
     public static String encodeParameters(PostParameter[] postParams) {
         if (null == postParams) {
             return "";
@@ -400,6 +576,17 @@ public class HttpClient implements java.io.Serializable {
         }
     }
 
+    /**
+     * Connects explicitly to measure the time it takes, when metrics are enabled. Otherwise the connection is established implicitly.
+     */
+    private static void connect(HttpURLConnection con, String endpoint) throws IOException {
+        if (null != endpoint) {
+            long started = System.nanoTime();
+            con.connect();
+            Metrics.getCollector().httpConnected(endpoint, System.nanoTime() - started);
+        }
+    }
+
     /**
      * sets HTTP headers
      * @param req The request
@@ -411,6 +598,9 @@ public class HttpClient implements java.io.Serializable {
 
         if (null != req.authorization) {
             req.authorization.setAuthorizationHeader(req.requestMethod.name(), req.url, req.postParams, connection);
+            if (req.authorization instanceof BasicAuthorization) {
+                log("Authorization: Basic ************************");
+            }
         }
         if (null != req.requestHeaders) {
             for (String key : req.requestHeaders.keySet()) {
@@ -443,7 +633,7 @@ public class HttpClient implements java.io.Serializable {
             }
             final Proxy proxy = new Proxy(Type.HTTP, InetSocketAddress
                     .createUnresolved(proxyHost, proxyPort));
-            if (DEBUG) {
+            if (debug) {
                 log("Opening proxied connection(" + proxyHost + ":" + proxyPort + ")");
             }
             con = (HttpURLConnection) new URL(url).openConnection(proxy);
@@ -471,6 +661,7 @@ public class HttpClient implements java.io.Serializable {
         if (readTimeout != that.readTimeout) return false;
         if (retryCount != that.retryCount) return false;
         if (retryIntervalSeconds != that.retryIntervalSeconds) return false;
+        if (debug != that.debug) return false;
         if (proxyAuthPassword != null ? !proxyAuthPassword.equals(that.proxyAuthPassword) : that.proxyAuthPassword != null)
             return false;
         if (proxyAuthUser != null ? !proxyAuthUser.equals(that.proxyAuthUser) : that.proxyAuthUser != null)
@@ -491,17 +682,18 @@ public class HttpClient implements java.io.Serializable {
         result = 31 * result + readTimeout;
         result = 31 * result + retryCount;
         result = 31 * result + retryIntervalSeconds;
+        result = 31 * result + (debug ? 1 : 0);
         return result;
     }
 
-    private static void log(String message) {
-        if (DEBUG) {
+    private void log(String message) {
+        if (debug) {
             System.out.println("[" + new java.util.Date() + "]" + message);
         }
     }
 
-    private static void log(String message, String message2) {
-        if (DEBUG) {
+    private void log(String message, String message2) {
+        if (debug) {
             log(message + message2);
         }
     }
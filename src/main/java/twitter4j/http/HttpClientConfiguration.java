@@ -46,4 +46,6 @@ public interface HttpClientConfiguration {
     int getHttpRetryCount();
 
     int getHttpRetryIntervalSeconds();
+
+    boolean isDebug();
 }
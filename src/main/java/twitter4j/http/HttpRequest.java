@@ -63,6 +63,14 @@ public final class HttpRequest implements java.io.Serializable {
         this.requestHeaders = requestHeaders;
     }
 
+    /**
+     * @return authorization of this request
+     * @since Twitter4J 2.1.0
+     */
+    public Authorization getAuthorization() {
+        return authorization;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
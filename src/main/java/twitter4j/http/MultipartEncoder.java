@@ -0,0 +1,152 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j.http;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.List;
+
+/**
+ * Encodes parameters into a multipart/form-data body.<br>
+ * Part headers are encoded up front so that the exact content length is known before anything is written,
+ * which allows the body to be streamed with HttpURLConnection.setFixedLengthStreamingMode() instead of being buffered in memory.
+ * File contents are copied in {@value #BUFFER_SIZE} bytes chunks.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @see <a href="http://tools.ietf.org/html/rfc2388">RFC 2388 - Returning Values from Forms: multipart/form-data</a>
+ * @since Twitter4J 2.1.0
+ */
+/*package*/ final class MultipartEncoder {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private final String boundary;
+    private final PostParameter[] params;
+    // part header (and the value for non-file parts) of each parameter
+    private final byte[][] heads;
+    // file lengths at the time the content length was computed
+    private final long[] fileLengths;
+    private final byte[] tail;
+    private final long contentLength;
+
+    MultipartEncoder(PostParameter[] params, String boundary) {
+        this.boundary = boundary;
+        this.params = params;
+        this.heads = new byte[params.length][];
+        this.fileLengths = new long[params.length];
+        String delimiter = "--" + boundary;
+        long length = 0;
+        for (int i = 0; i < params.length; i++) {
+            PostParameter param = params[i];
+            StringBuilder head = new StringBuilder(128);
+            head.append(delimiter).append("\r\n");
+            if (param.isFile()) {
+                head.append("Content-Disposition: form-data; name=\"").append(param.getName())
+                        .append("\"; filename=\"").append(param.file.getName()).append("\"\r\n");
+                head.append("Content-Type: ").append(param.getContentType()).append("\r\n\r\n");
+                fileLengths[i] = param.file.length();
+                // file contents followed by CRLF
+                length += fileLengths[i] + 2;
+            } else {
+                head.append("Content-Disposition: form-data; name=\"").append(param.getName()).append("\"\r\n");
+                head.append("Content-Type: text/plain; charset=UTF-8\r\n\r\n");
+                head.append(HttpClient.encode(param.getValue())).append("\r\n");
+            }
+            heads[i] = getBytes(head.toString());
+            length += heads[i].length;
+        }
+        tail = getBytes(delimiter + "--\r\n\r\n");
+        contentLength = length + tail.length;
+    }
+
+    private static byte[] getBytes(String str) {
+        try {
+            return str.getBytes("UTF-8");
+        } catch (UnsupportedEncodingException uee) {
+            throw new AssertionError(uee);
+        }
+    }
+
+    String getContentType() {
+        return "multipart/form-data; boundary=" + boundary;
+    }
+
+    long getContentLength() {
+        return contentLength;
+    }
+
+    /**
+     * Writes the body, notifying the listeners after each chunk.
+     *
+     * @throws IOException when failed to read a file or to write the body, or a file changed its size since this encoder was created
+     */
+    void writeTo(OutputStream out, HttpRequest req, List<UploadProgressListener> listeners) throws IOException {
+        long written = 0;
+        for (int i = 0; i < params.length; i++) {
+            out.write(heads[i]);
+            written += heads[i].length;
+            PostParameter param = params[i];
+            if (param.isFile()) {
+                long expected = fileLengths[i];
+                byte[] buffer = new byte[(int) Math.min(BUFFER_SIZE, Math.max(expected, 1))];
+                long copied = 0;
+                FileInputStream in = new FileInputStream(param.file);
+                try {
+                    int read;
+                    while (-1 != (read = in.read(buffer))) {
+                        copied += read;
+                        if (copied > expected) {
+                            break;
+                        }
+                        out.write(buffer, 0, read);
+                        written += read;
+                        fireProgress(req, listeners, written);
+                    }
+                } finally {
+                    in.close();
+                }
+                if (copied != expected) {
+                    throw new IOException("The file has been modified during the upload: " + param.file);
+                }
+                out.write('\r');
+                out.write('\n');
+                written += 2;
+            }
+        }
+        out.write(tail);
+        written += tail.length;
+        fireProgress(req, listeners, written);
+    }
+
+    private void fireProgress(HttpRequest req, List<UploadProgressListener> listeners, long written) {
+        if (null != listeners) {
+            for (UploadProgressListener listener : listeners) {
+                listener.uploadProgressed(req, written, contentLength);
+            }
+        }
+    }
+}
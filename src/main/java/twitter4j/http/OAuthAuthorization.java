@@ -29,14 +29,7 @@ package twitter4j.http;
 import twitter4j.conf.Configuration;
 import twitter4j.TwitterException;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
-import java.io.UnsupportedEncodingException;
 import java.net.HttpURLConnection;
-import java.net.URLDecoder;
-import java.net.URLEncoder;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -48,23 +41,47 @@ import java.util.Random;
  * @see <a href="http://oauth.net/core/1.0a/">OAuth Core 1.0a</a>
  */
 public final class OAuthAuthorization implements Authorization, java.io.Serializable {
-    private transient static final Configuration conf = Configuration.getInstance();
-    private static final String HMAC_SHA1 = "HmacSHA1";
-    private static final PostParameter OAUTH_SIGNATURE_METHOD = new PostParameter("oauth_signature_method", "HMAC-SHA1");
-    private transient static final boolean DEBUG = conf.getInstance().isDebug();
     static final long serialVersionUID = -4368426677157998618L;
     private String consumerKey = "";
     private String consumerSecret;
 
-    private transient HttpClient http = HttpClient.getInstance(conf);
+    private Configuration conf;
+    private transient HttpClient http;
 
-    private HttpRequestFactory requestFactory = HttpRequestFactory.getInstance(conf);
+    private HttpRequestFactory requestFactory;
     private OAuthToken oauthToken = null;
+    private transient volatile OAuthSigner signer = null;
 
     public OAuthAuthorization(String consumerKey, String consumerSecret) {
+        this(Configuration.getInstance(), consumerKey, consumerSecret);
+    }
+
+    /**
+     * @param conf           configuration providing the OAuth endpoints and the HTTP settings
+     * @param consumerKey    consumer key
+     * @param consumerSecret consumer secret
+     * @since Twitter4J 2.1.0
+     */
+    public OAuthAuthorization(Configuration conf, String consumerKey, String consumerSecret) {
+        this.conf = conf;
+        http = HttpClient.getInstance(conf);
+        requestFactory = HttpRequestFactory.getInstance(conf);
         init(consumerKey, consumerSecret);
     }
 
+    private void readObject(java.io.ObjectInputStream stream) throws java.io.IOException, ClassNotFoundException {
+        stream.defaultReadObject();
+        if (null == conf) {
+            // serialized by an earlier version
+            conf = Configuration.getInstance();
+        }
+        http = HttpClient.getInstance(conf);
+    }
+
+    /*package*/ Configuration getConfiguration() {
+        return conf;
+    }
+
     private void init(String consumerKey, String consumerSecret){
         setConsumerKey(consumerKey);
         setConsumerSecret(consumerSecret);
@@ -73,59 +90,23 @@ public final class OAuthAuthorization implements Authorization, java.io.Serializ
     /*package*/
 
     String generateAuthorizationHeader(String method, String url, PostParameter[] params, String nonce, String timestamp, OAuthToken otoken) {
-        if (null == params) {
-            params = new PostParameter[0];
-        }
-        List<PostParameter> oauthHeaderParams = new ArrayList<PostParameter>(5);
-        oauthHeaderParams.add(new PostParameter("oauth_consumer_key", consumerKey));
-        oauthHeaderParams.add(OAUTH_SIGNATURE_METHOD);
-        oauthHeaderParams.add(new PostParameter("oauth_timestamp", timestamp));
-        oauthHeaderParams.add(new PostParameter("oauth_nonce", nonce));
-        oauthHeaderParams.add(new PostParameter("oauth_version", "1.0"));
-        if (null != otoken) {
-            oauthHeaderParams.add(new PostParameter("oauth_token", otoken.getToken()));
-        }
-        List<PostParameter> signatureBaseParams = new ArrayList<PostParameter>(oauthHeaderParams.size() + params.length);
-        signatureBaseParams.addAll(oauthHeaderParams);
-        if (!PostParameter.containsFile(params)) {
-            signatureBaseParams.addAll(toParamList(params));
+        OAuthSigner signer = getSigner(otoken);
+        if (conf.isDebug()) {
+            log("OAuth base string: ", signer.getSignatureBaseString(method, url, params, nonce, timestamp));
         }
-        parseGetParameters(url, signatureBaseParams);
-        StringBuffer base = new StringBuffer(method).append("&")
-                .append(encode(constructRequestURL(url))).append("&");
-        base.append(encode(normalizeRequestParameters(signatureBaseParams)));
-        String oauthBaseString = base.toString();
-        log("OAuth base string: ", oauthBaseString);
-        String signature = generateSignature(oauthBaseString, otoken);
-        log("OAuth signature: ", signature);
-
-        oauthHeaderParams.add(new PostParameter("oauth_signature", signature));
-        return "OAuth " + encodeParameters(oauthHeaderParams, ",", true);
-    }
-
-    private void parseGetParameters(String url, List<PostParameter> signatureBaseParams) {
-        int queryStart = url.indexOf("?");
-        if (-1 != queryStart) {
-            String[] queryStrs = url.substring(queryStart + 1).split("&");
-            try {
-                for (String query : queryStrs) {
-                    String[] split = query.split("=");
-                    if (split.length == 2) {
-                        signatureBaseParams.add(
-                                new PostParameter(URLDecoder.decode(split[0],
-                                        "UTF-8"), URLDecoder.decode(split[1],
-                                        "UTF-8")));
-                    } else {
-                        signatureBaseParams.add(
-                                new PostParameter(URLDecoder.decode(split[0],
-                                        "UTF-8"), ""));
-                    }
-                }
-            } catch (UnsupportedEncodingException ignore) {
-            }
+        return signer.generateAuthorizationHeader(method, url, params, nonce, timestamp);
+    }
 
+    /**
+     * Returns a signer for the token, reusing the last one as long as the token stays the same.
+     */
+    private OAuthSigner getSigner(OAuthToken token) {
+        OAuthSigner signer = this.signer;
+        if (null == signer || signer.oauthToken != token) {
+            signer = new OAuthSigner(consumerKey, consumerSecret, token);
+            this.signer = signer;
         }
-
+        return signer;
     }
 
     private static Random RAND = new Random();
@@ -203,29 +184,7 @@ public final class OAuthAuthorization implements Authorization, java.io.Serializ
      * @see <a href="http://oauth.net/core/1.0a/#rfc.section.9.2.1">OAuth Core - 9.2.1.  Generating Signature</a>
      */
     /*package*/ String generateSignature(String data, OAuthToken token) {
-        byte[] byteHMAC = null;
-        try {
-            Mac mac = Mac.getInstance(HMAC_SHA1);
-            SecretKeySpec spec;
-            if (null == token) {
-                String oauthSignature = encode(consumerSecret) + "&";
-                spec = new SecretKeySpec(oauthSignature.getBytes(), HMAC_SHA1);
-            } else {
-                if (null == token.getSecretKeySpec()) {
-                    String oauthSignature = encode(consumerSecret) + "&" + encode(token.getTokenSecret());
-                    spec = new SecretKeySpec(oauthSignature.getBytes(), HMAC_SHA1);
-                    token.setSecretKeySpec(spec);
-                }
-                spec = token.getSecretKeySpec();
-            }
-            mac.init(spec);
-            byteHMAC = mac.doFinal(data.getBytes());
-        } catch (InvalidKeyException e) {
-            e.printStackTrace();
-        } catch (NoSuchAlgorithmException ignore) {
-            // should never happen
-        }
-        return BASE64Encoder.encode(byteHMAC);
+        return getSigner(token).generateSignature(data);
     }
 
     /*package*/
@@ -317,28 +276,7 @@ public final class OAuthAuthorization implements Authorization, java.io.Serializ
      * @see <a href="http://tools.ietf.org/html/rfc3986#section-2.1">RFC 3986 - Uniform Resource Identifier (URI): Generic Syntax - 2.1. Percent-Encoding</a>
      */
     public static String encode(String value) {
-        String encoded = null;
-        try {
-            encoded = URLEncoder.encode(value, "UTF-8");
-        } catch (UnsupportedEncodingException ignore) {
-        }
-        StringBuffer buf = new StringBuffer(encoded.length());
-        char focus;
-        for (int i = 0; i < encoded.length(); i++) {
-            focus = encoded.charAt(i);
-            if (focus == '*') {
-                buf.append("%2A");
-            } else if (focus == '+') {
-                buf.append("%20");
-            } else if (focus == '%' && (i + 1) < encoded.length()
-                    && encoded.charAt(i + 1) == '7' && encoded.charAt(i + 2) == 'E') {
-                buf.append('~');
-                i += 2;
-            } else {
-                buf.append(focus);
-            }
-        }
-        return buf.toString();
+        return OAuthSigner.encode(value);
     }
 
     /**
@@ -387,13 +325,13 @@ public final class OAuthAuthorization implements Authorization, java.io.Serializ
     }
 
     private void log(String message) {
-        if (DEBUG) {
+        if (conf.isDebug()) {
             System.out.println("[" + new java.util.Date() + "]" + message);
         }
     }
 
     private void log(String message, String message2) {
-        if (DEBUG) {
+        if (conf.isDebug()) {
             log(message + message2);
         }
     }
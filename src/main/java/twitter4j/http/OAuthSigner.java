@@ -0,0 +1,306 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j.http;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.UnsupportedEncodingException;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Computes OAuth HMAC-SHA1 signatures and Authorization headers with as little allocation as possible.<br>
+ * Mac instances are expensive to obtain and to initialize, so each thread keeps initialized instances keyed by signing key
+ * (up to {@value #MAC_POOL_SIZE} per thread, least recently used first out).<br>
+ * An instance of this class holds the percent-encoded consumer key and token, and the signing key derived from the secrets,
+ * so that only the per-request values are encoded when signing.<br>
+ * Instances are immutable and thread safe.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @see <a href="http://oauth.net/core/1.0a/">OAuth Core 1.0a</a>
+ * @since Twitter4J 2.1.0
+ */
+public final class OAuthSigner {
+    private static final String HMAC_SHA1 = "HmacSHA1";
+    private static final int MAC_POOL_SIZE = 64;
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private static final ThreadLocal<Map<String, Mac>> macs = new ThreadLocal<Map<String, Mac>>() {
+        protected Map<String, Mac> initialValue() {
+            return new LinkedHashMap<String, Mac>(16, 0.75f, true) {
+                private static final long serialVersionUID = 4120558460163929738L;
+
+                protected boolean removeEldestEntry(Map.Entry<String, Mac> eldest) {
+                    return size() > MAC_POOL_SIZE;
+                }
+            };
+        }
+    };
+
+    private final String consumerKey;
+    private final String token;
+    private final String signingKey;
+    // oauth_consumer_key="..."
+    private final String consumerKeyHeader;
+    // ,oauth_token="..."
+    private final String tokenHeader;
+    /*package*/ final OAuthToken oauthToken;
+
+    /**
+     * @param consumerKey    consumer key
+     * @param consumerSecret consumer secret
+     * @param token          token, or null when signing a request token request
+     * @param tokenSecret    token secret, or null when signing a request token request
+     */
+    public OAuthSigner(String consumerKey, String consumerSecret, String token, String tokenSecret) {
+        this(consumerKey, consumerSecret, token, tokenSecret, null);
+    }
+
+    /*package*/ OAuthSigner(String consumerKey, String consumerSecret, OAuthToken oauthToken) {
+        this(consumerKey, consumerSecret, null != oauthToken ? oauthToken.getToken() : null
+                , null != oauthToken ? oauthToken.getTokenSecret() : null, oauthToken);
+    }
+
+    private OAuthSigner(String consumerKey, String consumerSecret, String token, String tokenSecret, OAuthToken oauthToken) {
+        this.consumerKey = consumerKey;
+        this.token = token;
+        this.oauthToken = oauthToken;
+        this.consumerKeyHeader = "oauth_consumer_key=\"" + encode(consumerKey) + "\"";
+        this.tokenHeader = null != token ? ",oauth_token=\"" + encode(token) + "\"" : "";
+        this.signingKey = encode(consumerSecret) + "&" + (null != tokenSecret ? encode(tokenSecret) : "");
+    }
+
+    /**
+     * Generates the value of the Authorization header.
+     *
+     * @param method    HTTP method
+     * @param url       request url, possibly with query parameters
+     * @param params    request parameters. ignored if the request is multipart
+     * @param nonce     nonce
+     * @param timestamp timestamp in seconds
+     * @return the Authorization header value
+     * @see <a href="http://oauth.net/core/1.0a/#rfc.section.5.4.1">OAuth Core - 5.4.1.  Authorization Header</a>
+     */
+    public String generateAuthorizationHeader(String method, String url, PostParameter[] params, String nonce, String timestamp) {
+        String signature = generateSignature(getSignatureBaseString(method, url, params, nonce, timestamp));
+        StringBuilder header = new StringBuilder(consumerKeyHeader.length() + tokenHeader.length() + 160);
+        header.append("OAuth ").append(consumerKeyHeader)
+                .append(",oauth_signature_method=\"HMAC-SHA1\",oauth_timestamp=\"");
+        encode(timestamp, header);
+        header.append("\",oauth_nonce=\"");
+        encode(nonce, header);
+        header.append("\",oauth_version=\"1.0\"").append(tokenHeader).append(",oauth_signature=\"");
+        encode(signature, header);
+        return header.append('"').toString();
+    }
+
+    /**
+     * Constructs the signature base string.<br>
+     * The normalized parameters are percent-encoded twice in a single pass into one buffer.
+     *
+     * @see <a href="http://oauth.net/core/1.0a/#anchor14">OAuth Core - 9.1.  Signature Base String</a>
+     */
+    /*package*/ String getSignatureBaseString(String method, String url, PostParameter[] params, String nonce, String timestamp) {
+        int queryStart = url.indexOf('?');
+        String[] query = -1 == queryStart ? null : url.substring(queryStart + 1).split("&");
+        boolean useParams = null != params && !PostParameter.containsFile(params);
+        int count = (null == token ? 5 : 6) + (useParams ? params.length : 0) + (null == query ? 0 : query.length);
+        PostParameter[] all = new PostParameter[count];
+        int index = 0;
+        all[index++] = new PostParameter("oauth_consumer_key", consumerKey);
+        all[index++] = new PostParameter("oauth_signature_method", "HMAC-SHA1");
+        all[index++] = new PostParameter("oauth_timestamp", timestamp);
+        all[index++] = new PostParameter("oauth_nonce", nonce);
+        all[index++] = new PostParameter("oauth_version", "1.0");
+        if (null != token) {
+            all[index++] = new PostParameter("oauth_token", token);
+        }
+        if (useParams) {
+            System.arraycopy(params, 0, all, index, params.length);
+            index += params.length;
+        }
+        if (null != query) {
+            for (String pair : query) {
+                all[index++] = decodeQueryParameter(pair);
+            }
+        }
+        Arrays.sort(all);
+
+        StringBuilder base = new StringBuilder(256);
+        base.append(method).append('&');
+        encode(OAuthAuthorization.constructRequestURL(url), base);
+        base.append('&');
+        for (int i = 0; i < all.length; i++) {
+            if (0 != i) {
+                // '&'
+                base.append("%26");
+            }
+            encodeTwice(all[i].getName(), base);
+            // '='
+            base.append("%3D");
+            encodeTwice(all[i].getValue(), base);
+        }
+        return base.toString();
+    }
+
+    private static PostParameter decodeQueryParameter(String pair) {
+        String[] split = pair.split("=");
+        try {
+            return new PostParameter(java.net.URLDecoder.decode(split[0], "UTF-8")
+                    , 2 == split.length ? java.net.URLDecoder.decode(split[1], "UTF-8") : "");
+        } catch (UnsupportedEncodingException uee) {
+            throw new AssertionError(uee);
+        }
+    }
+
+    /**
+     * Computes RFC 2104-compliant HMAC signature with the signing key of this signer.
+     *
+     * @param data the data to be signed
+     * @return signature
+     * @see <a href="http://oauth.net/core/1.0a/#rfc.section.9.2.1">OAuth Core - 9.2.1.  Generating Signature</a>
+     */
+    public String generateSignature(String data) {
+        return sign(signingKey, data);
+    }
+
+    /**
+     * Computes RFC 2104-compliant HMAC-SHA1 signature using a Mac pooled for the current thread.
+     *
+     * @param key  the signing key, i.e. encoded consumer secret and encoded token secret joined with '&amp;'
+     * @param data the data to be signed
+     * @return Base64 encoded signature
+     */
+    public static String sign(String key, String data) {
+        Map<String, Mac> pool = macs.get();
+        Mac mac = pool.get(key);
+        try {
+            if (null == mac) {
+                mac = Mac.getInstance(HMAC_SHA1);
+                mac.init(new SecretKeySpec(key.getBytes("UTF-8"), HMAC_SHA1));
+                pool.put(key, mac);
+            }
+            // doFinal() resets the Mac, leaving it ready for the next signature
+            return BASE64Encoder.encode(mac.doFinal(data.getBytes("UTF-8")));
+        } catch (InvalidKeyException ike) {
+            throw new IllegalArgumentException(ike.getMessage());
+        } catch (NoSuchAlgorithmException nsae) {
+            // HmacSHA1 is available on every platform
+            throw new AssertionError(nsae);
+        } catch (UnsupportedEncodingException uee) {
+            throw new AssertionError(uee);
+        }
+    }
+
+    /**
+     * Percent-encodes the value as per RFC 3986.
+     *
+     * @param value string to be encoded
+     * @return encoded string
+     * @see <a href="http://tools.ietf.org/html/rfc3986#section-2.1">RFC 3986 - Uniform Resource Identifier (URI): Generic Syntax - 2.1. Percent-Encoding</a>
+     */
+    public static String encode(String value) {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            if (!isUnreserved(value.charAt(i))) {
+                StringBuilder buf = new StringBuilder(length + 16);
+                buf.append(value, 0, i);
+                encode(value, i, buf, false);
+                return buf.toString();
+            }
+        }
+        // nothing to be encoded
+        return value;
+    }
+
+    /**
+     * Percent-encodes the value as per RFC 3986, appending to the buffer.
+     *
+     * @param value string to be encoded
+     * @param buf   buffer to append to
+     */
+    public static void encode(String value, StringBuilder buf) {
+        encode(value, 0, buf, false);
+    }
+
+    /**
+     * Appends encode(encode(value)) without creating the intermediate string.
+     */
+    private static void encodeTwice(String value, StringBuilder buf) {
+        encode(value, 0, buf, true);
+    }
+
+    private static void encode(String value, int start, StringBuilder buf, boolean twice) {
+        int length = value.length();
+        for (int i = start; i < length; i++) {
+            char c = value.charAt(i);
+            if (isUnreserved(c)) {
+                buf.append(c);
+            } else if (c < 0x80) {
+                appendEscaped(c, buf, twice);
+            } else if (c < 0x800) {
+                appendEscaped(0xC0 | (c >> 6), buf, twice);
+                appendEscaped(0x80 | (c & 0x3F), buf, twice);
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                appendEscaped(0xF0 | (codePoint >> 18), buf, twice);
+                appendEscaped(0x80 | ((codePoint >> 12) & 0x3F), buf, twice);
+                appendEscaped(0x80 | ((codePoint >> 6) & 0x3F), buf, twice);
+                appendEscaped(0x80 | (codePoint & 0x3F), buf, twice);
+            } else if (Character.MIN_SURROGATE <= c && c <= Character.MAX_SURROGATE) {
+                // unpaired surrogate. encoded as '?' as String.getBytes("UTF-8") does
+                appendEscaped('?', buf, twice);
+            } else {
+                appendEscaped(0xE0 | (c >> 12), buf, twice);
+                appendEscaped(0x80 | ((c >> 6) & 0x3F), buf, twice);
+                appendEscaped(0x80 | (c & 0x3F), buf, twice);
+            }
+        }
+    }
+
+    private static void appendEscaped(int b, StringBuilder buf, boolean twice) {
+        // '%' itself is encoded as "%25" on the second pass
+        buf.append(twice ? "%25" : "%").append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+    }
+
+    private static boolean isUnreserved(char c) {
+        return ('a' <= c && c <= 'z') || ('A' <= c && c <= 'Z') || ('0' <= c && c <= '9')
+                || '-' == c || '.' == c || '_' == c || '~' == c;
+    }
+
+    @Override
+    public String toString() {
+        return "OAuthSigner{" +
+                "consumerKey='" + consumerKey + '\'' +
+                ", token='" + token + '\'' +
+                '}';
+    }
+}
@@ -28,15 +28,13 @@ package twitter4j.http;
 
 import twitter4j.TwitterException;
 
-import javax.crypto.spec.SecretKeySpec;
-
 abstract class OAuthToken implements java.io.Serializable {
     
 	private String token;
     private String tokenSecret;
     
-    private transient SecretKeySpec secretKeySpec;
     String[] responseStr = null;
+    private static final long serialVersionUID = 7171277221870542068L;
     
     public OAuthToken(String token, String tokenSecret) {
         this.token = token;
@@ -60,14 +58,6 @@ abstract class OAuthToken implements java.io.Serializable {
         return tokenSecret;
     }
 
-    /*package*/ void setSecretKeySpec(SecretKeySpec secretKeySpec) {
-        this.secretKeySpec = secretKeySpec;
-    }
-
-    /*package*/ SecretKeySpec getSecretKeySpec() {
-        return secretKeySpec;
-    }
-
     public String getParameter(String parameter) {
     	String value = null;
         for (String str : responseStr) {
@@ -104,7 +94,6 @@ abstract class OAuthToken implements java.io.Serializable {
         return "OAuthToken{" +
                 "token='" + token + '\'' +
                 ", tokenSecret='" + tokenSecret + '\'' +
-                ", secretKeySpec=" + secretKeySpec +
                 '}';
     }
 }
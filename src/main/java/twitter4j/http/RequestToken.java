@@ -61,14 +61,18 @@ public class RequestToken extends OAuthToken implements java.io.Serializable {
     }
 
     public String getAuthorizationURL() {
-        return conf.getOAuthAuthorizationURL() + "?oauth_token=" + getToken();
+        return getConfiguration().getOAuthAuthorizationURL() + "?oauth_token=" + getToken();
     }
 
     /**
      * since Twitter4J 2.0.10
      */
     public String getAuthenticationURL() {
-        return conf.getOAuthAuthenticationURL() + "?oauth_token=" + getToken();
+        return getConfiguration().getOAuthAuthenticationURL() + "?oauth_token=" + getToken();
+    }
+
+    private Configuration getConfiguration() {
+        return null != oauth ? oauth.getConfiguration() : conf;
     }
 
     @Override
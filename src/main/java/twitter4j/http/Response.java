@@ -27,7 +27,12 @@ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 package twitter4j.http;
 
 import org.w3c.dom.Document;
+import org.xml.sax.EntityResolver;
+import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+import twitter4j.Metrics;
 import twitter4j.conf.Configuration;
 import twitter4j.TwitterException;
 import twitter4j.org.json.JSONArray;
@@ -37,50 +42,151 @@ import twitter4j.org.json.JSONObject;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
 import java.io.BufferedReader;
-import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.StringReader;
 import java.net.HttpURLConnection;
 import java.util.zip.GZIPInputStream;
 
 /**
- * A data class representing HTTP Response
+ * A data class representing HTTP Response<br>
+ * Methods reading the body are synchronized since a response may be shared by coalesced requests.
  *
  * @author Yusuke Yamamoto - yusuke at mac.com
  */
 public class Response {
-    private static final boolean DEBUG = Configuration.getInstance().isDebug();
-
-    private static ThreadLocal<DocumentBuilder> builders =
-            new ThreadLocal<DocumentBuilder>() {
-                @Override
-                protected DocumentBuilder initialValue() {
-                    try {
-                        return
-                                DocumentBuilderFactory.newInstance()
-                                        .newDocumentBuilder();
-                    } catch (ParserConfigurationException ex) {
-                        throw new ExceptionInInitializerError(ex);
+
+    /**
+     * Holds the XML parser state, so that JSON-only clients never look up a DocumentBuilderFactory implementation.
+     * The factory lookup scans the classpath, hence it is done once and shared by the per-thread builders.
+     */
+    private static final class Builders {
+        private static final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+
+        static final ThreadLocal<DocumentBuilder> builders =
+                new ThreadLocal<DocumentBuilder>() {
+                    @Override
+                    protected DocumentBuilder initialValue() {
+                        try {
+                            // DocumentBuilderFactory is not guaranteed to be thread safe
+                            synchronized (factory) {
+                                return factory.newDocumentBuilder();
+                            }
+                        } catch (ParserConfigurationException ex) {
+                            throw new ExceptionInInitializerError(ex);
+                        }
                     }
-                }
-            };
+                };
+    }
+
+    /**
+     * Holds the SAX parser state for parseXML().<br>
+     * parseXML() reads arbitrary third party feeds, hence external entities and DTDs are never fetched.
+     */
+    private static final class SAXParsers {
+        private static final SAXParserFactory factory = SAXParserFactory.newInstance();
+
+        static {
+            factory.setNamespaceAware(true);
+            disable("http://xml.org/sax/features/external-general-entities");
+            disable("http://xml.org/sax/features/external-parameter-entities");
+            disable("http://apache.org/xml/features/nonvalidating/load-external-dtd");
+        }
+
+        private static void disable(String feature) {
+            try {
+                factory.setFeature(feature, false);
+            } catch (Exception notSupported) {
+                // NO_EXTERNAL_ENTITIES still keeps the parser from fetching anything
+            }
+        }
+
+        static final EntityResolver NO_EXTERNAL_ENTITIES = new EntityResolver() {
+            public InputSource resolveEntity(String publicId, String systemId) {
+                return new InputSource(new StringReader(""));
+            }
+        };
+
+        static final ThreadLocal<SAXParser> parsers =
+                new ThreadLocal<SAXParser>() {
+                    @Override
+                    protected SAXParser initialValue() {
+                        try {
+                            synchronized (factory) {
+                                return factory.newSAXParser();
+                            }
+                        } catch (ParserConfigurationException ex) {
+                            throw new ExceptionInInitializerError(ex);
+                        } catch (SAXException saxe) {
+                            throw new ExceptionInInitializerError(saxe);
+                        }
+                    }
+                };
+    }
 
     private int statusCode;
     private Document responseAsDocument = null;
+    private JSONObject responseAsJSONObject = null;
+    private JSONArray responseAsJSONArray = null;
     private String responseAsString = null;
     private InputStream is;
     private HttpURLConnection con;
     private boolean streamConsumed = false;
+    private boolean debug = false;
 
 
     public Response(HttpURLConnection con) throws IOException {
+        this(con, null, Configuration.getInstance().isDebug());
+    }
+
+    /**
+     * @param con      connection
+     * @param endpoint normalized endpoint to report the size of the body for, or null
+     * @param debug    true to print the body as it is read
+     * @throws IOException when the response could not be read
+     */
+    /*package*/ Response(HttpURLConnection con, final String endpoint, boolean debug) throws IOException {
         this.con = con;
+        this.debug = debug;
         this.statusCode = con.getResponseCode();
         if(null == (is = con.getErrorStream())){
             is = con.getInputStream();
         }
+        if (null != is && null != endpoint) {
+            is = new FilterInputStream(is) {
+                private long count = 0;
+                private boolean closed = false;
+
+                public int read() throws IOException {
+                    int b = super.read();
+                    if (-1 != b) {
+                        count++;
+                    }
+                    return b;
+                }
+
+                public int read(byte[] b, int off, int len) throws IOException {
+                    int read = super.read(b, off, len);
+                    if (read > 0) {
+                        count += read;
+                    }
+                    return read;
+                }
+
+                public void close() throws IOException {
+                    super.close();
+                    if (!closed) {
+                        closed = true;
+                        Metrics.getCollector().httpResponseRead(endpoint, count);
+                    }
+                }
+            };
+        }
         if (null != is && "gzip".equals(con.getContentEncoding())) {
             // the response is gzipped
             is = new GZIPInputStream(is);
@@ -123,7 +229,7 @@ public class Response {
      * @return response body
      * @throws TwitterException
      */
-    public String asString() throws TwitterException{
+    public synchronized String asString() throws TwitterException{
         if(null == responseAsString){
             BufferedReader br;
             try {
@@ -158,12 +264,15 @@ public class Response {
      * @return response body as org.w3c.dom.Document
      * @throws TwitterException
      */
-    public Document asDocument() throws TwitterException {
+    public synchronized Document asDocument() throws TwitterException {
         if (null == responseAsDocument) {
             try {
                 // it should be faster to read the inputstream directly.
-                // but makes it difficult to troubleshoot
-                this.responseAsDocument = builders.get().parse(new ByteArrayInputStream(asString().getBytes("UTF-8")));
+                // but makes it difficult to troubleshoot. use parseXML() for large bodies
+                String body = asString();
+                long started = System.nanoTime();
+                this.responseAsDocument = Builders.builders.get().parse(new InputSource(new StringReader(body)));
+                Metrics.getCollector().responseParsed("xml", System.nanoTime() - started);
             } catch (SAXException saxe) {
                 throw new TwitterException("The response body was not well-formed:\n" + responseAsString, saxe);
             } catch (IOException ioe) {
@@ -173,32 +282,107 @@ public class Response {
         return responseAsDocument;
     }
 
+    /**
+     * Parses the response body as XML, reporting SAX events to the handler while the body is being read.<br>
+     * Unlike asDocument(), the body is neither buffered nor turned into a DOM, hence the memory footprint doesn't grow with the size of the body.
+     * The encoding is detected from the XML declaration.<br>
+     * Disconnects the internal HttpURLConnection silently.
+     * @param handler receives the events
+     * @throws TwitterException when the body could not be read or was not well-formed
+     * @since Twitter4J 2.1.0
+     */
+    public synchronized void parseXML(DefaultHandler handler) throws TwitterException {
+        InputStream stream = null;
+        InputSource source;
+        if (null != responseAsString) {
+            // already read, e.g. shared by coalesced requests
+            source = new InputSource(new StringReader(responseAsString));
+        } else {
+            stream = asStream();
+            if (null == stream) {
+                throw new TwitterException("The response has no body.");
+            }
+            source = new InputSource(stream);
+        }
+        SAXParser parser = SAXParsers.parsers.get();
+        try {
+            long started = System.nanoTime();
+            XMLReader reader = parser.getXMLReader();
+            reader.setContentHandler(handler);
+            reader.setDTDHandler(handler);
+            reader.setErrorHandler(handler);
+            reader.setEntityResolver(SAXParsers.NO_EXTERNAL_ENTITIES);
+            reader.parse(source);
+            Metrics.getCollector().responseParsed("xml", System.nanoTime() - started);
+        } catch (SAXException saxe) {
+            throw new TwitterException("The response body was not well-formed.", saxe);
+        } catch (IOException ioe) {
+            throw new TwitterException("There's something with the connection.", ioe);
+        } finally {
+            parser.reset();
+            if (null != stream) {
+                try {
+                    stream.close();
+                } catch (IOException ignore) {
+                }
+                con.disconnect();
+                streamConsumed = true;
+            }
+        }
+    }
+
+    /**
+     * Extracts the entries of an RSS or Atom feed while the body is being read, without building a DOM.<br>
+     * Disconnects the internal HttpURLConnection silently.
+     * @param listener receives the entries in document order
+     * @throws TwitterException when the body could not be read or was not well-formed
+     * @see #parseXML(org.xml.sax.helpers.DefaultHandler)
+     * @since Twitter4J 2.1.0
+     */
+    public void asFeedEntries(FeedEntryListener listener) throws TwitterException {
+        parseXML(new FeedHandler(listener));
+    }
+
     /**
      * Returns the response body as twitter4j.org.json.JSONObject.<br>
+     * The body is parsed once, subsequent calls return the same instance.<br>
      * Disconnects the internal HttpURLConnection silently.
      * @return response body as twitter4j.org.json.JSONObject
      * @throws TwitterException
      */
-    public JSONObject asJSONObject() throws TwitterException {
-        try {
-            return new JSONObject(asString());
-        } catch (JSONException jsone) {
-            throw new TwitterException(jsone.getMessage() + ":" + this.responseAsString, jsone);
+    public synchronized JSONObject asJSONObject() throws TwitterException {
+        if (null == responseAsJSONObject) {
+            try {
+                String body = asString();
+                long started = System.nanoTime();
+                responseAsJSONObject = new JSONObject(body);
+                Metrics.getCollector().responseParsed("json", System.nanoTime() - started);
+            } catch (JSONException jsone) {
+                throw new TwitterException(jsone.getMessage() + ":" + this.responseAsString, jsone);
+            }
         }
+        return responseAsJSONObject;
     }
 
     /**
      * Returns the response body as twitter4j.org.json.JSONArray.<br>
+     * The body is parsed once, subsequent calls return the same instance.<br>
      * Disconnects the internal HttpURLConnection silently.
      * @return response body as twitter4j.org.json.JSONArray
      * @throws TwitterException
      */
-    public JSONArray asJSONArray() throws TwitterException {
-        try {
-            return new JSONArray(asString());
-        } catch (JSONException jsone) {
-            throw new TwitterException(jsone.getMessage() + ":" + this.responseAsString, jsone);
+    public synchronized JSONArray asJSONArray() throws TwitterException {
+        if (null == responseAsJSONArray) {
+            try {
+                String body = asString();
+                long started = System.nanoTime();
+                responseAsJSONArray = new JSONArray(body);
+                Metrics.getCollector().responseParsed("json", System.nanoTime() - started);
+            } catch (JSONException jsone) {
+                throw new TwitterException(jsone.getMessage() + ":" + this.responseAsString, jsone);
+            }
         }
+        return responseAsJSONArray;
     }
 
 
@@ -229,13 +413,13 @@ public class Response {
     }
 
     private void log(String message) {
-        if (DEBUG) {
+        if (debug) {
             System.out.println("[" + new java.util.Date() + "]" + message);
         }
     }
 
     private void log(String message, String message2) {
-        if (DEBUG) {
+        if (debug) {
             log(message + message2);
         }
     }
@@ -0,0 +1,189 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ */
+public class BatchExecutorTest extends TestCase {
+    public BatchExecutorTest(String name) {
+        super(name);
+    }
+
+    private BatchExecutor executor;
+    private final List<String> executed = Collections.synchronizedList(new ArrayList<String>());
+
+    protected void setUp() throws Exception {
+        super.setUp();
+        executor = new BatchExecutor(4, 2, 10, 0);
+        executed.clear();
+    }
+
+    protected void tearDown() throws Exception {
+        executor.shutdown();
+        super.tearDown();
+    }
+
+    class MockOperation extends BatchExecutor.Operation {
+        private final String name;
+        private final AtomicInteger failures;
+        private final int statusCode;
+
+        MockOperation(String target, String name) {
+            this(target, name, 0, 0);
+        }
+
+        MockOperation(String target, String name, int failures, int statusCode) {
+            super(target);
+            this.name = name;
+            this.failures = new AtomicInteger(failures);
+            this.statusCode = statusCode;
+        }
+
+        public TwitterResponse execute() throws TwitterException {
+            if (failures.getAndDecrement() > 0) {
+                if (503 == statusCode) {
+                    throw TwitterException.createRateLimitedTwitterException("Service Unavailable", 503, 1);
+                }
+                throw new TwitterException("failed", statusCode);
+            }
+            executed.add(name);
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException ignore) {
+            }
+            return null;
+        }
+    }
+
+    public void testOrdering() throws Exception {
+        List<BatchExecutor.Operation> operations = new ArrayList<BatchExecutor.Operation>();
+        for (int i = 0; i < 10; i++) {
+            operations.add(new MockOperation("a", "a" + i));
+            operations.add(new MockOperation("b", "b" + i));
+            operations.add(new MockOperation("c" + i, "c" + i));
+        }
+        BatchExecutor.Report report = executor.execute(operations);
+        assertEquals(30, report.getResults().size());
+        assertEquals(30, report.getSuccessCount());
+        for (int i = 0; i < 30; i++) {
+            assertSame(operations.get(i), report.getResults().get(i).getOperation());
+        }
+        List<String> a = new ArrayList<String>();
+        List<String> b = new ArrayList<String>();
+        for (String name : executed) {
+            if (name.startsWith("a")) {
+                a.add(name);
+            } else if (name.startsWith("b")) {
+                b.add(name);
+            }
+        }
+        for (int i = 0; i < 10; i++) {
+            assertEquals("a" + i, a.get(i));
+            assertEquals("b" + i, b.get(i));
+        }
+    }
+
+    public void testRetry() throws Exception {
+        List<BatchExecutor.Operation> operations = new ArrayList<BatchExecutor.Operation>();
+        // recovers on the second retry
+        operations.add(new MockOperation("a", "a", 2, 502));
+        // gives up after two retries
+        operations.add(new MockOperation("b", "b", 3, 500));
+        // not retried
+        operations.add(new MockOperation("c", "c", 1, 404));
+        // network error
+        operations.add(new MockOperation("d", "d", 1, -1));
+        BatchExecutor.Report report = executor.execute(operations);
+        assertEquals(2, report.getSuccessCount());
+        assertEquals(2, report.getFailureCount());
+        List<BatchExecutor.Result> results = report.getResults();
+        assertTrue(results.get(0).isSuccess());
+        assertEquals(3, results.get(0).getAttempts());
+        assertFalse(results.get(1).isSuccess());
+        assertEquals(3, results.get(1).getAttempts());
+        assertEquals(500, results.get(1).getException().getStatusCode());
+        assertFalse(results.get(2).isSuccess());
+        assertEquals(1, results.get(2).getAttempts());
+        assertTrue(results.get(3).isSuccess());
+        assertEquals(2, results.get(3).getAttempts());
+    }
+
+    public void testInterrupted() throws Exception {
+        executor.shutdown();
+        // backs off for a minute after the first failure
+        executor = new BatchExecutor(1, 2, 60 * 1000, 0);
+        final List<Thread> workers = Collections.synchronizedList(new ArrayList<Thread>());
+        List<BatchExecutor.Operation> operations = new ArrayList<BatchExecutor.Operation>();
+        operations.add(new MockOperation("a", "a0", 1, 500) {
+            public TwitterResponse execute() throws TwitterException {
+                workers.add(Thread.currentThread());
+                return super.execute();
+            }
+        });
+        operations.add(new MockOperation("a", "a1"));
+        operations.add(new MockOperation("a", "a2"));
+        Thread interrupter = new Thread() {
+            public void run() {
+                try {
+                    while (workers.isEmpty()) {
+                        Thread.sleep(10);
+                    }
+                } catch (InterruptedException ignore) {
+                }
+                workers.get(0).interrupt();
+            }
+        };
+        interrupter.start();
+        BatchExecutor.Report report = executor.execute(operations);
+        interrupter.join();
+        assertEquals(3, report.getFailureCount());
+        assertEquals(1, report.getResults().get(0).getAttempts());
+        // the rest of the group is not run
+        assertEquals(0, report.getResults().get(1).getAttempts());
+        assertEquals(0, report.getResults().get(2).getAttempts());
+        assertTrue(executed.isEmpty());
+    }
+
+    public void testRateLimited() throws Exception {
+        List<BatchExecutor.Operation> operations = new ArrayList<BatchExecutor.Operation>();
+        operations.add(new MockOperation("a", "a", 1, 503));
+        long before = System.currentTimeMillis();
+        BatchExecutor.Report report = executor.execute(operations);
+        assertTrue(report.getResults().get(0).isSuccess());
+        assertEquals(2, report.getResults().get(0).getAttempts());
+        // Retry-After: 1
+        assertTrue(System.currentTimeMillis() - before >= 900);
+    }
+}
@@ -0,0 +1,125 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j;
+
+import junit.framework.TestCase;
+import twitter4j.org.json.JSONObject;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+public class CSVExporterTest extends TestCase {
+    public CSVExporterTest(String name) {
+        super(name);
+    }
+
+    private static final String CREATED_AT = "Thu Oct 01 00:00:00 +0000 2009";
+
+    public void testStatuses() throws Exception {
+        StringWriter out = new StringWriter();
+        CSVExporter exporter = new CSVExporter(out, CSVExporter.COMMA);
+        List<Status> page = new ArrayList<Status>();
+        page.add(status(1, "hello, \"world\"\nbye"));
+        exporter.writeStatuses(page);
+        page.clear();
+        page.add(status(2, "plain"));
+        exporter.writeStatuses(page);
+        exporter.close();
+        assertEquals(2, exporter.getRowCount());
+        String[] lines = out.toString().split("\r\n");
+        // the line break in the text is quoted
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("id,created_at,user_id,screen_name,text,source,"));
+        assertEquals("1,2009-10-01T00:00:00Z,6358482,twitter4j,\"hello, \"\"world\"\"\nbye\",web,false,-1,-1,,false,,,"
+                , lines[1]);
+        assertTrue(lines[2].startsWith("2,2009-10-01T00:00:00Z,6358482,twitter4j,plain,web,"));
+    }
+
+    public void testUsersTSV() throws Exception {
+        StringWriter out = new StringWriter();
+        CSVExporter exporter = new CSVExporter(out, CSVExporter.TAB);
+        exporter.writeUsers(Arrays.asList((User) new UserJSONImpl(user().put("description", "tab\there, comma"))));
+        exporter.flush();
+        String[] lines = out.toString().split("\r\n");
+        assertEquals("id\tscreen_name\tname\tlocation\tdescription\turl\tprotected\tfollowers_count\tfriends_count"
+                + "\tstatuses_count\tfavourites_count\tcreated_at\tutc_offset\ttime_zone\tverified\tgeo_enabled", lines[0]);
+        assertTrue(lines[1], lines[1].startsWith("6358482\ttwitter4j\tTwitter4J\t\t\"tab\there, comma\"\t\tfalse\t"));
+        try {
+            exporter.writeIDs(new int[]{1});
+            fail("expecting IllegalStateException");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    public void testGzippedIDs() throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        CSVExporter exporter = new CSVExporter(baos, CSVExporter.COMMA, true);
+        int pages = 50;
+        for (int page = 0; page < pages; page++) {
+            IDsJSONImpl ids = new IDsJSONImpl();
+            int[] values = new int[5000];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = page * values.length + i;
+            }
+            ids.setIds(values);
+            exporter.writeIDs(ids);
+        }
+        exporter.close();
+        assertEquals(pages * 5000, exporter.getRowCount());
+
+        Reader reader = new InputStreamReader(new GZIPInputStream(new ByteArrayInputStream(baos.toByteArray())), "UTF-8");
+        StringBuffer buf = new StringBuffer();
+        char[] chars = new char[8192];
+        int read;
+        while (-1 != (read = reader.read(chars))) {
+            buf.append(chars, 0, read);
+        }
+        String[] lines = buf.toString().split("\r\n");
+        assertEquals(pages * 5000 + 1, lines.length);
+        assertEquals("id", lines[0]);
+        assertEquals("0", lines[1]);
+        assertEquals(String.valueOf(pages * 5000 - 1), lines[lines.length - 1]);
+    }
+
+    private static JSONObject user() throws Exception {
+        return new JSONObject().put("id", 6358482).put("screen_name", "twitter4j").put("name", "Twitter4J")
+                .put("created_at", CREATED_AT).put("favourites_count", 0);
+    }
+
+    private static Status status(long id, String text) throws Exception {
+        return new StatusJSONImpl(new JSONObject().put("id", id).put("text", text).put("created_at", CREATED_AT)
+                .put("source", "web").put("in_reply_to_status_id", -1).put("in_reply_to_user_id", -1)
+                .put("user", user()));
+    }
+}
@@ -0,0 +1,88 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Compares the pooled dispatcher against ThreadPerTaskDispatcher on tasks which block like HTTP calls do.
+ * Run with: java twitter4j.DispatcherBenchmark [tasks] [blocking millis]
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ */
+public class DispatcherBenchmark {
+    public static void main(String[] args) throws Exception {
+        int tasks = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        long blockingMillis = args.length > 1 ? Long.parseLong(args[1]) : 100;
+        for (int round = 0; round < 2; round++) {
+            // the first round warms up the JIT
+            measure("pool of 1", 1, 0, tasks / 20, blockingMillis);
+            measure("pool of 16", 16, 0, tasks, blockingMillis);
+            measure("pool of 256", 256, 0, tasks, blockingMillis);
+            measure("thread per task", -1, 0, tasks, blockingMillis);
+            measure("thread per task, 128KB stack", -1, 128 * 1024, tasks, blockingMillis);
+        }
+    }
+
+    /**
+     * @param threadcount number of pooled threads, -1 for a thread per task
+     */
+    private static void measure(String label, int threadcount, long stackSize, int tasks, final long blockingMillis) throws InterruptedException {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+        threads.resetPeakThreadCount();
+        int threadsBefore = threads.getThreadCount();
+        Dispatcher dispatcher = -1 == threadcount ? new ThreadPerTaskDispatcher("bench", stackSize)
+                : new Dispatcher("bench", threadcount, stackSize);
+        final CountDownLatch finished = new CountDownLatch(tasks);
+        long before = System.nanoTime();
+        for (int i = 0; i < tasks; i++) {
+            dispatcher.invokeLater(new Runnable() {
+                public void run() {
+                    try {
+                        Thread.sleep(blockingMillis);
+                    } catch (InterruptedException ignore) {
+                    }
+                    finished.countDown();
+                }
+            });
+        }
+        finished.await();
+        long elapsed = System.nanoTime() - before;
+        long heapAfter = runtime.totalMemory() - runtime.freeMemory();
+        dispatcher.shutdown();
+        System.out.println(label + ": " + tasks + " tasks in " + (elapsed / 1000000) + " ms, "
+                + (tasks * 1000000000L / elapsed) + " tasks/sec, peak threads +" + (threads.getPeakThreadCount() - threadsBefore)
+                + ", heap +" + ((heapAfter - heapBefore) / 1024) + " KB");
+        // let the threads of the previous dispatcher terminate
+        Thread.sleep(500);
+    }
+}
@@ -28,7 +28,14 @@ package twitter4j;
 
 import junit.framework.TestCase;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author Yusuke Yamamoto - yusuke at mac.com
@@ -77,6 +84,281 @@ public class DispatcherTest extends TestCase {
         }
     }
 
+    public void testThreadPerTask() throws Exception {
+        dispatcher = new ThreadPerTaskDispatcher("thread-per-task", 256 * 1024);
+        // every task waits for all the others, which completes only if they run concurrently
+        final int tasks = 50;
+        final CountDownLatch arrived = new CountDownLatch(tasks);
+        final CountDownLatch finished = new CountDownLatch(tasks);
+        for (int i = 0; i < tasks; i++) {
+            dispatcher.invokeLater(new Runnable() {
+                public void run() {
+                    arrived.countDown();
+                    try {
+                        if (arrived.await(5, TimeUnit.SECONDS)) {
+                            finished.countDown();
+                        }
+                    } catch (InterruptedException ignore) {
+                    }
+                }
+            });
+        }
+        assertTrue(finished.await(10, TimeUnit.SECONDS));
+        dispatcher.shutdown();
+        try {
+            dispatcher.invokeLater(new IncrementTask());
+            fail("expecting RejectedExecutionException");
+        } catch (RejectedExecutionException expected) {
+        }
+    }
+
+    /**
+     * Occupies the only thread of the dispatcher until the returned latch is released.
+     */
+    private CountDownLatch block(Dispatcher dispatcher) throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        dispatcher.invokeLater(new Runnable() {
+            public void run() {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ignore) {
+                }
+            }
+        }, TaskPriority.INTERACTIVE, null);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        return release;
+    }
+
+    private Runnable record(final List<String> executed, final String name, final CountDownLatch finished) {
+        return new Runnable() {
+            public void run() {
+                executed.add(name);
+                finished.countDown();
+            }
+        };
+    }
+
+    public void testPriority() throws Exception {
+        dispatcher = new Dispatcher("priority", 1);
+        List<String> executed = Collections.synchronizedList(new ArrayList<String>());
+        CountDownLatch finished = new CountDownLatch(5);
+        CountDownLatch release = block(dispatcher);
+        dispatcher.invokeLater(record(executed, "bulk1", finished), TaskPriority.BULK, null);
+        dispatcher.invokeLater(record(executed, "bulk2", finished), TaskPriority.BULK, null);
+        dispatcher.invokeLater(record(executed, "normal", finished));
+        dispatcher.invokeLater(record(executed, "interactive1", finished), TaskPriority.INTERACTIVE, null);
+        dispatcher.invokeLater(record(executed, "interactive2", finished), TaskPriority.INTERACTIVE, null);
+        Thread.sleep(20);
+        release.countDown();
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        assertEquals("[interactive1, interactive2, normal, bulk1, bulk2]", executed.toString());
+        assertEquals(2, dispatcher.getQueueWaitTime(TaskPriority.BULK).getCount());
+        assertEquals(3, dispatcher.getQueueWaitTime(TaskPriority.INTERACTIVE).getCount());
+        assertTrue(dispatcher.getQueueWaitTime(TaskPriority.BULK).getMaxMillis() > 0);
+        dispatcher.shutdown();
+    }
+
+    public void testTenantFairness() throws Exception {
+        dispatcher = new Dispatcher("fairness", 1);
+        List<String> executed = Collections.synchronizedList(new ArrayList<String>());
+        CountDownLatch finished = new CountDownLatch(6);
+        CountDownLatch release = block(dispatcher);
+        for (int i = 0; i < 4; i++) {
+            dispatcher.invokeLater(record(executed, "a", finished), TaskPriority.NORMAL, "tenantA");
+        }
+        dispatcher.invokeLater(record(executed, "b", finished), TaskPriority.NORMAL, "tenantB");
+        dispatcher.invokeLater(record(executed, "b", finished), TaskPriority.NORMAL, "tenantB");
+        release.countDown();
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        assertEquals("[a, b, a, b, a, a]", executed.toString());
+
+        executed.clear();
+        finished = new CountDownLatch(6);
+        dispatcher.setWeight("tenantA", 2);
+        release = block(dispatcher);
+        for (int i = 0; i < 4; i++) {
+            dispatcher.invokeLater(record(executed, "a", finished), TaskPriority.NORMAL, "tenantA");
+        }
+        dispatcher.invokeLater(record(executed, "b", finished), TaskPriority.NORMAL, "tenantB");
+        dispatcher.invokeLater(record(executed, "b", finished), TaskPriority.NORMAL, "tenantB");
+        release.countDown();
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        assertEquals("[a, a, b, a, a, b]", executed.toString());
+        dispatcher.shutdown();
+    }
+
+    public void testMaxConcurrency() throws Exception {
+        dispatcher = new Dispatcher("concurrency", 4);
+        dispatcher.setMaxConcurrency(TaskPriority.BULK, 1);
+        final AtomicInteger running = new AtomicInteger(0);
+        final AtomicInteger maxRunning = new AtomicInteger(0);
+        final CountDownLatch finished = new CountDownLatch(6);
+        for (int i = 0; i < 6; i++) {
+            dispatcher.invokeLater(new Runnable() {
+                public void run() {
+                    int current = running.incrementAndGet();
+                    if (current > maxRunning.get()) {
+                        maxRunning.set(current);
+                    }
+                    try {
+                        Thread.sleep(20);
+                    } catch (InterruptedException ignore) {
+                    }
+                    running.decrementAndGet();
+                    finished.countDown();
+                }
+            }, TaskPriority.BULK, null);
+        }
+        // other priorities still get the remaining threads
+        final CountDownLatch interactive = new CountDownLatch(1);
+        dispatcher.invokeLater(new Runnable() {
+            public void run() {
+                interactive.countDown();
+            }
+        }, TaskPriority.INTERACTIVE, null);
+        assertTrue(interactive.await(100, TimeUnit.MILLISECONDS));
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        assertEquals(1, maxRunning.get());
+        dispatcher.shutdown();
+    }
+
+    class RecordingRejectableTask implements Dispatcher.RejectableTask {
+        private final List<String> executed;
+        private final String name;
+        RejectedExecutionException rejected = null;
+
+        RecordingRejectableTask(List<String> executed, String name) {
+            this.executed = executed;
+            this.name = name;
+        }
+
+        public void run() {
+            executed.add(name);
+        }
+
+        public void rejected(RejectedExecutionException ree) {
+            rejected = ree;
+        }
+    }
+
+    public void testRejectWhenFull() throws Exception {
+        dispatcher = new Dispatcher("reject", 1, 0, 2, Dispatcher.REJECT);
+        List<String> executed = Collections.synchronizedList(new ArrayList<String>());
+        CountDownLatch release = block(dispatcher);
+        dispatcher.invokeLater(new RecordingRejectableTask(executed, "1"));
+        dispatcher.invokeLater(new RecordingRejectableTask(executed, "2"));
+        assertEquals(2, dispatcher.getQueueSize());
+        RecordingRejectableTask third = new RecordingRejectableTask(executed, "3");
+        dispatcher.invokeLater(third);
+        assertNotNull(third.rejected);
+        try {
+            dispatcher.invokeLater(new IncrementTask());
+            fail("expecting RejectedExecutionException");
+        } catch (RejectedExecutionException expected) {
+        }
+        assertEquals(2, dispatcher.getRejectedCount());
+        assertEquals(2, dispatcher.getMaxQueueSize());
+        release.countDown();
+        dispatcher.shutdown();
+        assertTrue(dispatcher.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals("[1, 2]", executed.toString());
+    }
+
+    public void testShedOldestBulk() throws Exception {
+        dispatcher = new Dispatcher("shed", 1, 0, 2, Dispatcher.SHED_OLDEST_BULK);
+        List<String> executed = Collections.synchronizedList(new ArrayList<String>());
+        CountDownLatch release = block(dispatcher);
+        RecordingRejectableTask bulk1 = new RecordingRejectableTask(executed, "bulk1");
+        dispatcher.invokeLater(bulk1, TaskPriority.BULK, null);
+        Thread.sleep(5);
+        dispatcher.invokeLater(new RecordingRejectableTask(executed, "bulk2"), TaskPriority.BULK, null);
+        // bulk tasks can't shed each other
+        RecordingRejectableTask bulk3 = new RecordingRejectableTask(executed, "bulk3");
+        dispatcher.invokeLater(bulk3, TaskPriority.BULK, null);
+        assertNotNull(bulk3.rejected);
+        assertNull(bulk1.rejected);
+
+        dispatcher.invokeLater(new RecordingRejectableTask(executed, "interactive"), TaskPriority.INTERACTIVE, null);
+        assertNotNull(bulk1.rejected);
+        assertEquals(1, dispatcher.getQueueSize(TaskPriority.BULK));
+        assertEquals(1, dispatcher.getQueueSize(TaskPriority.INTERACTIVE));
+        release.countDown();
+        dispatcher.shutdown();
+        assertTrue(dispatcher.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals("[interactive, bulk2]", executed.toString());
+    }
+
+    public void testBlockWhenFull() throws Exception {
+        dispatcher = new Dispatcher("block", 1, 0, 1, Dispatcher.BLOCK);
+        final List<String> executed = Collections.synchronizedList(new ArrayList<String>());
+        CountDownLatch release = block(dispatcher);
+        dispatcher.invokeLater(new RecordingRejectableTask(executed, "1"));
+        final CountDownLatch submitted = new CountDownLatch(1);
+        Thread producer = new Thread() {
+            public void run() {
+                dispatcher.invokeLater(new RecordingRejectableTask(executed, "2"));
+                submitted.countDown();
+            }
+        };
+        producer.start();
+        assertFalse("the producer should be blocked", submitted.await(100, TimeUnit.MILLISECONDS));
+        release.countDown();
+        assertTrue(submitted.await(5, TimeUnit.SECONDS));
+        dispatcher.shutdown();
+        assertTrue(dispatcher.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals("[1, 2]", executed.toString());
+        assertEquals(0, dispatcher.getRejectedCount());
+    }
+
+    public void testShutdownDrainsQueue() throws Exception {
+        dispatcher = new Dispatcher("drain", 1);
+        List<String> executed = Collections.synchronizedList(new ArrayList<String>());
+        CountDownLatch release = block(dispatcher);
+        for (int i = 0; i < 3; i++) {
+            dispatcher.invokeLater(new RecordingRejectableTask(executed, String.valueOf(i)));
+        }
+        dispatcher.shutdown();
+        RecordingRejectableTask late = new RecordingRejectableTask(executed, "late");
+        dispatcher.invokeLater(late);
+        assertNotNull(late.rejected);
+        assertFalse(dispatcher.awaitTermination(50, TimeUnit.MILLISECONDS));
+        release.countDown();
+        assertTrue(dispatcher.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals("[0, 1, 2]", executed.toString());
+    }
+
+    public void testShutdownRemovesHook() throws Exception {
+        dispatcher = new Dispatcher("hook", 1);
+        dispatcher.shutdown();
+        // false once the hook is no longer registered
+        assertFalse(Runtime.getRuntime().removeShutdownHook(dispatcher.shutdownHook));
+
+        dispatcher = new ThreadPerTaskDispatcher("hook", 0);
+        dispatcher.shutdown();
+        assertFalse(Runtime.getRuntime().removeShutdownHook(dispatcher.shutdownHook));
+    }
+
+    public void testLatencyHistogram() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentile(50));
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+        assertEquals(100, histogram.getCount());
+        assertEquals(100, histogram.getMaxMillis());
+        assertEquals(50.5d, histogram.getMeanMillis());
+        assertEquals(64, histogram.getPercentile(50));
+        assertEquals(100, histogram.getPercentile(99));
+        long[] counts = histogram.getCounts();
+        assertEquals(1, counts[0]);
+        assertEquals(1, counts[1]);
+        assertEquals(2, counts[2]);
+        assertEquals(36, counts[7]);
+        assertEquals(128, LatencyHistogram.getUpperBound(7));
+    }
+
     private boolean existsThread(String name) {
         boolean exists = false;
         Map<Thread, StackTraceElement[]> allThreads = Thread.getAllStackTraces();
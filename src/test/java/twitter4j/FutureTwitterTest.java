@@ -0,0 +1,223 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j;
+
+import junit.framework.TestCase;
+import twitter4j.http.HttpClient;
+
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ */
+public class FutureTwitterTest extends TestCase {
+    public FutureTwitterTest(String name) {
+        super(name);
+    }
+
+    private FutureTwitter futures;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+        futures = new FutureTwitter(new Twitter());
+    }
+
+    private Callable<String> value(final String value) {
+        return new Callable<String>() {
+            public String call() throws Exception {
+                return value;
+            }
+        };
+    }
+
+    private Callable<String> failure(final int statusCode) {
+        return new Callable<String>() {
+            public String call() throws Exception {
+                throw new TwitterException("failed", statusCode);
+            }
+        };
+    }
+
+    public void testJoin() throws Exception {
+        assertEquals("a", futures.submit(value("a")).join());
+        try {
+            futures.submit(failure(404)).join();
+            fail("expecting TwitterException");
+        } catch (TwitterException te) {
+            assertEquals(404, te.getStatusCode());
+        }
+    }
+
+    public void testCallback() throws Exception {
+        final List<Object> outcomes = new ArrayList<Object>();
+        final CountDownLatch latch = new CountDownLatch(2);
+        TwitterFuture.Callback<String> callback = new TwitterFuture.Callback<String>() {
+            public void onSuccess(String result) {
+                outcomes.add(result);
+                latch.countDown();
+            }
+
+            public void onFailure(TwitterException te) {
+                outcomes.add(te.getStatusCode());
+                latch.countDown();
+            }
+        };
+        futures.submit(value("a")).addCallback(callback);
+        futures.submit(failure(500)).addCallback(callback);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(outcomes.contains("a"));
+        assertTrue(outcomes.contains(500));
+
+        // callbacks added after completion are invoked right away
+        TwitterFuture<String> done = futures.submit(value("b"));
+        done.join();
+        final String[] result = new String[1];
+        done.addCallback(new TwitterFuture.Callback<String>() {
+            public void onSuccess(String value) {
+                result[0] = value;
+            }
+
+            public void onFailure(TwitterException te) {
+            }
+        });
+        assertEquals("b", result[0]);
+    }
+
+    public void testAll() throws Exception {
+        List<TwitterFuture<String>> list = new ArrayList<TwitterFuture<String>>();
+        for (String value : new String[]{"a", "b", "c"}) {
+            list.add(futures.submit(value(value)));
+        }
+        List<String> results = TwitterFuture.all(list).join(5, TimeUnit.SECONDS);
+        assertEquals("[a, b, c]", results.toString());
+
+        assertEquals(0, TwitterFuture.all(new ArrayList<TwitterFuture<String>>()).join().size());
+    }
+
+    public void testAllFailsFast() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        List<TwitterFuture<String>> list = new ArrayList<TwitterFuture<String>>();
+        // keeps the dispatcher busy so that the remaining calls are still queued when the failure arrives
+        TwitterFuture<String> blocking = futures.submit(new Callable<String>() {
+            public String call() throws Exception {
+                release.await(5, TimeUnit.SECONDS);
+                throw new TwitterException("failed", 403);
+            }
+        });
+        list.add(blocking);
+        TwitterFuture<String> queued = futures.submit(value("b"));
+        list.add(queued);
+        TwitterFuture<List<String>> all = TwitterFuture.all(list);
+        release.countDown();
+        try {
+            all.join(5, TimeUnit.SECONDS);
+            fail("expecting TwitterException");
+        } catch (TwitterException te) {
+            assertEquals(403, te.getStatusCode());
+        }
+        // the remaining calls are cancelled right after the combined future fails
+        try {
+            queued.join(5, TimeUnit.SECONDS);
+            fail("expecting TwitterException");
+        } catch (TwitterException expected) {
+        }
+        assertTrue(queued.isCancelled());
+    }
+
+    public void testTimeout() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        TwitterFuture<String> future = futures.submit(new Callable<String>() {
+            public String call() throws Exception {
+                release.await(5, TimeUnit.SECONDS);
+                return "late";
+            }
+        });
+        try {
+            future.join(50, TimeUnit.MILLISECONDS);
+            fail("expecting TwitterException");
+        } catch (TwitterException expected) {
+        } finally {
+            release.countDown();
+        }
+        assertTrue(future.isCancelled());
+    }
+
+    public void testCancelAbortsConnection() throws Exception {
+        // accepts connections but never responds
+        final ServerSocket server = new ServerSocket(0);
+        final List<Socket> accepted = new ArrayList<Socket>();
+        Thread acceptor = new Thread() {
+            public void run() {
+                try {
+                    while (true) {
+                        accepted.add(server.accept());
+                    }
+                } catch (Exception ignore) {
+                }
+            }
+        };
+        acceptor.start();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch finished = new CountDownLatch(1);
+        final Exception[] thrown = new Exception[1];
+        try {
+            final HttpClient http = new HttpClient();
+            http.setReadTimeout(30000);
+            TwitterFuture<String> future = futures.submit(new Callable<String>() {
+                public String call() throws Exception {
+                    started.countDown();
+                    try {
+                        return http.get("http://127.0.0.1:" + server.getLocalPort() + "/").asString();
+                    } catch (Exception e) {
+                        thrown[0] = e;
+                        throw e;
+                    } finally {
+                        finished.countDown();
+                    }
+                }
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Thread.sleep(200);
+            assertTrue(future.cancel(true));
+            assertTrue("the request should be aborted", finished.await(5, TimeUnit.SECONDS));
+            assertTrue(thrown[0] instanceof TwitterException);
+            // the dispatcher is available again
+            assertEquals("next", futures.submit(value("next")).join(5, TimeUnit.SECONDS));
+        } finally {
+            server.close();
+            for (Socket socket : accepted) {
+                socket.close();
+            }
+        }
+    }
+}
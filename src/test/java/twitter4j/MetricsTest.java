@@ -0,0 +1,222 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j;
+
+import junit.framework.TestCase;
+import twitter4j.http.HttpClient;
+import twitter4j.http.Response;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ */
+public class MetricsTest extends TestCase {
+    public MetricsTest(String name) {
+        super(name);
+    }
+
+    private final List<String> events = Collections.synchronizedList(new ArrayList<String>());
+    private final LinkedList<String[]> responses = new LinkedList<String[]>();
+    private ServerSocket server;
+    private Thread serverThread;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+        Metrics.setCollector(new MetricsAdapter() {
+            public void httpRequest(String method, String endpoint, int statusCode, long latencyNanos, long bytesSent) {
+                events.add("request " + method + " " + endpoint + " " + statusCode + " " + bytesSent);
+            }
+
+            public void httpRetry(String method, String endpoint, int attempt, int statusCode) {
+                events.add("retry " + attempt + " " + statusCode);
+            }
+
+            public void httpConnected(String endpoint, long connectNanos) {
+                events.add("connected");
+            }
+
+            public void httpResponseRead(String endpoint, long bytesReceived) {
+                events.add("read " + bytesReceived);
+            }
+
+            public void responseParsed(String format, long parseNanos) {
+                events.add("parsed " + format);
+            }
+
+            public void taskDequeued(String dispatcher, TaskPriority priority, long waitMillis) {
+                events.add("dequeued " + dispatcher + " " + priority.name());
+            }
+
+            public void taskRejected(String dispatcher, TaskPriority priority) {
+                events.add("rejected " + dispatcher + " " + priority.name());
+            }
+        });
+        server = new ServerSocket(0);
+        serverThread = new Thread() {
+            public void run() {
+                try {
+                    while (true) {
+                        Socket socket = server.accept();
+                        BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), "UTF-8"));
+                        String line;
+                        while (null != (line = reader.readLine()) && line.length() > 0) {
+                        }
+                        String[] response;
+                        synchronized (responses) {
+                            response = responses.removeFirst();
+                        }
+                        byte[] body = response[1].getBytes("UTF-8");
+                        OutputStream os = socket.getOutputStream();
+                        os.write(("HTTP/1.1 " + response[0] + "\r\nContent-Type: application/json\r\nContent-Length: "
+                                + body.length + "\r\nConnection: close\r\n\r\n").getBytes("UTF-8"));
+                        os.write(body);
+                        os.flush();
+                        socket.close();
+                    }
+                } catch (Exception ignore) {
+                }
+            }
+        };
+        serverThread.start();
+    }
+
+    protected void tearDown() throws Exception {
+        Metrics.setCollector(null);
+        server.close();
+        serverThread.join();
+        super.tearDown();
+    }
+
+    private void respond(String status, String body) {
+        synchronized (responses) {
+            responses.add(new String[]{status, body});
+        }
+    }
+
+    public void testToEndpoint() throws Exception {
+        assertEquals("api.twitter.com/1/statuses/show/:id.json"
+                , Metrics.toEndpoint("http://api.twitter.com/1/statuses/show/1234567.json"));
+        assertEquals("api.twitter.com/1/:name/lists/:id/statuses.json"
+                , Metrics.toEndpoint("https://api.twitter.com/1/twit4j/lists/567/statuses.json?per_page=10"));
+        assertEquals("search.twitter.com/search.json"
+                , Metrics.toEndpoint("http://search.twitter.com/search.json?q=twitter4j"));
+        assertEquals("api.twitter.com/1/statuses/friends.json"
+                , Metrics.toEndpoint("http://api.twitter.com/1/statuses/friends.json?screen_name=twit4j&cursor=-1"));
+        assertEquals("twitter.com/oauth/request_token", Metrics.toEndpoint("http://twitter.com/oauth/request_token"));
+        assertEquals("twitter.com", Metrics.toEndpoint("http://twitter.com"));
+        assertEquals("twitter.com/", Metrics.toEndpoint("http://twitter.com/"));
+    }
+
+    public void testDisabledByDefault() throws Exception {
+        Metrics.setCollector(null);
+        assertFalse(Metrics.isEnabled());
+        assertTrue(Metrics.getCollector() instanceof MetricsAdapter);
+    }
+
+    public void testConfiguredCollector() throws Exception {
+        assertEquals(Boolean.TRUE, isEnabledWith("twitter4j.MetricsAdapter"));
+    }
+
+    public void testUnloadableCollector() throws Exception {
+        assertEquals(Boolean.FALSE, isEnabledWith("twitter4j.NoSuchCollector"));
+    }
+
+    /**
+     * @return Metrics.isEnabled() after the first HttpClient is created with twitter4j.metrics.collector set to className
+     */
+    private Object isEnabledWith(String className) throws Exception {
+        // the collector is looked up once per class loader, so load a fresh copy of the library
+        URL classes = Metrics.class.getProtectionDomain().getCodeSource().getLocation();
+        ClassLoader isolated = new URLClassLoader(new URL[]{classes}, null);
+        System.setProperty("twitter4j.metrics.collector", className);
+        try {
+            Class.forName("twitter4j.http.HttpClient", true, isolated).newInstance();
+            return Class.forName("twitter4j.Metrics", true, isolated).getMethod("isEnabled").invoke(null);
+        } finally {
+            System.getProperties().remove("twitter4j.metrics.collector");
+        }
+    }
+
+    public void testHttpMetrics() throws Exception {
+        String body = "{\"id\":1234}";
+        respond("200 OK", body);
+        HttpClient client = new HttpClient();
+        Response res = client.get("http://127.0.0.1:" + server.getLocalPort() + "/1/statuses/show/1234.json");
+        assertEquals(1234, res.asJSONObject().getInt("id"));
+        assertEquals("[connected, request GET 127.0.0.1:" + server.getLocalPort() + "/1/statuses/show/:id.json 200 0, read "
+                + body.length() + ", parsed json]", events.toString());
+    }
+
+    public void testRetryMetrics() throws Exception {
+        respond("500 Internal Server Error", "{}");
+        respond("200 OK", "{}");
+        HttpClient client = new HttpClient();
+        client.setRetryCount(1);
+        client.setRetryIntervalSeconds(0);
+        client.post("http://127.0.0.1:" + server.getLocalPort() + "/1/statuses/update.json"
+                , new twitter4j.http.PostParameter[]{new twitter4j.http.PostParameter("status", "hello")}).asString();
+        String endpoint = "127.0.0.1:" + server.getLocalPort() + "/1/statuses/update.json";
+        assertTrue(events.toString(), events.contains("request POST " + endpoint + " 500 12"));
+        assertTrue(events.toString(), events.contains("retry 2 500"));
+        assertTrue(events.toString(), events.contains("request POST " + endpoint + " 200 12"));
+    }
+
+    public void testDispatcherMetrics() throws Exception {
+        Dispatcher dispatcher = new Dispatcher("metrics", 1, 0, 1, Dispatcher.REJECT);
+        dispatcher.shutdown();
+        try {
+            dispatcher.invokeLater(new Runnable() {
+                public void run() {
+                }
+            }, TaskPriority.BULK, null);
+            fail("expecting RejectedExecutionException");
+        } catch (java.util.concurrent.RejectedExecutionException expected) {
+        }
+        assertTrue(events.contains("rejected metrics BULK"));
+
+        dispatcher = new Dispatcher("metrics", 1);
+        dispatcher.invokeLater(new Runnable() {
+            public void run() {
+            }
+        }, TaskPriority.INTERACTIVE, null);
+        dispatcher.shutdown();
+        assertTrue(dispatcher.awaitTermination(5, TimeUnit.SECONDS));
+        assertTrue(events.contains("dequeued metrics INTERACTIVE"));
+    }
+}
@@ -0,0 +1,252 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j;
+
+import junit.framework.TestCase;
+import twitter4j.api.SearchMethods;
+import twitter4j.org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class SearchCursorTest extends TestCase {
+    public SearchCursorTest(String name) {
+        super(name);
+    }
+
+    private FakeSearch search;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+        search = new FakeSearch();
+    }
+
+    public void testWalksAllPages() throws Exception {
+        search.post(1, 35);
+        SearchCursor cursor = new SearchCursor(search, new Query("twitter4j").rpp(10));
+        List<Tweet> tweets = cursor.next();
+        assertEquals(35, tweets.size());
+        for (int i = 0; i < tweets.size(); i++) {
+            assertEquals(35 - i, tweets.get(i).getId());
+        }
+        assertEquals(35, cursor.getSinceId());
+        assertEquals(0, cursor.getDuplicateCount());
+        assertTrue(cursor.getApiCallCount() >= 4);
+        assertTrue(cursor.getApiCallCount() <= SearchCursor.MAX_PAGES);
+    }
+
+    public void testNextOnDispatcherThread() throws Exception {
+        search.post(1, 35);
+        final SearchCursor cursor = new SearchCursor(search, new Query("twitter4j").rpp(10));
+        final List<Tweet> tweets = Collections.synchronizedList(new ArrayList<Tweet>());
+        final CountDownLatch done = new CountDownLatch(1);
+        // e.g. called from a TwitterListener callback. the page tasks queue up behind this one
+        AsyncTwitter.getSharedDispatcher().invokeLater(new Runnable() {
+            public void run() {
+                try {
+                    tweets.addAll(cursor.next());
+                } catch (TwitterException ignore) {
+                } finally {
+                    done.countDown();
+                }
+            }
+        });
+        assertTrue("next() should not wait on its own dispatcher", done.await(10, TimeUnit.SECONDS));
+        assertEquals(35, tweets.size());
+    }
+
+    public void testMaxPages() throws Exception {
+        search.post(1, 35);
+        SearchCursor cursor = new SearchCursor(search, new Query("twitter4j").rpp(10), 2);
+        assertEquals(20, cursor.next().size());
+        assertEquals(2, cursor.getApiCallCount());
+        try {
+            new SearchCursor(search, new Query("twitter4j"), 0);
+            fail("expecting IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    public void testMaxIdPinned() throws Exception {
+        search.post(1, 25);
+        search.postOnFirstPage = 5;
+        SearchCursor cursor = new SearchCursor(search, new Query("twitter4j").rpp(10));
+        List<Tweet> tweets = cursor.next();
+        // tweets posted during the walk don't shift the pages
+        assertEquals(25, tweets.size());
+        assertEquals(0, cursor.getDuplicateCount());
+        for (Query query : search.queries) {
+            if (query.getPage() > 1) {
+                assertEquals(25, query.getMaxId());
+            }
+        }
+        // and are picked up by the next poll
+        assertEquals(5, cursor.next().size());
+    }
+
+    public void testPollsSinceId() throws Exception {
+        search.post(1, 5);
+        Query query = new Query("twitter4j").rpp(10);
+        SearchCursor cursor = new SearchCursor(search, query);
+        assertEquals(5, cursor.next().size());
+        assertEquals(1, cursor.getApiCallCount());
+        assertEquals(0, cursor.next().size());
+        assertEquals(5, search.queries.get(1).getSinceId());
+
+        search.post(6, 3);
+        List<Tweet> tweets = cursor.next();
+        assertEquals(3, tweets.size());
+        assertEquals(8, tweets.get(0).getId());
+        assertEquals(8, cursor.getSinceId());
+        // the query passed in is left untouched
+        assertEquals(-1, query.getSinceId());
+        assertEquals(-1, query.getPage());
+    }
+
+    public void testDedup() throws Exception {
+        search.post(1, 5);
+        SearchCursor cursor = new SearchCursor(search, new Query("twitter4j").rpp(10));
+        assertEquals(5, cursor.next().size());
+        search.post(6, 2);
+        // the search index may return tweets older than since_id
+        search.ignoreSinceId = true;
+        List<Tweet> tweets = cursor.next();
+        assertEquals(2, tweets.size());
+        assertEquals(5, cursor.getDuplicateCount());
+        Set<Long> ids = new HashSet<Long>();
+        for (Tweet tweet : tweets) {
+            assertTrue(ids.add(tweet.getId()));
+        }
+    }
+
+    public void testFailureRetriesSamePage() throws Exception {
+        search.post(1, 5);
+        SearchCursor cursor = new SearchCursor(search, new Query("twitter4j").rpp(10));
+        search.fail = true;
+        try {
+            cursor.next();
+            fail("expecting TwitterException");
+        } catch (TwitterException expected) {
+        }
+        assertEquals(-1, cursor.getSinceId());
+        search.fail = false;
+        assertEquals(5, cursor.next().size());
+    }
+
+    /**
+     * serves tweets with ids in descending order, honoring since_id, max_id, page and rpp
+     */
+    static class FakeSearch implements SearchMethods {
+        private final List<Long> ids = new ArrayList<Long>();
+        final List<Query> queries = Collections.synchronizedList(new ArrayList<Query>());
+        volatile boolean ignoreSinceId = false;
+        volatile boolean fail = false;
+        int postOnFirstPage = 0;
+
+        synchronized void post(long from, int count) {
+            for (long id = from; id < from + count; id++) {
+                ids.add(0, id);
+            }
+        }
+
+        public synchronized QueryResult search(Query query) throws TwitterException {
+            queries.add(query);
+            if (fail) {
+                throw new TwitterException("fail", 503);
+            }
+            List<Long> matches = new ArrayList<Long>();
+            for (Long id : ids) {
+                if ((ignoreSinceId || id > query.getSinceId())
+                        && (query.getMaxId() <= 0 || id <= query.getMaxId())) {
+                    matches.add(id);
+                }
+            }
+            int page = Math.max(1, query.getPage());
+            int from = Math.min(matches.size(), (page - 1) * query.getRpp());
+            int to = Math.min(matches.size(), page * query.getRpp());
+            List<Tweet> tweets = new ArrayList<Tweet>();
+            for (Long id : matches.subList(from, to)) {
+                tweets.add(tweet(id));
+            }
+            QueryResultJSONImpl result = new QueryResultJSONImpl();
+            result.setTweets(tweets);
+            result.setPage(page);
+            result.setResultsPerPage(query.getRpp());
+            result.setMaxId(matches.size() == 0 ? query.getSinceId() : matches.get(0));
+            result.setSinceId(query.getSinceId());
+            if (page == 1 && 0 < postOnFirstPage) {
+                post(ids.get(0) + 1, postOnFirstPage);
+                postOnFirstPage = 0;
+            }
+            return result;
+        }
+
+        static Tweet tweet(long id) throws TwitterException {
+            try {
+                return new TweetJSONImpl(new JSONObject("{\"id\":" + id + ",\"text\":\"tweet " + id
+                        + "\",\"from_user\":\"t4j\",\"from_user_id\":1,\"to_user_id\":-1,\"created_at\":\""
+                        + new java.text.SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss z", java.util.Locale.ENGLISH).format(new Date()) + "\"}"));
+            } catch (twitter4j.org.json.JSONException jsone) {
+                throw new TwitterException(jsone);
+            }
+        }
+
+        public Trends getTrends() {
+            return null;
+        }
+
+        public Trends getCurrentTrends() {
+            return null;
+        }
+
+        public Trends getCurrentTrends(boolean excludeHashTags) {
+            return null;
+        }
+
+        public List<Trends> getDailyTrends() {
+            return null;
+        }
+
+        public List<Trends> getDailyTrends(Date date, boolean excludeHashTags) {
+            return null;
+        }
+
+        public List<Trends> getWeeklyTrends() {
+            return null;
+        }
+
+        public List<Trends> getWeeklyTrends(Date date, boolean excludeHashTags) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class SearchSchedulerTest extends TestCase {
+    public SearchSchedulerTest(String name) {
+        super(name);
+    }
+
+    private Dispatcher dispatcher;
+    private SearchScheduler scheduler;
+    private final Set<Long> delivered = new HashSet<Long>();
+    private int duplicates;
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    /**
+     * "hot" queries get a new tweet every 2 milliseconds, others none
+     */
+    private final SearchCursorTest.FakeSearch search = new SearchCursorTest.FakeSearch() {
+        private final Map<String, Long> lastSearch = new HashMap<String, Long>();
+
+        public synchronized QueryResult search(Query query) throws TwitterException {
+            List<Tweet> tweets = new ArrayList<Tweet>();
+            long now = System.currentTimeMillis();
+            if (query.getQuery().startsWith("hot")) {
+                Long last = lastSearch.get(query.getQuery());
+                long count = Math.min(15, null == last ? 15 : (now - last) / 2);
+                for (int i = 0; i < count; i++) {
+                    tweets.add(0, tweet(nextId.getAndIncrement()));
+                }
+            }
+            lastSearch.put(query.getQuery(), now);
+            QueryResultJSONImpl result = new QueryResultJSONImpl();
+            result.setTweets(tweets);
+            result.setCompletedIn(0.5);
+            return result;
+        }
+    };
+
+    private final SearchListener listener = new SearchListener() {
+        public void onTweets(Query query, List<Tweet> tweets) {
+            synchronized (delivered) {
+                for (Tweet tweet : tweets) {
+                    if (!delivered.add(tweet.getId())) {
+                        duplicates++;
+                    }
+                }
+            }
+        }
+
+        public void onException(Query query, TwitterException te) {
+            fail(te.getMessage());
+        }
+    };
+
+    protected void setUp() throws Exception {
+        super.setUp();
+        dispatcher = new Dispatcher("SearchSchedulerTest", 2);
+    }
+
+    protected void tearDown() throws Exception {
+        scheduler.shutdown();
+        dispatcher.shutdown();
+        super.tearDown();
+    }
+
+    public void testAdaptiveInterval() throws Exception {
+        scheduler = new SearchScheduler(search, dispatcher, Integer.MAX_VALUE, 20, 2000);
+        final Query hot = new Query("hot").rpp(15);
+        final Query quiet = new Query("quiet").rpp(15);
+        scheduler.add(hot, listener);
+        scheduler.add(quiet, listener);
+        Thread.sleep(1000);
+
+        // on a loaded machine polls run late; a slow poll lowers the measured velocity for a while, and the next ones bring the interval back down
+        waitFor(new Check() {
+            boolean holds() {
+                return 20 == scheduler.getInterval(hot) && scheduler.getVelocity(hot) > 0
+                        && scheduler.getPollCount(hot) > 3 * scheduler.getPollCount(quiet);
+            }
+        });
+        assertEquals(20, scheduler.getInterval(hot));
+        assertTrue(scheduler.getVelocity(hot) > 0);
+        assertTrue(scheduler.getInterval(quiet) > 200);
+        assertEquals(0d, scheduler.getVelocity(quiet));
+        // quiet queries back off exponentially
+        assertTrue(scheduler.getPollCount(quiet) <= 8);
+        assertTrue(scheduler.getPollCount(hot) > 3 * scheduler.getPollCount(quiet));
+        assertEquals(0.5, scheduler.getCompletedIn(hot), 0.001);
+
+        LatencyHistogram freshness = scheduler.getFreshness(hot);
+        // let the poll in progress deliver its tweets
+        scheduler.remove(hot);
+        scheduler.remove(quiet);
+        waitFor(new Check() {
+            boolean holds() {
+                synchronized (delivered) {
+                    return nextId.get() - 1 == delivered.size();
+                }
+            }
+        });
+        synchronized (delivered) {
+            assertEquals(0, duplicates);
+            assertEquals(nextId.get() - 1, delivered.size());
+        }
+        assertEquals(delivered.size(), freshness.getCount());
+        assertTrue(freshness.getMaxMillis() < 2000);
+    }
+
+    public void testBudget() throws Exception {
+        // one request every 100 milliseconds
+        scheduler = new SearchScheduler(search, dispatcher, 36000, 10, 2000);
+        Query[] queries = new Query[]{new Query("hot1"), new Query("hot2"), new Query("hot3")};
+        for (Query query : queries) {
+            scheduler.add(query, listener);
+        }
+        Thread.sleep(1000);
+        int polls = 0;
+        for (Query query : queries) {
+            polls += scheduler.getPollCount(query);
+            // every query gets its share
+            assertTrue(scheduler.getPollCount(query) >= 2);
+        }
+        assertTrue(polls <= 11);
+    }
+
+    public void testRuntimeException() throws Exception {
+        final List<TwitterException> exceptions = new ArrayList<TwitterException>();
+        SearchCursorTest.FakeSearch broken = new SearchCursorTest.FakeSearch() {
+            public QueryResult search(Query query) throws TwitterException {
+                throw new IllegalStateException("unexpected response");
+            }
+        };
+        scheduler = new SearchScheduler(broken, dispatcher, Integer.MAX_VALUE, 20, 20);
+        Query query = new Query("broken");
+        scheduler.add(query, new SearchListener() {
+            public void onTweets(Query query, List<Tweet> tweets) {
+                fail("no tweets expected");
+            }
+
+            public void onException(Query query, TwitterException te) {
+                synchronized (exceptions) {
+                    exceptions.add(te);
+                }
+            }
+        });
+        Thread.sleep(300);
+        synchronized (exceptions) {
+            // the query keeps being polled
+            assertTrue(exceptions.size() >= 2);
+            assertTrue(exceptions.get(0).getCause() instanceof IllegalStateException);
+        }
+    }
+
+    public void testRemove() throws Exception {
+        final AtomicInteger started = new AtomicInteger();
+        final CountDownLatch polling = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        SearchCursorTest.FakeSearch blocking = new SearchCursorTest.FakeSearch() {
+            public QueryResult search(Query query) throws TwitterException {
+                started.incrementAndGet();
+                polling.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ie) {
+                    throw new TwitterException(ie);
+                }
+                List<Tweet> tweets = new ArrayList<Tweet>();
+                tweets.add(tweet(nextId.getAndIncrement()));
+                QueryResultJSONImpl result = new QueryResultJSONImpl();
+                result.setTweets(tweets);
+                return result;
+            }
+        };
+        final CountDownLatch done = new CountDownLatch(1);
+        scheduler = new SearchScheduler(blocking, dispatcher, Integer.MAX_VALUE, 20, 20);
+        Query hot = new Query("hot");
+        scheduler.add(hot, new SearchListener() {
+            public void onTweets(Query query, List<Tweet> tweets) {
+                done.countDown();
+            }
+
+            public void onException(Query query, TwitterException te) {
+                fail(te.getMessage());
+            }
+        });
+        try {
+            scheduler.add(new Query("hot"), listener);
+            fail("expecting IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+        assertTrue(polling.await(5, TimeUnit.SECONDS));
+        assertTrue(scheduler.remove(hot));
+        assertFalse(scheduler.remove(hot));
+        release.countDown();
+        // the poll in progress still delivers its tweets
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        // and no other poll starts, though the query would be due every 20 milliseconds
+        Thread.sleep(200);
+        assertEquals(1, started.get());
+        try {
+            scheduler.getInterval(hot);
+            fail("expecting IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    private static abstract class Check {
+        abstract boolean holds();
+    }
+
+    /**
+     * waits up to 5 seconds for the check to hold
+     */
+    private static void waitFor(Check check) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!check.holds() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
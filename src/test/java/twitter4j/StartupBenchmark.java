@@ -0,0 +1,186 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j;
+
+import twitter4j.conf.Configuration;
+import twitter4j.conf.ConfigurationBuilder;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures the time to the first request of a freshly started JVM, as short-lived command line jobs experience it.
+ * Each run starts a new JVM which calls getTrends() on a Twitter instance pointed at a local stub server,
+ * configured either with system properties or with ConfigurationBuilder. A verbose ConfigurationBuilder run, which also creates a TwitterStream,
+ * checks that the default configuration, and with it the twitter4j.properties lookup, is never loaded.
+ * Run with: java twitter4j.StartupBenchmark [runs]
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ */
+public class StartupBenchmark {
+    private static final String TRENDS = "{\"as_of\":\"1254355200\",\"trends\":[{\"name\":\"twitter4j\",\"url\":\"http://search.twitter.com/search?q=twitter4j\"}]}";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && "child".equals(args[0])) {
+            child(args);
+            return;
+        }
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        final ServerSocket server = new ServerSocket(0);
+        Thread stub = new Thread(new Runnable() {
+            public void run() {
+                serve(server);
+            }
+        });
+        stub.setDaemon(true);
+        stub.start();
+
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        String port = String.valueOf(server.getLocalPort());
+        // the built configuration must not load the default one, which probes twitter4j.properties
+        for (String loaded : start(java, port, "stream", true)) {
+            if (loaded.contains("PropertyConfiguration") || loaded.contains("Configuration$DefaultConfiguration")) {
+                throw new AssertionError("ConfigurationBuilder run loaded the default configuration: " + loaded);
+            }
+        }
+        System.out.println("ConfigurationBuilder run didn't load the default configuration");
+        for (String mode : new String[]{"default", "builder"}) {
+            long[] sinceJvmStart = new long[runs];
+            long[] sinceMain = new long[runs];
+            long[] process = new long[runs];
+            for (int i = 0; i < runs; i++) {
+                long before = System.nanoTime();
+                List<String> output = start(java, port, mode, false);
+                process[i] = (System.nanoTime() - before) / 1000000;
+                String[] split = output.get(output.size() - 1).split(" ");
+                sinceJvmStart[i] = Long.parseLong(split[1]);
+                sinceMain[i] = Long.parseLong(split[2]);
+            }
+            report(mode + ": first request since JVM start", sinceJvmStart);
+            report(mode + ": first request since main()", sinceMain);
+            report(mode + ": whole process", process);
+        }
+        server.close();
+    }
+
+    /**
+     * Runs a child JVM to completion.
+     *
+     * @return the classes loaded by the child when verbose, followed by its result line
+     */
+    private static List<String> start(String java, String port, String mode, boolean verbose) throws Exception {
+        List<String> command = new ArrayList<String>();
+        command.add(java);
+        if (verbose) {
+            command.add("-verbose:class");
+        }
+        command.addAll(Arrays.asList("-cp", System.getProperty("java.class.path")
+                , "-Dtwitter4j.searchBaseURL=http://127.0.0.1:" + port + "/"
+                , "-Dtwitter4j.http.useSSL=false"
+                , StartupBenchmark.class.getName(), "child", mode, port));
+        Process child = new ProcessBuilder(command).redirectErrorStream(true).start();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(child.getInputStream(), "UTF-8"));
+        List<String> output = new ArrayList<String>();
+        String result = null;
+        String line;
+        while (null != (line = reader.readLine())) {
+            if (line.startsWith("result ")) {
+                result = line;
+            } else if (line.contains("twitter4j.")) {
+                output.add(line);
+            } else if (!verbose) {
+                System.out.println(line);
+            }
+        }
+        if (0 != child.waitFor() || null == result) {
+            throw new AssertionError(mode + " run failed");
+        }
+        output.add(result);
+        return output;
+    }
+
+    private static void child(String[] args) throws Exception {
+        long before = System.nanoTime();
+        Twitter twitter;
+        if ("builder".equals(args[1]) || "stream".equals(args[1])) {
+            twitter = new Twitter(new ConfigurationBuilder().setUseSSL(false)
+                    .setSearchBaseURL("http://127.0.0.1:" + args[2] + "/").build());
+        } else {
+            twitter = new Twitter();
+        }
+        Trends trends = twitter.getTrends();
+        long sinceMain = (System.nanoTime() - before) / 1000000;
+        if (!"twitter4j".equals(trends.getTrends()[0].getName())) {
+            throw new AssertionError();
+        }
+        long sinceJvmStart = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        if ("stream".equals(args[1])) {
+            Configuration conf = new ConfigurationBuilder().setUser("t4j").setPassword("password").setUseSSL(false)
+                    .setStreamBaseURL("http://127.0.0.1:" + args[2] + "/").build();
+            new TwitterStream(conf);
+            TwitterStream.getHandlerExecutor(conf.getAsyncThreadStackSize());
+        }
+        System.out.println("result " + sinceJvmStart + " " + sinceMain);
+        System.exit(0);
+    }
+
+    private static void report(String label, long[] millis) {
+        Arrays.sort(millis);
+        System.out.println(label + ": min " + millis[0] + " ms, median " + millis[millis.length / 2]
+                + " ms, max " + millis[millis.length - 1] + " ms");
+    }
+
+    private static void serve(ServerSocket server) {
+        try {
+            while (true) {
+                Socket socket = server.accept();
+                BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), "UTF-8"));
+                String line;
+                while (null != (line = reader.readLine()) && line.length() > 0) {
+                    // skip the request
+                }
+                byte[] body = TRENDS.getBytes("UTF-8");
+                OutputStream os = socket.getOutputStream();
+                os.write(("HTTP/1.1 200 OK\r\nContent-Type: application/json\r\nContent-Length: "
+                        + body.length + "\r\nConnection: close\r\n\r\n").getBytes("UTF-8"));
+                os.write(body);
+                os.flush();
+                socket.close();
+            }
+        } catch (Exception ignore) {
+            // closed
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j;
+
+import junit.framework.TestCase;
+import twitter4j.org.json.JSONObject;
+
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+
+public class StatusIndexTest extends TestCase {
+    public StatusIndexTest(String name) {
+        super(name);
+    }
+
+    private static final long HOUR = 60 * 60 * 1000;
+    private final long now = System.currentTimeMillis();
+
+    public void testTokenize() throws Exception {
+        assertEquals(Arrays.asList("rt", "@twitter4j", "#java", "java", "release", "http://twitter4j.org/en/", "is", "out")
+                , StatusIndex.tokenize("RT @Twitter4J: #Java release (http://twitter4j.org/en/), is out!"));
+        assertEquals(Arrays.asList("from:yusukey", "日本語"), StatusIndex.tokenize("from:yusukey 日本語"));
+        assertEquals(0, StatusIndex.tokenize("# @ ...").size());
+        assertEquals(0, StatusIndex.tokenize(null).size());
+    }
+
+    public void testSearch() throws Exception {
+        StatusIndex index = new StatusIndex();
+        assertTrue(index.add(tweet(1, "yusukey", "Twitter4J 2.1.0 released http://twitter4j.org/", now)));
+        assertTrue(index.add(tweet(2, "t4j", "@yusukey thanks for #Twitter4J", now)));
+        assertTrue(index.add(status(3, "t4j", "#java streaming with twitter4j", now)));
+        assertFalse(index.add(tweet(3, "t4j", "#java streaming with twitter4j", now)));
+        assertEquals(3, index.size());
+
+        assertIds(new long[]{3, 2, 1}, index.search("twitter4j", 10));
+        assertIds(new long[]{3, 2}, index.search("twitter4j", 2));
+        assertIds(new long[]{2}, index.search("#twitter4j", 10));
+        assertIds(new long[]{2}, index.search("@YUSUKEY", 10));
+        assertIds(new long[]{1}, index.search("from:yusukey", 10));
+        assertIds(new long[]{3, 2}, index.search("from:t4j twitter4j", 10));
+        assertIds(new long[]{3}, index.search("java streaming", 10));
+        assertIds(new long[]{1}, index.search("http://twitter4j.org/", 10));
+        assertIds(new long[0], index.search("java released", 10));
+        assertIds(new long[0], index.search("", 10));
+    }
+
+    public void testEviction() throws Exception {
+        StatusIndex index = new StatusIndex(HOUR, 2);
+        index.add(tweet(1, "t4j", "twitter4j", now - 2 * HOUR));
+        index.add(tweet(2, "t4j", "twitter4j", now - HOUR));
+        assertEquals(2, index.getSegmentCount());
+        index.add(tweet(3, "t4j", "twitter4j", now));
+        assertEquals(2, index.getSegmentCount());
+        assertIds(new long[]{3, 2}, index.search("twitter4j", 10));
+        // older than the segments kept
+        assertFalse(index.add(tweet(4, "t4j", "twitter4j", now - 3 * HOUR)));
+        assertEquals(2, index.size());
+    }
+
+    public void testConcurrentAdd() throws Exception {
+        final StatusIndex index = new StatusIndex();
+        final Tweet[][] tweets = new Tweet[4][500];
+        for (int i = 0; i < tweets.length; i++) {
+            for (int j = 0; j < tweets[i].length; j++) {
+                tweets[i][j] = tweet(i * 1000 + j, "t4j", "twitter4j #t" + i, now);
+            }
+        }
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(tweets.length);
+        for (int i = 0; i < tweets.length; i++) {
+            final Tweet[] batch = tweets[i];
+            new Thread() {
+                public void run() {
+                    try {
+                        start.await();
+                        for (Tweet tweet : batch) {
+                            index.add(tweet);
+                        }
+                    } catch (InterruptedException ignore) {
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }.start();
+        }
+        start.countDown();
+        while (done.getCount() > 0) {
+            // queries see a consistent view while statuses are added
+            long[] ids = index.search("twitter4j #t1", 2000);
+            for (int i = 1; i < ids.length; i++) {
+                assertTrue(ids[i - 1] > ids[i]);
+            }
+        }
+        assertEquals(2000, index.size());
+        assertEquals(2000, index.search("twitter4j", 5000).length);
+        assertEquals(500, index.search("#t1", 5000).length);
+    }
+
+    private void assertIds(long[] expected, long[] actual) {
+        assertEquals(Arrays.toString(expected), Arrays.toString(actual));
+    }
+
+    private static Tweet tweet(long id, String fromUser, String text, long createdAt) throws Exception {
+        return new TweetJSONImpl(new JSONObject().put("id", id).put("text", text).put("from_user", fromUser)
+                .put("from_user_id", 1).put("to_user_id", -1)
+                .put("created_at", new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss z", Locale.ENGLISH).format(new Date(createdAt))));
+    }
+
+    private static Status status(long id, String screenName, String text, long createdAt) throws Exception {
+        String date = new SimpleDateFormat("EEE MMM dd HH:mm:ss z yyyy", Locale.ENGLISH).format(new Date(createdAt));
+        return new StatusJSONImpl(new JSONObject().put("id", id).put("text", text).put("created_at", date)
+                .put("user", new JSONObject().put("id", 1).put("screen_name", screenName).put("created_at", date)
+                        .put("favourites_count", 0)));
+    }
+}
@@ -0,0 +1,154 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j;
+
+import junit.framework.TestCase;
+import twitter4j.org.json.JSONObject;
+
+import java.io.File;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ */
+public class StatusStoreTest extends TestCase {
+    private File dir;
+
+    public StatusStoreTest(String name) {
+        super(name);
+    }
+
+    protected void setUp() throws Exception {
+        super.setUp();
+        dir = new File(System.getProperty("java.io.tmpdir"), "t4j-statusstore-" + System.currentTimeMillis());
+    }
+
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        File[] files = dir.listFiles();
+        if (null != files) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    static Status createStatus(long id, long createdAt) throws Exception {
+        JSONObject json = new JSONObject();
+        json.put("id", id);
+        json.put("text", "status " + id);
+        json.put("source", "web");
+        json.put("created_at", new java.text.SimpleDateFormat("EEE MMM d HH:mm:ss Z yyyy"
+                , java.util.Locale.ENGLISH).format(new Date(createdAt)));
+        json.put("truncated", false);
+        json.put("favorited", false);
+        return new StatusJSONImpl(json);
+    }
+
+    public void testStoreAndQuery() throws Exception {
+        StatusStore store = new StatusStore(dir, 100, 1024 * 1024);
+        long base = 1262304000000L;
+        for (int i = 1; i <= 250; i++) {
+            assertTrue(store.store(createStatus(i, base + i * 1000L)));
+        }
+        assertFalse(store.store(createStatus(10, base)));
+        assertEquals(250, store.size());
+        assertEquals(2, store.getSegmentCount());
+
+        assertEquals("status 42", store.getStatus(42).getText());
+        assertEquals("status 240", store.getStatus(240).getText());
+        assertNull(store.getStatus(251));
+
+        List<Status> statuses = store.getStatuses(100, 110);
+        assertEquals(10, statuses.size());
+        assertEquals(110, statuses.get(0).getId());
+        assertEquals(101, statuses.get(9).getId());
+
+        statuses = store.getStatuses(new Date(base + 60 * 1000L), new Date(base + 70 * 1000L));
+        assertEquals(10, statuses.size());
+        assertEquals(69, statuses.get(0).getId());
+        store.close();
+
+        // reopen
+        store = new StatusStore(dir, 100, 1024 * 1024);
+        assertEquals(250, store.size());
+        assertEquals("status 245", store.getStatus(245).getText());
+        assertFalse(store.store(createStatus(245, base)));
+        store.close();
+    }
+
+    public void testDeletionAndCompaction() throws Exception {
+        StatusStore store = new StatusStore(dir, 10, 1024 * 1024);
+        long base = 1262304000000L;
+        for (int i = 1; i <= 30; i++) {
+            store.store(createStatus(i, base + i * 1000L));
+        }
+        store.delete(5);
+        store.delete(1000);
+        assertNull(store.getStatus(5));
+        assertFalse(store.contains(5));
+        assertEquals(29, store.getStatuses(-1, -1).size());
+        // deleted status arriving late should not be stored
+        assertFalse(store.store(createStatus(1000, base)));
+
+        store.compact();
+        assertEquals(1, store.getSegmentCount());
+        assertEquals(29, store.size());
+        assertEquals(29, store.getStatuses(-1, -1).size());
+        store.close();
+
+        store = new StatusStore(dir, 10, 1024 * 1024);
+        assertNull(store.getStatus(5));
+        assertFalse(store.store(createStatus(1000, base)));
+        assertEquals(30, store.getStatuses(-1, -1).get(0).getId());
+        store.close();
+    }
+
+    public void testDeletionSurvivesCompaction() throws Exception {
+        StatusStore store = new StatusStore(dir, 10, 1024 * 1024);
+        long base = 1262304000000L;
+        for (int i = 1; i <= 20; i++) {
+            store.store(createStatus(i, base + i * 1000L));
+        }
+        // the status is in an older segment than its tombstone
+        store.delete(5);
+        store.flush();
+        assertTrue(store.getSegmentCount() > 1);
+        store.compact();
+        assertEquals(1, store.getSegmentCount());
+        store.close();
+
+        store = new StatusStore(dir, 10, 1024 * 1024);
+        assertNull(store.getStatus(5));
+        assertFalse(store.contains(5));
+        assertFalse(store.store(createStatus(5, base + 5000L)));
+        assertEquals(19, store.getStatuses(-1, -1).size());
+        store.close();
+    }
+}
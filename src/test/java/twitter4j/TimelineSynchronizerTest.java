@@ -0,0 +1,166 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ */
+public class TimelineSynchronizerTest extends TestCase {
+    public TimelineSynchronizerTest(String name) {
+        super(name);
+    }
+
+    /**
+     * A timeline backed by a list, newest first.
+     */
+    class MockTimeline extends TimelineSynchronizer.Timeline {
+        List<Status> statuses = new ArrayList<Status>();
+        int calls = 0;
+
+        MockTimeline() {
+            super("test/home");
+        }
+
+        void post(int count) throws Exception {
+            long next = statuses.size() == 0 ? 1 : statuses.get(0).getId() + 1;
+            for (int i = 0; i < count; i++) {
+                statuses.add(0, StatusStoreTest.createStatus(next + i, System.currentTimeMillis()));
+            }
+        }
+
+        protected ResponseList<Status> getStatuses(Paging paging) throws TwitterException {
+            calls++;
+            ResponseList<Status> page = new ResponseList<Status>(paging.getCount());
+            for (Status status : statuses) {
+                if (-1 != paging.getMaxId() && status.getId() > paging.getMaxId()) {
+                    continue;
+                }
+                if (-1 != paging.getSinceId() && status.getId() <= paging.getSinceId()) {
+                    break;
+                }
+                page.add(status);
+                if (page.size() == paging.getCount()) {
+                    break;
+                }
+            }
+            return page;
+        }
+    }
+
+    public void testSync() throws Exception {
+        File file = new File(System.getProperty("java.io.tmpdir"), "t4j-cursors-" + System.currentTimeMillis());
+        TimelineSynchronizer.FileCursorStore store = new TimelineSynchronizer.FileCursorStore(file);
+        TimelineSynchronizer synchronizer = new TimelineSynchronizer(store, 20, 3);
+        MockTimeline timeline = new MockTimeline();
+        timeline.post(50);
+
+        // first sync fetches the latest page only
+        List<Status> statuses = synchronizer.sync(timeline);
+        assertEquals(20, statuses.size());
+        assertEquals(50, statuses.get(0).getId());
+        assertEquals(1, timeline.calls);
+
+        // nothing new: a single request overlapping the known status
+        timeline.calls = 0;
+        assertEquals(0, synchronizer.sync(timeline).size());
+        assertEquals(1, timeline.calls);
+
+        // fewer than a page
+        timeline.post(5);
+        timeline.calls = 0;
+        statuses = synchronizer.sync(timeline);
+        assertEquals(5, statuses.size());
+        assertEquals(55, statuses.get(0).getId());
+        assertEquals(51, statuses.get(4).getId());
+        assertEquals(1, timeline.calls);
+
+        // more than maxPagesPerSync pages: the remaining gap is filled on the next sync
+        timeline.post(70);
+        timeline.calls = 0;
+        statuses = synchronizer.sync(timeline);
+        assertEquals(3, timeline.calls);
+        assertEquals(60, statuses.size());
+        assertEquals(125, statuses.get(0).getId());
+        assertTrue(store.getCursor("test/home").hasGap());
+
+        timeline.calls = 0;
+        statuses = synchronizer.sync(timeline);
+        assertEquals(10, statuses.size());
+        assertEquals(65, statuses.get(0).getId());
+        assertEquals(56, statuses.get(9).getId());
+        assertFalse(store.getCursor("test/home").hasGap());
+        assertEquals(125, store.getCursor("test/home").getSinceId());
+        store.save();
+
+        TimelineSynchronizer.FileCursorStore reloaded = new TimelineSynchronizer.FileCursorStore(file);
+        assertEquals(store.getCursor("test/home"), reloaded.getCursor("test/home"));
+        file.delete();
+    }
+
+    public void testMultipleGaps() throws Exception {
+        File file = new File(System.getProperty("java.io.tmpdir"), "t4j-cursors-" + System.currentTimeMillis());
+        TimelineSynchronizer.FileCursorStore store = new TimelineSynchronizer.FileCursorStore(file);
+        TimelineSynchronizer synchronizer = new TimelineSynchronizer(store, 10, 2);
+        MockTimeline timeline = new MockTimeline();
+        timeline.post(10);
+        List<Status> statuses = new ArrayList<Status>(synchronizer.sync(timeline));
+
+        timeline.post(50);
+        statuses.addAll(synchronizer.sync(timeline));
+        timeline.post(50);
+        statuses.addAll(synchronizer.sync(timeline));
+        TimelineSynchronizer.Cursor cursor = store.getCursor("test/home");
+        // a new gap above the old one, with already returned statuses in between
+        assertEquals(2, cursor.getGapCount());
+        assertEquals(60, cursor.getGapSinceId(0));
+        assertEquals(90, cursor.getGapMaxId(0));
+        assertEquals(10, cursor.getGapSinceId(1));
+        assertEquals(40, cursor.getGapMaxId(1));
+        assertEquals(cursor, new TimelineSynchronizer.Cursor(110, new long[]{60, 90, 10, 40}));
+        store.save();
+        assertEquals(cursor, new TimelineSynchronizer.FileCursorStore(file).getCursor("test/home"));
+        file.delete();
+
+        while (store.getCursor("test/home").hasGap()) {
+            statuses.addAll(synchronizer.sync(timeline));
+        }
+        // every status is returned exactly once
+        Set<Long> ids = new HashSet<Long>();
+        for (Status status : statuses) {
+            assertTrue("returned twice:" + status.getId(), ids.add(status.getId()));
+        }
+        assertEquals(110, ids.size());
+    }
+}
@@ -0,0 +1,137 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j;
+
+import junit.framework.TestCase;
+import twitter4j.http.HttpClient;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TrendDetectorTest extends TestCase {
+    public TrendDetectorTest(String name) {
+        super(name);
+    }
+
+    private static final long BUCKET = 1000;
+
+    public void testCountMinSketch() throws Exception {
+        CountMinSketch sketch = new CountMinSketch(4, 1000);
+        for (int i = 0; i < 1000; i++) {
+            sketch.add("term" + i, i % 10);
+        }
+        for (int i = 0; i < 1000; i++) {
+            double estimate = sketch.estimate("term" + i);
+            // never underestimates, and is close with a sketch this wide
+            assertTrue(estimate >= i % 10);
+            assertTrue(estimate <= i % 10 + 20);
+        }
+        assertEquals(4500d, sketch.getTotal());
+        CountMinSketch other = new CountMinSketch(4, 1000);
+        other.add("term1", 2);
+        sketch.merge(other, 0.5);
+        sketch.scale(2);
+        assertTrue(sketch.estimate("term1") >= 4);
+        sketch.clear();
+        assertEquals(0d, sketch.estimate("term1"));
+    }
+
+    public void testBurst() throws Exception {
+        TrendDetector detector = new TrendDetector(BUCKET, 2, 10, 3, 5);
+        long now = 0;
+        for (int bucket = 0; bucket < 30; bucket++, now += BUCKET) {
+            for (int i = 0; i < 10; i++) {
+                detector.add("hello world #steady", now);
+            }
+        }
+        assertEquals(20d, detector.getCount("#steady", now - BUCKET), 0.5);
+        assertEquals(0, detector.getTrends(now).getTrends().length);
+
+        for (int i = 0; i < 20; i++) {
+            detector.add("hello world #steady", now);
+            detector.add("#Breaking news", now);
+        }
+        List<String> names = names(detector.getTrends(now));
+        assertEquals(3, names.size());
+        assertTrue(names.contains("#breaking"));
+        assertTrue(names.contains("breaking"));
+        assertTrue(names.contains("news"));
+        Trend trend = detector.getTrends(now).getTrends()[0];
+        assertEquals(trend.getName(), trend.getQuery());
+        assertTrue(trend.getUrl().endsWith("search?q=" + HttpClient.encode(trend.getName())));
+
+        // the burst leaves the window
+        now += 2 * BUCKET;
+        assertEquals(0d, detector.getCount("#breaking", now));
+        assertEquals(0, detector.getTrends(now).getTrends().length);
+    }
+
+    public void testSteadyStateExpectation() throws Exception {
+        TrendDetector detector = new TrendDetector(BUCKET, 5, 10, 3, 5);
+        long now = 0;
+        for (int bucket = 0; bucket < 200; bucket++, now += BUCKET) {
+            for (int i = 0; i < 10; i++) {
+                detector.add("#steady", now);
+            }
+        }
+        now -= BUCKET;
+        assertEquals(50d, detector.getCount("#steady", now), 0.5);
+        // the bias correction of the baseline has converged
+        assertEquals(50d, detector.expectedWindowCount("#steady"), 0.5);
+    }
+
+    public void testTopKBounded() throws Exception {
+        // the sketch overestimates rare terms by up to 2 * 20000 / 4096
+        TrendDetector detector = new TrendDetector(BUCKET, 2, 10, 3, 20);
+        for (int i = 0; i < 50; i++) {
+            detector.add("#top", 0);
+        }
+        for (int i = 0; i < 10000; i++) {
+            detector.add("term" + i, 0);
+        }
+        for (int i = 0; i < 40; i++) {
+            detector.add("#second @someone http://t.co/x", 0);
+        }
+        List<String> names = names(detector.getTopTerms(0));
+        assertEquals(10, names.size());
+        assertEquals("#top", names.get(0));
+        assertEquals("top", names.get(1));
+        assertEquals("#second", names.get(2));
+        // mentions and URLs are not counted
+        assertFalse(names.contains("@someone"));
+        // no baseline yet, everything frequent enough bursts
+        assertEquals(names.subList(0, 4), names(detector.getTrends(0)));
+    }
+
+    private static List<String> names(Trends trends) {
+        List<String> names = new ArrayList<String>();
+        for (Trend trend : trends.getTrends()) {
+            names.add(trend.getName());
+        }
+        return names;
+    }
+}
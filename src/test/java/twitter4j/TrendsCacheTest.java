@@ -0,0 +1,178 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TrendsCacheTest extends TestCase {
+    public TrendsCacheTest(String name) {
+        super(name);
+    }
+
+    private final AtomicInteger fetchCount = new AtomicInteger(0);
+    private volatile boolean failing = false;
+    private volatile CountDownLatch gate = new CountDownLatch(0);
+    private final Date past = new Date(1254355200000L);
+    private File directory;
+
+    private final SearchCursorTest.FakeSearch twitter = new SearchCursorTest.FakeSearch() {
+        public Trends getCurrentTrends(boolean excludeHashTags) {
+            return trends("current" + excludeHashTags);
+        }
+
+        public List<Trends> getDailyTrends(Date date, boolean excludeHashTags) {
+            List<Trends> list = new ArrayList<Trends>();
+            list.add(trends("daily" + date.getTime() + excludeHashTags));
+            return list;
+        }
+
+        public List<Trends> getWeeklyTrends(Date date, boolean excludeHashTags) {
+            List<Trends> list = new ArrayList<Trends>();
+            list.add(trends("weekly" + date.getTime() + excludeHashTags));
+            return list;
+        }
+
+        private Trends trends(String name) {
+            try {
+                gate.await();
+            } catch (InterruptedException ignore) {
+            }
+            fetchCount.incrementAndGet();
+            if (failing) {
+                throw new IllegalStateException("fail");
+            }
+            Date now = new Date();
+            return new TrendsJSONImpl(now, now, new Trend[]{new TrendJSONImpl(name, null, name)});
+        }
+    };
+
+    protected void setUp() throws Exception {
+        super.setUp();
+        directory = new File(System.getProperty("java.io.tmpdir"), "TrendsCacheTest" + System.nanoTime());
+    }
+
+    protected void tearDown() throws Exception {
+        File[] files = directory.listFiles();
+        if (null != files) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+        super.tearDown();
+    }
+
+    public void testHistoricalWindows() throws Exception {
+        TrendsCache cache = new TrendsCache(twitter, 1, null);
+        List<Trends> daily = cache.getDailyTrends(past, false);
+        Thread.sleep(10);
+        // past windows never expire
+        assertEquals(daily, cache.getDailyTrends(past, false));
+        assertEquals(1, fetchCount.get());
+        cache.getDailyTrends(past, true);
+        cache.getWeeklyTrends(past, true);
+        cache.getWeeklyTrends(past, true);
+        assertEquals(3, fetchCount.get());
+        assertEquals(2, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+        try {
+            daily.clear();
+            fail("expecting UnsupportedOperationException");
+        } catch (UnsupportedOperationException expected) {
+        }
+    }
+
+    public void testCurrentTrendsExpire() throws Exception {
+        TrendsCache cache = new TrendsCache(twitter, 100, null);
+        Trends current = cache.getCurrentTrends();
+        assertSame(current, cache.getCurrentTrends());
+        cache.getDailyTrends(new Date(), false);
+        cache.getDailyTrends(new Date(), false);
+        assertEquals(2, fetchCount.get());
+        Thread.sleep(150);
+        assertNotSame(current, cache.getCurrentTrends());
+        cache.getDailyTrends(new Date(), false);
+        assertEquals(4, fetchCount.get());
+    }
+
+    public void testPersistence() throws Exception {
+        TrendsCache cache = new TrendsCache(twitter, 100, directory);
+        List<Trends> weekly = cache.getWeeklyTrends(past, false);
+        cache.getCurrentTrends();
+        assertEquals(2, fetchCount.get());
+
+        cache = new TrendsCache(twitter, 100, directory);
+        assertEquals(weekly, cache.getWeeklyTrends(past, false));
+        assertEquals(2, fetchCount.get());
+        // current trends are not stored
+        cache.getCurrentTrends();
+        assertEquals(3, fetchCount.get());
+    }
+
+    public void testFailureNotCached() throws Exception {
+        TrendsCache cache = new TrendsCache(twitter);
+        failing = true;
+        try {
+            cache.getDailyTrends(past, false);
+            fail("expecting IllegalStateException");
+        } catch (IllegalStateException expected) {
+        }
+        failing = false;
+        assertEquals(1, cache.getDailyTrends(past, false).size());
+        assertEquals(2, fetchCount.get());
+    }
+
+    public void testSingleRequest() throws Exception {
+        final TrendsCache cache = new TrendsCache(twitter);
+        gate = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(5);
+        for (int i = 0; i < 5; i++) {
+            new Thread() {
+                public void run() {
+                    try {
+                        cache.getCurrentTrends();
+                    } catch (TwitterException ignore) {
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }.start();
+        }
+        Thread.sleep(100);
+        gate.countDown();
+        done.await();
+        assertEquals(1, fetchCount.get());
+        assertEquals(4, cache.getHitCount());
+    }
+}
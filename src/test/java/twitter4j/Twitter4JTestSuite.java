@@ -47,17 +47,38 @@ public class Twitter4JTestSuite extends TestCase {
         TestSuite suite = new TestSuite("Twitter4J Test Suite");
         suite.addTestSuite(ConfigurationTest.class);
         suite.addTestSuite(twitter4j.http.BASE64EncoderTest.class);
+        suite.addTestSuite(twitter4j.http.FeedHandlerTest.class);
         suite.addTestSuite(twitter4j.http.HTMLEntityTest.class);
+        suite.addTestSuite(twitter4j.http.MultipartEncoderTest.class);
         suite.addTestSuite(twitter4j.http.HttpClientTest.class);
         suite.addTestSuite(twitter4j.http.OAuthTest.class);
+        suite.addTestSuite(twitter4j.http.OAuthSignerTest.class);
         suite.addTestSuite(twitter4j.http.PostParameterTest.class);
+        suite.addTestSuite(twitter4j.http.RequestCoalescingTest.class);
+        suite.addTestSuite(twitter4j.examples.FeedStateStoreTest.class);
+        suite.addTestSuite(twitter4j.examples.HostLimiterTest.class);
 
         suite.addTestSuite(AsyncTwitterTest.class);
+        suite.addTestSuite(BatchExecutorTest.class);
+        suite.addTestSuite(CSVExporterTest.class);
         suite.addTestSuite(DAOTest.class);
         suite.addTestSuite(DispatcherTest.class);
+        suite.addTestSuite(FutureTwitterTest.class);
+        suite.addTestSuite(MetricsTest.class);
         suite.addTestSuite(PagingTest.class);
         suite.addTestSuite(SearchAPITest.class);
+        suite.addTestSuite(StatusStoreTest.class);
         suite.addTestSuite(StreamAPITest.class);
+        suite.addTestSuite(TimelineSynchronizerTest.class);
+        suite.addTestSuite(TwitterClientPoolTest.class);
+        suite.addTestSuite(UserCacheTest.class);
+        suite.addTestSuite(UserHydratorTest.class);
+        suite.addTestSuite(SearchCursorTest.class);
+        suite.addTestSuite(SearchSchedulerTest.class);
+        suite.addTestSuite(StatusIndexTest.class);
+        suite.addTestSuite(TrendDetectorTest.class);
+        suite.addTestSuite(TrendsCacheTest.class);
+        suite.addTestSuite(TwitterConfigurationTest.class);
         suite.addTestSuite(TwitterBasicAuthTest.class);
         return suite;
     }
@@ -0,0 +1,119 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j;
+
+import junit.framework.TestCase;
+import twitter4j.conf.Configuration;
+import twitter4j.conf.ConfigurationBuilder;
+import twitter4j.http.AccessToken;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+/**
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ */
+public class TwitterClientPoolTest extends TestCase {
+    public TwitterClientPoolTest(String name) {
+        super(name);
+    }
+
+    public void testGetInstance() throws Exception {
+        TwitterClientPool pool = new TwitterClientPool("ck", "cs");
+        AccessToken alice = new AccessToken("1-alice", "as");
+        AccessToken bob = new AccessToken("2-bob", "bs");
+        Twitter twitter1 = pool.getInstance(alice);
+        Twitter twitter2 = pool.getInstance(bob);
+        AsyncTwitter async = pool.getAsyncInstance(alice);
+        assertSame(twitter1.http, twitter2.http);
+        assertSame(twitter1.http, async.http);
+        assertTrue(twitter1.auth.isAuthenticationEnabled());
+        assertEquals(twitter1.auth, pool.getInstance(alice).auth);
+        assertEquals(twitter1.auth.hashCode(), pool.getInstance(alice).auth.hashCode());
+        assertFalse(twitter1.auth.equals(twitter2.auth));
+        assertFalse(twitter1.auth.equals(new TwitterClientPool("ck", "cs").getInstance(alice).auth));
+
+        HeaderCapture con = new HeaderCapture();
+        twitter1.auth.setAuthorizationHeader("GET", "http://api.twitter.com/1/statuses/home_timeline.json", null, con);
+        assertTrue(con.authorization, con.authorization.startsWith("OAuth oauth_consumer_key=\"ck\",oauth_signature_method=\"HMAC-SHA1\""));
+        assertTrue(con.authorization, con.authorization.contains(",oauth_token=\"1-alice\",oauth_signature=\""));
+
+        assertNull(pool.getRateLimitStatus(alice));
+        assertFalse(pool.isRateLimited(alice));
+        trySerializable(twitter1);
+    }
+
+    public void testConfiguration() throws Exception {
+        Configuration conf = new ConfigurationBuilder().setOAuthConsumerKey("ck").setOAuthConsumerSecret("cs")
+                .setUseSSL(false).build();
+        TwitterClientPool pool = new TwitterClientPool(conf);
+        AccessToken alice = new AccessToken("1-alice", "as");
+        Twitter twitter = pool.getInstance(alice);
+        assertSame(conf, twitter.getConfiguration());
+        assertSame(conf, pool.getAsyncInstance(alice).getConfiguration());
+        // instances share the disabled cache instead of allocating one each
+        assertFalse(twitter.getUserCache().isEnabled());
+        assertSame(twitter.getUserCache(), pool.getInstance(alice).getUserCache());
+
+        conf = new ConfigurationBuilder().setUserCacheMaxSize(100).build();
+        twitter = new TwitterClientPool(conf, "ck", "cs").getInstance(alice);
+        assertSame(conf, twitter.getConfiguration());
+        assertTrue(twitter.getUserCache().isEnabled());
+    }
+
+    private void trySerializable(Object obj) throws IOException {
+        ObjectOutputStream oos = new ObjectOutputStream(new ByteArrayOutputStream());
+        oos.writeObject(obj);
+    }
+
+    static class HeaderCapture extends HttpURLConnection {
+        String authorization;
+
+        HeaderCapture() throws Exception {
+            super(new URL("http://example.com/"));
+        }
+
+        public void addRequestProperty(String key, String value) {
+            if ("Authorization".equals(key)) {
+                authorization = value;
+            }
+        }
+
+        public void disconnect() {
+        }
+
+        public boolean usingProxy() {
+            return false;
+        }
+
+        public void connect() {
+        }
+    }
+}
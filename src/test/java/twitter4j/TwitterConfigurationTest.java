@@ -0,0 +1,185 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j;
+
+import junit.framework.TestCase;
+import twitter4j.conf.Configuration;
+import twitter4j.conf.ConfigurationBuilder;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStreamReader;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Runs differently configured instances against local stub servers.
+ */
+public class TwitterConfigurationTest extends TestCase {
+    public TwitterConfigurationTest(String name) {
+        super(name);
+    }
+
+    private static final String TRENDS = "{\"as_of\":\"1254355200\",\"trends\":[{\"name\":\"twitter4j\",\"url\":\"http://search.twitter.com/search?q=twitter4j\"}]}";
+    private Stub stub1;
+    private Stub stub2;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+        stub1 = new Stub();
+        stub2 = new Stub();
+    }
+
+    protected void tearDown() throws Exception {
+        stub1.close();
+        stub2.close();
+        super.tearDown();
+    }
+
+    private Configuration configure(Stub stub, String userAgent, int retryCount) {
+        return new ConfigurationBuilder(Configuration.getInstance())
+                .setUser(null)
+                .setPassword(null)
+                .setOAuthConsumerKey(null)
+                .setOAuthConsumerSecret(null)
+                .setUseSSL(false)
+                .setSearchBaseURL("http://127.0.0.1:" + stub.getPort() + "/")
+                .setUserAgent(userAgent)
+                .setHttpRetryCount(retryCount)
+                .setHttpRetryIntervalSecs(0)
+                .build();
+    }
+
+    public void testSideBySide() throws Exception {
+        Twitter twitter1 = new Twitter(configure(stub1, "client1", 0));
+        Twitter twitter2 = TwitterFactory.getInstance(configure(stub2, "client2", 1));
+        stub1.respond("502 Bad Gateway", "{}");
+        stub2.respond("502 Bad Gateway", "{}");
+        stub2.respond("200 OK", TRENDS);
+
+        try {
+            twitter1.getTrends();
+            fail("expecting TwitterException");
+        } catch (TwitterException te) {
+            assertEquals(502, te.getStatusCode());
+        }
+        // retried once
+        assertEquals("twitter4j", twitter2.getTrends().getTrends()[0].getName());
+
+        assertEquals(Collections.singletonList("GET /trends.json client1"), stub1.requests);
+        assertEquals(2, stub2.requests.size());
+        assertEquals("GET /trends.json client2", stub2.requests.get(1));
+        assertEquals(1, twitter1.getConfiguration().getHttpRetryCount() + twitter2.getConfiguration().getHttpRetryCount());
+    }
+
+    public void testSerialization() throws Exception {
+        Twitter twitter = new Twitter(configure(stub1, "serialized", 0));
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+        oos.writeObject(twitter);
+        oos.close();
+        Twitter deserialized = (Twitter) new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray())).readObject();
+        assertEquals(twitter.getConfiguration(), deserialized.getConfiguration());
+        stub1.respond("200 OK", TRENDS);
+        deserialized.getTrends();
+        assertEquals(Collections.singletonList("GET /trends.json serialized"), stub1.requests);
+    }
+
+    public void testStreamHandlerExecutor() throws Exception {
+        // streams share the executor of their stack size
+        assertSame(TwitterStream.getHandlerExecutor(0), TwitterStream.getHandlerExecutor(0));
+        assertNotSame(TwitterStream.getHandlerExecutor(0), TwitterStream.getHandlerExecutor(256 * 1024));
+    }
+
+    /**
+     * HTTP server answering queued responses, recording the request line and the User-Agent header.
+     */
+    private static class Stub extends Thread {
+        private final ServerSocket server;
+        private final LinkedList<String[]> responses = new LinkedList<String[]>();
+        final List<String> requests = Collections.synchronizedList(new ArrayList<String>());
+
+        Stub() throws Exception {
+            server = new ServerSocket(0);
+            setDaemon(true);
+            start();
+        }
+
+        int getPort() {
+            return server.getLocalPort();
+        }
+
+        void respond(String status, String body) {
+            synchronized (responses) {
+                responses.add(new String[]{status, body});
+            }
+        }
+
+        public void run() {
+            try {
+                while (true) {
+                    Socket socket = server.accept();
+                    BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), "UTF-8"));
+                    String requestLine = reader.readLine();
+                    String userAgent = null;
+                    String line;
+                    while (null != (line = reader.readLine()) && line.length() > 0) {
+                        if (line.toLowerCase().startsWith("user-agent:")) {
+                            userAgent = line.substring("user-agent:".length()).trim();
+                        }
+                    }
+                    requests.add(requestLine.substring(0, requestLine.lastIndexOf(' ')) + " " + userAgent);
+                    String[] response;
+                    synchronized (responses) {
+                        response = responses.removeFirst();
+                    }
+                    byte[] body = response[1].getBytes("UTF-8");
+                    OutputStream os = socket.getOutputStream();
+                    os.write(("HTTP/1.1 " + response[0] + "\r\nContent-Type: application/json\r\nContent-Length: "
+                            + body.length + "\r\nConnection: close\r\n\r\n").getBytes("UTF-8"));
+                    os.write(body);
+                    os.flush();
+                    socket.close();
+                }
+            } catch (Exception ignore) {
+            }
+        }
+
+        void close() throws Exception {
+            server.close();
+            join();
+        }
+    }
+}
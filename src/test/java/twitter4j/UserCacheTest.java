@@ -0,0 +1,159 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j;
+
+import junit.framework.TestCase;
+import twitter4j.conf.Configuration;
+import twitter4j.conf.ConfigurationBuilder;
+import twitter4j.org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ */
+public class UserCacheTest extends TestCase {
+    public UserCacheTest(String name) {
+        super(name);
+    }
+
+    static User createUser(int id, String screenName) throws Exception {
+        return new UserJSONImpl(userJSON(id, screenName));
+    }
+
+    private static JSONObject userJSON(int id, String screenName) throws Exception {
+        JSONObject json = new JSONObject();
+        json.put("id", id);
+        json.put("name", screenName);
+        json.put("screen_name", screenName);
+        json.put("created_at", "Thu Dec 24 18:30:56 +0000 2009");
+        json.put("favourites_count", 0);
+        return json;
+    }
+
+    public void testGet() throws Exception {
+        UserCache cache = new UserCache(100, 60 * 1000);
+        cache.put(createUser(1, "Twit4J"));
+        assertEquals(1, cache.get(1).getId());
+        assertEquals(1, cache.get("twit4j").getId());
+        assertEquals(1, cache.get("TWIT4J").getId());
+        assertNull(cache.get(2));
+        assertNull(cache.get("twit4j2"));
+        assertEquals(3, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+
+        // renamed
+        cache.put(createUser(1, "twit4jrenamed"));
+        assertNull(cache.get("twit4j"));
+        assertEquals(1, cache.get("twit4jrenamed").getId());
+
+        cache.remove(1);
+        assertNull(cache.get(1));
+        assertNull(cache.get("twit4jrenamed"));
+    }
+
+    public void testEviction() throws Exception {
+        UserCache cache = new UserCache(32, 60 * 1000);
+        for (int i = 0; i < 1000; i++) {
+            cache.put(createUser(i, "user" + i));
+        }
+        assertTrue(cache.size() <= 32);
+        assertEquals(1000 - cache.size(), cache.getEvictionCount());
+        assertNotNull(cache.get(999));
+        assertNull(cache.get("user0"));
+    }
+
+    public void testExpiration() throws Exception {
+        UserCache cache = new UserCache(10, 1);
+        cache.put(createUser(1, "twit4j"));
+        Thread.sleep(10);
+        assertNull(cache.get(1));
+        assertEquals(1, cache.getExpirationCount());
+    }
+
+    public void testDisabled() throws Exception {
+        UserCache cache = new UserCache(0, 1000);
+        assertFalse(cache.isEnabled());
+        cache.put(createUser(1, "twit4j"));
+        assertNull(cache.get(1));
+        assertEquals(0, cache.size());
+    }
+
+    public void testNewInstance() throws Exception {
+        UserCache cache = UserCache.newInstance(new ConfigurationBuilder()
+                .setUserCacheMaxSize(10).setUserCacheTTLSecs(60).build());
+        assertTrue(cache.isEnabled());
+        // invalid ttl falls back to a disabled cache
+        cache = UserCache.newInstance(new ConfigurationBuilder()
+                .setUserCacheMaxSize(10).setUserCacheTTLSecs(0).build());
+        assertFalse(cache.isEnabled());
+        cache = UserCache.newInstance(new ConfigurationBuilder()
+                .setUserCacheMaxSize(-1).build());
+        assertFalse(cache.isEnabled());
+    }
+
+    public void testPutEmbedded() throws Exception {
+        UserCache cache = new UserCache(100, 60 * 1000);
+        JSONObject retweeted = new JSONObject();
+        retweeted.put("created_at", "Thu Dec 24 18:30:56 +0000 2009");
+        retweeted.put("id", 10);
+        retweeted.put("user", userJSON(2, "author"));
+        JSONObject status = new JSONObject();
+        status.put("created_at", "Thu Dec 24 18:30:56 +0000 2009");
+        status.put("id", 11);
+        status.put("user", userJSON(1, "retweeter"));
+        status.put("retweeted_status", retweeted);
+        List<Status> statuses = new ArrayList<Status>();
+        statuses.add(new StatusJSONImpl(status));
+        cache.putEmbedded(statuses);
+        assertEquals(1, cache.get("retweeter").getId());
+        assertEquals(2, cache.get("author").getId());
+
+        JSONObject message = new JSONObject();
+        message.put("created_at", "Thu Dec 24 18:30:56 +0000 2009");
+        message.put("id", 12);
+        message.put("sender", userJSON(3, "sender"));
+        message.put("recipient", userJSON(4, "recipient"));
+        cache.putEmbedded(new DirectMessageJSONImpl(message));
+        assertEquals(3, cache.get("sender").getId());
+        assertEquals(4, cache.get("recipient").getId());
+        assertEquals(4, cache.size());
+    }
+
+    public void testScopedToInstance() throws Exception {
+        Configuration conf = new ConfigurationBuilder().setUserCacheMaxSize(10).build();
+        Twitter twitter1 = TwitterFactory.getInstance(conf);
+        Twitter twitter2 = TwitterFactory.getInstance(conf);
+        twitter1.getUserCache().put(createUser(1, "twit4j"));
+        assertNotNull(twitter1.getUserCache().get(1));
+        assertNull(twitter2.getUserCache().get(1));
+        // users parsed from responses are not shared through a global cache
+        createUser(2, "twit4j2");
+        assertNull(twitter1.getUserCache().get(2));
+    }
+}
@@ -0,0 +1,181 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ */
+public class UserHydratorTest extends TestCase {
+    public UserHydratorTest(String name) {
+        super(name);
+    }
+
+    private final List<Integer> fetched = Collections.synchronizedList(new ArrayList<Integer>());
+    private CountDownLatch gate;
+    private UserHydrator hydrator;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+        fetched.clear();
+        gate = new CountDownLatch(0);
+        hydrator = new UserHydrator(null, new UserCache(1000, 60 * 1000), 4, 10, 0) {
+            protected User fetchUser(int id) throws TwitterException {
+                try {
+                    gate.await();
+                } catch (InterruptedException ignore) {
+                }
+                fetched.add(id);
+                if (id < 0) {
+                    throw new TwitterException("not found", 404);
+                }
+                try {
+                    return UserCacheTest.createUser(id, "user" + id);
+                } catch (Exception e) {
+                    throw new TwitterException(e);
+                }
+            }
+        };
+    }
+
+    protected void tearDown() throws Exception {
+        hydrator.shutdown();
+        super.tearDown();
+    }
+
+    public void testHydrate() throws Exception {
+        int[] ids = new int[95];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i + 1;
+        }
+        Collector collector = new Collector();
+        hydrator.hydrate(ids, collector);
+        collector.await();
+        assertEquals(95, collector.users.size());
+        assertEquals(95, fetched.size());
+        assertEquals(95, hydrator.getApiCallCount());
+
+        // second pass is served from the cache
+        collector = new Collector();
+        hydrator.hydrate(ids, collector);
+        collector.await();
+        assertEquals(95, collector.users.size());
+        assertEquals(95, fetched.size());
+    }
+
+    public void testCoalesce() throws Exception {
+        gate = new CountDownLatch(1);
+        Collector collector1 = new Collector();
+        Collector collector2 = new Collector();
+        hydrator.hydrate(new int[]{1, 2, 3}, collector1);
+        hydrator.hydrate(new int[]{2, 3, 4}, collector2);
+        gate.countDown();
+        collector1.await();
+        collector2.await();
+        assertEquals(3, collector1.users.size());
+        assertEquals(3, collector2.users.size());
+        assertEquals(4, new HashSet<Integer>(fetched).size());
+        assertEquals(4, fetched.size());
+        assertEquals(2, hydrator.getCoalescedCount());
+    }
+
+    public void testException() throws Exception {
+        Collector collector = new Collector();
+        hydrator.hydrate(new int[]{1, -1, 2}, collector);
+        collector.await();
+        assertEquals(2, collector.users.size());
+        assertEquals(1, collector.failed.size());
+        assertTrue(collector.failed.contains(-1));
+    }
+
+    public void testInterruptedWhileRateLimited() throws Exception {
+        hydrator.shutdown();
+        final List<Thread> workers = Collections.synchronizedList(new ArrayList<Thread>());
+        hydrator = new UserHydrator(null, new UserCache(1000, 60 * 1000), 1, 10, 0) {
+            protected User fetchUser(int id) throws TwitterException {
+                workers.add(Thread.currentThread());
+                fetched.add(id);
+                throw new TwitterException("Service Unavailable", 503);
+            }
+        };
+        final List<Boolean> interruptedFlags = Collections.synchronizedList(new ArrayList<Boolean>());
+        Collector collector = new Collector() {
+            public void onException(int id, TwitterException te) {
+                interruptedFlags.add(Thread.currentThread().isInterrupted());
+                super.onException(id, te);
+            }
+        };
+        hydrator.hydrate(new int[]{1, 2, 3}, collector);
+        while (workers.isEmpty()) {
+            Thread.sleep(10);
+        }
+        // the worker now waits for the rate limit to be reset
+        workers.get(0).interrupt();
+        collector.await();
+        assertEquals(3, collector.failed.size());
+        assertEquals(1, fetched.size());
+        assertFalse(interruptedFlags.contains(Boolean.FALSE));
+    }
+
+    public void testEmpty() throws Exception {
+        Collector collector = new Collector();
+        hydrator.hydrate(new int[0], collector);
+        collector.await();
+        assertEquals(0, collector.users.size());
+    }
+
+    class Collector implements UserHydrator.Listener {
+        final Set<Integer> users = Collections.synchronizedSet(new HashSet<Integer>());
+        final Set<Integer> failed = Collections.synchronizedSet(new HashSet<Integer>());
+        final CountDownLatch done = new CountDownLatch(1);
+
+        public void onUser(User user) {
+            users.add(user.getId());
+        }
+
+        public void onException(int id, TwitterException te) {
+            failed.add(id);
+        }
+
+        public void onComplete() {
+            done.countDown();
+        }
+
+        void await() throws InterruptedException {
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+        }
+    }
+}
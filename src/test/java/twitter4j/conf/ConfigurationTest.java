@@ -235,6 +235,48 @@ public class ConfigurationTest  extends TestCase {
         deleteFile("./twitter4j.properties");
         conf = new PropertyConfiguration();
     }
+
+    public void testBuilder() throws Exception {
+        Configuration base = Configuration.getInstance();
+        ConfigurationBuilder builder = new ConfigurationBuilder(base);
+        Configuration conf = builder.setHttpReadTimeout(1234)
+                .setAsyncNumThreads(3)
+                .setRestBaseURL("http://localhost:8080/1/")
+                .build();
+        assertEquals(1234, conf.getHttpReadTimeout());
+        assertEquals(3, conf.getAsyncNumThreads());
+        assertEquals(base.getHttpConnectionTimeout(), conf.getHttpConnectionTimeout());
+        assertEquals(base.getRequestHeaders(), conf.getRequestHeaders());
+        // follows useSSL
+        assertEquals(Configuration.fixURL(base.isUseSSL(), "http://localhost:8080/1/"), conf.getRestBaseURL());
+        assertFalse(base.equals(conf));
+        assertEquals(base, new ConfigurationBuilder(base).build());
+        try {
+            builder.setDebug(true);
+            fail("expecting IllegalStateException");
+        } catch (IllegalStateException expected) {
+        }
+        try {
+            builder.build();
+            fail("expecting IllegalStateException");
+        } catch (IllegalStateException expected) {
+        }
+
+        conf = new ConfigurationBuilder().setUseSSL(false).setUserAgent("stub").build();
+        assertEquals("http://api.twitter.com/1/", conf.getRestBaseURL());
+        assertEquals("http://twitter.com/oauth/request_token", conf.getOAuthRequestTokenURL());
+        assertEquals("stub", conf.getRequestHeaders().get("User-Agent"));
+        assertEquals(20000, conf.getHttpConnectionTimeout());
+    }
+
+    public void testEquals() throws Exception {
+        Configuration conf = new ConfigurationBuilder().setHttpStreamingReadTimeout(40000).build();
+        Configuration same = new ConfigurationBuilder().setHttpStreamingReadTimeout(40000).build();
+        assertEquals(conf, same);
+        assertEquals(conf.hashCode(), same.hashCode());
+        assertFalse(conf.equals(new ConfigurationBuilder().setHttpStreamingReadTimeout(60000).build()));
+    }
+
     private void writeFile(String path, String content) throws IOException {
         File file = new File(path);
         file.delete();
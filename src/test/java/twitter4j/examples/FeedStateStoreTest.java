@@ -0,0 +1,92 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j.examples;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.util.Date;
+
+/**
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ */
+public class FeedStateStoreTest extends TestCase {
+    private File file;
+
+    public FeedStateStoreTest(String name) {
+        super(name);
+    }
+
+    protected void setUp() throws Exception {
+        super.setUp();
+        file = new File(System.getProperty("java.io.tmpdir"), "t4j-feedstate-" + System.currentTimeMillis());
+    }
+
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        file.delete();
+        new File(file.getPath() + ".tmp").delete();
+    }
+
+    public void testUpdateAndSave() throws Exception {
+        String feed = "http://example.com/feed.rss";
+        FeedStateStore store = new FeedStateStore(file);
+        assertNull(store.getLastUpdate(feed));
+        assertNull(store.getETag(feed));
+
+        store.update(feed, "\"abc\"", "Thu, 24 Dec 2009 18:30:56 GMT", new Date(1000));
+        assertEquals("\"abc\"", store.getETag(feed));
+        assertEquals("Thu, 24 Dec 2009 18:30:56 GMT", store.getLastModified(feed));
+        assertEquals(new Date(1000), store.getLastUpdate(feed));
+        // not written until saved
+        assertFalse(file.exists());
+        store.save();
+        assertTrue(file.exists());
+
+        // validators missing from the latest response are removed
+        store.update(feed, null, null, new Date(2000));
+        store.save();
+
+        store = new FeedStateStore(file);
+        assertNull(store.getETag(feed));
+        assertNull(store.getLastModified(feed));
+        assertEquals(new Date(2000), store.getLastUpdate(feed));
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+    }
+
+    public void testSaveReplacesExistingFile() throws Exception {
+        FeedStateStore store = new FeedStateStore(file);
+        store.update("http://example.com/1", "1", null, new Date(1));
+        store.save();
+        store.update("http://example.com/2", "2", null, new Date(2));
+        store.save();
+
+        store = new FeedStateStore(file);
+        assertEquals("1", store.getETag("http://example.com/1"));
+        assertEquals("2", store.getETag("http://example.com/2"));
+    }
+}
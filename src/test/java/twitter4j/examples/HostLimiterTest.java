@@ -0,0 +1,102 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j.examples;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ */
+public class HostLimiterTest extends TestCase {
+    public HostLimiterTest(String name) {
+        super(name);
+    }
+
+    public void testLimit() throws Exception {
+        final List<Runnable> executed = new ArrayList<Runnable>();
+        HostLimiter host = new HostLimiter(2, new Executor() {
+            public void execute(Runnable command) {
+                executed.add(command);
+            }
+        });
+        Runnable task1 = new Task();
+        Runnable task2 = new Task();
+        Runnable task3 = new Task();
+        Runnable task4 = new Task();
+        assertTrue(host.acquire(task1));
+        assertTrue(host.acquire(task2));
+        assertFalse(host.acquire(task3));
+        assertFalse(host.acquire(task4));
+        assertEquals(2, host.getActiveCount());
+        assertEquals(2, host.getWaitingCount());
+
+        // the permit is handed over to the waiting tasks in order
+        host.release();
+        assertEquals(1, executed.size());
+        assertSame(task3, executed.get(0));
+        assertEquals(2, host.getActiveCount());
+        host.release();
+        assertSame(task4, executed.get(1));
+        assertEquals(2, host.getActiveCount());
+        assertEquals(0, host.getWaitingCount());
+
+        host.release();
+        host.release();
+        assertEquals(0, host.getActiveCount());
+        assertTrue(host.acquire(task1));
+    }
+
+    public void testReleaseAfterShutdown() throws Exception {
+        HostLimiter host = new HostLimiter(1, new Executor() {
+            public void execute(Runnable command) {
+                throw new RejectedExecutionException();
+            }
+        });
+        assertTrue(host.acquire(new Task()));
+        assertFalse(host.acquire(new Task()));
+        host.release();
+        assertEquals(0, host.getActiveCount());
+    }
+
+    public void testInvalidLimit() throws Exception {
+        try {
+            new HostLimiter(0, null);
+            fail("expecting IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    private static final class Task implements Runnable {
+        public void run() {
+        }
+    }
+}
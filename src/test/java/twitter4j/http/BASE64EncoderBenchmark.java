@@ -0,0 +1,133 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j.http;
+
+/**
+ * Compares the table driven BASE64Encoder against the former bit-by-bit implementation.
+ * Run with: java twitter4j.http.BASE64EncoderBenchmark [iterations]
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ */
+public class BASE64EncoderBenchmark {
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        // HMAC-SHA1 signature, Basic credentials and a small image
+        byte[][] inputs = new byte[][]{new byte[20], "twit4j:password".getBytes(), new byte[16 * 1024]};
+        new java.util.Random(0).nextBytes(inputs[0]);
+        new java.util.Random(1).nextBytes(inputs[2]);
+        for (int round = 0; round < 3; round++) {
+            for (byte[] input : inputs) {
+                int count = Math.max(iterations * 20 / input.length, 100);
+                long legacy = measureLegacy(input, count);
+                long encode = measureEncode(input, count);
+                long decode = measureDecode(BASE64Encoder.encode(input), count);
+                System.out.println("round " + round + ", " + input.length + " bytes: legacy " + (legacy / count)
+                        + " ns/op, encode " + (encode / count) + " ns/op, decode " + (decode / count) + " ns/op");
+            }
+        }
+    }
+
+    private static long measureEncode(byte[] input, int count) {
+        long before = System.nanoTime();
+        int sink = 0;
+        for (int i = 0; i < count; i++) {
+            sink += BASE64Encoder.encode(input).length();
+        }
+        return elapsed(before, sink);
+    }
+
+    private static long measureDecode(String input, int count) {
+        long before = System.nanoTime();
+        int sink = 0;
+        for (int i = 0; i < count; i++) {
+            sink += BASE64Encoder.decode(input).length;
+        }
+        return elapsed(before, sink);
+    }
+
+    private static long measureLegacy(byte[] input, int count) {
+        long before = System.nanoTime();
+        int sink = 0;
+        for (int i = 0; i < count; i++) {
+            sink += legacyEncode(input).length();
+        }
+        return elapsed(before, sink);
+    }
+
+    private static long elapsed(long before, int sink) {
+        long elapsed = System.nanoTime() - before;
+        if (sink == 42) {
+            System.out.println();
+        }
+        return elapsed;
+    }
+
+    private static final char[] encodeTable = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+
+    // the implementation BASE64Encoder replaced
+    private static String legacyEncode(byte[] from) {
+        StringBuffer to = new StringBuffer((int) (from.length * 1.34) + 3);
+        int num = 0;
+        char currentByte = 0;
+        for (int i = 0; i < from.length; i++) {
+            num = num % 8;
+            while (num < 8) {
+                switch (num) {
+                    case 0:
+                        currentByte = (char) (from[i] & 0xfc);
+                        currentByte = (char) (currentByte >>> 2);
+                        break;
+                    case 2:
+                        currentByte = (char) (from[i] & 0x3f);
+                        break;
+                    case 4:
+                        currentByte = (char) (from[i] & 0x0f);
+                        currentByte = (char) (currentByte << 2);
+                        if ((i + 1) < from.length) {
+                            currentByte |= (from[i + 1] & 0xc0) >>> 6;
+                        }
+                        break;
+                    case 6:
+                        currentByte = (char) (from[i] & 0x03);
+                        currentByte = (char) (currentByte << 4);
+                        if ((i + 1) < from.length) {
+                            currentByte |= (from[i + 1] & 0xf0) >>> 4;
+                        }
+                        break;
+                }
+                to.append(encodeTable[currentByte]);
+                num += 6;
+            }
+        }
+        if (to.length() % 4 != 0) {
+            for (int i = 4 - to.length() % 4; i > 0; i--) {
+                to.append("=");
+            }
+        }
+        return to.toString();
+    }
+}
@@ -44,4 +44,34 @@ public class BASE64EncoderTest extends TestCase {
         assertEquals("YXN1cmUu", BASE64Encoder.encode("asure.".getBytes()));
         assertEquals("c3VyZS4=", BASE64Encoder.encode("sure.".getBytes()));
     }
+
+    public void testDecode() {
+        assertEquals("ABCDEFG", new String(BASE64Encoder.decode("QUJDREVGRw==")));
+        assertEquals("ABCDEFG", new String(BASE64Encoder.decode("QUJDREVGRw")));
+        assertEquals("The quick brown fox jumped over the lazy dog.", new String(BASE64Encoder.decode("VGhlIHF1aWNrIGJyb3duIGZveCBqdW1wZWQgb3ZlciB0aGUgbGF6eSBkb2cu")));
+        assertEquals("leasure.", new String(BASE64Encoder.decode("bGVhc3VyZS4=")));
+        assertEquals("asure.", new String(BASE64Encoder.decode("YXN1cmUu")));
+        assertEquals(0, BASE64Encoder.decode("").length);
+        try {
+            BASE64Encoder.decode("QUJ$");
+            fail("expecting IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            BASE64Encoder.decode("QUJDR");
+            fail("expecting IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    public void testRoundTrip() {
+        java.util.Random random = new java.util.Random(0);
+        for (int length = 0; length < 100; length++) {
+            byte[] bytes = new byte[length];
+            random.nextBytes(bytes);
+            String encoded = BASE64Encoder.encode(bytes);
+            assertEquals(0, encoded.length() % 4);
+            assertTrue(java.util.Arrays.equals(bytes, BASE64Encoder.decode(encoded)));
+        }
+    }
 }
@@ -0,0 +1,215 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j.http;
+
+import junit.framework.TestCase;
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.DefaultHandler;
+import twitter4j.Metrics;
+import twitter4j.MetricsAdapter;
+import twitter4j.TwitterException;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+public class FeedHandlerTest extends TestCase {
+    public FeedHandlerTest(String name) {
+        super(name);
+    }
+
+    private static class Collector implements FeedEntryListener {
+        final List<FeedEntry> entries = new ArrayList<FeedEntry>();
+
+        public void onEntry(FeedEntry entry) {
+            entries.add(entry);
+        }
+    }
+
+    private static List<FeedEntry> parse(String xml) throws TwitterException {
+        Collector collector = new Collector();
+        new Response(xml).asFeedEntries(collector);
+        return collector.entries;
+    }
+
+    public void testRSS2() throws Exception {
+        List<FeedEntry> entries = parse("<?xml version=\"1.0\"?><rss version=\"2.0\"><channel>"
+                + "<title>channel</title><link>http://example.com/</link>"
+                + "<image><title>logo</title><link>http://example.com/logo</link></image>"
+                + "<item><title> first </title><link>http://example.com/1</link>"
+                + "<pubDate>Thu, 01 Oct 2009 00:00:00 GMT</pubDate></item>"
+                + "<item><title>second &amp; last</title><link>http://example.com/2</link>"
+                + "<pubDate>Thu, 01 Oct 2009 09:00:00 +0900</pubDate><guid>2</guid></item>"
+                + "</channel></rss>");
+        assertEquals(2, entries.size());
+        assertEquals(new FeedEntry("first", "http://example.com/1", new Date(1254355200000L)), entries.get(0));
+        assertEquals(new FeedEntry("second & last", "http://example.com/2", new Date(1254355200000L)), entries.get(1));
+    }
+
+    public void testRSS1() throws Exception {
+        List<FeedEntry> entries = parse("<?xml version=\"1.0\"?>"
+                + "<rdf:RDF xmlns:rdf=\"http://www.w3.org/1999/02/22-rdf-syntax-ns#\" xmlns=\"http://purl.org/rss/1.0/\""
+                + " xmlns:dc=\"http://purl.org/dc/elements/1.1/\">"
+                + "<channel rdf:about=\"http://example.com/\"><title>channel</title></channel>"
+                + "<item rdf:about=\"http://example.com/1\"><title>first</title><link>http://example.com/1</link>"
+                + "<dc:date>2009-10-01T09:00+09:00</dc:date></item>"
+                + "</rdf:RDF>");
+        assertEquals(1, entries.size());
+        assertEquals(new FeedEntry("first", "http://example.com/1", new Date(1254355200000L)), entries.get(0));
+    }
+
+    public void testAtom() throws Exception {
+        List<FeedEntry> entries = parse("<?xml version=\"1.0\" encoding=\"utf-8\"?>"
+                + "<feed xmlns=\"http://www.w3.org/2005/Atom\"><title>feed</title>"
+                + "<link href=\"http://example.com/\"/><updated>2009-10-02T00:00:00Z</updated>"
+                + "<entry><title type=\"xhtml\"><div xmlns=\"http://www.w3.org/1999/xhtml\">a <b>bold</b> title</div></title>"
+                + "<link rel=\"edit\" href=\"http://example.com/edit/1\"/><link href=\"http://example.com/1\"/>"
+                + "<author><name>yusuke</name></author>"
+                + "<published>2009-10-01T00:00:00.123Z</published><updated>2009-10-02T00:00:00Z</updated></entry>"
+                + "<entry><title>updated only</title><link rel=\"alternate\" href=\"http://example.com/2\"/>"
+                + "<updated>2009-10-01T02:00:00+02:00</updated></entry>"
+                + "<entry><title>no date</title><updated>yesterday</updated></entry>"
+                + "</feed>");
+        assertEquals(3, entries.size());
+        assertEquals(new FeedEntry("a bold title", "http://example.com/1", new Date(1254355200000L)), entries.get(0));
+        assertEquals(new FeedEntry("updated only", "http://example.com/2", new Date(1254355200000L)), entries.get(1));
+        assertEquals(new FeedEntry("no date", null, null), entries.get(2));
+    }
+
+    public void testMalformed() throws Exception {
+        try {
+            parse("<rss><channel><item><title>broken</item></channel></rss>");
+            fail("expecting TwitterException");
+        } catch (TwitterException expected) {
+        }
+    }
+
+    public void testStreaming() throws Exception {
+        final int items = 20000;
+        final ServerSocket server = new ServerSocket(0);
+        Thread stub = new Thread() {
+            public void run() {
+                try {
+                    Socket socket = server.accept();
+                    BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), "UTF-8"));
+                    String line;
+                    while (null != (line = reader.readLine()) && line.length() > 0) {
+                        // skip the request
+                    }
+                    OutputStream os = socket.getOutputStream();
+                    os.write(("HTTP/1.0 200 OK\r\nContent-Type: application/rss+xml\r\n\r\n"
+                            + "<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?><rss version=\"2.0\"><channel>")
+                            .getBytes("ISO-8859-1"));
+                    for (int i = 0; i < items; i++) {
+                        os.write(("<item><title>café " + i + "</title><link>http://example.com/" + i
+                                + "</link></item>").getBytes("ISO-8859-1"));
+                    }
+                    os.write("</channel></rss>".getBytes("ISO-8859-1"));
+                    os.flush();
+                    socket.close();
+                } catch (Exception ignore) {
+                }
+            }
+        };
+        stub.start();
+        try {
+            Response res = new HttpClient().get("http://127.0.0.1:" + server.getLocalPort() + "/feed");
+            final int[] count = new int[1];
+            final List<String> titles = new ArrayList<String>();
+            res.asFeedEntries(new FeedEntryListener() {
+                public void onEntry(FeedEntry entry) {
+                    if (count[0]++ % 10000 == 0) {
+                        titles.add(entry.getTitle());
+                    }
+                }
+            });
+            assertEquals(items, count[0]);
+            assertEquals("café 0", titles.get(0));
+            assertEquals("café 10000", titles.get(1));
+            try {
+                res.asStream();
+                fail("the stream should have been consumed");
+            } catch (IllegalStateException expected) {
+            }
+        } finally {
+            server.close();
+            stub.join();
+        }
+    }
+
+    public void testParseXML() throws Exception {
+        final StringBuffer names = new StringBuffer();
+        new Response("<a><b/><c>text</c></a>").parseXML(new DefaultHandler() {
+            @Override
+            public void startElement(String uri, String localName, String qName, Attributes attributes) {
+                names.append(localName);
+            }
+        });
+        assertEquals("abc", names.toString());
+    }
+
+    public void testParseXMLMetrics() throws Exception {
+        final List<String> formats = new ArrayList<String>();
+        Metrics.setCollector(new MetricsAdapter() {
+            public void responseParsed(String format, long parseNanos) {
+                formats.add(format);
+            }
+        });
+        try {
+            new Response("<a/>").parseXML(new DefaultHandler());
+        } finally {
+            Metrics.setCollector(null);
+        }
+        assertEquals("[xml]", formats.toString());
+    }
+
+    public void testExternalEntitiesAreNotResolved() throws Exception {
+        File secret = File.createTempFile("t4j-secret", ".txt");
+        try {
+            FileWriter writer = new FileWriter(secret);
+            writer.write("SECRET");
+            writer.close();
+            List<FeedEntry> entries = parse("<?xml version=\"1.0\"?>"
+                    + "<!DOCTYPE rss [<!ENTITY xxe SYSTEM \"" + secret.toURI() + "\">]>"
+                    + "<rss version=\"2.0\"><channel>"
+                    + "<item><title>title &xxe;</title><link>http://example.com/1</link>"
+                    + "<pubDate>Thu, 01 Oct 2009 00:00:00 GMT</pubDate></item>"
+                    + "</channel></rss>");
+            assertEquals(1, entries.size());
+            assertFalse(entries.get(0).getTitle().contains("SECRET"));
+        } finally {
+            secret.delete();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j.http;
+
+import junit.framework.TestCase;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ */
+public class MultipartEncoderTest extends TestCase {
+    public MultipartEncoderTest(String name) {
+        super(name);
+    }
+
+    private File file;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+        file = File.createTempFile("twitter4j", ".png");
+        byte[] content = new byte[200 * 1024];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        FileOutputStream fos = new FileOutputStream(file);
+        fos.write(content);
+        fos.close();
+    }
+
+    protected void tearDown() throws Exception {
+        file.delete();
+        super.tearDown();
+    }
+
+    public void testEncode() throws Exception {
+        PostParameter[] params = new PostParameter[]{new PostParameter("image", file)
+                , new PostParameter("tile", "true")};
+        MultipartEncoder encoder = new MultipartEncoder(params, "boundary");
+        assertEquals("multipart/form-data; boundary=boundary", encoder.getContentType());
+
+        final List<long[]> progress = new ArrayList<long[]>();
+        List<UploadProgressListener> listeners = new ArrayList<UploadProgressListener>();
+        listeners.add(new UploadProgressListener() {
+            public void uploadProgressed(HttpRequest request, long bytesWritten, long contentLength) {
+                progress.add(new long[]{bytesWritten, contentLength});
+            }
+        });
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        encoder.writeTo(out, null, listeners);
+        byte[] body = out.toByteArray();
+        assertEquals(encoder.getContentLength(), body.length);
+
+        String head = "--boundary\r\n"
+                + "Content-Disposition: form-data; name=\"image\"; filename=\"" + file.getName() + "\"\r\n"
+                + "Content-Type: image/png\r\n\r\n";
+        String tail = "\r\n--boundary\r\n"
+                + "Content-Disposition: form-data; name=\"tile\"\r\n"
+                + "Content-Type: text/plain; charset=UTF-8\r\n\r\n"
+                + "true\r\n"
+                + "--boundary--\r\n\r\n";
+        assertEquals(head.length() + 200 * 1024 + tail.length(), body.length);
+        assertEquals(head, new String(body, 0, head.length(), "UTF-8"));
+        assertEquals(tail, new String(body, body.length - tail.length(), tail.length(), "UTF-8"));
+        for (int i = 0; i < 200 * 1024; i++) {
+            if ((byte) i != body[head.length() + i]) {
+                fail("content mismatch at " + i);
+            }
+        }
+
+        // 4 chunks of the file and the completion
+        assertEquals(5, progress.size());
+        long last = 0;
+        for (long[] event : progress) {
+            assertTrue(event[0] > last);
+            assertEquals(body.length, event[1]);
+            last = event[0];
+        }
+        assertEquals(body.length, last);
+    }
+
+    public void testModifiedFile() throws Exception {
+        MultipartEncoder encoder = new MultipartEncoder(new PostParameter[]{new PostParameter("image", file)}, "boundary");
+        FileOutputStream fos = new FileOutputStream(file, true);
+        fos.write(new byte[10]);
+        fos.close();
+        try {
+            encoder.writeTo(new ByteArrayOutputStream(), null, null);
+            fail("expecting IOException");
+        } catch (java.io.IOException expected) {
+        }
+    }
+}
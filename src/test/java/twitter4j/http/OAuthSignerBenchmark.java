@@ -0,0 +1,151 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j.http;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compares OAuthSigner against the former per-request Mac.getInstance() / URLEncoder based implementation.
+ * Run with: java twitter4j.http.OAuthSignerBenchmark [iterations]
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ */
+public class OAuthSignerBenchmark {
+    private static final String URL = "http://api.twitter.com/1/statuses/home_timeline.json?count=200&since_id=12345";
+    private static final PostParameter[] PARAMS = new PostParameter[]{
+            new PostParameter("status", "Hello あ world! #twitter4j http://twitter4j.org/")};
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+        OAuthSigner signer = new OAuthSigner("dpf43f3p2l4k3l03", "kd94hf93k423kf44", "nnch734d00sl2jdk", "pfkkdhi9sl3r4s00");
+        for (int round = 0; round < 3; round++) {
+            // the first rounds warm up the JIT
+            long legacy = measureLegacy(iterations);
+            long pooled = measure(signer, iterations);
+            System.out.println("round " + round + ": legacy " + (legacy / iterations) + " ns/op, OAuthSigner " + (pooled / iterations) + " ns/op");
+        }
+    }
+
+    private static long measure(OAuthSigner signer, int iterations) {
+        long before = System.nanoTime();
+        int sink = 0;
+        for (int i = 0; i < iterations; i++) {
+            sink += signer.generateAuthorizationHeader("POST", URL, PARAMS, String.valueOf(i), "1191242096").length();
+        }
+        long elapsed = System.nanoTime() - before;
+        if (sink == 42) {
+            System.out.println();
+        }
+        return elapsed;
+    }
+
+    private static long measureLegacy(int iterations) throws Exception {
+        long before = System.nanoTime();
+        int sink = 0;
+        for (int i = 0; i < iterations; i++) {
+            sink += legacyHeader("POST", URL, PARAMS, String.valueOf(i), "1191242096").length();
+        }
+        long elapsed = System.nanoTime() - before;
+        if (sink == 42) {
+            System.out.println();
+        }
+        return elapsed;
+    }
+
+    // the implementation OAuthSigner replaced
+    private static String legacyHeader(String method, String url, PostParameter[] params, String nonce, String timestamp) throws Exception {
+        List<PostParameter> header = new ArrayList<PostParameter>(6);
+        header.add(new PostParameter("oauth_consumer_key", "dpf43f3p2l4k3l03"));
+        header.add(new PostParameter("oauth_signature_method", "HMAC-SHA1"));
+        header.add(new PostParameter("oauth_timestamp", timestamp));
+        header.add(new PostParameter("oauth_nonce", nonce));
+        header.add(new PostParameter("oauth_version", "1.0"));
+        header.add(new PostParameter("oauth_token", "nnch734d00sl2jdk"));
+        List<PostParameter> base = new ArrayList<PostParameter>(header);
+        for (PostParameter param : params) {
+            base.add(param);
+        }
+        String[] query = url.substring(url.indexOf('?') + 1).split("&");
+        for (String pair : query) {
+            String[] split = pair.split("=");
+            base.add(new PostParameter(split[0], split[1]));
+        }
+        Collections.sort(base);
+        String baseString = method + "&" + legacyEncode(OAuthAuthorization.constructRequestURL(url)) + "&"
+                + legacyEncode(legacyEncodeParameters(base, "&", false));
+        Mac mac = Mac.getInstance("HmacSHA1");
+        mac.init(new SecretKeySpec((legacyEncode("kd94hf93k423kf44") + "&" + legacyEncode("pfkkdhi9sl3r4s00")).getBytes(), "HmacSHA1"));
+        header.add(new PostParameter("oauth_signature", BASE64Encoder.encode(mac.doFinal(baseString.getBytes()))));
+        return "OAuth " + legacyEncodeParameters(header, ",", true);
+    }
+
+    private static String legacyEncodeParameters(List<PostParameter> postParams, String splitter, boolean quot) throws Exception {
+        StringBuffer buf = new StringBuffer();
+        for (PostParameter param : postParams) {
+            if (buf.length() != 0) {
+                if (quot) {
+                    buf.append("\"");
+                }
+                buf.append(splitter);
+            }
+            buf.append(legacyEncode(param.getName())).append("=");
+            if (quot) {
+                buf.append("\"");
+            }
+            buf.append(legacyEncode(param.getValue()));
+        }
+        if (quot && buf.length() != 0) {
+            buf.append("\"");
+        }
+        return buf.toString();
+    }
+
+    private static String legacyEncode(String value) throws Exception {
+        String encoded = URLEncoder.encode(value, "UTF-8");
+        StringBuffer buf = new StringBuffer(encoded.length());
+        for (int i = 0; i < encoded.length(); i++) {
+            char focus = encoded.charAt(i);
+            if (focus == '*') {
+                buf.append("%2A");
+            } else if (focus == '+') {
+                buf.append("%20");
+            } else if (focus == '%' && (i + 1) < encoded.length()
+                    && encoded.charAt(i + 1) == '7' && encoded.charAt(i + 2) == 'E') {
+                buf.append('~');
+                i += 2;
+            } else {
+                buf.append(focus);
+            }
+        }
+        return buf.toString();
+    }
+}
@@ -0,0 +1,109 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j.http;
+
+import junit.framework.TestCase;
+
+/**
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ */
+public class OAuthSignerTest extends TestCase {
+    public OAuthSignerTest(String name) {
+        super(name);
+    }
+
+    public void testEncode() throws Exception {
+        //http://wiki.oauth.net/TestCases
+        assertEquals("abcABC123", OAuthSigner.encode("abcABC123"));
+        assertEquals("-._~", OAuthSigner.encode("-._~"));
+        assertEquals("%25", OAuthSigner.encode("%"));
+        assertEquals("%2B", OAuthSigner.encode("+"));
+        assertEquals("%26%3D%2A", OAuthSigner.encode("&=*"));
+        assertEquals("%0A", OAuthSigner.encode("\n"));
+        assertEquals("%20", OAuthSigner.encode(" "));
+        assertEquals("%7F", OAuthSigner.encode("\u007F"));
+        assertEquals("%C2%80", OAuthSigner.encode("\u0080"));
+        assertEquals("%E3%80%81", OAuthSigner.encode("、"));
+        assertEquals("%F0%9D%84%9E", OAuthSigner.encode("𝄞"));
+        assertEquals("a%20b%E3%81%82c", OAuthSigner.encode("a bあc"));
+
+        StringBuilder buf = new StringBuilder("prefix:");
+        OAuthSigner.encode("x y", buf);
+        assertEquals("prefix:x%20y", buf.toString());
+    }
+
+    public void testSign() throws Exception {
+        //http://wiki.oauth.net/TestCases
+        String baseStr = "GET&http%3A%2F%2Fphotos.example.net%2Fphotos&file%3Dvacation.jpg%26oauth_consumer_key%3Ddpf43f3p2l4k3l03%26oauth_nonce%3Dkllo9940pd9333jh%26oauth_signature_method%3DHMAC-SHA1%26oauth_timestamp%3D1191242096%26oauth_token%3Dnnch734d00sl2jdk%26oauth_version%3D1.0%26size%3Doriginal";
+        OAuthSigner signer = new OAuthSigner("dpf43f3p2l4k3l03", "kd94hf93k423kf44", "nnch734d00sl2jdk", "pfkkdhi9sl3r4s00");
+        assertEquals("tR3+Ty81lMeYAr/Fid0kMTYa/WM=", signer.generateSignature(baseStr));
+        // pooled Mac is reset after each signature
+        assertEquals("tR3+Ty81lMeYAr/Fid0kMTYa/WM=", signer.generateSignature(baseStr));
+        assertEquals("egQqG5AJep5sJ7anhXju1unge2I=", OAuthSigner.sign("cs&", "bs"));
+        assertEquals("VZVjXceV7JgPq/dOTnNmEfO0Fv8=", OAuthSigner.sign("cs&ts", "bs"));
+        assertEquals("tR3+Ty81lMeYAr/Fid0kMTYa/WM=", signer.generateSignature(baseStr));
+
+        PostParameter[] params = new PostParameter[]{new PostParameter("size", "original")};
+        assertEquals(baseStr, signer.getSignatureBaseString("GET", "http://photos.example.net/photos?file=vacation.jpg", params
+                , "kllo9940pd9333jh", "1191242096"));
+    }
+
+    public void testHeader() throws Exception {
+        PostParameter[] params = new PostParameter[2];
+        params[0] = new PostParameter("file", "vacation.jpg");
+        params[1] = new PostParameter("size", "original");
+        OAuthSigner signer = new OAuthSigner("dpf43f3p2l4k3l03", "kd94hf93k423kf44", "nnch734d00sl2jdk", "pfkkdhi9sl3r4s00");
+        String expected = "OAuth oauth_consumer_key=\"dpf43f3p2l4k3l03\",oauth_signature_method=\"HMAC-SHA1\",oauth_timestamp=\"1191242096\",oauth_nonce=\"kllo9940pd9333jh\",oauth_version=\"1.0\",oauth_token=\"nnch734d00sl2jdk\",oauth_signature=\"tR3%2BTy81lMeYAr%2FFid0kMTYa%2FWM%3D\"";
+        assertEquals(expected, signer.generateAuthorizationHeader("GET", "http://photos.example.net/photos", params, "kllo9940pd9333jh", "1191242096"));
+
+        OAuthAuthorization oauth = new OAuthAuthorization("dpf43f3p2l4k3l03", "kd94hf93k423kf44");
+        assertEquals(expected, oauth.generateAuthorizationHeader("GET", "http://photos.example.net/photos", params, "kllo9940pd9333jh", "1191242096", new RequestToken("nnch734d00sl2jdk", "pfkkdhi9sl3r4s00")));
+    }
+
+    public void testConcurrentSigning() throws Exception {
+        final String expected = OAuthSigner.sign("cs&ts", "bs");
+        final boolean[] failed = new boolean[1];
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread() {
+                public void run() {
+                    for (int j = 0; j < 1000; j++) {
+                        if (!expected.equals(OAuthSigner.sign("cs&ts", "bs"))
+                                || !"egQqG5AJep5sJ7anhXju1unge2I=".equals(OAuthSigner.sign("cs&", "bs"))) {
+                            failed[0] = true;
+                        }
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertFalse(failed[0]);
+    }
+}
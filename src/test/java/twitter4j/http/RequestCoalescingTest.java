@@ -0,0 +1,270 @@
+/*
+Copyright (c) 2007-2009, Yusuke Yamamoto
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without
+modification, are permitted provided that the following conditions are met:
+    * Redistributions of source code must retain the above copyright
+      notice, this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright
+      notice, this list of conditions and the following disclaimer in the
+      documentation and/or other materials provided with the distribution.
+    * Neither the name of the Yusuke Yamamoto nor the
+      names of its contributors may be used to endorse or promote products
+      derived from this software without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY Yusuke Yamamoto ``AS IS'' AND ANY
+EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL Yusuke Yamamoto BE LIABLE FOR ANY
+DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package twitter4j.http;
+
+import junit.framework.TestCase;
+import twitter4j.TwitterException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ */
+public class RequestCoalescingTest extends TestCase {
+    public RequestCoalescingTest(String name) {
+        super(name);
+    }
+
+    private final AtomicInteger requestCount = new AtomicInteger(0);
+    private CountDownLatch gate;
+    private CountDownLatch requested;
+    private volatile boolean fail;
+    private volatile boolean aborted;
+    private HttpClient client;
+    private HttpRequestFactory factory;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+        gate = new CountDownLatch(1);
+        requested = new CountDownLatch(0);
+        fail = false;
+        factory = new HttpRequestFactory(null);
+        client = new HttpClient() {
+            public Response request(HttpRequest req) throws TwitterException {
+                requestCount.incrementAndGet();
+                requested.countDown();
+                try {
+                    gate.await();
+                } catch (InterruptedException ignore) {
+                }
+                aborted = AbortScope.isCurrentAborted();
+                if (fail) {
+                    throw new TwitterException("Not Found", 404);
+                }
+                return new Response("{\"url\":\"" + req.url + "\"}");
+            }
+        };
+    }
+
+    public void testCoalesce() throws Exception {
+        List<Requester> requesters = new ArrayList<Requester>();
+        for (int i = 0; i < 5; i++) {
+            requesters.add(new Requester(factory.createGetRequest("http://example.com/a.json", new BasicAuthorization("a", "b"))));
+        }
+        Requester other = new Requester(factory.createGetRequest("http://example.com/b.json", new BasicAuthorization("a", "b")));
+        Requester otherUser = new Requester(factory.createGetRequest("http://example.com/a.json", new BasicAuthorization("c", "d")));
+        requesters.add(other);
+        requesters.add(otherUser);
+        requested = new CountDownLatch(3);
+        for (Requester requester : requesters) {
+            requester.start();
+        }
+        waitForRequests();
+        waitForCoalesced(4);
+        gate.countDown();
+        for (Requester requester : requesters) {
+            requester.join();
+        }
+        assertEquals(3, requestCount.get());
+        assertEquals(4, client.getCoalescedRequestCount());
+        Response first = requesters.get(0).res;
+        for (int i = 0; i < 5; i++) {
+            assertSame(first, requesters.get(i).res);
+        }
+        assertEquals("http://example.com/a.json", first.asJSONObject().getString("url"));
+        // the shared body is parsed once
+        assertSame(first.asJSONObject(), requesters.get(1).res.asJSONObject());
+        assertEquals("http://example.com/b.json", other.res.asJSONObject().getString("url"));
+        assertNotSame(first, otherUser.res);
+
+        // completed requests are not shared
+        gate = new CountDownLatch(0);
+        Response res = client.requestCoalesced(factory.createGetRequest("http://example.com/a.json", new BasicAuthorization("a", "b")));
+        assertNotSame(first, res);
+        assertEquals(4, requestCount.get());
+    }
+
+    public void testException() throws Exception {
+        fail = true;
+        List<Requester> requesters = new ArrayList<Requester>();
+        for (int i = 0; i < 3; i++) {
+            requesters.add(new Requester(factory.createGetRequest("http://example.com/a.json")));
+        }
+        requested = new CountDownLatch(1);
+        requesters.get(0).start();
+        waitForRequests();
+        for (Requester requester : requesters.subList(1, requesters.size())) {
+            requester.start();
+        }
+        waitForCoalesced(2);
+        gate.countDown();
+        for (Requester requester : requesters) {
+            requester.join();
+            assertNull(requester.res);
+            assertEquals(404, requester.te.getStatusCode());
+        }
+        assertEquals(1, requestCount.get());
+    }
+
+    public void testPostIsNotCoalesced() throws Exception {
+        gate.countDown();
+        client.requestCoalesced(factory.createPostRequest("http://example.com/a.json"));
+        client.requestCoalesced(factory.createPostRequest("http://example.com/a.json"));
+        assertEquals(2, requestCount.get());
+        assertEquals(0, client.getCoalescedRequestCount());
+    }
+
+    public void testAbortedWaiterLeavesFlight() throws Exception {
+        AbortScope leaderScope = new AbortScope();
+        AbortScope waiterScope = new AbortScope();
+        Requester leader = new Requester(factory.createGetRequest("http://example.com/a.json"), leaderScope);
+        Requester waiter = new Requester(factory.createGetRequest("http://example.com/a.json"), waiterScope);
+        requested = new CountDownLatch(1);
+        leader.start();
+        waitForRequests();
+        waiter.start();
+        waitForCoalesced(1);
+        waiterScope.abort();
+        waiter.join(5000);
+        assertFalse(waiter.isAlive());
+        assertEquals("Request aborted.", waiter.te.getMessage());
+
+        // the leader is not affected
+        gate.countDown();
+        leader.join();
+        assertFalse(aborted);
+        assertNotNull(leader.res);
+    }
+
+    public void testAbortedLeaderKeepsSharedRequest() throws Exception {
+        AbortScope leaderScope = new AbortScope();
+        Requester leader = new Requester(factory.createGetRequest("http://example.com/a.json"), leaderScope);
+        Requester waiter = new Requester(factory.createGetRequest("http://example.com/a.json"));
+        requested = new CountDownLatch(1);
+        leader.start();
+        waitForRequests();
+        waiter.start();
+        waitForCoalesced(1);
+        leaderScope.abort();
+        gate.countDown();
+        leader.join();
+        waiter.join();
+        assertFalse(aborted);
+        assertSame(leader.res, waiter.res);
+    }
+
+    public void testRequestAbortedOnceAllParticipantsLeft() throws Exception {
+        AbortScope leaderScope = new AbortScope();
+        AbortScope waiterScope = new AbortScope();
+        Requester leader = new Requester(factory.createGetRequest("http://example.com/a.json"), leaderScope);
+        Requester waiter = new Requester(factory.createGetRequest("http://example.com/a.json"), waiterScope);
+        requested = new CountDownLatch(1);
+        leader.start();
+        waitForRequests();
+        waiter.start();
+        waitForCoalesced(1);
+        waiterScope.abort();
+        leaderScope.abort();
+        gate.countDown();
+        leader.join();
+        waiter.join();
+        assertTrue(aborted);
+    }
+
+    public void testInterruptedWaiterKeepsInterruptFlag() throws Exception {
+        requested = new CountDownLatch(1);
+        Requester leader = new Requester(factory.createGetRequest("http://example.com/a.json"));
+        leader.start();
+        waitForRequests();
+        final boolean[] interrupted = new boolean[1];
+        Requester waiter = new Requester(factory.createGetRequest("http://example.com/a.json")) {
+            public void run() {
+                super.run();
+                interrupted[0] = isInterrupted();
+            }
+        };
+        waiter.start();
+        waitForCoalesced(1);
+        waiter.interrupt();
+        waiter.join(5000);
+        assertNotNull(waiter.te);
+        assertTrue(interrupted[0]);
+        gate.countDown();
+        leader.join();
+    }
+
+    /**
+     * Waits until the given number of requests have joined an in-flight request. They are counted once they have joined.
+     */
+    private void waitForCoalesced(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (client.getCoalescedRequestCount() < count) {
+            assertTrue(System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private void waitForRequests() throws InterruptedException {
+        assertTrue(requested.await(5, TimeUnit.SECONDS));
+    }
+
+    class Requester extends Thread {
+        private final HttpRequest req;
+        Response res;
+        TwitterException te;
+
+        private final AbortScope scope;
+
+        Requester(HttpRequest req) {
+            this(req, null);
+        }
+
+        Requester(HttpRequest req, AbortScope scope) {
+            this.req = req;
+            this.scope = scope;
+        }
+
+        public void run() {
+            if (null != scope) {
+                scope.enter();
+            }
+            try {
+                res = client.requestCoalesced(req);
+            } catch (TwitterException te) {
+                this.te = te;
+            } finally {
+                if (null != scope) {
+                    scope.exit();
+                }
+            }
+        }
+    }
+}